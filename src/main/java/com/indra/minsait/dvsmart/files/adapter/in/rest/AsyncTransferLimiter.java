@@ -0,0 +1,86 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.files.adapter.in.rest;
+
+import com.indra.minsait.dvsmart.files.domain.exception.TransferCapacityExceededException;
+import com.indra.minsait.dvsmart.files.infrastructure.config.FilesConfigProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Caps the number of file transfers running asynchronously.
+ * <p>
+ * A slot is acquired on the request thread before any response header is
+ * written, so a rejected request still gets a clean 503. The slot is released
+ * when the async request completes, whatever the outcome (success, error,
+ * timeout or client disconnect).
+ * </p>
+ */
+/**
+ * @author Hector Huaranga <hahuaranga@indracompany.com>
+ * @class AsyncTransferLimiter
+ * @date 18-10-2026
+ */
+@Slf4j
+@Component
+public class AsyncTransferLimiter implements CallableProcessingInterceptor {
+
+    private static final String SLOT_ATTR = AsyncTransferLimiter.class.getName() + ".SLOT";
+
+    private final int maxConcurrent;
+    private final Semaphore slots;
+    private final Counter rejected;
+
+    public AsyncTransferLimiter(FilesConfigProperties config, MeterRegistry meterRegistry) {
+        this.maxConcurrent = config.getAsync().getMaxConcurrent();
+        this.slots = new Semaphore(maxConcurrent);
+        this.rejected = meterRegistry.counter("files.transfers.rejected");
+        Gauge.builder("files.transfers.active", slots, s -> maxConcurrent - s.availablePermits())
+                .register(meterRegistry);
+    }
+
+    /**
+     * Acquires a transfer slot for the current request.
+     *
+     * @param request current HTTP request
+     * @throws TransferCapacityExceededException if all slots are in use
+     */
+    public void acquire(HttpServletRequest request) {
+        if (!slots.tryAcquire()) {
+            rejected.increment();
+            log.warn("Transfer rejected, {} concurrent transfers in progress", maxConcurrent);
+            throw new TransferCapacityExceededException(maxConcurrent);
+        }
+        request.setAttribute(SLOT_ATTR, new AtomicBoolean());
+    }
+
+    @Override
+    public <T> void afterCompletion(NativeWebRequest request, Callable<T> task) {
+        Object slot = request.getAttribute(SLOT_ATTR, RequestAttributes.SCOPE_REQUEST);
+        if (slot instanceof AtomicBoolean released && released.compareAndSet(false, true)) {
+            slots.release();
+        }
+    }
+}
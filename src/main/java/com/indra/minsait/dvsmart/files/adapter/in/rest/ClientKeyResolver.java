@@ -0,0 +1,65 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.files.adapter.in.rest;
+
+import com.indra.minsait.dvsmart.files.domain.model.FileMetadata;
+import com.indra.minsait.dvsmart.files.infrastructure.config.FilesConfigProperties;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Identifies the client a request is served for, for fair share scheduling.
+ * <p>
+ * Depending on {@code files.fair-share.client-key} the client is the API key
+ * header, the file's codigoCliente or the remote IP. Requests without an API
+ * key or codigoCliente fall back to their IP, so anonymous traffic is still
+ * grouped per caller.
+ * </p>
+ */
+/**
+ * @author Hector Huaranga <hahuaranga@indracompany.com>
+ * @class ClientKeyResolver
+ * @date 18-10-2026
+ */
+@Component
+@RequiredArgsConstructor
+public class ClientKeyResolver {
+
+    private final FilesConfigProperties config;
+
+    /**
+     * Resolves the client of a request.
+     *
+     * @param request  current HTTP request
+     * @param metadata requested file, null if the request is not for a single file
+     * @return client key, or null if fair share scheduling is disabled
+     */
+    public String resolve(HttpServletRequest request, FileMetadata metadata) {
+        FilesConfigProperties.FairShareConfig fairShare = config.getFairShare();
+        if (!fairShare.isEnabled()) {
+            return null;
+        }
+        return switch (fairShare.getClientKey()) {
+            case API_KEY -> {
+                String apiKey = request.getHeader(fairShare.getApiKeyHeader());
+                yield apiKey != null && !apiKey.isBlank() ? apiKey.trim() : request.getRemoteAddr();
+            }
+            case CODIGO_CLIENTE -> metadata != null && metadata.getCodigoCliente() != null
+                    ? metadata.getCodigoCliente()
+                    : request.getRemoteAddr();
+            case IP -> request.getRemoteAddr();
+        };
+    }
+}
@@ -16,11 +16,15 @@ package com.indra.minsait.dvsmart.files.adapter.in.rest;
 
 import com.indra.minsait.dvsmart.files.adapter.in.rest.dto.*;
 import com.indra.minsait.dvsmart.files.adapter.in.rest.mapper.SearchCriteriaMapper;
+import com.indra.minsait.dvsmart.files.domain.model.ArchiveFormat;
 import com.indra.minsait.dvsmart.files.domain.model.FileMetadata;
 import com.indra.minsait.dvsmart.files.domain.model.PagedResult;
 import com.indra.minsait.dvsmart.files.domain.model.SearchCriteria;
 import com.indra.minsait.dvsmart.files.domain.port.in.*;
 import com.indra.minsait.dvsmart.files.infrastructure.config.FilesConfigProperties;
+import com.indra.minsait.dvsmart.files.infrastructure.fairshare.ClientContext;
+import com.indra.minsait.dvsmart.files.infrastructure.fairshare.FairShareScheduler;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Pattern;
@@ -31,7 +35,10 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.Callable;
 
 /**
  * REST Controller for file operations.
@@ -51,16 +58,25 @@ import java.io.IOException;
 @Validated
 public class FileController {
 
-    private static final String CONTENT_TYPE_PDF = "application/pdf";
+    private static final String DISPOSITION_ATTACHMENT = "attachment";
+    private static final String DISPOSITION_INLINE = "inline";
     private static final String ID_UNICO_PATTERN = "^[a-f0-9]{64}$";
+    private static final String ARCHIVE_FORMAT_PATTERN = "^(zip|tar)$";
+    private static final String PREVIEW_FORMAT_PATTERN = "^(?i)(png|jpeg)$";
 
     private final SearchFilesUseCase searchFilesUseCase;
     private final GetFileUseCase getFileUseCase;
     private final DownloadFileUseCase downloadFileUseCase;
     private final PreviewFileUseCase previewFileUseCase;
+    private final ExportFilesUseCase exportFilesUseCase;
     private final GetStatisticsUseCase getStatisticsUseCase;
     private final SearchCriteriaMapper criteriaMapper;
     private final FilesConfigProperties config;
+    private final FileResponseWriter fileResponseWriter;
+    private final HttpCacheSupport httpCacheSupport;
+    private final AsyncTransferLimiter asyncTransferLimiter;
+    private final ClientKeyResolver clientKeyResolver;
+    private final FairShareScheduler fairShareScheduler;
 
     // ==================== SEARCH ====================
 
@@ -93,87 +109,156 @@ public class FileController {
     // ==================== DOWNLOAD ====================
 
     @GetMapping("/{idUnico}/download")
-    public void downloadFile(
+    public StreamingResponseBody downloadFile(
             @PathVariable
             @Pattern(regexp = ID_UNICO_PATTERN, message = "Invalid idUnico format")
             String idUnico,
-            HttpServletResponse response) throws IOException {
-
-        log.info("Download request: {}", idUnico);
+            HttpServletRequest request,
+            HttpServletResponse response) {
 
-        // Set response headers before streaming
-        response.setContentType(CONTENT_TYPE_PDF);
+        log.info("Download request: {} (range: {})", idUnico, request.getHeader(HttpHeaders.RANGE));
 
-        // Stream file and get metadata
-        FileMetadata metadata = downloadFileUseCase.execute(idUnico, response.getOutputStream());
+        // Resolve metadata first so headers are set before streaming
+        FileMetadata metadata = downloadFileUseCase.resolve(idUnico);
 
-        // Set additional headers after we have metadata
-        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
-                "attachment; filename=\"" + metadata.getFileName() + "\"");
-        if (metadata.getFileSize() != null) {
-            response.setContentLengthLong(metadata.getFileSize());
+        StreamingResponseBody body = fileResponseWriter.prepare(metadata, DISPOSITION_ATTACHMENT, request, response);
+        if (body == null) {
+            return null;
         }
-        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
-
-        response.flushBuffer();
-        log.info("Download completed: {} ({} bytes)", metadata.getFileName(), metadata.getFileSize());
+        // The transfer runs on the async executor, the request thread is released here
+        return outputStream -> {
+            body.writeTo(outputStream);
+            log.info("Download completed: {} ({} bytes)", metadata.getFileName(), metadata.getFileSize());
+        };
     }
 
     // ==================== VIEW (INLINE) ====================
 
     @GetMapping("/{idUnico}/view")
-    public void viewFile(
+    public StreamingResponseBody viewFile(
             @PathVariable
             @Pattern(regexp = ID_UNICO_PATTERN, message = "Invalid idUnico format")
             String idUnico,
-            HttpServletResponse response) throws IOException {
-
-        log.info("View request: {}", idUnico);
+            HttpServletRequest request,
+            HttpServletResponse response) {
 
-        response.setContentType(CONTENT_TYPE_PDF);
+        log.info("View request: {} (range: {})", idUnico, request.getHeader(HttpHeaders.RANGE));
 
-        FileMetadata metadata = downloadFileUseCase.execute(idUnico, response.getOutputStream());
+        FileMetadata metadata = downloadFileUseCase.resolve(idUnico);
 
         // Use inline instead of attachment for browser viewing
-        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
-                "inline; filename=\"" + metadata.getFileName() + "\"");
-        if (metadata.getFileSize() != null) {
-            response.setContentLengthLong(metadata.getFileSize());
+        StreamingResponseBody body = fileResponseWriter.prepare(metadata, DISPOSITION_INLINE, request, response);
+        if (body == null) {
+            return null;
         }
-
-        response.flushBuffer();
-        log.info("View completed: {}", metadata.getFileName());
+        return outputStream -> {
+            body.writeTo(outputStream);
+            log.info("View completed: {}", metadata.getFileName());
+        };
     }
 
     // ==================== PREVIEW ====================
 
     @GetMapping("/{idUnico}/preview")
-    public ResponseEntity<byte[]> previewFile(
+    public Callable<ResponseEntity<byte[]>> previewFile(
             @PathVariable
             @Pattern(regexp = ID_UNICO_PATTERN, message = "Invalid idUnico format")
             String idUnico,
             @RequestParam(required = false) Integer width,
             @RequestParam(required = false) Integer height,
             @RequestParam(required = false, defaultValue = "1") Integer page,
-            @RequestParam(required = false) String format) {
+            @RequestParam(required = false)
+            @Pattern(regexp = PREVIEW_FORMAT_PATTERN, message = "Format must be 'png' or 'jpeg'")
+            String format,
+            HttpServletRequest request,
+            HttpServletResponse response) {
 
         log.info("Preview request: {}, page={}, size={}x{}, format={}",
                 idUnico, page, width, height, format);
 
         int w = width != null ? width : config.getPreview().getDefaultWidth();
         int h = height != null ? height : config.getPreview().getDefaultHeight();
-        String fmt = format != null ? format : config.getPreview().getDefaultFormat();
+        // Normalized to the type the renderer produces, so the validator and Content-Type match the image
+        String fmt = "png".equalsIgnoreCase(format != null ? format : config.getPreview().getDefaultFormat())
+                ? "png"
+                : "jpeg";
+
+        FileMetadata metadata = downloadFileUseCase.resolve(idUnico);
+
+        // Each rendering parameter set is a distinct representation with its own validator
+        String variant = "p" + page + "-" + w + "x" + h + "-" + fmt;
+        if (httpCacheSupport.checkNotModified(metadata, variant, request, response)) {
+            return null;
+        }
+
+        // Fetching and rendering run on the async executor
+        asyncTransferLimiter.acquire(request);
+        String client = clientKeyResolver.resolve(request, metadata);
+        return () -> {
+            byte[] imageBytes = ClientContext.callAs(client,
+                    () -> previewFileUseCase.execute(metadata, w, h, page, fmt));
+
+            MediaType mediaType = "jpeg".equals(fmt)
+                    ? MediaType.IMAGE_JPEG
+                    : MediaType.IMAGE_PNG;
+
+            return ResponseEntity.ok()
+                    .contentType(mediaType)
+                    .contentLength(imageBytes.length)
+                    .body(imageBytes);
+        };
+    }
+
+    // ==================== EXPORT ====================
+
+    @GetMapping("/export")
+    public void exportByCriteria(
+            @Valid FileSearchRequest request,
+            @RequestParam(defaultValue = "zip")
+            @Pattern(regexp = ARCHIVE_FORMAT_PATTERN, message = "Format must be 'zip' or 'tar'")
+            String format,
+            HttpServletRequest httpRequest,
+            HttpServletResponse response) throws IOException {
+
+        log.info("Export request: q={}, tipoDocumento={}, codigoCliente={}, anio={}, mes={}, format={}",
+                request.getQ(), request.getTipoDocumento(), request.getCodigoCliente(),
+                request.getAnio(), request.getMes(), format);
+
+        List<FileMetadata> files = exportFilesUseCase.resolve(criteriaMapper.toDomain(request));
+        writeArchive(files, format, httpRequest, response);
+    }
 
-        byte[] imageBytes = previewFileUseCase.execute(idUnico, w, h, page, fmt);
+    @PostMapping("/export")
+    public void exportByIds(
+            @Valid @RequestBody FileExportRequest request,
+            @RequestParam(defaultValue = "zip")
+            @Pattern(regexp = ARCHIVE_FORMAT_PATTERN, message = "Format must be 'zip' or 'tar'")
+            String format,
+            HttpServletRequest httpRequest,
+            HttpServletResponse response) throws IOException {
+
+        log.info("Export request: {} files, format={}", request.getIds().size(), format);
+
+        List<FileMetadata> files = exportFilesUseCase.resolve(request.getIds());
+        writeArchive(files, format, httpRequest, response);
+    }
 
-        MediaType mediaType = "jpeg".equalsIgnoreCase(fmt) 
-                ? MediaType.IMAGE_JPEG 
-                : MediaType.IMAGE_PNG;
+    private void writeArchive(List<FileMetadata> files, String format,
+                              HttpServletRequest request, HttpServletResponse response) throws IOException {
+        ArchiveFormat archiveFormat = ArchiveFormat.valueOf(format.toUpperCase());
+        String fileName = "dvsmart-export-" + System.currentTimeMillis() + "." + archiveFormat.getExtension();
 
-        return ResponseEntity.ok()
-                .contentType(mediaType)
-                .contentLength(imageBytes.length)
-                .body(imageBytes);
+        // Size is unknown up front: the archive is sent chunked as entries are fetched
+        response.setContentType(archiveFormat.getContentType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                DISPOSITION_ATTACHMENT + "; filename=\"" + fileName + "\"");
+
+        // An export spans many files, so the client is the caller, never a single codigoCliente
+        String client = clientKeyResolver.resolve(request, null);
+        ClientContext.runAs(client, () -> exportFilesUseCase.export(files, archiveFormat,
+                fairShareScheduler.shape(client, response.getOutputStream())));
+        response.flushBuffer();
+        log.info("Export completed: {} ({} files)", fileName, files.size());
     }
 
     // ==================== STATISTICS ====================
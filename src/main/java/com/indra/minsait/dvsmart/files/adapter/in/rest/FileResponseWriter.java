@@ -0,0 +1,316 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.files.adapter.in.rest;
+
+import com.indra.minsait.dvsmart.files.domain.exception.RangeNotSatisfiableException;
+import com.indra.minsait.dvsmart.files.domain.model.FileMetadata;
+import com.indra.minsait.dvsmart.files.domain.port.in.DownloadFileUseCase;
+import com.indra.minsait.dvsmart.files.infrastructure.fairshare.ClientContext;
+import com.indra.minsait.dvsmart.files.infrastructure.fairshare.FairShareScheduler;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Writes PDF content to HTTP responses.
+ * <p>
+ * Supports full responses, conditional requests (ETag / Last-Modified)
+ * and HTTP Range requests (single range, multipart/byteranges and
+ * If-Range), reading only the requested
+ * bytes from the SFTP destination. Files with a local copy are handed
+ * to Tomcat's sendfile support for zero-copy transfer; all other bodies
+ * are streamed off the request thread, with the client's bandwidth limit
+ * and SFTP scheduling weight applied when fair share is enabled.
+ * </p>
+ */
+/**
+ * @author Hector Huaranga <hahuaranga@indracompany.com>
+ * @class FileResponseWriter
+ * @date 18-10-2026
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class FileResponseWriter {
+
+    private static final String CONTENT_TYPE_PDF = "application/pdf";
+    private static final String CRLF = "\r\n";
+
+    // Tomcat sendfile request attributes (see org.apache.catalina.Globals)
+    private static final String SENDFILE_SUPPORTED_ATTR = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME_ATTR = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START_ATTR = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END_ATTR = "org.apache.tomcat.sendfile.end";
+
+    private final DownloadFileUseCase downloadFileUseCase;
+    private final HttpCacheSupport httpCacheSupport;
+    private final AsyncTransferLimiter asyncTransferLimiter;
+    private final ClientKeyResolver clientKeyResolver;
+    private final FairShareScheduler fairShareScheduler;
+
+    /**
+     * Prepares the response for a file, honoring conditional and Range headers if present.
+     * <p>
+     * Everything that can be decided from metadata (304, 416, headers, sendfile)
+     * happens on the calling thread. The SFTP transfer is returned as a body to
+     * be written asynchronously, after a transfer slot has been acquired.
+     * </p>
+     *
+     * @param metadata    resolved file metadata
+     * @param disposition content disposition type (attachment, inline)
+     * @param request     current HTTP request
+     * @param response    current HTTP response
+     * @return body that streams the content, or null if the response is already complete
+     */
+    public StreamingResponseBody prepare(FileMetadata metadata, String disposition,
+                                         HttpServletRequest request, HttpServletResponse response) {
+
+        // Preconditions are evaluated from metadata only, before any SFTP access
+        if (httpCacheSupport.checkNotModified(metadata, null, request, response)) {
+            return null;
+        }
+
+        // Resolve ranges before touching the response so a 416 can still be rendered
+        List<long[]> ranges = resolveRanges(metadata, request);
+
+        // Sendfile is served by the connector itself and needs no transfer slot,
+        // but it bypasses the response stream, so bandwidth-limited clients never use it
+        String client = clientKeyResolver.resolve(request, metadata);
+        Optional<Path> localCopy = ranges.size() <= 1 && metadata.getFileSize() != null
+                && !fairShareScheduler.isShaped(client)
+                ? findSendfileCopy(metadata, request)
+                : Optional.empty();
+        if (localCopy.isEmpty()) {
+            asyncTransferLimiter.acquire(request);
+        }
+
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                disposition + "; filename=\"" + metadata.getFileName() + "\"");
+        if (metadata.getFileSize() != null) {
+            response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        }
+
+        StreamingResponseBody body;
+        if (ranges.isEmpty()) {
+            body = prepareFull(metadata, localCopy, request, response);
+        } else if (ranges.size() == 1) {
+            body = prepareSingleRange(metadata, ranges.get(0), localCopy, request, response);
+        } else {
+            body = prepareMultipleRanges(metadata, ranges, response);
+        }
+        return schedule(client, body);
+    }
+
+    /**
+     * Runs the body as the given client: SFTP sessions are requested in the
+     * client's fair share queue and writes are paid to its bandwidth limit.
+     */
+    private StreamingResponseBody schedule(String client, StreamingResponseBody body) {
+        if (body == null || client == null) {
+            return body;
+        }
+        return outputStream -> ClientContext.runAs(client,
+                () -> body.writeTo(fairShareScheduler.shape(client, outputStream)));
+    }
+
+    private StreamingResponseBody prepareFull(FileMetadata metadata, Optional<Path> localCopy,
+                                              HttpServletRequest request, HttpServletResponse response) {
+        response.setContentType(CONTENT_TYPE_PDF);
+        if (metadata.getFileSize() != null) {
+            response.setContentLengthLong(metadata.getFileSize());
+        }
+        if (localCopy.isPresent()) {
+            sendfile(metadata, localCopy.get(), 0, metadata.getFileSize(), request);
+            return null;
+        }
+        return outputStream -> downloadFileUseCase.stream(metadata, outputStream);
+    }
+
+    private StreamingResponseBody prepareSingleRange(FileMetadata metadata, long[] range, Optional<Path> localCopy,
+                                                     HttpServletRequest request, HttpServletResponse response) {
+        long length = range[1] - range[0] + 1;
+        log.debug("Serving range {}-{} of file: {}", range[0], range[1], metadata.getIdUnico());
+
+        response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+        response.setContentType(CONTENT_TYPE_PDF);
+        response.setHeader(HttpHeaders.CONTENT_RANGE, contentRange(range, metadata.getFileSize()));
+        response.setContentLengthLong(length);
+
+        if (localCopy.isPresent()) {
+            sendfile(metadata, localCopy.get(), range[0], range[1] + 1, request);
+            return null;
+        }
+        return outputStream -> downloadFileUseCase.streamRange(metadata, range[0], length, outputStream);
+    }
+
+    /**
+     * Finds a local copy that Tomcat can send with sendfile for this request.
+     */
+    private Optional<Path> findSendfileCopy(FileMetadata metadata, HttpServletRequest request) {
+        if (!HttpMethod.GET.matches(request.getMethod())
+                || !Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED_ATTR))) {
+            return Optional.empty();
+        }
+        return downloadFileUseCase.findLocalCopy(metadata);
+    }
+
+    /**
+     * Delegates the body to Tomcat sendfile.
+     * Headers must be set before calling; the body must not be written afterwards.
+     *
+     * @param start first byte (inclusive)
+     * @param end   last byte (exclusive)
+     */
+    private void sendfile(FileMetadata metadata, Path localCopy, long start, long end, HttpServletRequest request) {
+        log.debug("Serving file {} with sendfile from {}", metadata.getIdUnico(), localCopy);
+        request.setAttribute(SENDFILE_FILENAME_ATTR, localCopy.toAbsolutePath().toString());
+        request.setAttribute(SENDFILE_START_ATTR, start);
+        request.setAttribute(SENDFILE_END_ATTR, end);
+    }
+
+    private StreamingResponseBody prepareMultipleRanges(FileMetadata metadata, List<long[]> ranges,
+                                                        HttpServletResponse response) {
+        String boundary = MimeTypeUtils.generateMultipartBoundaryString();
+        log.debug("Serving {} ranges of file: {}", ranges.size(), metadata.getIdUnico());
+
+        // Pre-render part headers so the total Content-Length is known up front
+        List<byte[]> partHeaders = new ArrayList<>(ranges.size());
+        long contentLength = 0;
+        for (long[] range : ranges) {
+            byte[] header = (CRLF + "--" + boundary + CRLF
+                    + HttpHeaders.CONTENT_TYPE + ": " + CONTENT_TYPE_PDF + CRLF
+                    + HttpHeaders.CONTENT_RANGE + ": " + contentRange(range, metadata.getFileSize()) + CRLF
+                    + CRLF).getBytes(StandardCharsets.US_ASCII);
+            partHeaders.add(header);
+            contentLength += header.length + (range[1] - range[0] + 1);
+        }
+        byte[] closing = (CRLF + "--" + boundary + "--" + CRLF).getBytes(StandardCharsets.US_ASCII);
+        contentLength += closing.length;
+
+        response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+        response.setContentType("multipart/byteranges; boundary=" + boundary);
+        response.setContentLengthLong(contentLength);
+
+        return outputStream -> {
+            for (int i = 0; i < ranges.size(); i++) {
+                long[] range = ranges.get(i);
+                outputStream.write(partHeaders.get(i));
+                downloadFileUseCase.streamRange(metadata, range[0], range[1] - range[0] + 1, outputStream);
+            }
+            outputStream.write(closing);
+        };
+    }
+
+    /**
+     * Resolves the Range header into inclusive [start, end] pairs.
+     * <p>
+     * Returns an empty list when the full file must be sent: no Range header,
+     * unknown file size, or an If-Range validator that no longer matches.
+     * Overlapping ranges are rejected, so a client cannot ask for the same
+     * bytes many times in one request.
+     * </p>
+     */
+    private List<long[]> resolveRanges(FileMetadata metadata, HttpServletRequest request) {
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        Long fileSize = metadata.getFileSize();
+        if (rangeHeader == null || fileSize == null || !isIfRangeSatisfied(metadata, request)) {
+            return List.of();
+        }
+
+        try {
+            List<HttpRange> httpRanges = HttpRange.parseRanges(rangeHeader);
+            List<long[]> ranges = new ArrayList<>(httpRanges.size());
+            long total = 0;
+            for (HttpRange httpRange : httpRanges) {
+                long start = httpRange.getRangeStart(fileSize);
+                long end = httpRange.getRangeEnd(fileSize);
+                // HttpRange clamps the end to the file but not the start
+                if (start >= fileSize) {
+                    throw new IllegalArgumentException("Range starts beyond the end of the file");
+                }
+                ranges.add(new long[] {start, end});
+                total += end - start + 1;
+            }
+            // Same protection as Spring's resource handling: reject range sets larger than the file
+            if (total > fileSize) {
+                throw new IllegalArgumentException("Total range length exceeds file size");
+            }
+            if (overlaps(ranges)) {
+                throw new IllegalArgumentException("Ranges overlap");
+            }
+            return ranges;
+        } catch (IllegalArgumentException e) {
+            log.debug("Invalid Range header '{}' for file {}: {}", rangeHeader, metadata.getIdUnico(), e.getMessage());
+            throw new RangeNotSatisfiableException(metadata.getIdUnico(), fileSize);
+        }
+    }
+
+    /**
+     * Evaluates If-Range against the file's entity tag or last modification date.
+     */
+    private boolean isIfRangeSatisfied(FileMetadata metadata, HttpServletRequest request) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        // If-Range requires a strong comparison, so weak tags never match
+        if (ifRange.startsWith("W/")) {
+            return false;
+        }
+        if (ifRange.startsWith("\"")) {
+            return ifRange.equals(httpCacheSupport.etag(metadata));
+        }
+        Instant lastModified = httpCacheSupport.lastModified(metadata);
+        if (lastModified == null) {
+            return false;
+        }
+        try {
+            long ifRangeSeconds = request.getDateHeader(HttpHeaders.IF_RANGE) / 1000;
+            return ifRangeSeconds == lastModified.getEpochSecond();
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private static boolean overlaps(List<long[]> ranges) {
+        List<long[]> sorted = new ArrayList<>(ranges);
+        sorted.sort(Comparator.comparingLong(range -> range[0]));
+        for (int i = 1; i < sorted.size(); i++) {
+            if (sorted.get(i)[0] <= sorted.get(i - 1)[1]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String contentRange(long[] range, long fileSize) {
+        return "bytes " + range[0] + "-" + range[1] + "/" + fileSize;
+    }
+}
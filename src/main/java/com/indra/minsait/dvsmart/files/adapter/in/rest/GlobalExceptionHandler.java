@@ -14,13 +14,18 @@
 package com.indra.minsait.dvsmart.files.adapter.in.rest;
 
 import com.indra.minsait.dvsmart.files.adapter.in.rest.dto.ErrorResponse;
+import com.indra.minsait.dvsmart.files.domain.exception.ExportLimitExceededException;
 import com.indra.minsait.dvsmart.files.domain.exception.FileNotAvailableException;
 import com.indra.minsait.dvsmart.files.domain.exception.FileNotFoundException;
 import com.indra.minsait.dvsmart.files.domain.exception.PreviewGenerationException;
+import com.indra.minsait.dvsmart.files.domain.exception.RangeNotSatisfiableException;
 import com.indra.minsait.dvsmart.files.domain.exception.SftpConnectionException;
+import com.indra.minsait.dvsmart.files.domain.exception.SftpUnavailableException;
+import com.indra.minsait.dvsmart.files.domain.exception.TransferCapacityExceededException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.ConstraintViolationException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -67,6 +72,33 @@ public class GlobalExceptionHandler {
                 ));
     }
 
+    @ExceptionHandler(RangeNotSatisfiableException.class)
+    public ResponseEntity<ErrorResponse> handleRangeNotSatisfiable(
+            RangeNotSatisfiableException ex, HttpServletRequest request) {
+        log.warn("Range not satisfiable: {} (size: {})", ex.getIdUnico(), ex.getFileSize());
+        return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                .header(HttpHeaders.CONTENT_RANGE, "bytes */" + ex.getFileSize())
+                .body(ErrorResponse.of(
+                        HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value(),
+                        "Range Not Satisfiable",
+                        ex.getMessage(),
+                        request.getRequestURI()
+                ));
+    }
+
+    @ExceptionHandler(ExportLimitExceededException.class)
+    public ResponseEntity<ErrorResponse> handleExportLimitExceeded(
+            ExportLimitExceededException ex, HttpServletRequest request) {
+        log.warn("Export limit exceeded (max: {})", ex.getMaxFiles());
+        return ResponseEntity.badRequest()
+                .body(ErrorResponse.of(
+                        HttpStatus.BAD_REQUEST.value(),
+                        "Bad Request",
+                        ex.getMessage(),
+                        request.getRequestURI()
+                ));
+    }
+
     @ExceptionHandler(PreviewGenerationException.class)
     public ResponseEntity<ErrorResponse> handlePreviewGenerationError(
             PreviewGenerationException ex, HttpServletRequest request) {
@@ -93,6 +125,33 @@ public class GlobalExceptionHandler {
                 ));
     }
 
+    @ExceptionHandler(SftpUnavailableException.class)
+    public ResponseEntity<ErrorResponse> handleSftpUnavailable(
+            SftpUnavailableException ex, HttpServletRequest request) {
+        log.warn("SFTP circuit open, request rejected: {}", request.getRequestURI());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(ErrorResponse.of(
+                        HttpStatus.SERVICE_UNAVAILABLE.value(),
+                        "Service Unavailable",
+                        "File storage service is temporarily unavailable",
+                        request.getRequestURI()
+                ));
+    }
+
+    @ExceptionHandler(TransferCapacityExceededException.class)
+    public ResponseEntity<ErrorResponse> handleTransferCapacityExceeded(
+            TransferCapacityExceededException ex, HttpServletRequest request) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(ErrorResponse.of(
+                        HttpStatus.SERVICE_UNAVAILABLE.value(),
+                        "Service Unavailable",
+                        "Too many concurrent transfers, retry later",
+                        request.getRequestURI()
+                ));
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ErrorResponse> handleValidationError(
             MethodArgumentNotValidException ex, HttpServletRequest request) {
@@ -0,0 +1,120 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.files.adapter.in.rest;
+
+import com.indra.minsait.dvsmart.files.domain.model.FileMetadata;
+import com.indra.minsait.dvsmart.files.infrastructure.config.FilesConfigProperties;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HTTP caching support for file responses.
+ * <p>
+ * Builds strong validators from catalog metadata only (idUnico, last
+ * modification date and reorganization date), so conditional requests
+ * are answered with 304 without opening an SFTP session.
+ * </p>
+ */
+/**
+ * @author Hector Huaranga <hahuaranga@indracompany.com>
+ * @class HttpCacheSupport
+ * @date 18-10-2026
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class HttpCacheSupport {
+
+    private final FilesConfigProperties config;
+
+    /**
+     * Sets Cache-Control, ETag and Last-Modified and evaluates the request preconditions.
+     *
+     * @param metadata resolved file metadata
+     * @param variant  representation variant (e.g. preview parameters), or null for the PDF itself
+     * @param request  current HTTP request
+     * @param response current HTTP response
+     * @return true if the response has been completed (304 or 412) and no body must be written
+     */
+    public boolean checkNotModified(FileMetadata metadata, String variant,
+                                    HttpServletRequest request, HttpServletResponse response) {
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl().getHeaderValue());
+
+        String etag = etag(metadata, variant);
+        Instant lastModified = lastModified(metadata);
+        long lastModifiedMillis = lastModified != null ? lastModified.toEpochMilli() : -1;
+
+        boolean notModified = new ServletWebRequest(request, response).checkNotModified(etag, lastModifiedMillis);
+        if (notModified) {
+            log.debug("Not modified: {} (etag: {})", metadata.getIdUnico(), etag);
+        }
+        return notModified;
+    }
+
+    /**
+     * Strong entity tag of the PDF content.
+     *
+     * @param metadata file metadata
+     * @return quoted entity tag
+     */
+    public String etag(FileMetadata metadata) {
+        return etag(metadata, null);
+    }
+
+    /**
+     * Strong entity tag of a representation of the file.
+     * Changes whenever the file is modified or reorganized again.
+     *
+     * @param metadata file metadata
+     * @param variant  representation variant, or null for the PDF itself
+     * @return quoted entity tag
+     */
+    public String etag(FileMetadata metadata, String variant) {
+        StringBuilder tag = new StringBuilder("\"").append(metadata.getIdUnico());
+        tag.append('-').append(toHex(metadata.getLastModificationDate()));
+        tag.append('-').append(toHex(metadata.getReorgCompletedAt()));
+        if (variant != null) {
+            tag.append('-').append(variant);
+        }
+        return tag.append('"').toString();
+    }
+
+    /**
+     * Last-Modified value of the file: its source modification date,
+     * falling back to the reorganization date.
+     */
+    public Instant lastModified(FileMetadata metadata) {
+        return metadata.getLastModificationDate() != null
+                ? metadata.getLastModificationDate()
+                : metadata.getReorgCompletedAt();
+    }
+
+    private CacheControl cacheControl() {
+        CacheControl cacheControl = CacheControl.maxAge(config.getHttpCache().getMaxAgeSeconds(), TimeUnit.SECONDS);
+        return config.getHttpCache().isShared() ? cacheControl.cachePublic() : cacheControl.cachePrivate();
+    }
+
+    private static String toHex(Instant instant) {
+        return instant != null ? Long.toHexString(instant.toEpochMilli()) : "0";
+    }
+}
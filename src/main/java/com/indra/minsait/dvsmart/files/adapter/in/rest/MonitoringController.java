@@ -14,10 +14,12 @@
 package com.indra.minsait.dvsmart.files.adapter.in.rest;
 
 import com.indra.minsait.dvsmart.files.infrastructure.sftp.CustomLazySftpSessionFactory;
+import com.indra.minsait.dvsmart.files.infrastructure.sftp.SshjSessionPool;
 //import io.swagger.v3.oas.annotations.Operation;
 //import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -41,10 +43,11 @@ import java.util.Map;
 public class MonitoringController {
 
     private final CustomLazySftpSessionFactory sftpSessionFactory;
+    private final ObjectProvider<SshjSessionPool> sshjSessionPool;
 
     @GetMapping("/sftp-pool")
     public ResponseEntity<Map<String, Object>> getSftpPoolStats() {
-        CustomLazySftpSessionFactory.PoolStats stats = sftpSessionFactory.getPoolStats();
+        CustomLazySftpSessionFactory.PoolStats stats = poolStats();
 
         Map<String, Object> response = new HashMap<>();
         response.put("active", stats.getActive());
@@ -56,13 +59,18 @@ public class MonitoringController {
         response.put("totalReturned", stats.getTotalReturned());
         response.put("utilizationPercent", stats.getUtilizationPercent());
         response.put("availableSlots", stats.getAvailableSlots());
+        response.put("waiting", stats.getWaiting());
+        response.put("waitingClients", stats.getWaitingClients());
+        response.put("transports", stats.getTransports());
+        response.put("activeStreams", stats.getActiveStreams());
+        response.put("endpoints", stats.getEndpoints());
 
         return ResponseEntity.ok(response);
     }
 
     @GetMapping("/sftp-pool/health")
     public ResponseEntity<Map<String, Object>> getSftpPoolHealth() {
-        CustomLazySftpSessionFactory.PoolStats stats = sftpSessionFactory.getPoolStats();
+        CustomLazySftpSessionFactory.PoolStats stats = poolStats();
 
         double utilization = stats.getUtilizationPercent();
         String status;
@@ -88,4 +96,12 @@ public class MonitoringController {
 
         return ResponseEntity.ok(response);
     }
+
+    /**
+     * Gets the statistics of the pool used by the active SFTP client.
+     */
+    private CustomLazySftpSessionFactory.PoolStats poolStats() {
+        SshjSessionPool sshjPool = sshjSessionPool.getIfAvailable();
+        return sshjPool != null ? sshjPool.getPoolStats() : sftpSessionFactory.getPoolStats();
+    }
 }
@@ -0,0 +1,86 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.files.adapter.in.rest;
+
+import com.indra.minsait.dvsmart.files.infrastructure.sftp.CustomLazySftpSessionFactory;
+import com.indra.minsait.dvsmart.files.infrastructure.sftp.SshjSessionPool;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.jspecify.annotations.Nullable;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * Actuator endpoint to read and change the SFTP pool parameters at runtime.
+ * <p>
+ * {@code GET /actuator/sftppool} returns the settings in effect;
+ * {@code POST /actuator/sftppool} with a JSON body changes any of them,
+ * for example {@code {"maxSize": 40}} ahead of a month-end run. Changes
+ * are not persisted: a restart goes back to {@code application.properties}.
+ * The endpoint is read-only by default; writes have to be enabled with
+ * {@code management.endpoint.sftppool.access=unrestricted} on a management
+ * port that is not reachable without authentication.
+ * </p>
+ */
+/**
+ * @author Hector Huaranga <hahuaranga@indracompany.com>
+ * @class SftpPoolEndpoint
+ * @date 18-10-2026
+ */
+@Slf4j
+@Component
+@Endpoint(id = "sftppool")
+@RequiredArgsConstructor
+public class SftpPoolEndpoint {
+
+    private final CustomLazySftpSessionFactory sftpSessionFactory;
+    private final ObjectProvider<SshjSessionPool> sshjSessionPool;
+
+    @ReadOperation
+    public CustomLazySftpSessionFactory.PoolSettings settings() {
+        return sftpSessionFactory.getPoolSettings();
+    }
+
+    @WriteOperation
+    public CustomLazySftpSessionFactory.PoolSettings configure(@Nullable Integer maxSize, @Nullable Integer minIdle,
+                                                               @Nullable Long maxWaitMillis,
+                                                               @Nullable Boolean autoscale,
+                                                               @Nullable Integer autoscaleMinSize,
+                                                               @Nullable Integer autoscaleMaxSize) {
+        if (sshjSessionPool.getIfAvailable() != null) {
+            throw new InvalidEndpointRequestException("Runtime reconfiguration is not supported by the sshj client",
+                    "Pool reconfiguration requires sftp.dest.client=mina");
+        }
+        log.info("SFTP pool reconfiguration requested: maxSize={}, minIdle={}, maxWaitMillis={}, autoscale={} ({}..{})",
+                maxSize, minIdle, maxWaitMillis, autoscale, autoscaleMinSize, autoscaleMaxSize);
+        try {
+            // Check everything first, so an invalid value leaves the pool untouched
+            sftpSessionFactory.checkSettings(maxSize, minIdle, maxWaitMillis);
+            sftpSessionFactory.checkAutoscale(autoscaleMinSize, autoscaleMaxSize);
+            if (autoscale != null || autoscaleMinSize != null || autoscaleMaxSize != null) {
+                sftpSessionFactory.configureAutoscale(autoscale, autoscaleMinSize, autoscaleMaxSize);
+            }
+            if (maxSize != null || minIdle != null || maxWaitMillis != null) {
+                return sftpSessionFactory.reconfigure(maxSize, minIdle, maxWaitMillis);
+            }
+            return sftpSessionFactory.getPoolSettings();
+        } catch (IllegalArgumentException e) {
+            throw new InvalidEndpointRequestException(e.getMessage(), e.getMessage());
+        }
+    }
+}
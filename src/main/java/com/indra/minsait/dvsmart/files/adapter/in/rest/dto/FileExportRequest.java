@@ -0,0 +1,44 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.files.adapter.in.rest.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Pattern;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Request DTO for exporting an explicit list of files.
+ */
+/**
+ * @author Hector Huaranga <hahuaranga@indracompany.com>
+ * @class FileExportRequest
+ * @date 18-10-2026
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FileExportRequest {
+
+    /**
+     * Unique identifiers of the files to export, in archive order.
+     */
+    @NotEmpty(message = "At least one idUnico is required")
+    private List<@Pattern(regexp = "^[a-f0-9]{64}$", message = "Invalid idUnico format") String> ids;
+}
@@ -0,0 +1,37 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.files.domain.exception;
+
+/**
+ * Exception thrown when a bulk export selects more files than allowed.
+ */
+/**
+ * @author Hector Huaranga <hahuaranga@indracompany.com>
+ * @class ExportLimitExceededException
+ * @date 18-10-2026
+ */
+public class ExportLimitExceededException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+	private final int maxFiles;
+
+    public ExportLimitExceededException(int maxFiles) {
+        super("Export selects more than " + maxFiles + " files. Narrow the criteria or split the request.");
+        this.maxFiles = maxFiles;
+    }
+
+    public int getMaxFiles() {
+        return maxFiles;
+    }
+}
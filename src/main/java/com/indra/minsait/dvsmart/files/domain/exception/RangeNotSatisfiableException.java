@@ -0,0 +1,47 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.files.domain.exception;
+
+/**
+ * Exception thrown when a requested byte range cannot be served.
+ * <p>
+ * This happens when the range starts beyond the end of the file or
+ * the Range header cannot be satisfied for the file size.
+ * </p>
+ */
+/**
+ * @author Hector Huaranga <hahuaranga@indracompany.com>
+ * @class RangeNotSatisfiableException
+ * @date 18-10-2026
+ */
+public class RangeNotSatisfiableException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+	private final String idUnico;
+    private final long fileSize;
+
+    public RangeNotSatisfiableException(String idUnico, long fileSize) {
+        super("Requested range not satisfiable for file " + idUnico + " (size: " + fileSize + " bytes)");
+        this.idUnico = idUnico;
+        this.fileSize = fileSize;
+    }
+
+    public String getIdUnico() {
+        return idUnico;
+    }
+
+    public long getFileSize() {
+        return fileSize;
+    }
+}
@@ -0,0 +1,38 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.files.domain.exception;
+
+/**
+ * Exception thrown when SFTP calls are rejected because the destination
+ * server is considered down.
+ */
+/**
+ * @author Hector Huaranga <hahuaranga@indracompany.com>
+ * @class SftpUnavailableException
+ * @date 18-10-2026
+ */
+public class SftpUnavailableException extends SftpConnectionException {
+
+    private static final long serialVersionUID = 1L;
+	private final long retryAfterSeconds;
+
+    public SftpUnavailableException(long retryAfterSeconds) {
+        super("SFTP destination is unavailable, retry in " + retryAfterSeconds + " s");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,37 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.files.domain.exception;
+
+/**
+ * Exception thrown when the maximum number of concurrent transfers is reached.
+ */
+/**
+ * @author Hector Huaranga <hahuaranga@indracompany.com>
+ * @class TransferCapacityExceededException
+ * @date 18-10-2026
+ */
+public class TransferCapacityExceededException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+	private final int maxConcurrent;
+
+    public TransferCapacityExceededException(int maxConcurrent) {
+        super("Too many concurrent transfers (max: " + maxConcurrent + ")");
+        this.maxConcurrent = maxConcurrent;
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+}
@@ -16,6 +16,8 @@ package com.indra.minsait.dvsmart.files.domain.port.in;
 import com.indra.minsait.dvsmart.files.domain.model.FileMetadata;
 
 import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.Optional;
 
 /**
  * Input port for downloading files.
@@ -41,4 +43,48 @@ public interface DownloadFileUseCase {
      * @throws com.indra.minsait.dvsmart.files.domain.exception.FileNotAvailableException if not ready for download
      */
     FileMetadata execute(String idUnico, OutputStream outputStream);
+
+    /**
+     * Resolves the metadata of a file that is ready to be downloaded.
+     * <p>
+     * Allows callers to set response headers before any content is streamed.
+     * </p>
+     *
+     * @param idUnico unique file identifier (SHA-256 hash)
+     * @return file metadata
+     * @throws com.indra.minsait.dvsmart.files.domain.exception.FileNotFoundException     if file not found
+     * @throws com.indra.minsait.dvsmart.files.domain.exception.FileNotAvailableException if not ready for download
+     */
+    FileMetadata resolve(String idUnico);
+
+    /**
+     * Streams the full content of a resolved file to the output stream.
+     *
+     * @param metadata     file metadata obtained from {@link #resolve(String)}
+     * @param outputStream target stream to write file content
+     */
+    void stream(FileMetadata metadata, OutputStream outputStream);
+
+    /**
+     * Streams a byte range of a resolved file to the output stream.
+     *
+     * @param metadata     file metadata obtained from {@link #resolve(String)}
+     * @param offset       zero-based position of the first byte to stream
+     * @param length       number of bytes to stream
+     * @param outputStream target stream to write file content
+     * @throws com.indra.minsait.dvsmart.files.domain.exception.RangeNotSatisfiableException if the range is outside the file
+     */
+    void streamRange(FileMetadata metadata, long offset, long length, OutputStream outputStream);
+
+    /**
+     * Finds an up-to-date local copy of a resolved file.
+     * <p>
+     * When present, the web server can send the file with zero-copy
+     * transfer instead of streaming it through the application.
+     * </p>
+     *
+     * @param metadata file metadata obtained from {@link #resolve(String)}
+     * @return path to the local copy, or empty if not available locally
+     */
+    Optional<Path> findLocalCopy(FileMetadata metadata);
 }
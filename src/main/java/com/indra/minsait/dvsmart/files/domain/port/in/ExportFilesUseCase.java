@@ -0,0 +1,61 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.files.domain.port.in;
+
+import com.indra.minsait.dvsmart.files.domain.model.ArchiveFormat;
+import com.indra.minsait.dvsmart.files.domain.model.FileMetadata;
+import com.indra.minsait.dvsmart.files.domain.model.SearchCriteria;
+
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * Input port for exporting many files as a single archive.
+ */
+/**
+ * @author Hector Huaranga <hahuaranga@indracompany.com>
+ * @class ExportFilesUseCase
+ * @date 18-10-2026
+ */
+public interface ExportFilesUseCase {
+
+    /**
+     * Resolves the files matching the search criteria (pagination is ignored).
+     *
+     * @param criteria search filters and sort order
+     * @return files available for download
+     * @throws com.indra.minsait.dvsmart.files.domain.exception.ExportLimitExceededException if too many files match
+     */
+    List<FileMetadata> resolve(SearchCriteria criteria);
+
+    /**
+     * Resolves an explicit list of files, keeping the requested order.
+     *
+     * @param idUnicos unique file identifiers (SHA-256 hashes)
+     * @return files available for download
+     * @throws com.indra.minsait.dvsmart.files.domain.exception.FileNotFoundException        if a file is not found
+     * @throws com.indra.minsait.dvsmart.files.domain.exception.FileNotAvailableException    if a file is not ready
+     * @throws com.indra.minsait.dvsmart.files.domain.exception.ExportLimitExceededException if too many files are requested
+     */
+    List<FileMetadata> resolve(List<String> idUnicos);
+
+    /**
+     * Streams the resolved files as one archive.
+     *
+     * @param files        files obtained from one of the resolve methods
+     * @param format       archive format
+     * @param outputStream target stream to write the archive
+     */
+    void export(List<FileMetadata> files, ArchiveFormat format, OutputStream outputStream);
+}
@@ -13,6 +13,8 @@
  */
 package com.indra.minsait.dvsmart.files.domain.port.in;
 
+import com.indra.minsait.dvsmart.files.domain.model.FileMetadata;
+
 /**
  * Input port for generating file previews.
  */
@@ -37,4 +39,17 @@ public interface PreviewFileUseCase {
      * @throws com.indra.minsait.dvsmart.files.domain.exception.PreviewGenerationException if rendering fails
      */
     byte[] execute(String idUnico, int width, int height, int page, String format);
+
+    /**
+     * Generates a preview image for an already resolved file.
+     *
+     * @param metadata metadata of a file available for download
+     * @param width    desired width in pixels
+     * @param height   desired height in pixels
+     * @param page     page number to render (1-based)
+     * @param format   output format (png, jpeg)
+     * @return preview image as byte array
+     * @throws com.indra.minsait.dvsmart.files.domain.exception.PreviewGenerationException if rendering fails
+     */
+    byte[] execute(FileMetadata metadata, int width, int height, int page, String format);
 }
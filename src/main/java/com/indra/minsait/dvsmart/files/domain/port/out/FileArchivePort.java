@@ -0,0 +1,43 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.files.domain.port.out;
+
+import com.indra.minsait.dvsmart.files.domain.model.ArchiveFormat;
+import com.indra.minsait.dvsmart.files.domain.model.FileMetadata;
+
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * Output port for writing file archives.
+ */
+/**
+ * @author Hector Huaranga <hahuaranga@indracompany.com>
+ * @class FileArchivePort
+ * @date 18-10-2026
+ */
+public interface FileArchivePort {
+
+    /**
+     * Streams the content of the given files as one archive, in order.
+     * <p>
+     * Implementations must keep memory usage independent of the archive size.
+     * </p>
+     *
+     * @param files        files to include
+     * @param format       archive format
+     * @param outputStream target stream to write the archive
+     */
+    void writeArchive(List<FileMetadata> files, ArchiveFormat format, OutputStream outputStream);
+}
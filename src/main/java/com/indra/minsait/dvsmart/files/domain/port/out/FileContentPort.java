@@ -13,8 +13,12 @@
  */
 package com.indra.minsait.dvsmart.files.domain.port.out;
 
+import com.indra.minsait.dvsmart.files.domain.model.FileMetadata;
+
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.Optional;
 
 /**
  * Output port for file content operations.
@@ -33,7 +37,9 @@ public interface FileContentPort {
     /**
      * Gets an input stream to read file content.
      * <p>
-     * The caller is responsible for closing the stream.
+     * Content is read lazily from the remote file and the underlying
+     * connection stays in use until the stream is closed. The caller is
+     * responsible for closing the stream.
      * </p>
      *
      * @param remotePath path to the file in SFTP destination
@@ -53,6 +59,20 @@ public interface FileContentPort {
      */
     void streamFileTo(String remotePath, OutputStream outputStream);
 
+    /**
+     * Streams a byte range of the file directly to an output stream.
+     * <p>
+     * The remote file is read starting at the given offset, so only the
+     * requested bytes are transferred from the SFTP destination.
+     * </p>
+     *
+     * @param remotePath   path to the file in SFTP destination
+     * @param offset       zero-based position of the first byte to stream
+     * @param length       number of bytes to stream
+     * @param outputStream target stream to write content
+     */
+    void streamRangeTo(String remotePath, long offset, long length, OutputStream outputStream);
+
     /**
      * Gets file content as byte array.
      * <p>
@@ -65,6 +85,57 @@ public interface FileContentPort {
      */
     byte[] getFileContent(String remotePath);
 
+    /**
+     * Streams the content of a catalogued file to an output stream.
+     * <p>
+     * Unlike {@link #streamFileTo(String, OutputStream)}, implementations know the
+     * file identity and modification date, so they may serve it from a local copy.
+     * </p>
+     *
+     * @param file         file metadata including its destination path
+     * @param outputStream target stream to write content
+     */
+    default void streamFileTo(FileMetadata file, OutputStream outputStream) {
+        streamFileTo(file.getDestinationPath(), outputStream);
+    }
+
+    /**
+     * Streams a byte range of a catalogued file to an output stream.
+     *
+     * @param file         file metadata including its destination path
+     * @param offset       zero-based position of the first byte to stream
+     * @param length       number of bytes to stream
+     * @param outputStream target stream to write content
+     */
+    default void streamRangeTo(FileMetadata file, long offset, long length, OutputStream outputStream) {
+        streamRangeTo(file.getDestinationPath(), offset, length, outputStream);
+    }
+
+    /**
+     * Gets the content of a catalogued file as byte array.
+     *
+     * @param file file metadata including its destination path
+     * @return file content as bytes
+     */
+    default byte[] getFileContent(FileMetadata file) {
+        return getFileContent(file.getDestinationPath());
+    }
+
+    /**
+     * Finds an up-to-date copy of the file on the local filesystem.
+     * <p>
+     * Allows callers to hand the file to the web server for zero-copy
+     * transfer (sendfile). The copy is only guaranteed to exist for a
+     * short time after this call.
+     * </p>
+     *
+     * @param file file metadata
+     * @return path to the local copy, or empty if not available locally
+     */
+    default Optional<Path> findLocalCopy(FileMetadata file) {
+        return Optional.empty();
+    }
+
     /**
      * Checks if a file exists at the given path.
      *
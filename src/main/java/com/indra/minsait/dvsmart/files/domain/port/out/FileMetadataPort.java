@@ -18,6 +18,8 @@ import com.indra.minsait.dvsmart.files.domain.model.FileStatistics;
 import com.indra.minsait.dvsmart.files.domain.model.PagedResult;
 import com.indra.minsait.dvsmart.files.domain.model.SearchCriteria;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -50,6 +52,23 @@ public interface FileMetadataPort {
      */
     PagedResult<FileMetadata> search(SearchCriteria criteria);
 
+    /**
+     * Finds all available files matching the criteria, ignoring pagination.
+     *
+     * @param criteria search criteria (filters and sort order)
+     * @param limit    maximum number of files to return
+     * @return matching file metadata, at most {@code limit} entries
+     */
+    List<FileMetadata> findAll(SearchCriteria criteria, int limit);
+
+    /**
+     * Finds files by their unique identifiers.
+     *
+     * @param idUnicos unique file identifiers
+     * @return metadata of the files found, in no particular order
+     */
+    List<FileMetadata> findByIdUnicoIn(Collection<String> idUnicos);
+
     /**
      * Gets file statistics.
      *
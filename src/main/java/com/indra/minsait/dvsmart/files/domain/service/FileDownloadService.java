@@ -15,6 +15,7 @@ package com.indra.minsait.dvsmart.files.domain.service;
 
 import com.indra.minsait.dvsmart.files.domain.exception.FileNotAvailableException;
 import com.indra.minsait.dvsmart.files.domain.exception.FileNotFoundException;
+import com.indra.minsait.dvsmart.files.domain.exception.RangeNotSatisfiableException;
 import com.indra.minsait.dvsmart.files.domain.model.FileMetadata;
 import com.indra.minsait.dvsmart.files.domain.port.in.DownloadFileUseCase;
 import com.indra.minsait.dvsmart.files.domain.port.out.FileContentPort;
@@ -24,6 +25,8 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.Optional;
 
 /**
  * Domain service for file download operations.
@@ -48,6 +51,17 @@ public class FileDownloadService implements DownloadFileUseCase {
     public FileMetadata execute(String idUnico, OutputStream outputStream) {
         log.debug("Starting download for file: {}", idUnico);
 
+        FileMetadata metadata = resolve(idUnico);
+        stream(metadata, outputStream);
+
+        log.info("Download completed for file: {} ({} bytes)", 
+                metadata.getFileName(), metadata.getFileSize());
+
+        return metadata;
+    }
+
+    @Override
+    public FileMetadata resolve(String idUnico) {
         // 1. Get file metadata from MongoDB
         FileMetadata metadata = fileMetadataPort.findByIdUnico(idUnico)
                 .orElseThrow(() -> {
@@ -62,15 +76,36 @@ public class FileDownloadService implements DownloadFileUseCase {
             throw new FileNotAvailableException(idUnico, metadata.getReorgStatus());
         }
 
+        return metadata;
+    }
+
+    @Override
+    public void stream(FileMetadata metadata, OutputStream outputStream) {
         // 3. Stream file from SFTP destination using hash-partitioned path
         String destinationPath = metadata.getDestinationPath();
         log.debug("Streaming file from SFTP destination: {}", destinationPath);
 
-        fileContentPort.streamFileTo(destinationPath, outputStream);
+        fileContentPort.streamFileTo(metadata, outputStream);
+    }
 
-        log.info("Download completed for file: {} ({} bytes)", 
-                metadata.getFileName(), metadata.getFileSize());
+    @Override
+    public void streamRange(FileMetadata metadata, long offset, long length, OutputStream outputStream) {
+        Long fileSize = metadata.getFileSize();
+        if (fileSize == null || offset < 0 || length <= 0 || offset + length > fileSize) {
+            log.warn("Range not satisfiable for file: {} (offset={}, length={}, size={})",
+                    metadata.getIdUnico(), offset, length, fileSize);
+            throw new RangeNotSatisfiableException(metadata.getIdUnico(), fileSize != null ? fileSize : 0);
+        }
 
-        return metadata;
+        String destinationPath = metadata.getDestinationPath();
+        log.debug("Streaming range from SFTP destination: {} (offset={}, length={})",
+                destinationPath, offset, length);
+
+        fileContentPort.streamRangeTo(metadata, offset, length, outputStream);
+    }
+
+    @Override
+    public Optional<Path> findLocalCopy(FileMetadata metadata) {
+        return fileContentPort.findLocalCopy(metadata);
     }
 }
@@ -0,0 +1,114 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.files.domain.service;
+
+import com.indra.minsait.dvsmart.files.domain.exception.ExportLimitExceededException;
+import com.indra.minsait.dvsmart.files.domain.exception.FileNotAvailableException;
+import com.indra.minsait.dvsmart.files.domain.exception.FileNotFoundException;
+import com.indra.minsait.dvsmart.files.domain.model.ArchiveFormat;
+import com.indra.minsait.dvsmart.files.domain.model.FileMetadata;
+import com.indra.minsait.dvsmart.files.domain.model.SearchCriteria;
+import com.indra.minsait.dvsmart.files.domain.port.in.ExportFilesUseCase;
+import com.indra.minsait.dvsmart.files.domain.port.out.FileArchivePort;
+import com.indra.minsait.dvsmart.files.domain.port.out.FileMetadataPort;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Domain service for bulk file exports.
+ * <p>
+ * Resolves the selected files from MongoDB and delegates the archive
+ * streaming to the archive port.
+ * </p>
+ */
+/**
+ * @author Hector Huaranga <hahuaranga@indracompany.com>
+ * @class FileExportService
+ * @date 18-10-2026
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class FileExportService implements ExportFilesUseCase {
+
+    private final FileMetadataPort fileMetadataPort;
+    private final FileArchivePort fileArchivePort;
+
+    @Value("${files.export.max-files}")
+    private int maxFiles;
+
+    @Override
+    public List<FileMetadata> resolve(SearchCriteria criteria) {
+        log.debug("Resolving export by criteria: tipoDocumento={}, codigoCliente={}, anio={}, mes={}",
+                criteria.getTipoDocumento(), criteria.getCodigoCliente(), criteria.getAnio(), criteria.getMes());
+
+        // One extra result tells us the limit was exceeded without a separate count query
+        List<FileMetadata> files = fileMetadataPort.findAll(criteria, maxFiles + 1);
+        if (files.size() > maxFiles) {
+            log.warn("Export by criteria exceeds limit of {} files", maxFiles);
+            throw new ExportLimitExceededException(maxFiles);
+        }
+
+        return files.stream()
+                .filter(FileMetadata::isAvailableForDownload)
+                .toList();
+    }
+
+    @Override
+    public List<FileMetadata> resolve(List<String> idUnicos) {
+        Set<String> requested = new LinkedHashSet<>(idUnicos);
+        if (requested.size() > maxFiles) {
+            log.warn("Export of {} files exceeds limit of {} files", requested.size(), maxFiles);
+            throw new ExportLimitExceededException(maxFiles);
+        }
+
+        Map<String, FileMetadata> found = fileMetadataPort.findByIdUnicoIn(requested).stream()
+                .collect(Collectors.toMap(FileMetadata::getIdUnico, Function.identity(), (a, b) -> a));
+
+        List<FileMetadata> files = new ArrayList<>(requested.size());
+        for (String idUnico : requested) {
+            FileMetadata metadata = found.get(idUnico);
+            if (metadata == null) {
+                log.warn("File not found for export: {}", idUnico);
+                throw new FileNotFoundException(idUnico);
+            }
+            if (!metadata.isAvailableForDownload()) {
+                log.warn("File not available for export: {} (status: {})", idUnico, metadata.getReorgStatus());
+                throw new FileNotAvailableException(idUnico, metadata.getReorgStatus());
+            }
+            files.add(metadata);
+        }
+        return files;
+    }
+
+    @Override
+    public void export(List<FileMetadata> files, ArchiveFormat format, OutputStream outputStream) {
+        log.debug("Starting {} export of {} files", format, files.size());
+
+        fileArchivePort.writeArchive(files, format, outputStream);
+
+        log.info("Export completed: {} files as {}", files.size(), format);
+    }
+}
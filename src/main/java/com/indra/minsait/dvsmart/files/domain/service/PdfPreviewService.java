@@ -76,11 +76,16 @@ public class PdfPreviewService implements PreviewFileUseCase {
             throw new FileNotAvailableException(idUnico, metadata.getReorgStatus());
         }
 
+        return execute(metadata, width, height, page, format);
+    }
+
+    @Override
+    public byte[] execute(FileMetadata metadata, int width, int height, int page, String format) {
         // 3. Get PDF content from SFTP
-        byte[] pdfContent = fileContentPort.getFileContent(metadata.getDestinationPath());
+        byte[] pdfContent = fileContentPort.getFileContent(metadata);
 
         // 4. Render PDF page as image
-        return renderPdfPage(idUnico, pdfContent, width, height, page, format);
+        return renderPdfPage(metadata.getIdUnico(), pdfContent, width, height, page, format);
     }
 
     /**
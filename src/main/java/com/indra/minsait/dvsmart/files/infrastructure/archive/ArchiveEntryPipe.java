@@ -0,0 +1,139 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.files.infrastructure.archive;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Bounded hand-off of one entry's bytes from a fetch task to the archive writer.
+ * <p>
+ * The fetch task writes to {@link #sink()} and blocks when the buffer is
+ * full, so a prefetched entry never holds more than the configured number
+ * of chunks in memory.
+ * </p>
+ */
+/**
+ * @author Hector Huaranga <hahuaranga@indracompany.com>
+ * @class ArchiveEntryPipe
+ * @date 18-10-2026
+ */
+class ArchiveEntryPipe {
+
+    private static final byte[] END = new byte[0];
+
+    private final BlockingQueue<byte[]> chunks;
+    private final int chunkSize;
+    private volatile Throwable failure;
+
+    ArchiveEntryPipe(int capacity, int chunkSize) {
+        this.chunks = new ArrayBlockingQueue<>(Math.max(1, capacity));
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * @return stream the fetch task writes to; closing it marks the end of the entry
+     */
+    OutputStream sink() {
+        return new Sink();
+    }
+
+    /**
+     * Aborts the entry. Buffered chunks are discarded and the reader gets the failure.
+     */
+    void fail(Throwable cause) {
+        failure = cause;
+        chunks.clear();
+        chunks.offer(END);
+    }
+
+    /**
+     * Takes the next chunk, waiting for the fetch task if needed.
+     *
+     * @return next chunk, or null at the end of the entry
+     * @throws IOException if the fetch failed
+     */
+    byte[] take() throws IOException {
+        byte[] chunk;
+        try {
+            chunk = chunks.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for archive entry data");
+        }
+        if (chunk == END) {
+            if (failure != null) {
+                throw new IOException("Failed to fetch archive entry", failure);
+            }
+            return null;
+        }
+        return chunk;
+    }
+
+    private void put(byte[] chunk) throws IOException {
+        try {
+            chunks.put(chunk);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Archive export cancelled");
+        }
+    }
+
+    private final class Sink extends OutputStream {
+
+        private byte[] current = new byte[chunkSize];
+        private int position;
+
+        @Override
+        public void write(int b) throws IOException {
+            current[position++] = (byte) b;
+            if (position == current.length) {
+                emit();
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            while (len > 0) {
+                int n = Math.min(len, current.length - position);
+                System.arraycopy(b, off, current, position, n);
+                position += n;
+                off += n;
+                len -= n;
+                if (position == current.length) {
+                    emit();
+                }
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (position > 0) {
+                put(position == current.length ? current : Arrays.copyOf(current, position));
+                position = 0;
+            }
+            put(END);
+        }
+
+        private void emit() throws IOException {
+            put(current);
+            current = new byte[chunkSize];
+            position = 0;
+        }
+    }
+}
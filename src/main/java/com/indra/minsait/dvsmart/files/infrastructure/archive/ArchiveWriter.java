@@ -0,0 +1,51 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.files.infrastructure.archive;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.time.Instant;
+
+/**
+ * Sequential writer of archive entries.
+ * <p>
+ * Entries are written one at a time: {@link #beginEntry}, any number of
+ * {@link #write} calls, then {@link #endEntry}.
+ * </p>
+ */
+/**
+ * @author Hector Huaranga <hahuaranga@indracompany.com>
+ * @class ArchiveWriter
+ * @date 18-10-2026
+ */
+interface ArchiveWriter extends Closeable {
+
+    /**
+     * Starts a new entry.
+     *
+     * @param name         entry name
+     * @param size         exact entry size in bytes
+     * @param lastModified modification time, or null if unknown
+     */
+    void beginEntry(String name, long size, Instant lastModified) throws IOException;
+
+    void write(byte[] buffer, int offset, int length) throws IOException;
+
+    void endEntry() throws IOException;
+
+    /**
+     * Writes the archive trailer. The underlying stream is left open.
+     */
+    void finish() throws IOException;
+}
@@ -0,0 +1,211 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.files.infrastructure.archive;
+
+import com.indra.minsait.dvsmart.files.domain.model.ArchiveFormat;
+import com.indra.minsait.dvsmart.files.domain.model.FileMetadata;
+import com.indra.minsait.dvsmart.files.domain.port.out.FileArchivePort;
+import com.indra.minsait.dvsmart.files.domain.port.out.FileContentPort;
+import com.indra.minsait.dvsmart.files.infrastructure.config.FilesConfigProperties;
+import com.indra.minsait.dvsmart.files.infrastructure.fairshare.ClientContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Archive adapter streaming files from the content port into ZIP or TAR.
+ * <p>
+ * While one entry is written, the next entries are already being fetched
+ * on a dedicated executor. Each fetch hands its bytes over through a
+ * bounded {@link ArchiveEntryPipe}, so memory per export is capped at
+ * (prefetch + 1) buffers regardless of the number or size of the files.
+ * </p>
+ * <p>
+ * A file that fails before any of its bytes are written is skipped and
+ * listed in a trailing {@code ERRORS.txt} entry. A failure in the middle of
+ * an entry aborts the archive, since the response is already committed.
+ * </p>
+ */
+/**
+ * @author Hector Huaranga <hahuaranga@indracompany.com>
+ * @class StreamingArchiveAdapter
+ * @date 18-10-2026
+ */
+@Slf4j
+@Component
+public class StreamingArchiveAdapter implements FileArchivePort {
+
+    static final String ERRORS_ENTRY = "ERRORS.txt";
+    private static final int CHUNK_SIZE = 64 * 1024;
+
+    private final FileContentPort fileContentPort;
+    private final ExecutorService prefetchExecutor;
+    private final int prefetch;
+    private final int pipeCapacity;
+
+    public StreamingArchiveAdapter(FileContentPort fileContentPort,
+                                   @Qualifier("archivePrefetchExecutor") ExecutorService prefetchExecutor,
+                                   FilesConfigProperties config) {
+        this.fileContentPort = fileContentPort;
+        this.prefetchExecutor = prefetchExecutor;
+        this.prefetch = Math.max(0, config.getExport().getPrefetch());
+        this.pipeCapacity = (int) Math.max(1, config.getExport().getPrefetchBufferKb() * 1024 / CHUNK_SIZE);
+    }
+
+    @Override
+    public void writeArchive(List<FileMetadata> files, ArchiveFormat format, OutputStream outputStream) {
+        Deque<PendingEntry> window = new ArrayDeque<>();
+        Iterator<FileMetadata> remaining = files.iterator();
+        Set<String> usedNames = new HashSet<>();
+        // Reserved for the trailing report, so a file with that name gets a suffix instead
+        usedNames.add(ERRORS_ENTRY);
+        StringBuilder errors = new StringBuilder();
+
+        try (ArchiveWriter writer = createWriter(format, outputStream)) {
+            fill(window, remaining, prefetch + 1);
+            while (!window.isEmpty()) {
+                PendingEntry entry = window.poll();
+                // Keep prefetch entries in flight while this one is written
+                fill(window, remaining, prefetch);
+                writeEntry(writer, entry, usedNames, errors);
+            }
+            if (!errors.isEmpty()) {
+                byte[] report = errors.toString().getBytes(StandardCharsets.UTF_8);
+                writer.beginEntry(ERRORS_ENTRY, report.length, Instant.now());
+                writer.write(report, 0, report.length);
+                writer.endEntry();
+            }
+            writer.finish();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write " + format + " archive", e);
+        } finally {
+            window.forEach(PendingEntry::cancel);
+        }
+    }
+
+    private void fill(Deque<PendingEntry> window, Iterator<FileMetadata> remaining, int size) {
+        while (window.size() < size && remaining.hasNext()) {
+            window.add(start(remaining.next()));
+        }
+    }
+
+    private PendingEntry start(FileMetadata file) {
+        ArchiveEntryPipe pipe = new ArchiveEntryPipe(pipeCapacity, CHUNK_SIZE);
+        // Prefetches wait for SFTP sessions in the queue of the exporting client
+        String client = ClientContext.current();
+        Future<?> task = prefetchExecutor.submit(() -> {
+            OutputStream sink = pipe.sink();
+            try {
+                ClientContext.runAs(client, () -> fileContentPort.streamFileTo(file, sink));
+                // Only a complete fetch may mark the end of the entry
+                sink.close();
+            } catch (Throwable e) {
+                pipe.fail(e);
+            }
+        });
+        return new PendingEntry(file, pipe, task);
+    }
+
+    private void writeEntry(ArchiveWriter writer, PendingEntry entry, Set<String> usedNames,
+                            StringBuilder errors) throws IOException {
+        FileMetadata file = entry.file();
+        if (file.getFileSize() == null) {
+            // TAR headers need the size up front; keep both formats consistent
+            entry.cancel();
+            skip(errors, file, "unknown file size");
+            return;
+        }
+
+        byte[] chunk;
+        try {
+            chunk = entry.pipe().take();
+        } catch (IOException e) {
+            log.warn("Skipping file {} in export: {}", file.getIdUnico(), rootMessage(e));
+            skip(errors, file, rootMessage(e));
+            return;
+        }
+
+        writer.beginEntry(entryName(file, usedNames), file.getFileSize(), file.getLastModificationDate());
+        while (chunk != null) {
+            writer.write(chunk, 0, chunk.length);
+            chunk = entry.pipe().take();
+        }
+        writer.endEntry();
+    }
+
+    private ArchiveWriter createWriter(ArchiveFormat format, OutputStream outputStream) {
+        return switch (format) {
+            case ZIP -> new ZipArchiveWriter(outputStream);
+            case TAR -> new TarArchiveWriter(outputStream);
+        };
+    }
+
+    /**
+     * Builds a unique, flat entry name from the file name.
+     */
+    static String entryName(FileMetadata file, Set<String> usedNames) {
+        String name = file.getFileName() != null && !file.getFileName().isBlank()
+                ? file.getFileName().replaceAll("[/\\\\]", "_")
+                : file.getIdUnico() + ".pdf";
+        if (usedNames.add(name)) {
+            return name;
+        }
+        int dot = name.lastIndexOf('.');
+        String base = dot > 0 ? name.substring(0, dot) : name;
+        String extension = dot > 0 ? name.substring(dot) : "";
+        String suffix = "_" + file.getIdUnico().substring(0, Math.min(8, file.getIdUnico().length()));
+        // The suffixed name may itself be a file name of the export, or repeat for the same file
+        String unique = base + suffix + extension;
+        for (int n = 2; !usedNames.add(unique); n++) {
+            unique = base + suffix + "-" + n + extension;
+        }
+        return unique;
+    }
+
+    private static void skip(StringBuilder errors, FileMetadata file, String reason) {
+        errors.append(file.getIdUnico()).append('\t')
+                .append(file.getFileName()).append('\t')
+                .append(reason).append('\n');
+    }
+
+    private static String rootMessage(Throwable e) {
+        Throwable root = e;
+        while (root.getCause() != null) {
+            root = root.getCause();
+        }
+        return root.getMessage() != null ? root.getMessage() : root.getClass().getSimpleName();
+    }
+
+    private record PendingEntry(FileMetadata file, ArchiveEntryPipe pipe, Future<?> task) {
+
+        void cancel() {
+            // Interrupts a fetch blocked on a full pipe, so its SFTP session is released
+            task.cancel(true);
+        }
+    }
+}
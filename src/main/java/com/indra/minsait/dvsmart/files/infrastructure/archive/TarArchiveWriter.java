@@ -0,0 +1,142 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.files.infrastructure.archive;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+
+/**
+ * Minimal POSIX ustar archive writer.
+ * <p>
+ * Only regular files are supported. The entry size is written in the
+ * header before the data, so it must be known up front and the data
+ * must match it exactly.
+ * </p>
+ */
+/**
+ * @author Hector Huaranga <hahuaranga@indracompany.com>
+ * @class TarArchiveWriter
+ * @date 18-10-2026
+ */
+class TarArchiveWriter implements ArchiveWriter {
+
+    private static final int BLOCK_SIZE = 512;
+    private static final int NAME_LENGTH = 100;
+    private static final long MAX_ENTRY_SIZE = 077777777777L;
+
+    private final OutputStream out;
+    private long expected;
+    private long written;
+
+    TarArchiveWriter(OutputStream outputStream) {
+        this.out = outputStream;
+    }
+
+    @Override
+    public void beginEntry(String name, long size, Instant lastModified) throws IOException {
+        if (size < 0 || size > MAX_ENTRY_SIZE) {
+            throw new IOException("Unsupported TAR entry size: " + size);
+        }
+        long mtime = lastModified != null ? lastModified.getEpochSecond() : 0;
+
+        byte[] header = new byte[BLOCK_SIZE];
+        byte[] nameBytes = truncate(name);
+        System.arraycopy(nameBytes, 0, header, 0, nameBytes.length);
+        octal(header, 100, 8, 0644);       // mode
+        octal(header, 108, 8, 0);          // uid
+        octal(header, 116, 8, 0);          // gid
+        octal(header, 124, 12, size);      // size
+        octal(header, 136, 12, mtime);     // mtime
+        header[156] = '0';                 // typeflag: regular file
+        ascii(header, 257, "ustar\0");     // magic
+        ascii(header, 263, "00");          // version
+
+        // Checksum is computed with the checksum field filled with spaces
+        Arrays.fill(header, 148, 156, (byte) ' ');
+        long checksum = 0;
+        for (byte b : header) {
+            checksum += b & 0xFF;
+        }
+        octal(header, 148, 7, checksum);
+        header[155] = ' ';
+
+        out.write(header);
+        expected = size;
+        written = 0;
+    }
+
+    @Override
+    public void write(byte[] buffer, int offset, int length) throws IOException {
+        if (written + length > expected) {
+            throw new IOException("TAR entry longer than declared size: " + expected);
+        }
+        out.write(buffer, offset, length);
+        written += length;
+    }
+
+    @Override
+    public void endEntry() throws IOException {
+        if (written != expected) {
+            throw new IOException("TAR entry shorter than declared size: " + written + " of " + expected);
+        }
+        int padding = (int) ((BLOCK_SIZE - written % BLOCK_SIZE) % BLOCK_SIZE);
+        out.write(new byte[padding]);
+    }
+
+    @Override
+    public void finish() throws IOException {
+        // End of archive: two zero blocks
+        out.write(new byte[BLOCK_SIZE * 2]);
+        out.flush();
+    }
+
+    @Override
+    public void close() {
+        // The target stream belongs to the caller
+    }
+
+    /**
+     * Encodes the name as UTF-8, dropping characters from the middle until it fits,
+     * so the extension is kept.
+     */
+    private static byte[] truncate(String name) {
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length <= NAME_LENGTH) {
+            return bytes;
+        }
+        int dot = name.lastIndexOf('.');
+        String extension = dot > 0 ? name.substring(dot) : "";
+        String base = dot > 0 ? name.substring(0, dot) : name;
+        while (!base.isEmpty() && (base + extension).getBytes(StandardCharsets.UTF_8).length > NAME_LENGTH) {
+            base = base.substring(0, base.length() - 1);
+        }
+        return (base + extension).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void octal(byte[] header, int offset, int length, long value) {
+        String digits = Long.toOctalString(value);
+        // Zero-padded, NUL-terminated
+        String padded = "0".repeat(length - 1 - digits.length()) + digits;
+        ascii(header, offset, padded);
+        header[offset + length - 1] = 0;
+    }
+
+    private static void ascii(byte[] header, int offset, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.US_ASCII);
+        System.arraycopy(bytes, 0, header, offset, bytes.length);
+    }
+}
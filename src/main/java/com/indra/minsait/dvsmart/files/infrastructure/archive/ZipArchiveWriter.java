@@ -0,0 +1,76 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.files.infrastructure.archive;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * ZIP archive writer without compression.
+ * <p>
+ * True STORED entries need the CRC before the data, which would force
+ * buffering whole files. Entries are written as DEFLATE at level 0
+ * instead: the data is copied as-is into stored blocks and the CRC goes
+ * in a trailing data descriptor, so bytes can be written as they arrive.
+ * </p>
+ */
+/**
+ * @author Hector Huaranga <hahuaranga@indracompany.com>
+ * @class ZipArchiveWriter
+ * @date 18-10-2026
+ */
+class ZipArchiveWriter implements ArchiveWriter {
+
+    private final ZipOutputStream zip;
+
+    ZipArchiveWriter(OutputStream outputStream) {
+        this.zip = new ZipOutputStream(outputStream);
+        this.zip.setMethod(ZipOutputStream.DEFLATED);
+        this.zip.setLevel(Deflater.NO_COMPRESSION);
+    }
+
+    @Override
+    public void beginEntry(String name, long size, Instant lastModified) throws IOException {
+        ZipEntry entry = new ZipEntry(name);
+        if (lastModified != null) {
+            entry.setTime(lastModified.toEpochMilli());
+        }
+        zip.putNextEntry(entry);
+    }
+
+    @Override
+    public void write(byte[] buffer, int offset, int length) throws IOException {
+        zip.write(buffer, offset, length);
+    }
+
+    @Override
+    public void endEntry() throws IOException {
+        zip.closeEntry();
+    }
+
+    @Override
+    public void finish() throws IOException {
+        zip.finish();
+        zip.flush();
+    }
+
+    @Override
+    public void close() {
+        // The target stream belongs to the caller; finish() has already written the trailer
+    }
+}
@@ -0,0 +1,234 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.files.infrastructure.cache;
+
+import com.indra.minsait.dvsmart.files.infrastructure.config.FilesConfigProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Off-heap cache of fixed-size file blocks.
+ * <p>
+ * Blocks live in an arena of direct buffers allocated once at startup and
+ * split into slots of the block size, so caching never allocates and the
+ * memory used is bounded by the arena. Blocks are keyed by file version and
+ * block index; when no slot is free the least recently used block gives up
+ * its slot. Blocks are copied in and out under the cache lock, so a slot is
+ * never reused while a reader is copying it.
+ * </p>
+ */
+/**
+ * @author Hector Huaranga <hahuaranga@indracompany.com>
+ * @class BlockCache
+ * @date 18-10-2026
+ */
+@Slf4j
+public class BlockCache {
+
+    private static final long KB = 1024L;
+    private static final long MB = 1024L * 1024;
+
+    /**
+     * Largest direct buffer allocated for the arena.
+     */
+    private static final int MAX_SEGMENT_SIZE = 1 << 30;
+
+    private final int blockSize;
+    private final long maxFileSize;
+    private final int slotsPerSegment;
+    private final ByteBuffer[] segments;
+    private final LinkedHashMap<BlockKey, Slot> index = new LinkedHashMap<>(16, 0.75f, true);
+    private final ArrayDeque<Integer> freeSlots = new ArrayDeque<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+    private long usedBytes;
+
+    public BlockCache(FilesConfigProperties.BlockCacheConfig config, MeterRegistry meterRegistry) {
+        this.blockSize = Math.toIntExact(Math.max(1, config.getBlockSizeKb()) * KB);
+        this.maxFileSize = config.getMaxFileSizeMb() * MB;
+        this.slotsPerSegment = Math.max(1, MAX_SEGMENT_SIZE / blockSize);
+
+        int slotCount = Math.toIntExact(Math.max(1, config.getMaxSizeMb() * MB / blockSize));
+        int segmentCount = (slotCount + slotsPerSegment - 1) / slotsPerSegment;
+        this.segments = new ByteBuffer[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            int slots = Math.min(slotsPerSegment, slotCount - i * slotsPerSegment);
+            segments[i] = ByteBuffer.allocateDirect(slots * blockSize);
+        }
+        for (int slot = 0; slot < slotCount; slot++) {
+            freeSlots.add(slot);
+        }
+
+        this.hits = meterRegistry.counter("files.cache.requests", "tier", "block", "result", "hit");
+        this.misses = meterRegistry.counter("files.cache.requests", "tier", "block", "result", "miss");
+        this.evictions = meterRegistry.counter("files.cache.evictions", "tier", "block");
+        Gauge.builder("files.cache.size", this, BlockCache::usedBytes)
+                .tag("tier", "block").baseUnit("bytes").register(meterRegistry);
+        Gauge.builder("files.cache.entries", this, BlockCache::size)
+                .tag("tier", "block").register(meterRegistry);
+
+        log.info("Block cache initialized: {} blocks of {} KB, reads of up to {} MB",
+                slotCount, config.getBlockSizeKb(), config.getMaxFileSizeMb());
+    }
+
+    /**
+     * Gets the size of a cached block.
+     *
+     * @return block size in bytes
+     */
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+    /**
+     * Gets the largest read, full or range, that goes through the cache.
+     *
+     * @return file size in bytes
+     */
+    public long getMaxFileSize() {
+        return maxFileSize;
+    }
+
+    /**
+     * Copies a cached block and marks it as most recently used.
+     *
+     * @param key    block key
+     * @param target buffer of at least the block size
+     * @return number of bytes copied, or -1 if the block is not cached
+     */
+    public int read(BlockKey key, byte[] target) {
+        lock.lock();
+        try {
+            Slot slot = index.get(key);
+            if (slot == null) {
+                return -1;
+            }
+            segment(slot.slot()).get(position(slot.slot()), target, 0, slot.length());
+            return slot.length();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Checks whether a block is cached, without changing its recency.
+     *
+     * @param key block key
+     * @return true if cached
+     */
+    public boolean contains(BlockKey key) {
+        lock.lock();
+        try {
+            return index.containsKey(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Copies a block into the arena, evicting the least recently used block if no slot is free.
+     *
+     * @param key    block key
+     * @param data   block content
+     * @param length number of bytes, at most the block size
+     */
+    public void store(BlockKey key, byte[] data, int length) {
+        lock.lock();
+        try {
+            if (index.containsKey(key)) {
+                return;
+            }
+            Integer slot = freeSlots.poll();
+            if (slot == null) {
+                Iterator<Map.Entry<BlockKey, Slot>> eldest = index.entrySet().iterator();
+                Slot evicted = eldest.next().getValue();
+                eldest.remove();
+                usedBytes -= evicted.length();
+                evictions.increment();
+                slot = evicted.slot();
+            }
+            segment(slot).put(position(slot), data, 0, length);
+            index.put(key, new Slot(slot, length));
+            usedBytes += length;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Records a block served from the cache.
+     */
+    public void recordHit() {
+        hits.increment();
+    }
+
+    /**
+     * Records blocks that had to be read from the next tier.
+     *
+     * @param blocks number of missing blocks
+     */
+    public void recordMiss(long blocks) {
+        misses.increment(blocks);
+    }
+
+    private ByteBuffer segment(int slot) {
+        return segments[slot / slotsPerSegment];
+    }
+
+    private int position(int slot) {
+        return (slot % slotsPerSegment) * blockSize;
+    }
+
+    private long usedBytes() {
+        lock.lock();
+        try {
+            return usedBytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int size() {
+        lock.lock();
+        try {
+            return index.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Identifies a block of a file version.
+     *
+     * @param path     destination path of the file
+     * @param modified last modification date of the file (epoch ms)
+     * @param index    zero-based block index
+     */
+    public record BlockKey(String path, long modified, long index) {
+    }
+
+    private record Slot(int slot, int length) {
+    }
+}
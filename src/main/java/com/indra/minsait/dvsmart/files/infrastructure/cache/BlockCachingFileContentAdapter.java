@@ -0,0 +1,225 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.files.infrastructure.cache;
+
+import com.indra.minsait.dvsmart.files.domain.model.FileMetadata;
+import com.indra.minsait.dvsmart.files.domain.port.out.FileContentPort;
+import lombok.RequiredArgsConstructor;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * File content adapter that serves byte ranges from a {@link BlockCache}.
+ * <p>
+ * Decorates another {@link FileContentPort}. A read of a catalogued file is
+ * split into blocks: cached blocks are copied from the arena, and every run
+ * of consecutive missing blocks is fetched with a single range read, widened
+ * to whole blocks, whose blocks are cached as they go by. Full reads and
+ * ranges only go through the cache up to the configured size, so one large
+ * download does not flush the arena.
+ * </p>
+ */
+/**
+ * @author Hector Huaranga <hahuaranga@indracompany.com>
+ * @class BlockCachingFileContentAdapter
+ * @date 18-10-2026
+ */
+@RequiredArgsConstructor
+public class BlockCachingFileContentAdapter implements FileContentPort {
+
+    private final FileContentPort delegate;
+    private final BlockCache cache;
+
+    @Override
+    public InputStream getFileStream(String remotePath) {
+        return delegate.getFileStream(remotePath);
+    }
+
+    @Override
+    public void streamFileTo(String remotePath, OutputStream outputStream) {
+        delegate.streamFileTo(remotePath, outputStream);
+    }
+
+    @Override
+    public void streamRangeTo(String remotePath, long offset, long length, OutputStream outputStream) {
+        delegate.streamRangeTo(remotePath, offset, length, outputStream);
+    }
+
+    @Override
+    public byte[] getFileContent(String remotePath) {
+        return delegate.getFileContent(remotePath);
+    }
+
+    @Override
+    public boolean fileExists(String remotePath) {
+        return delegate.fileExists(remotePath);
+    }
+
+    @Override
+    public void streamFileTo(FileMetadata file, OutputStream outputStream) {
+        if (!isCacheable(file, 0, file.getFileSize())) {
+            delegate.streamFileTo(file, outputStream);
+            return;
+        }
+        stream(file, 0, file.getFileSize(), outputStream);
+    }
+
+    @Override
+    public void streamRangeTo(FileMetadata file, long offset, long length, OutputStream outputStream) {
+        if (!isCacheable(file, offset, length)) {
+            delegate.streamRangeTo(file, offset, length, outputStream);
+            return;
+        }
+        stream(file, offset, length, outputStream);
+    }
+
+    @Override
+    public byte[] getFileContent(FileMetadata file) {
+        if (!isCacheable(file, 0, file.getFileSize())) {
+            return delegate.getFileContent(file);
+        }
+        ByteArrayOutputStream content = new ByteArrayOutputStream(Math.toIntExact(file.getFileSize()));
+        stream(file, 0, file.getFileSize(), content);
+        return content.toByteArray();
+    }
+
+    @Override
+    public Optional<Path> findLocalCopy(FileMetadata file) {
+        return delegate.findLocalCopy(file);
+    }
+
+    /**
+     * Checks that the file has a version and the range lies within its catalogued size,
+     * so cached blocks can never mix two versions of a file, and that the range is not
+     * larger than the cache's maximum read size.
+     */
+    private boolean isCacheable(FileMetadata file, long offset, Long length) {
+        return file.getDestinationPath() != null
+                && file.getLastModificationDate() != null
+                && file.getFileSize() != null
+                && length != null && length > 0 && length <= cache.getMaxFileSize()
+                && offset >= 0 && offset + length <= file.getFileSize();
+    }
+
+    private void stream(FileMetadata file, long offset, long length, OutputStream outputStream) {
+        int blockSize = cache.getBlockSize();
+        long end = offset + length;
+        long lastBlock = (end - 1) / blockSize;
+        byte[] block = new byte[blockSize];
+
+        long blockIndex = offset / blockSize;
+        while (blockIndex <= lastBlock) {
+            int cached = cache.read(key(file, blockIndex), block);
+            if (cached >= 0) {
+                cache.recordHit();
+                long blockStart = blockIndex * blockSize;
+                int from = (int) Math.max(0, offset - blockStart);
+                int to = (int) Math.min(cached, end - blockStart);
+                write(outputStream, block, from, to - from);
+                blockIndex++;
+                continue;
+            }
+
+            // One range read for the whole run of missing blocks
+            long runEnd = blockIndex + 1;
+            while (runEnd <= lastBlock && !cache.contains(key(file, runEnd))) {
+                runEnd++;
+            }
+            cache.recordMiss(runEnd - blockIndex);
+            long runStart = blockIndex * blockSize;
+            long runLength = Math.min(runEnd * blockSize, file.getFileSize()) - runStart;
+            delegate.streamRangeTo(file, runStart, runLength,
+                    new BlockCapturingOutputStream(outputStream, file, blockIndex, offset, end));
+            blockIndex = runEnd;
+        }
+    }
+
+    private static BlockCache.BlockKey key(FileMetadata file, long blockIndex) {
+        return new BlockCache.BlockKey(file.getDestinationPath(),
+                file.getLastModificationDate().toEpochMilli(), blockIndex);
+    }
+
+    private static void write(OutputStream outputStream, byte[] buffer, int off, int len) {
+        try {
+            outputStream.write(buffer, off, len);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write cached content", e);
+        }
+    }
+
+    /**
+     * Cuts a block-aligned read into blocks for the cache, forwarding to the
+     * client only the bytes of the requested range.
+     */
+    private final class BlockCapturingOutputStream extends OutputStream {
+
+        private final OutputStream primary;
+        private final FileMetadata file;
+        private final long from;
+        private final long to;
+        private final byte[] block = new byte[cache.getBlockSize()];
+        private long blockIndex;
+        private long position;
+        private int filled;
+
+        private BlockCapturingOutputStream(OutputStream primary, FileMetadata file, long firstBlock,
+                                           long from, long to) {
+            this.primary = primary;
+            this.file = file;
+            this.from = from;
+            this.to = to;
+            this.blockIndex = firstBlock;
+            this.position = firstBlock * block.length;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            long start = Math.max(position, from);
+            long stop = Math.min(position + len, to);
+            if (start < stop) {
+                primary.write(b, off + (int) (start - position), (int) (stop - start));
+            }
+
+            while (len > 0) {
+                int chunk = Math.min(len, block.length - filled);
+                System.arraycopy(b, off, block, filled, chunk);
+                filled += chunk;
+                position += chunk;
+                off += chunk;
+                len -= chunk;
+                if (filled == block.length || position == file.getFileSize()) {
+                    cache.store(key(file, blockIndex), block, filled);
+                    blockIndex++;
+                    filled = 0;
+                }
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            primary.flush();
+        }
+    }
+}
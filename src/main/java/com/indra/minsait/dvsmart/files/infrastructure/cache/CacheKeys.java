@@ -0,0 +1,43 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.files.infrastructure.cache;
+
+import com.indra.minsait.dvsmart.files.domain.model.FileMetadata;
+
+/**
+ * Builds content cache keys shared by all cache tiers.
+ */
+/**
+ * @author Hector Huaranga <hahuaranga@indracompany.com>
+ * @class CacheKeys
+ * @date 18-10-2026
+ */
+final class CacheKeys {
+
+    private CacheKeys() {
+    }
+
+    /**
+     * Builds the key of a file version: idUnico plus last modification date.
+     *
+     * @param file file metadata
+     * @return cache key, or null if the file has no version information
+     */
+    static String of(FileMetadata file) {
+        if (file.getIdUnico() == null || file.getLastModificationDate() == null) {
+            return null;
+        }
+        return file.getIdUnico() + "-" + file.getLastModificationDate().toEpochMilli();
+    }
+}
@@ -0,0 +1,247 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.files.infrastructure.cache;
+
+import com.indra.minsait.dvsmart.files.domain.model.FileMetadata;
+import com.indra.minsait.dvsmart.files.domain.port.out.FileContentPort;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+
+/**
+ * File content adapter that serves hot files from the local disk cache.
+ * <p>
+ * Decorates another {@link FileContentPort}: cache hits are served with
+ * {@link FileChannel#transferTo} without using an SFTP session, and misses
+ * are streamed from the delegate while a copy is written to the cache.
+ * Path-based operations have no version information and go straight to
+ * the delegate.
+ * </p>
+ */
+/**
+ * @author Hector Huaranga <hahuaranga@indracompany.com>
+ * @class DiskCachingFileContentAdapter
+ * @date 18-10-2026
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class DiskCachingFileContentAdapter implements FileContentPort {
+
+    private final FileContentPort delegate;
+    private final DiskContentCache cache;
+
+    @Override
+    public InputStream getFileStream(String remotePath) {
+        return delegate.getFileStream(remotePath);
+    }
+
+    @Override
+    public void streamFileTo(String remotePath, OutputStream outputStream) {
+        delegate.streamFileTo(remotePath, outputStream);
+    }
+
+    @Override
+    public void streamRangeTo(String remotePath, long offset, long length, OutputStream outputStream) {
+        delegate.streamRangeTo(remotePath, offset, length, outputStream);
+    }
+
+    @Override
+    public byte[] getFileContent(String remotePath) {
+        return delegate.getFileContent(remotePath);
+    }
+
+    @Override
+    public boolean fileExists(String remotePath) {
+        return delegate.fileExists(remotePath);
+    }
+
+    @Override
+    public void streamFileTo(FileMetadata file, OutputStream outputStream) {
+        Optional<Path> cached = cache.lookup(file);
+        if (cached.isPresent() && transferFromCache(cached.get(), 0, -1, outputStream)) {
+            cache.recordHit();
+            return;
+        }
+
+        cache.recordMiss();
+        if (!cache.isCacheable(file)) {
+            delegate.streamFileTo(file, outputStream);
+            return;
+        }
+
+        DiskContentCache.Writer writer;
+        try {
+            writer = cache.openWriter(file);
+        } catch (IOException e) {
+            log.warn("Disk cache unavailable, streaming without caching: {}", file.getIdUnico(), e);
+            delegate.streamFileTo(file, outputStream);
+            return;
+        }
+
+        try (writer) {
+            TeeOutputStream tee = new TeeOutputStream(outputStream, writer);
+            delegate.streamFileTo(file, tee);
+            if (tee.isBranchHealthy()) {
+                writer.commit();
+            }
+        } catch (IOException e) {
+            // Client already received the content, only the cache copy is lost
+            log.warn("Failed to commit file to disk cache: {}", file.getIdUnico(), e);
+        }
+    }
+
+    @Override
+    public void streamRangeTo(FileMetadata file, long offset, long length, OutputStream outputStream) {
+        Optional<Path> cached = cache.lookup(file);
+        if (cached.isPresent() && transferFromCache(cached.get(), offset, length, outputStream)) {
+            cache.recordHit();
+            return;
+        }
+        // Partial reads cannot populate the cache
+        cache.recordMiss();
+        delegate.streamRangeTo(file, offset, length, outputStream);
+    }
+
+    @Override
+    public byte[] getFileContent(FileMetadata file) {
+        Optional<Path> cached = cache.lookup(file);
+        if (cached.isPresent()) {
+            try {
+                byte[] content = Files.readAllBytes(cached.get());
+                cache.recordHit();
+                return content;
+            } catch (IOException e) {
+                log.warn("Failed to read cached file, falling back to origin: {}", cached.get(), e);
+            }
+        }
+
+        cache.recordMiss();
+        byte[] content = delegate.getFileContent(file);
+        if (cache.isCacheable(file)) {
+            cache.store(file, content);
+        }
+        return content;
+    }
+
+    @Override
+    public Optional<Path> findLocalCopy(FileMetadata file) {
+        Optional<Path> cached = cache.lookup(file);
+        cached.ifPresent(path -> cache.recordHit());
+        return cached;
+    }
+
+    /**
+     * Copies a cached file (or part of it) to the output with FileChannel.transferTo.
+     *
+     * @return false if the cached file vanished before anything was written
+     */
+    private boolean transferFromCache(Path path, long offset, long length, OutputStream outputStream) {
+        FileChannel channel;
+        try {
+            channel = FileChannel.open(path, StandardOpenOption.READ);
+        } catch (NoSuchFileException e) {
+            return false;
+        } catch (IOException e) {
+            log.warn("Failed to open cached file: {}", path, e);
+            return false;
+        }
+
+        try (channel) {
+            WritableByteChannel target = Channels.newChannel(outputStream);
+            long position = offset;
+            long remaining = length < 0 ? channel.size() - offset : length;
+
+            while (remaining > 0) {
+                long transferred = channel.transferTo(position, remaining, target);
+                if (transferred <= 0) {
+                    throw new EOFException("Unexpected end of cached file at offset " + position);
+                }
+                position += transferred;
+                remaining -= transferred;
+            }
+            log.debug("Served {} bytes from disk cache: {}", position - offset, path);
+            return true;
+
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to serve cached file: " + path, e);
+        }
+    }
+
+    /**
+     * Writes to the client and to a cache branch. Branch failures never
+     * affect the client; they only disable caching for this transfer.
+     */
+    private static final class TeeOutputStream extends OutputStream {
+
+        private final OutputStream primary;
+        private final OutputStream branch;
+        private boolean branchHealthy = true;
+
+        private TeeOutputStream(OutputStream primary, OutputStream branch) {
+            this.primary = primary;
+            this.branch = branch;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            primary.write(b);
+            if (branchHealthy) {
+                try {
+                    branch.write(b);
+                } catch (IOException e) {
+                    disableBranch(e);
+                }
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            primary.write(b, off, len);
+            if (branchHealthy) {
+                try {
+                    branch.write(b, off, len);
+                } catch (IOException e) {
+                    disableBranch(e);
+                }
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            primary.flush();
+        }
+
+        private void disableBranch(IOException e) {
+            log.warn("Disk cache write failed, continuing without caching", e);
+            branchHealthy = false;
+        }
+
+        private boolean isBranchHealthy() {
+            return branchHealthy;
+        }
+    }
+}
@@ -0,0 +1,337 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.files.infrastructure.cache;
+
+import com.indra.minsait.dvsmart.files.domain.model.FileMetadata;
+import com.indra.minsait.dvsmart.files.infrastructure.config.FilesConfigProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Size-bounded cache of file content on local disk.
+ * <p>
+ * Features:
+ * <ul>
+ *   <li>Entries keyed by idUnico plus last modification date, so updated files are never served stale</li>
+ *   <li>LRU eviction within a configurable total size budget</li>
+ *   <li>Atomic writes - content is written to a temp file and moved into place when complete</li>
+ *   <li>Index rebuilt from the cache directory on startup</li>
+ * </ul>
+ * Evicted files are deleted after a short grace period, so a path handed out
+ * for sendfile stays valid while the web server opens it. Every write gets
+ * its own generation in the file name ({@code <key>.<generation>.pdf}), so a
+ * delayed delete only ever removes the evicted copy, never a newer copy of
+ * the same key cached in the meantime.
+ * </p>
+ */
+/**
+ * @author Hector Huaranga <hahuaranga@indracompany.com>
+ * @class DiskContentCache
+ * @date 18-10-2026
+ */
+@Slf4j
+public class DiskContentCache implements AutoCloseable {
+
+    private static final String FILE_SUFFIX = ".pdf";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final long DELETE_GRACE_SECONDS = 30;
+    private static final long MB = 1024L * 1024;
+
+    private final Path directory;
+    private final long maxFileSize;
+    private final WeightedLruCache<String, Entry> index;
+    private final AtomicLong generations = new AtomicLong();
+    private final ScheduledExecutorService deleter;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    public DiskContentCache(FilesConfigProperties.DiskCacheConfig config, MeterRegistry meterRegistry) {
+        this.directory = Paths.get(config.getDirectory()).toAbsolutePath();
+        this.maxFileSize = config.getMaxFileSizeMb() * MB;
+        this.index = new WeightedLruCache<>(config.getMaxSizeMb() * MB, Entry::size, this::onEvicted);
+
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("disk-cache-cleaner-");
+        threadFactory.setDaemon(true);
+        this.deleter = Executors.newSingleThreadScheduledExecutor(threadFactory);
+
+        this.hits = meterRegistry.counter("files.cache.requests", "tier", "disk", "result", "hit");
+        this.misses = meterRegistry.counter("files.cache.requests", "tier", "disk", "result", "miss");
+        this.evictions = meterRegistry.counter("files.cache.evictions", "tier", "disk");
+        Gauge.builder("files.cache.size", index, WeightedLruCache::weight)
+                .tag("tier", "disk").baseUnit("bytes").register(meterRegistry);
+        Gauge.builder("files.cache.entries", index, WeightedLruCache::size)
+                .tag("tier", "disk").register(meterRegistry);
+
+        loadExisting();
+
+        log.info("Disk content cache initialized: {} ({} entries, {} MB of {} MB)",
+                directory, index.size(), index.weight() / MB, config.getMaxSizeMb());
+    }
+
+    /**
+     * Checks whether a file can be stored in the cache.
+     *
+     * @param file file metadata
+     * @return true if the file has a version and fits the per-file limit
+     */
+    public boolean isCacheable(FileMetadata file) {
+        return CacheKeys.of(file) != null && file.getFileSize() != null && file.getFileSize() <= maxFileSize;
+    }
+
+    /**
+     * Looks up the cached copy of a file.
+     *
+     * @param file file metadata
+     * @return path to the cached copy, or empty if not cached
+     */
+    public Optional<Path> lookup(FileMetadata file) {
+        String key = CacheKeys.of(file);
+        Entry entry = key != null ? index.get(key) : null;
+        if (entry == null) {
+            return Optional.empty();
+        }
+        if (!Files.isRegularFile(entry.path())) {
+            log.warn("Cached file disappeared from disk: {}", entry.path());
+            index.remove(key);
+            return Optional.empty();
+        }
+        return Optional.of(entry.path());
+    }
+
+    /**
+     * Records a request served from the cache.
+     */
+    public void recordHit() {
+        hits.increment();
+    }
+
+    /**
+     * Records a request that had to go to the origin.
+     */
+    public void recordMiss() {
+        misses.increment();
+    }
+
+    /**
+     * Opens a writer that stores the file in the cache once committed.
+     *
+     * @param file file metadata
+     * @return writer backed by a temp file in the cache directory
+     * @throws IOException if the temp file cannot be created
+     */
+    public Writer openWriter(FileMetadata file) throws IOException {
+        String key = CacheKeys.of(file);
+        if (key == null) {
+            throw new IllegalArgumentException("File has no modification date: " + file.getIdUnico());
+        }
+        Path tempFile = Files.createTempFile(directory, key + "-", TEMP_SUFFIX);
+        return new Writer(key, file.getFileSize(), tempFile);
+    }
+
+    /**
+     * Stores content already held in memory.
+     *
+     * @param file    file metadata
+     * @param content file content
+     */
+    public void store(FileMetadata file, byte[] content) {
+        try (Writer writer = openWriter(file)) {
+            writer.write(content);
+            writer.commit();
+        } catch (IOException e) {
+            log.warn("Failed to store file in disk cache: {}", file.getIdUnico(), e);
+        }
+    }
+
+    @Override
+    public void close() {
+        deleter.shutdown();
+    }
+
+    private void loadExisting() {
+        try {
+            Files.createDirectories(directory);
+            List<Path> files;
+            try (Stream<Path> stream = Files.list(directory)) {
+                files = stream.filter(Files::isRegularFile).toList();
+            }
+            // Leftovers from interrupted writes are never valid entries
+            files.stream()
+                    .filter(path -> path.getFileName().toString().endsWith(TEMP_SUFFIX))
+                    .forEach(this::deleteQuietly);
+            // Oldest first, so the most recently written files end up most recently used
+            files.stream()
+                    .filter(path -> path.getFileName().toString().endsWith(FILE_SUFFIX))
+                    .sorted(Comparator.comparing(this::lastModifiedTime))
+                    .forEach(path -> {
+                        String name = path.getFileName().toString();
+                        name = name.substring(0, name.length() - FILE_SUFFIX.length());
+                        String key = name;
+                        int dot = name.lastIndexOf('.');
+                        if (dot > 0) {
+                            try {
+                                long generation = Long.parseLong(name.substring(dot + 1));
+                                generations.accumulateAndGet(generation, Math::max);
+                                key = name.substring(0, dot);
+                            } catch (NumberFormatException e) {
+                                // Written before generations, the whole name is the key
+                            }
+                        }
+                        if (!index.putIfAbsent(key, new Entry(sizeOf(path), path))) {
+                            deleteQuietly(path);
+                        }
+                    });
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to initialize disk cache directory: " + directory, e);
+        }
+    }
+
+    private void onEvicted(String key, Entry entry) {
+        evictions.increment();
+        log.debug("Evicting cached file: {} ({} bytes)", entry.path(), entry.size());
+        deleter.schedule(() -> deleteQuietly(entry.path()), DELETE_GRACE_SECONDS, TimeUnit.SECONDS);
+    }
+
+    private Path newPathOf(String key) {
+        return directory.resolve(key + "." + generations.incrementAndGet() + FILE_SUFFIX);
+    }
+
+    private FileTime lastModifiedTime(Path path) {
+        try {
+            return Files.getLastModifiedTime(path);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    private long sizeOf(Path path) {
+        try {
+            return Files.size(path);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Failed to delete cached file: {}", path, e);
+        }
+    }
+
+    /**
+     * Writes a cache entry to a temp file and publishes it atomically.
+     * <p>
+     * Closing without {@link #commit()} discards the content.
+     * </p>
+     */
+    public final class Writer extends OutputStream {
+
+        private final String key;
+        private final Long expectedSize;
+        private final Path tempFile;
+        private final OutputStream out;
+        private long written;
+        private boolean closed;
+
+        private Writer(String key, Long expectedSize, Path tempFile) throws IOException {
+            this.key = key;
+            this.expectedSize = expectedSize;
+            this.tempFile = tempFile;
+            this.out = new BufferedOutputStream(Files.newOutputStream(tempFile));
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            written++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            written += len;
+        }
+
+        /**
+         * Moves the temp file into place and registers the entry.
+         * Content whose size does not match the catalog is discarded.
+         *
+         * @throws IOException if the file cannot be published
+         */
+        public void commit() throws IOException {
+            out.close();
+            closed = true;
+            if (expectedSize != null && expectedSize != written) {
+                log.warn("Not caching {}: expected {} bytes but received {}", key, expectedSize, written);
+                deleteQuietly(tempFile);
+                return;
+            }
+            Path target = newPathOf(key);
+            Files.move(tempFile, target, StandardCopyOption.ATOMIC_MOVE);
+            if (index.putIfAbsent(key, new Entry(written, target))) {
+                log.debug("Cached file on disk: {} ({} bytes)", target, written);
+            } else {
+                // Cached by a concurrent writer, or larger than the whole budget: nothing references this copy
+                deleteQuietly(target);
+            }
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                out.close();
+            } catch (IOException e) {
+                log.debug("Failed to close cache temp file: {}", tempFile, e);
+            }
+            deleteQuietly(tempFile);
+        }
+    }
+
+    /**
+     * Cached copy of a file version.
+     *
+     * @param size size in bytes
+     * @param path file in the cache directory, unique to this write
+     */
+    private record Entry(long size, Path path) {
+    }
+}
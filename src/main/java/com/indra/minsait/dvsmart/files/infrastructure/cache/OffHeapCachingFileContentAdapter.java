@@ -0,0 +1,225 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.files.infrastructure.cache;
+
+import com.indra.minsait.dvsmart.files.domain.model.FileMetadata;
+import com.indra.minsait.dvsmart.files.domain.port.out.FileContentPort;
+import jakarta.servlet.ServletOutputStream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * File content adapter that serves small files from off-heap memory.
+ * <p>
+ * Decorates another {@link FileContentPort}. Files below the configured
+ * threshold are captured into a direct buffer the first time they are read
+ * and served from it afterwards. When the target is a servlet output stream
+ * the buffer is written with {@link ServletOutputStream#write(ByteBuffer)},
+ * so cached bytes are never copied onto the heap.
+ * </p>
+ */
+/**
+ * @author Hector Huaranga <hahuaranga@indracompany.com>
+ * @class OffHeapCachingFileContentAdapter
+ * @date 18-10-2026
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class OffHeapCachingFileContentAdapter implements FileContentPort {
+
+    private static final int FALLBACK_CHUNK_SIZE = 8192;
+
+    private final FileContentPort delegate;
+    private final OffHeapContentCache cache;
+
+    @Override
+    public InputStream getFileStream(String remotePath) {
+        return delegate.getFileStream(remotePath);
+    }
+
+    @Override
+    public void streamFileTo(String remotePath, OutputStream outputStream) {
+        delegate.streamFileTo(remotePath, outputStream);
+    }
+
+    @Override
+    public void streamRangeTo(String remotePath, long offset, long length, OutputStream outputStream) {
+        delegate.streamRangeTo(remotePath, offset, length, outputStream);
+    }
+
+    @Override
+    public byte[] getFileContent(String remotePath) {
+        return delegate.getFileContent(remotePath);
+    }
+
+    @Override
+    public boolean fileExists(String remotePath) {
+        return delegate.fileExists(remotePath);
+    }
+
+    @Override
+    public void streamFileTo(FileMetadata file, OutputStream outputStream) {
+        if (!cache.isCacheable(file)) {
+            delegate.streamFileTo(file, outputStream);
+            return;
+        }
+
+        Optional<ByteBuffer> cached = cache.lookup(file);
+        if (cached.isPresent()) {
+            cache.recordHit();
+            write(cached.get(), outputStream);
+            return;
+        }
+
+        cache.recordMiss();
+        Optional<ByteBuffer> allocated = cache.allocate(file);
+        if (allocated.isEmpty()) {
+            delegate.streamFileTo(file, outputStream);
+            return;
+        }
+        ByteBuffer buffer = allocated.get();
+        boolean stored = false;
+        try {
+            CapturingOutputStream capture = new CapturingOutputStream(outputStream, buffer);
+            delegate.streamFileTo(file, capture);
+            if (capture.isComplete()) {
+                buffer.flip();
+                cache.store(file, buffer);
+                stored = true;
+            }
+        } finally {
+            if (!stored) {
+                cache.release(buffer);
+            }
+        }
+    }
+
+    @Override
+    public void streamRangeTo(FileMetadata file, long offset, long length, OutputStream outputStream) {
+        if (!cache.isCacheable(file)) {
+            delegate.streamRangeTo(file, offset, length, outputStream);
+            return;
+        }
+
+        Optional<ByteBuffer> cached = cache.lookup(file);
+        if (cached.isPresent()) {
+            cache.recordHit();
+            write(cached.get().slice(Math.toIntExact(offset), Math.toIntExact(length)), outputStream);
+            return;
+        }
+        cache.recordMiss();
+        delegate.streamRangeTo(file, offset, length, outputStream);
+    }
+
+    @Override
+    public byte[] getFileContent(FileMetadata file) {
+        if (!cache.isCacheable(file)) {
+            return delegate.getFileContent(file);
+        }
+
+        Optional<ByteBuffer> cached = cache.lookup(file);
+        if (cached.isPresent()) {
+            cache.recordHit();
+            // Callers need a heap array (e.g. PDF rendering), the copy is unavoidable here
+            byte[] content = new byte[cached.get().remaining()];
+            cached.get().get(content);
+            return content;
+        }
+
+        cache.recordMiss();
+        byte[] content = delegate.getFileContent(file);
+        if (content.length == file.getFileSize()) {
+            cache.allocate(file).ifPresent(buffer -> {
+                buffer.put(content).flip();
+                cache.store(file, buffer);
+            });
+        }
+        return content;
+    }
+
+    @Override
+    public Optional<Path> findLocalCopy(FileMetadata file) {
+        return delegate.findLocalCopy(file);
+    }
+
+    private void write(ByteBuffer buffer, OutputStream outputStream) {
+        try {
+            if (outputStream instanceof ServletOutputStream servletOutputStream) {
+                servletOutputStream.write(buffer);
+                return;
+            }
+            byte[] chunk = new byte[Math.min(FALLBACK_CHUNK_SIZE, Math.max(1, buffer.remaining()))];
+            while (buffer.hasRemaining()) {
+                int length = Math.min(chunk.length, buffer.remaining());
+                buffer.get(chunk, 0, length);
+                outputStream.write(chunk, 0, length);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write cached content", e);
+        }
+    }
+
+    /**
+     * Forwards bytes to the client while copying them into an off-heap buffer.
+     * Content larger than the buffer (stale catalog size) is not captured.
+     */
+    private static final class CapturingOutputStream extends OutputStream {
+
+        private final OutputStream primary;
+        private final ByteBuffer buffer;
+        private boolean overflow;
+
+        private CapturingOutputStream(OutputStream primary, ByteBuffer buffer) {
+            this.primary = primary;
+            this.buffer = buffer;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            primary.write(b);
+            if (!overflow && buffer.hasRemaining()) {
+                buffer.put((byte) b);
+            } else {
+                overflow = true;
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            primary.write(b, off, len);
+            if (!overflow && buffer.remaining() >= len) {
+                buffer.put(b, off, len);
+            } else {
+                overflow = true;
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            primary.flush();
+        }
+
+        private boolean isComplete() {
+            return !overflow && !buffer.hasRemaining();
+        }
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.files.infrastructure.cache;
+
+import com.indra.minsait.dvsmart.files.domain.model.FileMetadata;
+import com.indra.minsait.dvsmart.files.infrastructure.config.FilesConfigProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.ByteBuffer;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Off-heap cache of small file contents.
+ * <p>
+ * Content is held in direct {@link ByteBuffer}s, outside the Java heap, and
+ * the total size is bounded by a byte budget with LRU eviction. Buffers
+ * being filled by a first read are reserved against the same budget before
+ * they are allocated, so concurrent misses cannot allocate past it: when the
+ * reservation does not fit, the file is simply not cached. Buffers are never
+ * modified once cached, so readers get independent read-only views and an
+ * evicted buffer stays valid for requests still writing it out.
+ * </p>
+ */
+/**
+ * @author Hector Huaranga <hahuaranga@indracompany.com>
+ * @class OffHeapContentCache
+ * @date 18-10-2026
+ */
+@Slf4j
+public class OffHeapContentCache {
+
+    private static final long KB = 1024L;
+    private static final long MB = 1024L * 1024;
+
+    private final long maxFileSize;
+    private final long budget;
+    private final AtomicLong reserved = new AtomicLong();
+    private final WeightedLruCache<String, ByteBuffer> index;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+    private final Counter skipped;
+
+    public OffHeapContentCache(FilesConfigProperties.MemoryCacheConfig config, MeterRegistry meterRegistry) {
+        this.maxFileSize = config.getMaxFileSizeKb() * KB;
+        this.budget = config.getMaxSizeMb() * MB;
+        this.evictions = meterRegistry.counter("files.cache.evictions", "tier", "memory");
+        this.skipped = meterRegistry.counter("files.cache.skipped", "tier", "memory");
+        this.index = new WeightedLruCache<>(budget, ByteBuffer::capacity,
+                (key, buffer) -> evictions.increment());
+
+        this.hits = meterRegistry.counter("files.cache.requests", "tier", "memory", "result", "hit");
+        this.misses = meterRegistry.counter("files.cache.requests", "tier", "memory", "result", "miss");
+        Gauge.builder("files.cache.size", index, WeightedLruCache::weight)
+                .tag("tier", "memory").baseUnit("bytes").register(meterRegistry);
+        Gauge.builder("files.cache.entries", index, WeightedLruCache::size)
+                .tag("tier", "memory").register(meterRegistry);
+
+        log.info("Off-heap content cache initialized: {} MB budget, files up to {} KB",
+                config.getMaxSizeMb(), config.getMaxFileSizeKb());
+    }
+
+    /**
+     * Checks whether a file is small enough to be cached in memory.
+     *
+     * @param file file metadata
+     * @return true if the file has a version and is below the size threshold
+     */
+    public boolean isCacheable(FileMetadata file) {
+        return CacheKeys.of(file) != null
+                && file.getFileSize() != null
+                && file.getFileSize() <= maxFileSize
+                && file.getFileSize() <= index.maxWeight();
+    }
+
+    /**
+     * Looks up cached content.
+     *
+     * @param file file metadata
+     * @return read-only view positioned at the first byte, or empty if not cached
+     */
+    public Optional<ByteBuffer> lookup(FileMetadata file) {
+        String key = CacheKeys.of(file);
+        if (key == null) {
+            return Optional.empty();
+        }
+        ByteBuffer buffer = index.get(key);
+        return buffer != null ? Optional.of(buffer.asReadOnlyBuffer()) : Optional.empty();
+    }
+
+    /**
+     * Reserves room in the budget and allocates an off-heap buffer sized for the file,
+     * evicting cached files if the reservation needs their room. Every allocated buffer
+     * must be handed back through {@link #store} or {@link #release}.
+     *
+     * @param file cacheable file metadata
+     * @return empty direct buffer with capacity equal to the file size, or empty if
+     *         buffers being filled already hold the budget
+     */
+    public Optional<ByteBuffer> allocate(FileMetadata file) {
+        int size = Math.toIntExact(file.getFileSize());
+        long inFlight = reserved.addAndGet(size);
+        if (inFlight > budget) {
+            reserved.addAndGet(-size);
+            skipped.increment();
+            return Optional.empty();
+        }
+        index.trimTo(budget - inFlight);
+        try {
+            return Optional.of(ByteBuffer.allocateDirect(size));
+        } catch (OutOfMemoryError e) {
+            reserved.addAndGet(-size);
+            skipped.increment();
+            log.warn("No direct memory left to cache file {} ({} bytes): {}", file.getIdUnico(), size, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Stores a fully written buffer and releases its reservation.
+     *
+     * @param file    file metadata
+     * @param content buffer from {@link #allocate}, positioned at the first byte, limit at the last
+     */
+    public void store(FileMetadata file, ByteBuffer content) {
+        String key = CacheKeys.of(file);
+        try {
+            if (key != null && index.putIfAbsent(key, content)) {
+                log.debug("Cached file in off-heap memory: {} ({} bytes)", file.getIdUnico(), content.capacity());
+            }
+        } finally {
+            reserved.addAndGet(-content.capacity());
+        }
+        // Buffers still being filled keep their share of the budget
+        index.trimTo(budget - reserved.get());
+    }
+
+    /**
+     * Releases the reservation of a buffer that will not be cached (e.g. the read failed).
+     *
+     * @param buffer buffer from {@link #allocate}
+     */
+    public void release(ByteBuffer buffer) {
+        reserved.addAndGet(-buffer.capacity());
+    }
+
+    /**
+     * Records a request served from memory.
+     */
+    public void recordHit() {
+        hits.increment();
+    }
+
+    /**
+     * Records a request that had to go to the next tier.
+     */
+    public void recordMiss() {
+        misses.increment();
+    }
+}
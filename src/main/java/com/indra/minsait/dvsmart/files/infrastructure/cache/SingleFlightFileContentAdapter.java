@@ -0,0 +1,498 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.files.infrastructure.cache;
+
+import com.indra.minsait.dvsmart.files.domain.model.FileMetadata;
+import com.indra.minsait.dvsmart.files.domain.port.out.FileContentPort;
+import com.indra.minsait.dvsmart.files.infrastructure.config.FilesConfigProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * File content adapter that coalesces concurrent fetches of the same file.
+ * <p>
+ * The first request for a file version starts a flight: one read from the
+ * delegate, drained on a separate thread into a copy shared by every request
+ * for that version. The first {@code files.coalescing.memory-buffer-kb} of the
+ * copy are held in memory and the rest spills to a spool file, so small files
+ * never touch the disk. Every request, the one that started the flight
+ * included, serves its client from the copy starting at byte 0, whenever it
+ * joins. Only one SFTP read per file version is in flight, however many
+ * clients ask for it, and a slow client never paces the others.
+ * </p>
+ * <p>
+ * The flight keeps reading while any request is still serving from it and
+ * stops once every client is gone. Delegate failures are propagated to every
+ * participant, and a participant that receives nothing for the follow
+ * timeout gives up.
+ * </p>
+ */
+/**
+ * @author Hector Huaranga <hahuaranga@indracompany.com>
+ * @class SingleFlightFileContentAdapter
+ * @date 18-10-2026
+ */
+@Slf4j
+public class SingleFlightFileContentAdapter implements FileContentPort {
+
+    private static final String SPOOL_SUFFIX = ".spool";
+
+    private final FileContentPort delegate;
+    private final ExecutorService executor;
+    private final Path spoolDirectory;
+    private final int memoryBytes;
+    private final int bufferSize;
+    private final long followTimeoutNanos;
+    private final ConcurrentMap<String, Flight> inFlight = new ConcurrentHashMap<>();
+    private final Counter leaders;
+    private final Counter followers;
+
+    /**
+     * @param delegate      adapter the flights read from
+     * @param config        coalescing settings
+     * @param bufferSize    chunk size when serving clients from the spool file
+     * @param executor      executor running the reads from the delegate
+     * @param meterRegistry registry of the coalescing meters
+     */
+    public SingleFlightFileContentAdapter(FileContentPort delegate, FilesConfigProperties.CoalescingConfig config,
+                                          int bufferSize, ExecutorService executor, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.executor = executor;
+        this.spoolDirectory = Paths.get(config.getSpoolDirectory()).toAbsolutePath();
+        this.memoryBytes = Math.toIntExact(config.getMemoryBufferKb() * 1024L);
+        this.bufferSize = bufferSize;
+        this.followTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(config.getFollowTimeoutMillis());
+        this.leaders = meterRegistry.counter("files.coalescing.requests", "role", "leader");
+        this.followers = meterRegistry.counter("files.coalescing.requests", "role", "follower");
+        Gauge.builder("files.coalescing.in.flight", inFlight, ConcurrentMap::size).register(meterRegistry);
+
+        cleanSpoolDirectory();
+        log.info("Request coalescing enabled: {} KB in memory per file, spool directory: {}",
+                config.getMemoryBufferKb(), this.spoolDirectory);
+    }
+
+    @Override
+    public InputStream getFileStream(String remotePath) {
+        return delegate.getFileStream(remotePath);
+    }
+
+    @Override
+    public void streamFileTo(String remotePath, OutputStream outputStream) {
+        delegate.streamFileTo(remotePath, outputStream);
+    }
+
+    @Override
+    public void streamRangeTo(String remotePath, long offset, long length, OutputStream outputStream) {
+        delegate.streamRangeTo(remotePath, offset, length, outputStream);
+    }
+
+    @Override
+    public byte[] getFileContent(String remotePath) {
+        return delegate.getFileContent(remotePath);
+    }
+
+    @Override
+    public boolean fileExists(String remotePath) {
+        return delegate.fileExists(remotePath);
+    }
+
+    @Override
+    public void streamFileTo(FileMetadata file, OutputStream outputStream) {
+        String key = CacheKeys.of(file);
+        if (key == null) {
+            delegate.streamFileTo(file, outputStream);
+            return;
+        }
+        fetch(key, file, outputStream);
+    }
+
+    @Override
+    public void streamRangeTo(FileMetadata file, long offset, long length, OutputStream outputStream) {
+        // Ranges are small and rarely identical across clients
+        delegate.streamRangeTo(file, offset, length, outputStream);
+    }
+
+    @Override
+    public byte[] getFileContent(FileMetadata file) {
+        String key = CacheKeys.of(file);
+        if (key == null) {
+            return delegate.getFileContent(file);
+        }
+        // Only a sizing hint: catalogued sizes may exceed what one array can hold
+        int expectedSize = file.getFileSize() != null ? (int) Math.min(file.getFileSize(), bufferSize) : bufferSize;
+        ByteArrayOutputStream content = new ByteArrayOutputStream(expectedSize);
+        fetch(key, file, content);
+        return content.toByteArray();
+    }
+
+    @Override
+    public Optional<Path> findLocalCopy(FileMetadata file) {
+        return delegate.findLocalCopy(file);
+    }
+
+    private void fetch(String key, FileMetadata file, OutputStream outputStream) {
+        boolean[] leader = {false};
+        Flight flight = inFlight.compute(key, (k, existing) -> {
+            if (existing != null && existing.join()) {
+                return existing;
+            }
+            leader[0] = true;
+            return new Flight(key, spoolDirectory.resolve(k + "-" + UUID.randomUUID() + SPOOL_SUFFIX));
+        });
+
+        if (leader[0]) {
+            leaders.increment();
+            flight.start(file);
+        } else {
+            followers.increment();
+            log.debug("Joining in-flight fetch of file: {}", file.getIdUnico());
+        }
+        try {
+            flight.follow(outputStream);
+        } finally {
+            flight.leave();
+        }
+    }
+
+    private void cleanSpoolDirectory() {
+        try {
+            Files.createDirectories(spoolDirectory);
+            // Spool files never outlive the process that wrote them
+            try (Stream<Path> stream = Files.list(spoolDirectory)) {
+                stream.filter(path -> path.getFileName().toString().endsWith(SPOOL_SUFFIX))
+                        .forEach(SingleFlightFileContentAdapter::deleteQuietly);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to initialize spool directory: " + spoolDirectory, e);
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Failed to delete spool file: {}", path, e);
+        }
+    }
+
+    /**
+     * One read of a file version and its shared copy.
+     * <p>
+     * The read from the delegate counts as a participant, so the spool file is
+     * deleted when both the read and the last client are done. A read left
+     * without clients closes the flight to newcomers and stops.
+     * </p>
+     */
+    private final class Flight {
+
+        private final String key;
+        private final Path spoolFile;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition progress = lock.newCondition();
+        private byte[] memory = new byte[0];
+        private long published;
+        private boolean done;
+        private boolean closed;
+        private RuntimeException failure;
+        private int participants = 2;
+
+        private Flight(String key, Path spoolFile) {
+            this.key = key;
+            this.spoolFile = spoolFile;
+        }
+
+        /**
+         * Registers a follower.
+         *
+         * @return false if the flight no longer accepts participants
+         */
+        private boolean join() {
+            lock.lock();
+            try {
+                if (closed || participants == 0) {
+                    return false;
+                }
+                participants++;
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void leave() {
+            lock.lock();
+            try {
+                if (--participants > 0) {
+                    return;
+                }
+                closed = true;
+            } finally {
+                lock.unlock();
+            }
+            deleteQuietly(spoolFile);
+        }
+
+        /**
+         * Starts the read from the delegate on the executor.
+         */
+        private void start(FileMetadata file) {
+            try {
+                executor.execute(() -> drain(file));
+            } catch (RejectedExecutionException e) {
+                inFlight.remove(key, this);
+                finish(e);
+                leave();
+            }
+        }
+
+        private void drain(FileMetadata file) {
+            SpoolingOutputStream spool = new SpoolingOutputStream(file);
+            try {
+                delegate.streamFileTo(file, spool);
+                spool.closeSpool();
+                finish(null);
+            } catch (RuntimeException e) {
+                spool.closeQuietly();
+                if (spool.abandoned) {
+                    log.debug("Stopped fetch of file {}, no client left", file.getIdUnico());
+                } else {
+                    log.debug("Fetch of file {} failed: {}", file.getIdUnico(), e.getMessage());
+                }
+                finish(e);
+            } finally {
+                inFlight.remove(key, this);
+                leave();
+            }
+        }
+
+        /**
+         * Serves a client from the shared copy, from byte 0 up to the end of the file.
+         */
+        private void follow(OutputStream outputStream) {
+            byte[] buffer = null;
+            long position = 0;
+            FileChannel channel = null;
+            try {
+                Progress available;
+                while ((available = awaitBeyond(position)).published() > position) {
+                    long end = available.published();
+                    if (position < memoryBytes) {
+                        int length = (int) (Math.min(end, memoryBytes) - position);
+                        outputStream.write(available.memory(), (int) position, length);
+                        position += length;
+                    }
+                    while (position < end) {
+                        if (channel == null) {
+                            channel = FileChannel.open(spoolFile, StandardOpenOption.READ);
+                            buffer = new byte[bufferSize];
+                        }
+                        int length = (int) Math.min(buffer.length, end - position);
+                        int read = channel.read(ByteBuffer.wrap(buffer, 0, length), position - memoryBytes);
+                        outputStream.write(buffer, 0, read);
+                        position += read;
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to stream coalesced file", e);
+            } finally {
+                if (channel != null) {
+                    try {
+                        channel.close();
+                    } catch (IOException e) {
+                        log.debug("Failed to close spool file: {}", spoolFile, e);
+                    }
+                }
+            }
+        }
+
+        private void publish(byte[] content, long length) {
+            lock.lock();
+            try {
+                memory = content;
+                published += length;
+                progress.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Tells the read whether anyone is still served from the copy. A flight
+         * without clients is closed so newcomers start a flight of their own.
+         */
+        private boolean isAbandoned() {
+            lock.lock();
+            try {
+                if (participants == 1) {
+                    closed = true;
+                }
+                return closed;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void finish(RuntimeException error) {
+            lock.lock();
+            try {
+                failure = error;
+                done = true;
+                progress.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Waits until more than {@code position} bytes are published or the read ends.
+         *
+         * @return bytes published so far, with the memory part of the copy
+         */
+        private Progress awaitBeyond(long position) {
+            lock.lock();
+            try {
+                long nanos = followTimeoutNanos;
+                while (published <= position && !done) {
+                    nanos = awaitProgress(nanos);
+                }
+                if (failure != null) {
+                    throw failure;
+                }
+                return new Progress(published, memory);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Waits for a signal of the read, with the lock held.
+         *
+         * @return time left to wait
+         * @throws UncheckedIOException if the wait times out or is interrupted
+         */
+        private long awaitProgress(long nanos) {
+            if (nanos <= 0) {
+                throw new UncheckedIOException(new IOException("No data from in-flight fetch for "
+                        + TimeUnit.NANOSECONDS.toMillis(followTimeoutNanos) + " ms: " + spoolFile.getFileName()));
+            }
+            try {
+                return progress.awaitNanos(nanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new UncheckedIOException(new InterruptedIOException("Interrupted while following in-flight fetch"));
+            }
+        }
+
+        /**
+         * Appends the content read from the delegate to the shared copy: to memory
+         * up to the memory limit, to the spool file beyond it.
+         */
+        private final class SpoolingOutputStream extends OutputStream {
+
+            private final FileMetadata file;
+            private byte[] content;
+            private long written;
+            private FileChannel channel;
+            private boolean abandoned;
+
+            private SpoolingOutputStream(FileMetadata file) {
+                this.file = file;
+                // Sized for the whole file when it fits, grown on demand otherwise
+                long expected = file.getFileSize() != null ? file.getFileSize() : bufferSize;
+                this.content = new byte[(int) Math.min(expected, memoryBytes)];
+            }
+
+            @Override
+            public void write(int b) throws IOException {
+                write(new byte[] {(byte) b}, 0, 1);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                if (isAbandoned()) {
+                    abandoned = true;
+                    throw new IOException("No client left for file: " + file.getIdUnico());
+                }
+                int inMemory = (int) Math.max(0, Math.min(len, memoryBytes - written));
+                if (inMemory > 0) {
+                    if (written + inMemory > content.length) {
+                        // Readers keep the previous array, which holds every byte they were told about
+                        long grown = Math.max(written + inMemory, (long) content.length * 2);
+                        content = Arrays.copyOf(content, (int) Math.min(grown, memoryBytes));
+                    }
+                    System.arraycopy(b, off, content, (int) written, inMemory);
+                }
+                if (len > inMemory) {
+                    if (channel == null) {
+                        channel = FileChannel.open(spoolFile, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+                    }
+                    ByteBuffer chunk = ByteBuffer.wrap(b, off + inMemory, len - inMemory);
+                    while (chunk.hasRemaining()) {
+                        channel.write(chunk);
+                    }
+                }
+                written += len;
+                publish(content, len);
+            }
+
+            private void closeSpool() {
+                if (channel == null) {
+                    return;
+                }
+                try {
+                    channel.close();
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Failed to spool file: " + file.getIdUnico(), e);
+                }
+            }
+
+            private void closeQuietly() {
+                try {
+                    closeSpool();
+                } catch (UncheckedIOException e) {
+                    log.debug("Failed to close spool file: {}", spoolFile, e);
+                }
+            }
+        }
+    }
+
+    private record Progress(long published, byte[] memory) {
+    }
+}
@@ -0,0 +1,192 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.files.infrastructure.cache;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.function.ToLongFunction;
+
+/**
+ * Thread-safe LRU map bounded by the total weight of its values.
+ * <p>
+ * Entries are kept in access order; inserting beyond the weight budget
+ * evicts the least recently used entries. Eviction callbacks run outside
+ * the internal lock so they may perform I/O.
+ * </p>
+ *
+ * @param <K> key type
+ * @param <V> value type
+ */
+/**
+ * @author Hector Huaranga <hahuaranga@indracompany.com>
+ * @class WeightedLruCache
+ * @date 18-10-2026
+ * * @param <K>
+ * * @param <V>
+ */
+public class WeightedLruCache<K, V> {
+
+    private final LinkedHashMap<K, V> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final ReentrantLock lock = new ReentrantLock();
+    private final long maxWeight;
+    private final ToLongFunction<V> weigher;
+    private final BiConsumer<K, V> evictionListener;
+    private long weight;
+
+    public WeightedLruCache(long maxWeight, ToLongFunction<V> weigher, BiConsumer<K, V> evictionListener) {
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+        this.evictionListener = evictionListener;
+    }
+
+    /**
+     * Gets a value and marks it as most recently used.
+     *
+     * @param key entry key
+     * @return cached value, or null if absent
+     */
+    public V get(K key) {
+        lock.lock();
+        try {
+            return entries.get(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Inserts a value if the key is absent, evicting least recently used entries if needed.
+     *
+     * @param key   entry key
+     * @param value value to cache
+     * @return true if the value was cached; false if the key was already present
+     *         or the value alone exceeds the weight budget
+     */
+    public boolean putIfAbsent(K key, V value) {
+        long valueWeight = weigher.applyAsLong(value);
+        if (valueWeight > maxWeight) {
+            return false;
+        }
+
+        List<Map.Entry<K, V>> evicted = new ArrayList<>();
+        lock.lock();
+        try {
+            if (entries.containsKey(key)) {
+                return false;
+            }
+            entries.put(key, value);
+            weight += valueWeight;
+
+            Iterator<Map.Entry<K, V>> it = entries.entrySet().iterator();
+            while (weight > maxWeight && it.hasNext()) {
+                Map.Entry<K, V> eldest = it.next();
+                if (eldest.getKey().equals(key)) {
+                    continue;
+                }
+                it.remove();
+                weight -= weigher.applyAsLong(eldest.getValue());
+                evicted.add(Map.entry(eldest.getKey(), eldest.getValue()));
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        evicted.forEach(entry -> evictionListener.accept(entry.getKey(), entry.getValue()));
+        return true;
+    }
+
+    /**
+     * Evicts least recently used entries until the total weight is at most the target.
+     *
+     * @param targetWeight weight to trim down to
+     */
+    public void trimTo(long targetWeight) {
+        List<Map.Entry<K, V>> evicted = new ArrayList<>();
+        lock.lock();
+        try {
+            Iterator<Map.Entry<K, V>> it = entries.entrySet().iterator();
+            while (weight > targetWeight && it.hasNext()) {
+                Map.Entry<K, V> eldest = it.next();
+                it.remove();
+                weight -= weigher.applyAsLong(eldest.getValue());
+                evicted.add(Map.entry(eldest.getKey(), eldest.getValue()));
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        evicted.forEach(entry -> evictionListener.accept(entry.getKey(), entry.getValue()));
+    }
+
+    /**
+     * Removes an entry without notifying the eviction listener.
+     *
+     * @param key entry key
+     * @return removed value, or null if absent
+     */
+    public V remove(K key) {
+        lock.lock();
+        try {
+            V removed = entries.remove(key);
+            if (removed != null) {
+                weight -= weigher.applyAsLong(removed);
+            }
+            return removed;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the number of cached entries.
+     *
+     * @return entry count
+     */
+    public int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the total weight of cached entries.
+     *
+     * @return current weight
+     */
+    public long weight() {
+        lock.lock();
+        try {
+            return weight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the weight budget.
+     *
+     * @return maximum weight
+     */
+    public long maxWeight() {
+        return maxWeight;
+    }
+}
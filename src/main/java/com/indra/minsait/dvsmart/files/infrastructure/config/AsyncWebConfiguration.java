@@ -0,0 +1,83 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.files.infrastructure.config;
+
+import com.indra.minsait.dvsmart.files.adapter.in.rest.AsyncTransferLimiter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Configuration of async request processing for file transfers.
+ * <p>
+ * Download, view and preview bodies run on a dedicated executor, so Tomcat
+ * request threads are released while bytes move to slow clients.
+ * </p>
+ */
+/**
+ * @author Hector Huaranga <hahuaranga@indracompany.com>
+ * @class AsyncWebConfiguration
+ * @date 18-10-2026
+ */
+@Slf4j
+@Configuration
+@RequiredArgsConstructor
+public class AsyncWebConfiguration implements WebMvcConfigurer {
+
+    private final FilesConfigProperties filesConfig;
+    private final AsyncTransferLimiter asyncTransferLimiter;
+    private final Environment environment;
+
+    /**
+     * Executor running async transfer bodies.
+     * One thread per transfer slot; the limiter keeps the queue empty.
+     * In virtual-thread mode each transfer runs on its own virtual thread.
+     */
+    @Bean
+    AsyncTaskExecutor fileTransferExecutor() {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("file-transfer-");
+            executor.setVirtualThreads(true);
+            return executor;
+        }
+        int threads = filesConfig.getAsync().getMaxConcurrent();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.setThreadNamePrefix("file-transfer-");
+        executor.setDaemon(true);
+        return executor;
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        long timeoutSeconds = filesConfig.getAsync().getTimeoutSeconds();
+        configurer.setTaskExecutor(fileTransferExecutor());
+        configurer.setDefaultTimeout(TimeUnit.SECONDS.toMillis(timeoutSeconds));
+        configurer.registerCallableInterceptors(asyncTransferLimiter);
+        log.info("Async transfers: max {} concurrent, timeout {}s",
+                filesConfig.getAsync().getMaxConcurrent(), timeoutSeconds);
+    }
+}
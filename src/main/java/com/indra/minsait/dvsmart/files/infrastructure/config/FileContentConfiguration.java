@@ -0,0 +1,265 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.files.infrastructure.config;
+
+import com.indra.minsait.dvsmart.files.domain.port.out.FileContentPort;
+import com.indra.minsait.dvsmart.files.infrastructure.cache.BlockCache;
+import com.indra.minsait.dvsmart.files.infrastructure.cache.BlockCachingFileContentAdapter;
+import com.indra.minsait.dvsmart.files.infrastructure.cache.DiskCachingFileContentAdapter;
+import com.indra.minsait.dvsmart.files.infrastructure.cache.DiskContentCache;
+import com.indra.minsait.dvsmart.files.infrastructure.cache.OffHeapCachingFileContentAdapter;
+import com.indra.minsait.dvsmart.files.infrastructure.cache.OffHeapContentCache;
+import com.indra.minsait.dvsmart.files.infrastructure.cache.SingleFlightFileContentAdapter;
+import com.indra.minsait.dvsmart.files.infrastructure.resilience.HedgingFileContentAdapter;
+import com.indra.minsait.dvsmart.files.infrastructure.resilience.ResilientFileContentAdapter;
+import com.indra.minsait.dvsmart.files.infrastructure.segmented.SegmentedFileContentAdapter;
+import com.indra.minsait.dvsmart.files.infrastructure.sftp.CustomLazySftpSessionFactory;
+import com.indra.minsait.dvsmart.files.infrastructure.sftp.RemoteFileStat;
+import com.indra.minsait.dvsmart.files.infrastructure.sftp.SshjSessionPool;
+import com.indra.minsait.dvsmart.files.infrastructure.sftp.adapter.SftpFileContentAdapter;
+import com.indra.minsait.dvsmart.files.infrastructure.sftp.adapter.SshjFileContentAdapter;
+import com.indra.minsait.dvsmart.files.infrastructure.spool.SpoolingFileContentAdapter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+
+/**
+ * Configuration of the file content access chain.
+ * <p>
+ * Builds the {@link FileContentPort} used by domain services by layering
+ * the enabled decorators (resilience, hedging, segmented reads, block cache, spooling, request coalescing,
+ * caches) on top of the
+ * SFTP adapter selected by {@code sftp.dest.client}.
+ * </p>
+ */
+/**
+ * @author Hector Huaranga <hahuaranga@indracompany.com>
+ * @class FileContentConfiguration
+ * @date 18-10-2026
+ */
+@Slf4j
+@Configuration
+@RequiredArgsConstructor
+public class FileContentConfiguration {
+
+    private final FilesConfigProperties filesConfig;
+    private final SftpConfigProperties sftpConfig;
+    private final Environment environment;
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "files.cache.disk", name = "enabled", havingValue = "true")
+    DiskContentCache diskContentCache(MeterRegistry meterRegistry) {
+        return new DiskContentCache(filesConfig.getCache().getDisk(), meterRegistry);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "files.cache.memory", name = "enabled", havingValue = "true")
+    OffHeapContentCache offHeapContentCache(MeterRegistry meterRegistry) {
+        return new OffHeapContentCache(filesConfig.getCache().getMemory(), meterRegistry);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "files.cache.block", name = "enabled", havingValue = "true")
+    BlockCache blockCache(MeterRegistry meterRegistry) {
+        return new BlockCache(filesConfig.getCache().getBlock(), meterRegistry);
+    }
+
+    /**
+     * Executor fetching the files of bulk exports ahead of the archive writer.
+     * Tasks run in submission order, so each export's current entry is always
+     * started before the entries prefetched after it. In virtual-thread mode
+     * every fetch starts immediately on its own virtual thread.
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    ExecutorService archivePrefetchExecutor() {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("archive-prefetch-", 0).factory());
+        }
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("archive-prefetch-");
+        threadFactory.setDaemon(true);
+        return Executors.newFixedThreadPool(Math.max(1, filesConfig.getExport().getThreads()), threadFactory);
+    }
+
+    /**
+     * Executor running the racing reads of hedged downloads. Both reads of a
+     * hedged request wait on SFTP, so threads are created on demand rather
+     * than queued. In virtual-thread mode every read gets its own virtual thread.
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    @ConditionalOnProperty(prefix = "sftp.dest.hedging", name = "enabled", havingValue = "true")
+    ExecutorService sftpHedgeExecutor() {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("sftp-hedge-", 0).factory());
+        }
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("sftp-hedge-");
+        threadFactory.setDaemon(true);
+        return Executors.newCachedThreadPool(threadFactory);
+    }
+
+    /**
+     * Executor draining spooled downloads from SFTP. Every task holds an SFTP
+     * session, which the pool already bounds, so threads are created on demand
+     * rather than queued. In virtual-thread mode every read gets its own virtual thread.
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    @ConditionalOnProperty(prefix = "files.download.spool", name = "enabled", havingValue = "true")
+    ExecutorService downloadSpoolExecutor() {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("download-spool-", 0).factory());
+        }
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("download-spool-");
+        threadFactory.setDaemon(true);
+        return Executors.newCachedThreadPool(threadFactory);
+    }
+
+    /**
+     * Executor reading coalesced files into their shared copy. There is one
+     * read per file version in flight, so threads are created on demand.
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    @ConditionalOnProperty(prefix = "files.coalescing", name = "enabled", havingValue = "true")
+    ExecutorService coalescingExecutor() {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("coalescing-", 0).factory());
+        }
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("coalescing-");
+        threadFactory.setDaemon(true);
+        return Executors.newCachedThreadPool(threadFactory);
+    }
+
+    /**
+     * Executor fetching the segments of large downloads ahead of the stream.
+     * Segments are only started while the SFTP pool has spare sessions, which
+     * already bounds them, so threads are created on demand rather than queued.
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    @ConditionalOnProperty(prefix = "files.download.segmented", name = "enabled", havingValue = "true")
+    ExecutorService segmentedDownloadExecutor() {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("download-segment-", 0).factory());
+        }
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("download-segment-");
+        threadFactory.setDaemon(true);
+        return Executors.newCachedThreadPool(threadFactory);
+    }
+
+    @Bean
+    @Primary
+    FileContentPort fileContentPort(SftpFileContentAdapter sftpFileContentAdapter,
+                                    ObjectProvider<SshjFileContentAdapter> sshjFileContentAdapter,
+                                    ObjectProvider<DiskContentCache> diskContentCache,
+                                    ObjectProvider<OffHeapContentCache> offHeapContentCache,
+                                    ObjectProvider<BlockCache> blockCache,
+                                    CustomLazySftpSessionFactory sftpSessionFactory,
+                                    ObjectProvider<SshjSessionPool> sshjSessionPool,
+                                    @Qualifier("sftpHedgeExecutor") ObjectProvider<ExecutorService> sftpHedgeExecutor,
+                                    @Qualifier("downloadSpoolExecutor")
+                                    ObjectProvider<ExecutorService> downloadSpoolExecutor,
+                                    @Qualifier("segmentedDownloadExecutor")
+                                    ObjectProvider<ExecutorService> segmentedDownloadExecutor,
+                                    @Qualifier("coalescingExecutor") ObjectProvider<ExecutorService> coalescingExecutor,
+                                    MeterRegistry meterRegistry) {
+        FileContentPort port = sftpFileContentAdapter;
+        SshjFileContentAdapter sshjAdapter = sshjFileContentAdapter.getIfAvailable();
+        if (sshjAdapter != null) {
+            port = sshjAdapter;
+            log.info("File content chain: sshj SFTP client");
+        }
+
+        // Right above SFTP, so cached content is still served while the circuit is open
+        SftpConfigProperties.ResilienceConfig resilience = sftpConfig.getResilience();
+        if (resilience.isEnabled()) {
+            Function<String, RemoteFileStat> stat = sshjAdapter != null
+                    ? sshjAdapter::stat : sftpFileContentAdapter::stat;
+            port = new ResilientFileContentAdapter(port, resilience, stat, meterRegistry);
+            log.info("File content chain: circuit breaker and retries enabled");
+        }
+
+        // Extra sessions (hedges, prefetched segments) only while nobody waits for one
+        SshjSessionPool sshjPool = sshjSessionPool.getIfAvailable();
+        BooleanSupplier spareCapacity = () -> {
+            CustomLazySftpSessionFactory.PoolStats stats = sshjPool != null
+                    ? sshjPool.getPoolStats() : sftpSessionFactory.getPoolStats();
+            return stats.getAvailableSlots() > 0 && stats.getWaiting() == 0;
+        };
+
+        // Above the retries, so each racing read is retried on its own
+        ExecutorService hedgeExecutor = sftpHedgeExecutor.getIfAvailable();
+        if (hedgeExecutor != null) {
+            port = new HedgingFileContentAdapter(port, sftpConfig.getHedging(), hedgeExecutor,
+                    spareCapacity, meterRegistry);
+            log.info("File content chain: hedged reads enabled");
+        }
+
+        // Above retries and hedging, so every segment is retried and hedged on its own
+        ExecutorService segmentExecutor = segmentedDownloadExecutor.getIfAvailable();
+        if (segmentExecutor != null) {
+            port = new SegmentedFileContentAdapter(port, filesConfig.getDownload().getSegmented(), segmentExecutor,
+                    spareCapacity, meterRegistry);
+            log.info("File content chain: segmented parallel downloads enabled");
+        }
+
+        // Above the SFTP layers, so missing blocks are fetched segmented, hedged and retried
+        BlockCache blocks = blockCache.getIfAvailable();
+        if (blocks != null) {
+            port = new BlockCachingFileContentAdapter(port, blocks);
+            log.info("File content chain: block cache enabled");
+        }
+
+        // Above every SFTP layer, so the session is released once the remote file is drained
+        ExecutorService spoolExecutor = downloadSpoolExecutor.getIfAvailable();
+        if (spoolExecutor != null) {
+            port = new SpoolingFileContentAdapter(port, filesConfig.getDownload().getSpool(),
+                    filesConfig.getDownload().getBufferSize(), spoolExecutor, meterRegistry);
+            log.info("File content chain: spool-and-release downloads enabled");
+        }
+
+        // Below the disk and memory caches, so only cache misses are coalesced
+        ExecutorService coalescingReads = coalescingExecutor.getIfAvailable();
+        if (coalescingReads != null) {
+            port = new SingleFlightFileContentAdapter(port, filesConfig.getCoalescing(),
+                    filesConfig.getDownload().getBufferSize(), coalescingReads, meterRegistry);
+            log.info("File content chain: request coalescing enabled");
+        }
+
+        DiskContentCache diskCache = diskContentCache.getIfAvailable();
+        if (diskCache != null) {
+            port = new DiskCachingFileContentAdapter(port, diskCache);
+            log.info("File content chain: disk cache enabled");
+        }
+
+        // Memory tier goes on top so small hot files never reach the disk
+        OffHeapContentCache memoryCache = offHeapContentCache.getIfAvailable();
+        if (memoryCache != null) {
+            port = new OffHeapCachingFileContentAdapter(port, memoryCache);
+            log.info("File content chain: off-heap memory cache enabled");
+        }
+
+        return port;
+    }
+}
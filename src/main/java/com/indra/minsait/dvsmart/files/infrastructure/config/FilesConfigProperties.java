@@ -16,6 +16,9 @@ package com.indra.minsait.dvsmart.files.infrastructure.config;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  * Configuration properties for file operations.
  */
@@ -43,6 +46,36 @@ public class FilesConfigProperties {
      */
     private PreviewConfig preview = new PreviewConfig();
 
+    /**
+     * Async transfer configuration.
+     */
+    private AsyncConfig async = new AsyncConfig();
+
+    /**
+     * Content cache configuration.
+     */
+    private CacheConfig cache = new CacheConfig();
+
+    /**
+     * Request coalescing configuration.
+     */
+    private CoalescingConfig coalescing = new CoalescingConfig();
+
+    /**
+     * Bulk export configuration.
+     */
+    private ExportConfig export = new ExportConfig();
+
+    /**
+     * HTTP caching (validators and Cache-Control) configuration.
+     */
+    private HttpCacheConfig httpCache = new HttpCacheConfig();
+
+    /**
+     * Per-client fair share configuration.
+     */
+    private FairShareConfig fairShare = new FairShareConfig();
+
     @Data
     public static class SearchConfig {
         /**
@@ -62,6 +95,113 @@ public class FilesConfigProperties {
          * Buffer size for streaming downloads (bytes).
          */
         private int bufferSize = 8192;
+
+        /**
+         * Read-ahead (pipelined) transfer configuration.
+         */
+        private ReadAheadConfig readAhead = new ReadAheadConfig();
+
+        /**
+         * Spool-and-release configuration.
+         */
+        private SpoolConfig spool = new SpoolConfig();
+
+        /**
+         * Segmented parallel download configuration.
+         */
+        private SegmentedConfig segmented = new SegmentedConfig();
+    }
+
+    @Data
+    public static class SegmentedConfig {
+        /**
+         * Whether large files are fetched as segments over several SFTP sessions at once.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Minimum size of a file (or range) fetched in segments (MB).
+         */
+        private long thresholdMb = 64;
+
+        /**
+         * Size of each segment (MB).
+         */
+        private int segmentSizeMb = 4;
+
+        /**
+         * Segments fetched at once per download, including the one being streamed.
+         * Bounds the reorder buffer to parallelism - 1 segments in memory.
+         */
+        private int parallelism = 4;
+    }
+
+    @Data
+    public static class SpoolConfig {
+        /**
+         * Whether downloads are drained from SFTP into a local spool, returning the
+         * session right away, and served to the client from there at its own pace.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Memory ring buffer per download (KB). Content beyond it spills to a temp file.
+         */
+        private int memoryBufferKb = 512;
+
+        /**
+         * Maximum bytes spilled to disk per download not yet sent to the client (MB).
+         * Beyond it the SFTP read waits for the client, holding its session.
+         */
+        private long maxSpillMb = 1024;
+
+        /**
+         * Maximum bytes spilled to disk across all downloads not yet sent to their clients (MB).
+         * Downloads starting while it is used up are streamed directly, holding their session.
+         */
+        private long maxTotalSpillMb = 4096;
+
+        /**
+         * Maximum wait of a client for the next bytes from the SFTP read (ms).
+         */
+        private long readTimeoutMillis = 120000;
+
+        /**
+         * Directory for the spill files.
+         */
+        private String directory = System.getProperty("java.io.tmpdir") + "/dvsmart-files-download-spool";
+    }
+
+    @Data
+    public static class ReadAheadConfig {
+        /**
+         * Whether to keep several SFTP READ requests in flight per transfer.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Maximum number of outstanding READ requests per transfer.
+         */
+        private int windowSize = 16;
+
+        /**
+         * Bytes requested by each READ request.
+         */
+        private int requestSize = 32768;
+    }
+
+    @Data
+    public static class AsyncConfig {
+        /**
+         * Maximum number of transfers (download, view, preview) running at once.
+         * Further requests are rejected with 503.
+         */
+        private int maxConcurrent = 200;
+
+        /**
+         * Maximum duration of an async transfer (seconds).
+         */
+        private long timeoutSeconds = 600;
     }
 
     @Data
@@ -86,4 +226,226 @@ public class FilesConfigProperties {
          */
         private int dpi = 150;
     }
+
+    @Data
+    public static class CacheConfig {
+        /**
+         * Local disk cache configuration.
+         */
+        private DiskCacheConfig disk = new DiskCacheConfig();
+
+        /**
+         * Off-heap in-memory cache configuration for small files.
+         */
+        private MemoryCacheConfig memory = new MemoryCacheConfig();
+
+        /**
+         * Off-heap cache of fixed-size file blocks, for ranges and partial reads.
+         */
+        private BlockCacheConfig block = new BlockCacheConfig();
+    }
+
+    @Data
+    public static class DiskCacheConfig {
+        /**
+         * Whether to keep copies of downloaded files on local disk.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Directory where cached files are stored.
+         */
+        private String directory = System.getProperty("java.io.tmpdir") + "/dvsmart-files-cache";
+
+        /**
+         * Maximum total size of cached files (MB).
+         */
+        private long maxSizeMb = 2048;
+
+        /**
+         * Maximum size of a single cached file (MB). Larger files bypass the cache.
+         */
+        private long maxFileSizeMb = 64;
+    }
+
+    @Data
+    public static class MemoryCacheConfig {
+        /**
+         * Whether to keep small files in off-heap memory.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Maximum total size of cached content (MB). Must fit within -XX:MaxDirectMemorySize.
+         */
+        private long maxSizeMb = 256;
+
+        /**
+         * Files up to this size (KB) are cached in memory.
+         */
+        private long maxFileSizeKb = 256;
+    }
+
+    @Data
+    public static class BlockCacheConfig {
+        /**
+         * Whether to keep recently read file blocks in an off-heap arena.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Size of the arena (MB), allocated at startup. Must fit within -XX:MaxDirectMemorySize.
+         */
+        private long maxSizeMb = 256;
+
+        /**
+         * Size of a cached block (KB). Reads are widened to whole blocks.
+         */
+        private int blockSizeKb = 64;
+
+        /**
+         * Largest read (MB) cached block by block: full reads of larger files and
+         * larger ranges bypass the cache.
+         */
+        private long maxFileSizeMb = 16;
+    }
+
+    @Data
+    public static class HttpCacheConfig {
+        /**
+         * Time (seconds) clients may reuse a response without revalidating.
+         */
+        private long maxAgeSeconds = 86400;
+
+        /**
+         * Whether shared caches (reverse proxies, CDNs) may store responses.
+         * Disabled by default because documents are customer-specific.
+         */
+        private boolean shared = false;
+    }
+
+    @Data
+    public static class CoalescingConfig {
+        /**
+         * Whether concurrent downloads of the same file share a single SFTP read.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Directory for the spool files shared between concurrent readers.
+         */
+        private String spoolDirectory = System.getProperty("java.io.tmpdir") + "/dvsmart-files-spool";
+
+        /**
+         * Part of each shared copy held in memory (KB). Content beyond it goes to a spool file.
+         */
+        private int memoryBufferKb = 1024;
+
+        /**
+         * Time a request waiting on another request's fetch may go without new bytes before it fails.
+         */
+        private long followTimeoutMillis = 120000;
+    }
+
+    @Data
+    public static class ExportConfig {
+        /**
+         * Maximum number of files in one export.
+         */
+        private int maxFiles = 1000;
+
+        /**
+         * Files fetched ahead of the one being written to the archive.
+         */
+        private int prefetch = 4;
+
+        /**
+         * Memory buffered per prefetched file (KB). Fetches pause when it is full.
+         */
+        private long prefetchBufferKb = 1024;
+
+        /**
+         * Threads shared by all exports to fetch files.
+         */
+        private int threads = 16;
+    }
+
+    @Data
+    public static class FairShareConfig {
+        /**
+         * Enable per-client bandwidth limits and weighted fair SFTP session scheduling.
+         */
+        private boolean enabled = false;
+
+        /**
+         * How callers are identified: api-key, ip or codigo-cliente.
+         * Callers without an API key or codigoCliente fall back to their IP.
+         */
+        private ClientKeySource clientKey = ClientKeySource.IP;
+
+        /**
+         * Header carrying the API key.
+         */
+        private String apiKeyHeader = "X-API-Key";
+
+        /**
+         * Scheduling weight of clients without an explicit policy.
+         */
+        private int defaultWeight = 1;
+
+        /**
+         * Bandwidth limit of clients without an explicit policy (KB/s). 0 = unlimited.
+         */
+        private long defaultBandwidthKbps = 0;
+
+        /**
+         * Per-client overrides, keyed by API key, IP or codigoCliente.
+         */
+        private Map<String, ClientPolicy> clients = new HashMap<>();
+
+        /**
+         * Gets the scheduling weight of a client.
+         *
+         * @param client client key
+         * @return weight, at least 1
+         */
+        public int weightOf(String client) {
+            ClientPolicy policy = client != null ? clients.get(client) : null;
+            int weight = policy != null && policy.getWeight() != null ? policy.getWeight() : defaultWeight;
+            return Math.max(1, weight);
+        }
+
+        /**
+         * Gets the bandwidth limit of a client.
+         *
+         * @param client client key
+         * @return limit in bytes per second, 0 if unlimited
+         */
+        public long bandwidthOf(String client) {
+            ClientPolicy policy = client != null ? clients.get(client) : null;
+            long kbps = policy != null && policy.getBandwidthKbps() != null
+                    ? policy.getBandwidthKbps()
+                    : defaultBandwidthKbps;
+            return Math.max(0, kbps) * 1024;
+        }
+    }
+
+    @Data
+    public static class ClientPolicy {
+        /**
+         * Scheduling weight. A client with weight 4 gets four sessions for each one of a weight 1 client.
+         */
+        private Integer weight;
+
+        /**
+         * Bandwidth limit (KB/s). 0 = unlimited.
+         */
+        private Long bandwidthKbps;
+    }
+
+    public enum ClientKeySource {
+        API_KEY,
+        IP,
+        CODIGO_CLIENTE
+    }
 }
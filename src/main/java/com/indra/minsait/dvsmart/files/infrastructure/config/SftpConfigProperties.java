@@ -16,6 +16,9 @@ package com.indra.minsait.dvsmart.files.infrastructure.config;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Configuration properties for SFTP destination server connection.
  */
@@ -63,11 +66,97 @@ public class SftpConfigProperties {
      */
     private String knownHostsFile;
 
+    /**
+     * SFTP endpoints: mirrored servers or extra accounts on the same server, each with
+     * its own pool. Unset fields fall back to host, port, user and password above.
+     * Empty = a single endpoint built from those settings.
+     */
+    private List<EndpointConfig> endpoints = new ArrayList<>();
+
+    /**
+     * Time an endpoint is skipped after a connection failure (ms).
+     */
+    private long failoverCooldownMillis = 10000;
+
+    /**
+     * SFTP client library: mina (Spring Integration sessions) or sshj.
+     */
+    private ClientLibrary client = ClientLibrary.MINA;
+
     /**
      * Pool configuration.
      */
     private PoolConfig pool = new PoolConfig();
 
+    /**
+     * Circuit breaker and retry configuration.
+     */
+    private ResilienceConfig resilience = new ResilienceConfig();
+
+    /**
+     * Hedged reads configuration.
+     */
+    private HedgingConfig hedging = new HedgingConfig();
+
+    /**
+     * Gets the endpoints to connect to, with unset fields taken from the top-level settings.
+     *
+     * @return resolved endpoints, never empty
+     */
+    public List<EndpointConfig> resolveEndpoints() {
+        if (endpoints.isEmpty()) {
+            EndpointConfig primary = new EndpointConfig();
+            primary.setName("primary");
+            return List.of(resolve(primary));
+        }
+        return endpoints.stream().map(this::resolve).toList();
+    }
+
+    private EndpointConfig resolve(EndpointConfig endpoint) {
+        EndpointConfig resolved = new EndpointConfig();
+        resolved.setHost(endpoint.getHost() != null ? endpoint.getHost() : host);
+        resolved.setPort(endpoint.getPort() != null ? endpoint.getPort() : port);
+        resolved.setUser(endpoint.getUser() != null ? endpoint.getUser() : user);
+        resolved.setPassword(endpoint.getPassword() != null ? endpoint.getPassword() : password);
+        resolved.setWeight(Math.max(1, endpoint.getWeight()));
+        resolved.setName(endpoint.getName() != null ? endpoint.getName()
+                : resolved.getUser() + "@" + resolved.getHost() + ":" + resolved.getPort());
+        return resolved;
+    }
+
+    @Data
+    public static class EndpointConfig {
+        /**
+         * Endpoint name used in logs, metrics and monitoring. Defaults to user@host:port.
+         */
+        private String name;
+
+        /**
+         * SFTP server hostname.
+         */
+        private String host;
+
+        /**
+         * SFTP server port.
+         */
+        private Integer port;
+
+        /**
+         * SFTP username.
+         */
+        private String user;
+
+        /**
+         * SFTP password.
+         */
+        private String password;
+
+        /**
+         * Share of the requests routed to this endpoint relative to the others.
+         */
+        private int weight = 1;
+    }
+
     @Data
     public static class PoolConfig {
         /**
@@ -81,10 +170,27 @@ public class SftpConfigProperties {
         private int initialSize = 0;
 
         /**
-         * Maximum pool size.
+         * Maximum pool size (per endpoint).
          */
         private int maxSize = 20;
 
+        /**
+         * Maximum SSH connections. Pooled sessions are SFTP channels multiplexed over them.
+         */
+        private int maxTransports = 2;
+
+        /**
+         * Maximum SFTP channels per SSH connection. Keep it at or below the server limit
+         * (OpenSSH MaxSessions, 10 by default).
+         */
+        private int maxChannelsPerTransport = 10;
+
+        /**
+         * Concurrent transfers sharing one SFTP channel, interleaving their requests.
+         * 1 = each transfer holds its channel exclusively.
+         */
+        private int maxStreamsPerChannel = 1;
+
         /**
          * Minimum idle connections.
          */
@@ -105,6 +211,17 @@ public class SftpConfigProperties {
          */
         private boolean testWhileIdle = true;
 
+        /**
+         * Sessions returned to the pool within this window (ms) are considered alive
+         * and skip the validation probe. 0 = always probe.
+         */
+        private long validationAgeMillis = 5000;
+
+        /**
+         * Path stat'ed to probe a session. Empty = the base directory itself.
+         */
+        private String validationPath;
+
         /**
          * Time between eviction runs (ms).
          */
@@ -114,5 +231,221 @@ public class SftpConfigProperties {
          * Minimum time a session can be idle before eviction (ms).
          */
         private long minEvictableIdleTimeMillis = 300000;
+
+        /**
+         * Minimum time between two new SSH connections (ms), so a recovering server
+         * is not hit by a reconnect storm. 0 = no limit.
+         */
+        private long minConnectIntervalMillis = 100;
+
+        /**
+         * Adaptive sizing of the pool.
+         */
+        private AutoscaleConfig autoscale = new AutoscaleConfig();
+
+        /**
+         * Pre-opening of sessions at startup and ahead of known peaks.
+         */
+        private WarmupConfig warmup = new WarmupConfig();
+    }
+
+    @Data
+    public static class AutoscaleConfig {
+        /**
+         * Whether max-size and min-idle are adjusted to the observed load.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Lower bound of max-size (per endpoint).
+         */
+        private int minSize = 5;
+
+        /**
+         * Upper bound of max-size (per endpoint). Also limited by
+         * max-transports x max-channels-per-transport.
+         */
+        private int maxSize = 40;
+
+        /**
+         * Time between two sizing decisions (ms).
+         */
+        private long intervalMillis = 30000;
+
+        /**
+         * Average borrow wait (ms) above which the pool grows.
+         */
+        private long targetBorrowWaitMillis = 50;
+
+        /**
+         * Peak share of the pool in use above which it grows.
+         */
+        private double scaleUpUtilization = 0.8;
+
+        /**
+         * Peak share of the pool in use below which it shrinks.
+         */
+        private double scaleDownUtilization = 0.3;
+
+        /**
+         * Consecutive quiet intervals before the pool shrinks.
+         */
+        private int scaleDownIntervals = 4;
+
+        /**
+         * Share of the recent peak demand kept open as idle sessions (min-idle),
+         * never below the configured min-idle.
+         */
+        private double minIdleRatio = 0.5;
+    }
+
+    @Data
+    public static class WarmupConfig {
+        /**
+         * Whether sessions are opened before traffic arrives.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Sessions opened per endpoint at startup, before the readiness probe turns green.
+         */
+        private int startupSessions = 5;
+
+        /**
+         * Maximum time the startup warm-up may delay readiness (ms).
+         */
+        private long startupTimeoutMillis = 30000;
+
+        /**
+         * Sessions opened concurrently while warming up.
+         */
+        private int parallelism = 4;
+
+        /**
+         * Time between two checks of the idle level to keep (ms).
+         */
+        private long checkIntervalMillis = 60000;
+
+        /**
+         * How far ahead of a window or a learned peak its sessions are opened (ms).
+         */
+        private long leadTimeMillis = 900000;
+
+        /**
+         * Length of the daily slots the observed demand is learned in (minutes).
+         */
+        private int slotMinutes = 30;
+
+        /**
+         * Share of the learned demand of a slot kept as idle sessions. 0 = no history-driven warm-up.
+         */
+        private double historyRatio = 0.5;
+
+        /**
+         * Weight of the latest day when updating the learned demand of a slot.
+         */
+        private double historyDecay = 0.3;
+
+        /**
+         * Daily windows with a fixed minimum of idle sessions per endpoint.
+         */
+        private List<WarmupWindow> schedule = new ArrayList<>();
+    }
+
+    @Data
+    public static class WarmupWindow {
+        /**
+         * Start of the window, HH:mm.
+         */
+        private String from;
+
+        /**
+         * End of the window, HH:mm. Earlier than the start for windows crossing midnight.
+         */
+        private String to;
+
+        /**
+         * Idle sessions kept open per endpoint during the window.
+         */
+        private int minIdle;
+    }
+
+    @Data
+    public static class ResilienceConfig {
+        /**
+         * Whether SFTP operations go through the circuit breaker and retries.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Consecutive failures that open the circuit.
+         */
+        private int failureThreshold = 5;
+
+        /**
+         * Time the circuit stays open before letting a trial request through (ms).
+         */
+        private long openDurationMillis = 10000;
+
+        /**
+         * Maximum attempts per operation, including the first one.
+         */
+        private int maxAttempts = 3;
+
+        /**
+         * Backoff before the first retry (ms), doubled on every further retry.
+         */
+        private long initialBackoffMillis = 100;
+
+        /**
+         * Upper bound of the backoff between retries (ms).
+         */
+        private long maxBackoffMillis = 2000;
+
+        /**
+         * Times a download that already sent bytes is resumed on a fresh session from the
+         * last byte written, instead of failing with a truncated response (0 disables).
+         * When enabled, each download stats the remote file first and is not resumed if its
+         * size or modification time changed in between.
+         */
+        private int maxResumes = 0;
+    }
+
+    @Data
+    public static class HedgingConfig {
+        /**
+         * Whether a second identical read is started when the first one is slow to return data.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Percentile of the recent time-to-first-byte used as hedging delay.
+         */
+        private double percentile = 95;
+
+        /**
+         * Recent reads the percentile is computed over.
+         */
+        private int sampleWindow = 1000;
+
+        /**
+         * Hedging delay until enough reads were sampled (ms).
+         */
+        private long initialDelayMillis = 500;
+
+        /**
+         * Lower bound of the hedging delay (ms).
+         */
+        private long minDelayMillis = 20;
+
+        /**
+         * Upper bound of the hedging delay (ms).
+         */
+        private long maxDelayMillis = 5000;
+    }
+
+    public enum ClientLibrary {
+        MINA,
+        SSHJ
     }
 }
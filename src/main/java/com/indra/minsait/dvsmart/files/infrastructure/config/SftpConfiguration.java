@@ -14,10 +14,21 @@
 package com.indra.minsait.dvsmart.files.infrastructure.config;
 
 import com.indra.minsait.dvsmart.files.infrastructure.sftp.CustomLazySftpSessionFactory;
+import com.indra.minsait.dvsmart.files.infrastructure.sftp.SftpPoolWarmer;
+import com.indra.minsait.dvsmart.files.infrastructure.sftp.SshjSessionPool;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.thread.Threading;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * Configuration for SFTP connection pool.
@@ -27,19 +38,69 @@ import org.springframework.context.annotation.Configuration;
  * @class SftpConfiguration
  * @date 14-01-2026
  */
+@Slf4j
 @Configuration
 @RequiredArgsConstructor
 public class SftpConfiguration {
 
     private final SftpConfigProperties sftpConfig;
+    private final FilesConfigProperties filesConfig;
+    private final Environment environment;
     private CustomLazySftpSessionFactory sessionFactory;
 
     @Bean
-    CustomLazySftpSessionFactory sftpSessionFactory() {
-        this.sessionFactory = new CustomLazySftpSessionFactory(sftpConfig);
+    CustomLazySftpSessionFactory sftpSessionFactory(MeterRegistry meterRegistry) {
+        this.sessionFactory = new CustomLazySftpSessionFactory(sftpConfig, filesConfig.getFairShare()::weightOf,
+                meterRegistry);
         return sessionFactory;
     }
 
+    /**
+     * Opens sessions at startup, before the readiness probe turns green, and
+     * ahead of scheduled or learned peaks. It warms the MINA session factory,
+     * so it is not created when requests go through the sshj pool.
+     */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "sftp.dest.pool.warmup", name = "enabled", havingValue = "true")
+    @ConditionalOnProperty(prefix = "sftp.dest", name = "client", havingValue = "mina", matchIfMissing = true)
+    SftpPoolWarmer sftpPoolWarmer(CustomLazySftpSessionFactory sftpSessionFactory) {
+        return new SftpPoolWarmer(sftpSessionFactory, sftpConfig);
+    }
+
+    /**
+     * Session pool of the sshj client, used instead of the Spring Integration
+     * sessions when {@code sftp.dest.client=sshj}.
+     */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "sftp.dest", name = "client", havingValue = "sshj")
+    SshjSessionPool sshjSessionPool(MeterRegistry meterRegistry) {
+        if (sftpConfig.getPool().getWarmup().isEnabled()) {
+            log.warn("sftp.dest.pool.warmup is ignored with sftp.dest.client=sshj, sessions are opened on demand");
+        }
+        return new SshjSessionPool(sftpConfig, filesConfig.getFairShare()::weightOf, meterRegistry);
+    }
+
+    /**
+     * Executor issuing pipelined READ requests for read-ahead transfers.
+     * Sized so every pooled session can keep a full window in flight, up to
+     * the autoscale upper bound when autoscaling is enabled.
+     * In virtual-thread mode each request gets its own virtual thread.
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    ExecutorService sftpReadAheadExecutor() {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("sftp-read-ahead-", 0).factory());
+        }
+        SftpConfigProperties.PoolConfig pool = sftpConfig.getPool();
+        int maxSize = pool.getAutoscale().isEnabled()
+                ? Math.max(pool.getMaxSize(), pool.getAutoscale().getMaxSize()) : pool.getMaxSize();
+        int threads = Math.max(1, maxSize * sftpConfig.resolveEndpoints().size()
+                * filesConfig.getDownload().getReadAhead().getWindowSize());
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("sftp-read-ahead-");
+        threadFactory.setDaemon(true);
+        return Executors.newFixedThreadPool(threads, threadFactory);
+    }
+
     @PreDestroy
     public void cleanup() {
         if (sessionFactory != null) {
@@ -0,0 +1,91 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.files.infrastructure.fairshare;
+
+/**
+ * Holds the client a transfer is running for.
+ * <p>
+ * The web layer binds the client around each transfer; components deeper in the
+ * stack (SFTP session scheduling, export prefetch) read it without the client
+ * having to be threaded through the domain ports. Tasks handed to other threads
+ * must capture {@link #current()} and bind it again.
+ * </p>
+ */
+/**
+ * @author Hector Huaranga <hahuaranga@indracompany.com>
+ * @class ClientContext
+ * @date 18-10-2026
+ */
+public final class ClientContext {
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private ClientContext() {
+    }
+
+    /**
+     * Gets the client bound to the current thread.
+     *
+     * @return client key, or null if none is bound
+     */
+    public static String current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Runs a task with the given client bound to the current thread.
+     *
+     * @param client client key, may be null
+     * @param task   task to run
+     * @throws E if the task fails
+     */
+    public static <E extends Exception> void runAs(String client, ClientRunnable<E> task) throws E {
+        callAs(client, () -> {
+            task.run();
+            return null;
+        });
+    }
+
+    /**
+     * Calls a task with the given client bound to the current thread.
+     *
+     * @param client client key, may be null
+     * @param task   task to call
+     * @return task result
+     * @throws E if the task fails
+     */
+    public static <T, E extends Exception> T callAs(String client, ClientCallable<T, E> task) throws E {
+        String previous = CURRENT.get();
+        CURRENT.set(client);
+        try {
+            return task.call();
+        } finally {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+
+    @FunctionalInterface
+    public interface ClientRunnable<E extends Exception> {
+        void run() throws E;
+    }
+
+    @FunctionalInterface
+    public interface ClientCallable<T, E extends Exception> {
+        T call() throws E;
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.files.infrastructure.fairshare;
+
+import com.indra.minsait.dvsmart.files.infrastructure.cache.WeightedLruCache;
+import com.indra.minsait.dvsmart.files.infrastructure.config.FilesConfigProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.OutputStream;
+
+/**
+ * Applies per-client bandwidth limits to transfers.
+ * <p>
+ * Each limited client gets one token bucket shared by all its concurrent
+ * transfers, so a batch client opening many downloads still gets its
+ * configured rate in total. Session scheduling is done by the SFTP pool
+ * using the client bound in {@link ClientContext}.
+ * </p>
+ */
+/**
+ * @author Hector Huaranga <hahuaranga@indracompany.com>
+ * @class FairShareScheduler
+ * @date 18-10-2026
+ */
+@Slf4j
+@Component
+public class FairShareScheduler {
+
+    // Bounds the buckets kept for clients identified by IP
+    private static final int MAX_TRACKED_CLIENTS = 10_000;
+
+    private final FilesConfigProperties.FairShareConfig config;
+    private final WeightedLruCache<String, TokenBucket> buckets;
+
+    public FairShareScheduler(FilesConfigProperties filesConfig) {
+        this.config = filesConfig.getFairShare();
+        this.buckets = new WeightedLruCache<>(MAX_TRACKED_CLIENTS, bucket -> 1, (client, bucket) -> { });
+        if (config.isEnabled()) {
+            log.info("Fair share scheduling enabled: clientKey={}, defaultWeight={}, defaultBandwidth={} KB/s, {} client policies",
+                    config.getClientKey(), config.getDefaultWeight(), config.getDefaultBandwidthKbps(),
+                    config.getClients().size());
+        }
+    }
+
+    /**
+     * Checks whether fair share scheduling is enabled.
+     *
+     * @return true if enabled
+     */
+    public boolean isEnabled() {
+        return config.isEnabled();
+    }
+
+    /**
+     * Checks whether transfers of a client are bandwidth limited.
+     *
+     * @param client client key, may be null
+     * @return true if the client has a bandwidth limit
+     */
+    public boolean isShaped(String client) {
+        return config.isEnabled() && client != null && config.bandwidthOf(client) > 0;
+    }
+
+    /**
+     * Wraps a response stream so writes respect the client's bandwidth limit.
+     *
+     * @param client       client key, may be null
+     * @param outputStream stream to wrap
+     * @return throttled stream, or the same stream if the client is not limited
+     */
+    public OutputStream shape(String client, OutputStream outputStream) {
+        if (!isShaped(client)) {
+            return outputStream;
+        }
+        return new ThrottledOutputStream(outputStream, bucketFor(client));
+    }
+
+    private TokenBucket bucketFor(String client) {
+        TokenBucket bucket = buckets.get(client);
+        while (bucket == null) {
+            TokenBucket created = new TokenBucket(config.bandwidthOf(client));
+            bucket = buckets.putIfAbsent(client, created) ? created : buckets.get(client);
+        }
+        return bucket;
+    }
+}
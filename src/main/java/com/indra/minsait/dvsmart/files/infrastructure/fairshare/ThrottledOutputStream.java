@@ -0,0 +1,59 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.files.infrastructure.fairshare;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Output stream paying every write to a {@link TokenBucket}.
+ * <p>
+ * Large writes are split into burst-sized slices so a slow client does not
+ * receive a whole copy buffer at once and then stall.
+ * </p>
+ */
+/**
+ * @author Hector Huaranga <hahuaranga@indracompany.com>
+ * @class ThrottledOutputStream
+ * @date 18-10-2026
+ */
+class ThrottledOutputStream extends FilterOutputStream {
+
+    private final TokenBucket bucket;
+    private final int sliceSize;
+
+    ThrottledOutputStream(OutputStream out, TokenBucket bucket) {
+        super(out);
+        this.bucket = bucket;
+        this.sliceSize = (int) Math.max(1, Math.min(Integer.MAX_VALUE, bucket.getCapacity()));
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        bucket.consume(1);
+        out.write(b);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        while (len > 0) {
+            int slice = Math.min(len, sliceSize);
+            bucket.consume(slice);
+            out.write(b, off, slice);
+            off += slice;
+            len -= slice;
+        }
+    }
+}
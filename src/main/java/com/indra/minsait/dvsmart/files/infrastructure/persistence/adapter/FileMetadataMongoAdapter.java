@@ -32,6 +32,7 @@ import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Component;
 
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -89,6 +90,27 @@ public class FileMetadataMongoAdapter implements FileMetadataPort {
         return PagedResult.of(content, criteria.getPage(), criteria.getSize(), total);
     }
 
+    @Override
+    public List<FileMetadata> findAll(SearchCriteria criteria, int limit) {
+        log.debug("Finding all files with criteria: {} (limit: {})", criteria, limit);
+
+        Query query = buildSearchQuery(criteria)
+                .with(buildSort(criteria))
+                .limit(limit);
+
+        return mongoTemplate.find(query, FileIndexDocument.class).stream()
+                .map(mapper::toDomain)
+                .toList();
+    }
+
+    @Override
+    public List<FileMetadata> findByIdUnicoIn(Collection<String> idUnicos) {
+        log.debug("Finding {} files by idUnico", idUnicos.size());
+        return repository.findByIdUnicoIn(idUnicos).stream()
+                .map(mapper::toDomain)
+                .toList();
+    }
+
     @SuppressWarnings({ "rawtypes", "unchecked" })
 	@Override
     public FileStatistics getStatistics() {
@@ -17,6 +17,8 @@ import com.indra.minsait.dvsmart.files.infrastructure.persistence.document.FileI
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -38,6 +40,14 @@ public interface FileIndexMongoRepository extends MongoRepository<FileIndexDocum
      */
     Optional<FileIndexDocument> findByIdUnico(String idUnico);
 
+    /**
+     * Finds documents by their unique identifiers.
+     *
+     * @param idUnicos unique identifiers
+     * @return documents found
+     */
+    List<FileIndexDocument> findByIdUnicoIn(Collection<String> idUnicos);
+
     /**
      * Counts documents with completed reorganization.
      *
@@ -0,0 +1,429 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.files.infrastructure.resilience;
+
+import com.indra.minsait.dvsmart.files.domain.exception.SftpConnectionException;
+import com.indra.minsait.dvsmart.files.domain.port.out.FileContentPort;
+import com.indra.minsait.dvsmart.files.infrastructure.config.SftpConfigProperties;
+import com.indra.minsait.dvsmart.files.infrastructure.fairshare.ClientContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+
+/**
+ * File content adapter that hedges slow SFTP reads.
+ * <p>
+ * Every read starts on a worker thread. If it has not produced its first
+ * block within the hedging delay - a percentile of the recent
+ * time-to-first-byte - and the pool has spare sessions, an identical read is
+ * started. The first one to write a byte (or, for whole-content reads, to
+ * complete) wins and streams to the caller. The loser is never interrupted,
+ * so its session stays usable: a streaming loser fails on its next write with
+ * an output failure and returns its session, a whole-content loser completes
+ * and its result is discarded. Failures before any byte are not hedged:
+ * retrying them is up to {@link ResilientFileContentAdapter} below.
+ * </p>
+ * <p>
+ * The time-to-first-byte of the original read is recorded even when a hedge
+ * beats it, so the slow reads that hedging hides still shape the delay. If it
+ * is dropped before starting, fails after losing or the caller gives up, the
+ * time elapsed so far is recorded as a lower bound.
+ * </p>
+ * <p>
+ * Lazy streams ({@link #getFileStream}) and existence checks are passed through.
+ * </p>
+ */
+/**
+ * @author Hector Huaranga <hahuaranga@indracompany.com>
+ * @class HedgingFileContentAdapter
+ * @date 18-10-2026
+ */
+@Slf4j
+public class HedgingFileContentAdapter implements FileContentPort {
+
+    private static final int PRIMARY = 0;
+    private static final int HEDGE = 1;
+
+    private final FileContentPort delegate;
+    private final SftpConfigProperties.HedgingConfig config;
+    private final ExecutorService executor;
+    private final BooleanSupplier spareCapacity;
+    private final LatencyTracker firstByteLatency;
+    private final Counter fired;
+    private final Counter won;
+    private final Counter skipped;
+
+    /**
+     * @param delegate      adapter doing the actual reads
+     * @param config        hedging configuration
+     * @param executor      executor running the reads
+     * @param spareCapacity whether a session is free for a hedge right now
+     * @param meterRegistry registry of the hedging meters
+     */
+    public HedgingFileContentAdapter(FileContentPort delegate, SftpConfigProperties.HedgingConfig config,
+                                     ExecutorService executor, BooleanSupplier spareCapacity,
+                                     MeterRegistry meterRegistry) {
+        this(delegate, config, executor, spareCapacity,
+                new LatencyTracker(config.getSampleWindow(), config.getPercentile()), meterRegistry);
+    }
+
+    HedgingFileContentAdapter(FileContentPort delegate, SftpConfigProperties.HedgingConfig config,
+                              ExecutorService executor, BooleanSupplier spareCapacity,
+                              LatencyTracker firstByteLatency, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.config = config;
+        this.executor = executor;
+        this.spareCapacity = spareCapacity;
+        this.firstByteLatency = firstByteLatency;
+        this.fired = Counter.builder("sftp.hedge.fired")
+                .description("Reads for which a hedged read was started")
+                .register(meterRegistry);
+        this.won = Counter.builder("sftp.hedge.won")
+                .description("Hedged reads that returned data before the original read")
+                .register(meterRegistry);
+        this.skipped = Counter.builder("sftp.hedge.skipped")
+                .description("Slow reads not hedged because no session was free")
+                .register(meterRegistry);
+        Gauge.builder("sftp.hedge.delay", this, adapter -> TimeUnit.NANOSECONDS.toMillis(adapter.hedgeDelayNanos()))
+                .description("Current hedging delay")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public InputStream getFileStream(String remotePath) {
+        return delegate.getFileStream(remotePath);
+    }
+
+    @Override
+    public void streamFileTo(String remotePath, OutputStream outputStream) {
+        race(outputStream, output -> {
+            delegate.streamFileTo(remotePath, output);
+            return null;
+        });
+    }
+
+    @Override
+    public void streamRangeTo(String remotePath, long offset, long length, OutputStream outputStream) {
+        race(outputStream, output -> {
+            delegate.streamRangeTo(remotePath, offset, length, output);
+            return null;
+        });
+    }
+
+    @Override
+    public byte[] getFileContent(String remotePath) {
+        return race(null, output -> delegate.getFileContent(remotePath));
+    }
+
+    @Override
+    public boolean fileExists(String remotePath) {
+        return delegate.fileExists(remotePath);
+    }
+
+    long hedgeDelayNanos() {
+        long percentileNanos = firstByteLatency.getPercentileNanos();
+        if (percentileNanos < 0) {
+            return TimeUnit.MILLISECONDS.toNanos(config.getInitialDelayMillis());
+        }
+        return Math.min(TimeUnit.MILLISECONDS.toNanos(config.getMaxDelayMillis()),
+                Math.max(TimeUnit.MILLISECONDS.toNanos(config.getMinDelayMillis()), percentileNanos));
+    }
+
+    /**
+     * Runs a read, hedging it if it is slow to produce its first byte.
+     *
+     * @param target caller's output of a streaming read, null for whole-content reads
+     */
+    private <T> T race(OutputStream target, Read<T> read) {
+        Race<T> race = new Race<>(target, read);
+        race.launch(PRIMARY);
+        try {
+            if (!race.awaitFirstByte(hedgeDelayNanos())) {
+                if (spareCapacity.getAsBoolean()) {
+                    fired.increment();
+                    race.launch(HEDGE);
+                } else {
+                    skipped.increment();
+                }
+            }
+            return race.awaitOutcome();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            race.cancelAll();
+            throw new SftpConnectionException("Interrupted while waiting for SFTP read", e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Read<T> {
+        T run(OutputStream output);
+    }
+
+    /**
+     * Thrown into the losing read on its next write.
+     */
+    private static final class LostRaceException extends IOException {
+
+        private static final long serialVersionUID = 1L;
+
+        LostRaceException() {
+            super("Hedged read lost the race");
+        }
+    }
+
+    /**
+     * State of the reads racing for one request.
+     */
+    private final class Race<T> {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition changed = lock.newCondition();
+        private final OutputStream target;
+        private final Read<T> read;
+        private final String client = ClientContext.current();
+        private final Future<?>[] attempts = new Future<?>[2];
+        private final long[] startNanos = new long[2];
+        private final boolean[] started = new boolean[2];
+        private final boolean[] timed = new boolean[2];
+        private int launched;
+        private int failed;
+        private int winner = -1;
+        private volatile boolean aborted;
+        private boolean winnerDone;
+        private T result;
+        private RuntimeException winnerFailure;
+        private RuntimeException firstFailure;
+
+        Race(OutputStream target, Read<T> read) {
+            this.target = target;
+            this.read = read;
+        }
+
+        void launch(int id) {
+            lock.lock();
+            try {
+                launched++;
+                startNanos[id] = System.nanoTime();
+                attempts[id] = executor.submit(() -> ClientContext.runAs(client, () -> run(id)));
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void run(int id) {
+            lock.lock();
+            try {
+                started[id] = true;
+            } finally {
+                lock.unlock();
+            }
+            try {
+                OutputStream output = target != null ? new AttemptOutputStream(id) : null;
+                T value = read.run(output);
+                complete(id, value);
+            } catch (RuntimeException e) {
+                fail(id, e);
+            }
+        }
+
+        /**
+         * Claims the race for a read; only the winner may write to the caller's output.
+         */
+        boolean claim(int id) {
+            lock.lock();
+            try {
+                if (winner < 0) {
+                    winner = id;
+                    recordFirstByte(id);
+                    Future<?> other = attempts[1 - id];
+                    if (other != null) {
+                        // Only drops a read still queued; a running one fails on its next write
+                        if (other.cancel(false) && id == HEDGE && !started[PRIMARY]) {
+                            recordFirstByte(PRIMARY);
+                        }
+                    }
+                    changed.signalAll();
+                } else if (id == PRIMARY) {
+                    // A primary beaten by the hedge still tells how slow the server is
+                    recordFirstByte(id);
+                }
+                return winner == id;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void recordFirstByte(int id) {
+            if (!timed[id]) {
+                timed[id] = true;
+                firstByteLatency.record(System.nanoTime() - startNanos[id]);
+            }
+        }
+
+        private void complete(int id, T value) {
+            if (!claim(id)) {
+                return;
+            }
+            lock.lock();
+            try {
+                result = value;
+                winnerDone = true;
+                changed.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void fail(int id, RuntimeException e) {
+            lock.lock();
+            try {
+                if (id == PRIMARY && winner == HEDGE) {
+                    // Silent until it failed: at least that slow
+                    recordFirstByte(id);
+                }
+                if (winner == id) {
+                    winnerFailure = e;
+                    winnerDone = true;
+                } else if (winner < 0) {
+                    failed++;
+                    if (firstFailure == null) {
+                        firstFailure = e;
+                    }
+                }
+                changed.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Waits for a first byte, a completion or the failure of every read.
+         *
+         * @return false if the delay elapsed while the reads were still silent
+         */
+        boolean awaitFirstByte(long delayNanos) throws InterruptedException {
+            lock.lock();
+            try {
+                long remaining = delayNanos;
+                while (winner < 0 && failed < launched) {
+                    if (remaining <= 0) {
+                        return false;
+                    }
+                    remaining = changed.awaitNanos(remaining);
+                }
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        T awaitOutcome() throws InterruptedException {
+            lock.lock();
+            try {
+                while (!(winner >= 0 && winnerDone) && !(winner < 0 && failed >= launched)) {
+                    changed.await();
+                }
+                if (winner < 0) {
+                    throw firstFailure;
+                }
+                if (winner == HEDGE) {
+                    won.increment();
+                    log.debug("Hedged SFTP read won the race");
+                }
+                if (winnerFailure != null) {
+                    throw winnerFailure;
+                }
+                return result;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void cancelAll() {
+            lock.lock();
+            try {
+                // The caller gave up on a primary that may still be silent
+                recordFirstByte(PRIMARY);
+                if (winner < 0) {
+                    winner = launched;
+                }
+                // Nobody may write to the caller's output any more
+                aborted = true;
+                for (Future<?> attempt : attempts) {
+                    if (attempt != null) {
+                        attempt.cancel(false);
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Output of one read: passes bytes through once the read won the race.
+         */
+        private final class AttemptOutputStream extends OutputStream {
+
+            private final int id;
+            private boolean claimed;
+
+            AttemptOutputStream(int id) {
+                this.id = id;
+            }
+
+            private void checkWinner() throws IOException {
+                if (aborted) {
+                    throw new LostRaceException();
+                }
+                if (!claimed) {
+                    if (!claim(id)) {
+                        throw new LostRaceException();
+                    }
+                    claimed = true;
+                }
+            }
+
+            @Override
+            public void write(int b) throws IOException {
+                checkWinner();
+                target.write(b);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                checkWinner();
+                target.write(b, off, len);
+            }
+
+            @Override
+            public void flush() throws IOException {
+                if (claimed && !aborted) {
+                    target.flush();
+                }
+            }
+        }
+    }
+}
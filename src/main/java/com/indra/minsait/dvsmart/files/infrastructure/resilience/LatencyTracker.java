@@ -0,0 +1,80 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.files.infrastructure.resilience;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Percentile of recent latencies over a sliding window of samples.
+ * <p>
+ * Samples go into a ring buffer; the percentile is recomputed from a sorted
+ * copy only every {@value #RECOMPUTE_EVERY} samples, so reading it costs
+ * nothing on the request path.
+ * </p>
+ */
+/**
+ * @author Hector Huaranga <hahuaranga@indracompany.com>
+ * @class LatencyTracker
+ * @date 18-10-2026
+ */
+class LatencyTracker {
+
+    static final int MIN_SAMPLES = 20;
+    private static final int RECOMPUTE_EVERY = 16;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final long[] samples;
+    private final double percentile;
+    private int count;
+    private int next;
+    private int sinceRecompute;
+    private volatile long cachedNanos = -1;
+
+    /**
+     * @param window     number of recent samples kept
+     * @param percentile percentile to report, between 0 and 100
+     */
+    LatencyTracker(int window, double percentile) {
+        this.samples = new long[Math.max(MIN_SAMPLES, window)];
+        this.percentile = Math.min(100, Math.max(0, percentile));
+    }
+
+    void record(long nanos) {
+        lock.lock();
+        try {
+            samples[next] = nanos;
+            next = (next + 1) % samples.length;
+            count = Math.min(count + 1, samples.length);
+            if (count >= MIN_SAMPLES && (++sinceRecompute >= RECOMPUTE_EVERY || cachedNanos < 0)) {
+                sinceRecompute = 0;
+                long[] sorted = Arrays.copyOf(samples, count);
+                Arrays.sort(sorted);
+                int index = (int) Math.ceil(percentile / 100 * count) - 1;
+                cachedNanos = sorted[Math.max(0, Math.min(count - 1, index))];
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the percentile of the recent samples.
+     *
+     * @return latency in nanoseconds, or -1 until enough samples were recorded
+     */
+    long getPercentileNanos() {
+        return cachedNanos;
+    }
+}
@@ -0,0 +1,363 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.files.infrastructure.resilience;
+
+import com.indra.minsait.dvsmart.files.domain.exception.SftpConnectionException;
+import com.indra.minsait.dvsmart.files.domain.exception.SftpUnavailableException;
+import com.indra.minsait.dvsmart.files.domain.port.out.FileContentPort;
+import com.indra.minsait.dvsmart.files.infrastructure.config.SftpConfigProperties;
+import com.indra.minsait.dvsmart.files.infrastructure.sftp.RemoteFileStat;
+import com.indra.minsait.dvsmart.files.infrastructure.sftp.SftpPoolTimeoutException;
+import com.indra.minsait.dvsmart.files.infrastructure.sftp.SftpTransferReader;
+import com.indra.minsait.dvsmart.files.infrastructure.sftp.TransferFailures;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import net.schmizz.sshj.sftp.Response;
+import net.schmizz.sshj.sftp.SFTPException;
+import org.apache.sshd.sftp.common.SftpException;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * File content adapter that fails fast while the SFTP server is down and
+ * retries transient failures.
+ * <p>
+ * Decorates the SFTP adapter, below coalescing and caches, so cached files
+ * are still served while the circuit is open. Failures are classified:
+ * </p>
+ * <ul>
+ *   <li>Connection failures count towards the circuit breaker and are retried
+ *       with jittered exponential backoff, as long as nothing was written to
+ *       the caller's output yet. Once bytes were written, a stream is resumed
+ *       on a fresh session from the last byte written, up to a resume budget,
+ *       so the caller sees one uninterrupted response. A resume first checks
+ *       that the remote file still has the size and modification time it had
+ *       when the stream started, and fails instead if it changed.</li>
+ *   <li>SFTP status replies (no such file, permission denied...) prove the
+ *       server is up: they reset the breaker and are never retried.</li>
+ *   <li>Pool wait timeouts, interruptions and failures writing to the caller's
+ *       output say nothing about the server and neither count nor retry.</li>
+ * </ul>
+ */
+/**
+ * @author Hector Huaranga <hahuaranga@indracompany.com>
+ * @class ResilientFileContentAdapter
+ * @date 18-10-2026
+ */
+@Slf4j
+public class ResilientFileContentAdapter implements FileContentPort {
+
+    /**
+     * SFTP status codes meaning the connection itself is gone (SSH_FX_NO_CONNECTION, SSH_FX_CONNECTION_LOST).
+     */
+    private static final int SSH_FX_NO_CONNECTION = 6;
+    private static final int SSH_FX_CONNECTION_LOST = 7;
+
+    private final FileContentPort delegate;
+    private final SftpConfigProperties.ResilienceConfig config;
+    private final Function<String, RemoteFileStat> stat;
+    private final CircuitBreaker breaker;
+    private final Counter rejected;
+    private final Counter retries;
+    private final Counter resumes;
+
+    /**
+     * @param delegate      adapter doing the actual SFTP operations
+     * @param config        resilience configuration
+     * @param stat          reads size and modification time of a remote file, to check it before a resume
+     * @param meterRegistry registry of the resilience meters
+     */
+    public ResilientFileContentAdapter(FileContentPort delegate, SftpConfigProperties.ResilienceConfig config,
+                                       Function<String, RemoteFileStat> stat, MeterRegistry meterRegistry) {
+        this(delegate, config, stat,
+                new CircuitBreaker(config.getFailureThreshold(), config.getOpenDurationMillis()), meterRegistry);
+    }
+
+    ResilientFileContentAdapter(FileContentPort delegate, SftpConfigProperties.ResilienceConfig config,
+                                Function<String, RemoteFileStat> stat, CircuitBreaker breaker,
+                                MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.config = config;
+        this.stat = stat;
+        this.breaker = breaker;
+        this.rejected = meterRegistry.counter("sftp.circuit.rejected");
+        this.retries = meterRegistry.counter("sftp.retries");
+        this.resumes = meterRegistry.counter("sftp.resumes");
+        Gauge.builder("sftp.circuit.state", breaker, b -> b.getState().ordinal())
+                .description("SFTP circuit breaker state (0=closed, 1=open, 2=half-open)")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public InputStream getFileStream(String remotePath) {
+        return execute(remotePath, null, () -> delegate.getFileStream(remotePath));
+    }
+
+    @Override
+    public void streamFileTo(String remotePath, OutputStream outputStream) {
+        GuardedOutputStream guarded = new GuardedOutputStream(outputStream);
+        execute(remotePath, guarded, () -> {
+            checkVersion(remotePath, guarded);
+            long resumeAt = guarded.getWritten();
+            if (resumeAt == 0) {
+                delegate.streamFileTo(remotePath, guarded);
+            } else {
+                delegate.streamRangeTo(remotePath, resumeAt, SftpTransferReader.UNTIL_EOF, guarded);
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public void streamRangeTo(String remotePath, long offset, long length, OutputStream outputStream) {
+        GuardedOutputStream guarded = new GuardedOutputStream(outputStream);
+        execute(remotePath, guarded, () -> {
+            checkVersion(remotePath, guarded);
+            long resumeAt = guarded.getWritten();
+            delegate.streamRangeTo(remotePath, offset + resumeAt, length - resumeAt, guarded);
+            return null;
+        });
+    }
+
+    @Override
+    public byte[] getFileContent(String remotePath) {
+        return execute(remotePath, null, () -> delegate.getFileContent(remotePath));
+    }
+
+    @Override
+    public boolean fileExists(String remotePath) {
+        return execute(remotePath, null, () -> delegate.fileExists(remotePath));
+    }
+
+    /**
+     * Pins the remote file version on the first run of a resumable stream and, before a
+     * resume, checks that the file is still that version, so a resumed response never
+     * mixes bytes of two versions. Costs one stat per stream while resuming is enabled.
+     *
+     * @throws RemoteFileChangedException if the file changed since the stream started
+     */
+    private void checkVersion(String remotePath, GuardedOutputStream guarded) {
+        if (config.getMaxResumes() <= 0) {
+            return;
+        }
+        RemoteFileStat current = stat.apply(remotePath);
+        if (guarded.getWritten() == 0) {
+            guarded.setVersion(current);
+        } else if (!current.equals(guarded.getVersion())) {
+            throw new RemoteFileChangedException("Remote file changed after " + guarded.getWritten()
+                    + " bytes were sent, not resuming: " + remotePath + " (was " + guarded.getVersion()
+                    + ", now " + current + ")");
+        }
+    }
+
+    /**
+     * Runs an operation through the circuit breaker, retrying transient failures.
+     * <p>
+     * Streaming operations read {@link GuardedOutputStream#getWritten()} on every
+     * run, so a retry after a partial write continues where the previous run stopped.
+     * </p>
+     *
+     * @param output caller's output of a streaming operation, null otherwise
+     */
+    private <T> T execute(String remotePath, GuardedOutputStream output, Supplier<T> operation) {
+        int maxAttempts = Math.max(1, config.getMaxAttempts());
+        int resumed = 0;
+        for (int attempt = 1; ; attempt++) {
+            if (!breaker.tryAcquire()) {
+                rejected.increment();
+                long retryAfterSeconds = Math.max(1, TimeUnit.MILLISECONDS.toSeconds(breaker.getRetryAfterMillis() + 999));
+                throw new SftpUnavailableException(retryAfterSeconds);
+            }
+
+            try {
+                T result = operation.get();
+                breaker.onSuccess();
+                return result;
+            } catch (RuntimeException e) {
+                if (e instanceof RemoteFileChangedException) {
+                    // The server answered the stat: it is up, the download just cannot be completed
+                    breaker.onSuccess();
+                    log.warn("{}", e.getMessage());
+                    throw e;
+                }
+                if (output != null && output.isFailed() || isPoolTimeout(e) || TransferFailures.isInterruption(e)) {
+                    breaker.onIgnored();
+                    throw e;
+                }
+                if (isServerReply(e)) {
+                    breaker.onSuccess();
+                    throw e;
+                }
+
+                breaker.onFailure();
+                if (output != null && output.getWritten() > 0) {
+                    if (resumed >= config.getMaxResumes()) {
+                        throw e;
+                    }
+                    resumed++;
+                    log.warn("SFTP stream failed after {} bytes (resume {}/{}), resuming: {} - {}",
+                            output.getWritten(), resumed, config.getMaxResumes(), remotePath, e.getMessage());
+                    resumes.increment();
+                    if (!backoff(resumed)) {
+                        throw e;
+                    }
+                    continue;
+                }
+                if (attempt >= maxAttempts) {
+                    throw e;
+                }
+                log.warn("SFTP operation failed (attempt {}/{}), retrying: {} - {}",
+                        attempt, maxAttempts, remotePath, e.getMessage());
+                retries.increment();
+                if (!backoff(attempt)) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * Sleeps before a retry: half the exponential delay plus a random share of the other half,
+     * so retries of concurrent requests do not hit the server in lockstep.
+     *
+     * @return false if interrupted
+     */
+    private boolean backoff(int attempt) {
+        long ceiling = Math.min(config.getMaxBackoffMillis(),
+                config.getInitialBackoffMillis() << Math.min(attempt - 1, 20));
+        if (ceiling <= 0) {
+            return true;
+        }
+        long delay = ceiling / 2 + ThreadLocalRandom.current().nextLong(ceiling / 2 + 1);
+        try {
+            TimeUnit.MILLISECONDS.sleep(delay);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static boolean isPoolTimeout(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SftpPoolTimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks whether the failure is a status reply of a live SFTP server.
+     */
+    private static boolean isServerReply(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SftpException sftpException) {
+                int status = sftpException.getStatus();
+                return status != SSH_FX_NO_CONNECTION && status != SSH_FX_CONNECTION_LOST;
+            }
+            if (cause instanceof SFTPException sftpException) {
+                Response.StatusCode status = sftpException.getStatusCode();
+                return status != null && status != Response.StatusCode.UNKNOWN
+                        && status != Response.StatusCode.NO_CONNECTION
+                        && status != Response.StatusCode.CONNECITON_LOST;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Counts bytes written to the caller's output and remembers whether the output itself failed,
+     * so a broken client connection is not blamed on the server.
+     */
+    private static final class GuardedOutputStream extends FilterOutputStream {
+
+        private long written;
+        private boolean failed;
+        private RemoteFileStat version;
+
+        GuardedOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            try {
+                out.write(b);
+                written++;
+            } catch (IOException e) {
+                failed = true;
+                throw e;
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            try {
+                out.write(b, off, len);
+                written += len;
+            } catch (IOException e) {
+                failed = true;
+                throw e;
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            try {
+                out.flush();
+            } catch (IOException e) {
+                failed = true;
+                throw e;
+            }
+        }
+
+        long getWritten() {
+            return written;
+        }
+
+        boolean isFailed() {
+            return failed;
+        }
+
+        RemoteFileStat getVersion() {
+            return version;
+        }
+
+        void setVersion(RemoteFileStat version) {
+            this.version = version;
+        }
+    }
+
+    /**
+     * Thrown instead of resuming a stream whose remote file changed since it started.
+     */
+    static final class RemoteFileChangedException extends SftpConnectionException {
+
+        private static final long serialVersionUID = 1L;
+
+        RemoteFileChangedException(String message) {
+            super(message);
+        }
+    }
+}
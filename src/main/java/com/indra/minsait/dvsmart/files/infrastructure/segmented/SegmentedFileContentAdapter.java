@@ -0,0 +1,253 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.files.infrastructure.segmented;
+
+import com.indra.minsait.dvsmart.files.domain.exception.SftpConnectionException;
+import com.indra.minsait.dvsmart.files.domain.model.FileMetadata;
+import com.indra.minsait.dvsmart.files.domain.port.out.FileContentPort;
+import com.indra.minsait.dvsmart.files.infrastructure.config.FilesConfigProperties;
+import com.indra.minsait.dvsmart.files.infrastructure.fairshare.ClientContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.BooleanSupplier;
+
+/**
+ * File content adapter that fetches large files as parallel segments.
+ * <p>
+ * A single SFTP read stream is bound by one channel's window and round
+ * trips. For catalogued files (or ranges) of at least {@code threshold-mb},
+ * the content is split into {@code segment-size-mb} segments read with
+ * offset reads, each on its own pooled session. The first segment is
+ * streamed straight to the client, so the time to first byte is unchanged,
+ * while the next {@code parallelism - 1} segments are fetched into memory
+ * ahead of it. Segments are written in order; a new one is only started
+ * when the oldest buffered one was written, which bounds the reorder buffer
+ * to {@code parallelism - 1} segments per download.
+ * </p>
+ * <p>
+ * Segments beyond the one being streamed are only started while the pool
+ * has spare sessions and nobody is waiting, so parallel downloads never
+ * starve other requests: under load a segmented download degrades to
+ * sequential range reads. The size comes from {@link FileMetadata#getFileSize()};
+ * a segment shorter than expected (the file changed) fails the download.
+ * </p>
+ */
+/**
+ * @author Hector Huaranga <hahuaranga@indracompany.com>
+ * @class SegmentedFileContentAdapter
+ * @date 18-10-2026
+ */
+@Slf4j
+public class SegmentedFileContentAdapter implements FileContentPort {
+
+    private static final long MB = 1024L * 1024L;
+
+    private final FileContentPort delegate;
+    private final ExecutorService executor;
+    private final BooleanSupplier spareCapacity;
+    private final long thresholdBytes;
+    private final int segmentBytes;
+    private final int parallelism;
+    private final Counter segmentedDownloads;
+    private final Counter parallelSegments;
+    private final Counter inlineSegments;
+
+    /**
+     * @param delegate      adapter reading from SFTP
+     * @param config        segmentation settings
+     * @param executor      executor fetching the segments ahead of the stream
+     * @param spareCapacity whether the pool can take another session without making anyone wait
+     * @param meterRegistry registry of the segmentation meters
+     */
+    public SegmentedFileContentAdapter(FileContentPort delegate, FilesConfigProperties.SegmentedConfig config,
+                                       ExecutorService executor, BooleanSupplier spareCapacity,
+                                       MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.executor = executor;
+        this.spareCapacity = spareCapacity;
+        this.thresholdBytes = config.getThresholdMb() * MB;
+        this.segmentBytes = Math.toIntExact(Math.max(1, config.getSegmentSizeMb()) * MB);
+        this.parallelism = Math.max(1, config.getParallelism());
+        this.segmentedDownloads = meterRegistry.counter("files.download.segmented");
+        this.parallelSegments = meterRegistry.counter("files.download.segments", "mode", "parallel");
+        this.inlineSegments = meterRegistry.counter("files.download.segments", "mode", "inline");
+
+        log.info("Segmented downloads enabled: files from {} MB in {} MB segments, {} at once",
+                config.getThresholdMb(), config.getSegmentSizeMb(), parallelism);
+    }
+
+    @Override
+    public InputStream getFileStream(String remotePath) {
+        return delegate.getFileStream(remotePath);
+    }
+
+    @Override
+    public void streamFileTo(String remotePath, OutputStream outputStream) {
+        // Size unknown without metadata
+        delegate.streamFileTo(remotePath, outputStream);
+    }
+
+    @Override
+    public void streamRangeTo(String remotePath, long offset, long length, OutputStream outputStream) {
+        delegate.streamRangeTo(remotePath, offset, length, outputStream);
+    }
+
+    @Override
+    public byte[] getFileContent(String remotePath) {
+        return delegate.getFileContent(remotePath);
+    }
+
+    @Override
+    public void streamFileTo(FileMetadata file, OutputStream outputStream) {
+        Long fileSize = file.getFileSize();
+        if (fileSize == null || !isSegmented(fileSize)) {
+            delegate.streamFileTo(file, outputStream);
+            return;
+        }
+        fetch(file, 0, fileSize, outputStream);
+    }
+
+    @Override
+    public void streamRangeTo(FileMetadata file, long offset, long length, OutputStream outputStream) {
+        if (!isSegmented(length)) {
+            delegate.streamRangeTo(file, offset, length, outputStream);
+            return;
+        }
+        fetch(file, offset, length, outputStream);
+    }
+
+    @Override
+    public byte[] getFileContent(FileMetadata file) {
+        return delegate.getFileContent(file);
+    }
+
+    @Override
+    public Optional<Path> findLocalCopy(FileMetadata file) {
+        return delegate.findLocalCopy(file);
+    }
+
+    @Override
+    public boolean fileExists(String remotePath) {
+        return delegate.fileExists(remotePath);
+    }
+
+    private boolean isSegmented(long length) {
+        return parallelism > 1 && length >= thresholdBytes && length > segmentBytes;
+    }
+
+    /**
+     * Streams {@code [offset, offset + length)} as segments, prefetching ahead of the client.
+     */
+    private void fetch(FileMetadata file, long offset, long length, OutputStream client) {
+        segmentedDownloads.increment();
+        log.debug("Segmented download of file {}: {} bytes from offset {}", file.getIdUnico(), length, offset);
+
+        String clientKey = ClientContext.current();
+        long end = offset + length;
+        long written = offset;
+        Deque<Segment> window = new ArrayDeque<>();
+        try {
+            long next = prefetch(file, window, offset + Math.min(segmentBytes, length), end, clientKey);
+            while (written < end) {
+                Segment head = window.peek();
+                if (head == null || head.offset() != written) {
+                    // Not fetched ahead (first segment or no spare sessions): stream it straight through
+                    long segmentLength = Math.min(segmentBytes, end - written);
+                    delegate.streamRangeTo(file, written, segmentLength, client);
+                    inlineSegments.increment();
+                    written += segmentLength;
+                    next = Math.max(next, written);
+                } else {
+                    window.poll().writeTo(client, file);
+                    written += head.length();
+                }
+                next = prefetch(file, window, next, end, clientKey);
+            }
+        } finally {
+            // Only left over when the download failed
+            window.forEach(segment -> segment.future.cancel(true));
+        }
+    }
+
+    /**
+     * Starts segments from {@code next} while the window and the pool have room.
+     *
+     * @return offset of the first segment not started
+     */
+    private long prefetch(FileMetadata file, Deque<Segment> window, long next, long end, String clientKey) {
+        while (window.size() < parallelism - 1 && next < end && spareCapacity.getAsBoolean()) {
+            long segmentOffset = next;
+            int segmentLength = (int) Math.min(segmentBytes, end - next);
+            Future<ByteArrayOutputStream> future;
+            try {
+                future = executor.submit(() -> ClientContext.callAs(clientKey, () -> {
+                    ByteArrayOutputStream buffer = new ByteArrayOutputStream(segmentLength);
+                    delegate.streamRangeTo(file, segmentOffset, segmentLength, buffer);
+                    return buffer;
+                }));
+            } catch (RejectedExecutionException e) {
+                break;
+            }
+            parallelSegments.increment();
+            window.add(new Segment(segmentOffset, segmentLength, future));
+            next += segmentLength;
+        }
+        return next;
+    }
+
+    /**
+     * Segment fetched ahead of the stream.
+     */
+    private record Segment(long offset, int length, Future<ByteArrayOutputStream> future) {
+
+        void writeTo(OutputStream client, FileMetadata file) {
+            ByteArrayOutputStream content;
+            try {
+                content = future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SftpConnectionException("Interrupted while fetching segment of file: " + file.getIdUnico(), e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw new SftpConnectionException("Failed to fetch segment of file: " + file.getIdUnico(), e.getCause());
+            }
+            if (content.size() != length) {
+                throw new SftpConnectionException("Segment at offset " + offset + " of file " + file.getIdUnico()
+                        + " returned " + content.size() + " of " + length + " bytes, the file changed");
+            }
+            try {
+                content.writeTo(client);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Client write failed", e);
+            }
+        }
+    }
+}
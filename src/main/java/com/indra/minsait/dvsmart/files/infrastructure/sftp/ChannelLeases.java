@@ -0,0 +1,234 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.files.infrastructure.sftp;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Leases pooled SFTP channels to several concurrent transfers.
+ * <p>
+ * SFTP tags every request with an id, so one channel can carry the READ
+ * requests of many files at once. Each leased channel serves up to
+ * {@code maxStreams} transfers; a new channel is borrowed from the
+ * underlying pool only when every leased one is full. A channel goes back
+ * to the pool, where it is validated and evicted as usual, when its last
+ * lease is released.
+ * </p>
+ * <p>
+ * A lease released as unhealthy retires its channel: it takes no new
+ * leases and is discarded once the transfers still using it finish, so one
+ * failed download never breaks the others sharing the channel.
+ * </p>
+ *
+ * @param <C> channel type
+ */
+/**
+ * @author Hector Huaranga <hahuaranga@indracompany.com>
+ * @class ChannelLeases
+ * @date 18-10-2026
+ */
+class ChannelLeases<C> {
+
+    private final ChannelSource<C> source;
+    private final int maxStreams;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition room = lock.newCondition();
+    private final Map<C, Lease> leased = new HashMap<>();
+    private int maxChannels;
+    private int pendingChannels;
+    private int activeLeases;
+
+    ChannelLeases(ChannelSource<C> source, int maxChannels, int maxStreams) {
+        this.source = source;
+        this.maxChannels = maxChannels;
+        this.maxStreams = maxStreams;
+    }
+
+    /**
+     * Leases the least busy channel with room, borrowing a new one if all are full.
+     *
+     * @param timeoutMillis maximum wait for room, negative to wait indefinitely
+     * @return leased channel
+     * @throws SftpPoolTimeoutException if no channel had room within the timeout
+     * @throws Exception                if no channel could be obtained
+     */
+    C acquire(long timeoutMillis) throws Exception {
+        long startNanos = System.nanoTime();
+        lock.lock();
+        try {
+            long remainingNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+            while (true) {
+                C channel = leastBusy();
+                if (channel != null) {
+                    leased.get(channel).count++;
+                    activeLeases++;
+                    return channel;
+                }
+                if (leased.size() + pendingChannels < maxChannels) {
+                    pendingChannels++;
+                    break;
+                }
+                // Every channel is full or retiring: wait for a lease to be released
+                if (timeoutMillis < 0) {
+                    room.await();
+                } else if (remainingNanos <= 0) {
+                    throw new SftpPoolTimeoutException("Timeout waiting for a shared SFTP channel after "
+                            + timeoutMillis + " ms");
+                } else {
+                    remainingNanos = room.awaitNanos(remainingNanos);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        // Opening a channel is network I/O, keep it outside the lock
+        C channel;
+        try {
+            // The time spent waiting for room counts against the same timeout
+            channel = source.borrow(SftpPoolTimeoutException.remainingMillis(startNanos, timeoutMillis));
+        } catch (Exception e) {
+            lock.lock();
+            try {
+                pendingChannels--;
+                room.signalAll();
+            } finally {
+                lock.unlock();
+            }
+            throw e;
+        }
+
+        lock.lock();
+        try {
+            pendingChannels--;
+            leased.put(channel, new Lease());
+            activeLeases++;
+            room.signalAll();
+            return channel;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Releases one lease of a channel.
+     *
+     * @param channel leased channel
+     * @param healthy false to retire the channel after its remaining transfers
+     * @return true if a lease was released, false if the channel was not leased
+     */
+    boolean release(C channel, boolean healthy) {
+        boolean last;
+        boolean retiring;
+        lock.lock();
+        try {
+            Lease lease = leased.get(channel);
+            if (lease == null) {
+                return false;
+            }
+            lease.retiring |= !healthy;
+            lease.count--;
+            activeLeases--;
+            last = lease.count == 0;
+            retiring = lease.retiring;
+            if (last) {
+                leased.remove(channel);
+            }
+            room.signalAll();
+        } finally {
+            lock.unlock();
+        }
+
+        if (last) {
+            if (retiring) {
+                source.discard(channel);
+            } else {
+                source.giveBack(channel);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Changes the number of channels that may be leased at once. Channels
+     * above a lowered limit are not revoked; no new ones are borrowed until
+     * enough of them went back to the pool.
+     *
+     * @param maxChannels new channel limit
+     */
+    void setMaxChannels(int maxChannels) {
+        lock.lock();
+        try {
+            this.maxChannels = maxChannels;
+            room.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the number of transfers currently holding a lease.
+     *
+     * @return active leases
+     */
+    int getActiveLeases() {
+        lock.lock();
+        try {
+            return activeLeases;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private C leastBusy() {
+        C selected = null;
+        int selectedCount = Integer.MAX_VALUE;
+        for (Map.Entry<C, Lease> entry : leased.entrySet()) {
+            Lease lease = entry.getValue();
+            if (!lease.retiring && lease.count < maxStreams && lease.count < selectedCount) {
+                selected = entry.getKey();
+                selectedCount = lease.count;
+            }
+        }
+        return selected;
+    }
+
+    private static final class Lease {
+        private int count = 1;
+        private boolean retiring;
+    }
+
+    /**
+     * Underlying pool of exclusive channels.
+     */
+    interface ChannelSource<C> {
+
+        /**
+         * Borrows an exclusive channel.
+         *
+         * @param timeoutMillis maximum wait for a free channel, negative to wait indefinitely
+         * @return borrowed channel
+         * @throws Exception if no channel could be obtained
+         */
+        C borrow(long timeoutMillis) throws Exception;
+
+        void giveBack(C channel);
+
+        void discard(C channel);
+    }
+}
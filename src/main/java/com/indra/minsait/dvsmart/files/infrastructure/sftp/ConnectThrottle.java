@@ -0,0 +1,68 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.files.infrastructure.sftp;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Spaces out new SSH connections.
+ * <p>
+ * Every connect attempt takes the next free slot, at least the configured
+ * interval after the previous one, and sleeps until it. When the server
+ * comes back after an outage the pool refills at that pace instead of
+ * opening all its connections at once. Sleeping happens outside the lock.
+ * </p>
+ */
+/**
+ * @author Hector Huaranga <hahuaranga@indracompany.com>
+ * @class ConnectThrottle
+ * @date 18-10-2026
+ */
+final class ConnectThrottle {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final long intervalNanos;
+    private long nextSlotNanos;
+    private boolean used;
+
+    ConnectThrottle(long intervalMillis) {
+        this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, intervalMillis));
+    }
+
+    /**
+     * Waits for this caller's turn to open a connection.
+     *
+     * @throws InterruptedException if interrupted while waiting
+     */
+    void await() throws InterruptedException {
+        if (intervalNanos == 0) {
+            return;
+        }
+        long waitNanos;
+        lock.lock();
+        try {
+            long now = System.nanoTime();
+            long slot = used && nextSlotNanos - now > 0 ? nextSlotNanos : now;
+            used = true;
+            nextSlotNanos = slot + intervalNanos;
+            waitNanos = slot - now;
+        } finally {
+            lock.unlock();
+        }
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+}
@@ -14,26 +14,64 @@
 package com.indra.minsait.dvsmart.files.infrastructure.sftp;
 
 import com.indra.minsait.dvsmart.files.infrastructure.config.SftpConfigProperties;
+import com.indra.minsait.dvsmart.files.infrastructure.fairshare.ClientContext;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.pool2.BasePooledObjectFactory;
-import org.apache.commons.pool2.PooledObject;
-import org.apache.commons.pool2.impl.DefaultPooledObject;
 import org.apache.commons.pool2.impl.GenericObjectPool;
-import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
-import org.springframework.integration.sftp.session.DefaultSftpSessionFactory;
 import org.springframework.integration.sftp.session.SftpSession;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 
-import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ToIntFunction;
 
 /**
  * Custom lazy SFTP session factory with connection pooling.
  * <p>
+ * Balances sessions across one or more SFTP endpoints (mirrored servers or
+ * extra accounts), each with its own {@link SftpEndpointPool}. Every request
+ * goes to the healthy endpoint with the fewest outstanding sessions relative
+ * to its weight; when an endpoint fails to hand out a session it is taken out
+ * of rotation for {@code failover-cooldown-millis} and the request fails over
+ * to the next one.
+ * </p>
+ * <p>
  * Features:
  * <ul>
- *   <li>Lazy initialization - connections created on demand</li>
- *   <li>Connection validation before use (testOnBorrow)</li>
+ *   <li>Lazy initialization - transports and channels created on demand</li>
+ *   <li>SFTP channels multiplexed over a few SSH transports per endpoint, with
+ *       separate limits and health checks for transports and channels</li>
+ *   <li>Optional shared-channel mode: with {@code max-streams-per-channel} above 1
+ *       several transfers interleave their requests on one channel
+ *       (see {@link ChannelLeases})</li>
+ *   <li>Connection validation before use (testOnBorrow) with a cheap stat probe,
+ *       skipped for sessions returned within the validation age window</li>
  *   <li>Automatic eviction of idle connections</li>
- *   <li>Configurable pool size and timeouts</li>
+ *   <li>New SSH connections spaced by {@code min-connect-interval-millis}
+ *       (see {@link ConnectThrottle})</li>
+ *   <li>Configurable pool size and timeouts, changeable at runtime (see {@link #reconfigure})</li>
+ *   <li>Optional autoscaling of max-size and min-idle from the observed borrow wait and
+ *       utilization (see {@link SftpPoolAutoscaler})</li>
+ *   <li>Optional warm-up: sessions opened in parallel at startup and ahead of known
+ *       peaks (see {@link SftpPoolWarmer})</li>
+ *   <li>Micrometer timers, gauges and counters (see {@link SftpPoolMetrics})</li>
+ *   <li>Waiting for a free session on a {@link FairSessionGate}, not inside pool monitors,
+ *       so waiting virtual threads do not pin their carrier thread and sessions are
+ *       handed out in weighted fair order across clients</li>
  * </ul>
  * </p>
  */
@@ -46,69 +84,207 @@ import java.time.Duration;
 public class CustomLazySftpSessionFactory {
 
     private final SftpConfigProperties config;
-    private final GenericObjectPool<SftpSession> pool;
-    private final DefaultSftpSessionFactory sessionFactory;
+    private final List<SftpEndpointPool> endpoints = new ArrayList<>();
+    private final Map<SftpSession, SftpEndpointPool> owners = new ConcurrentHashMap<>();
+    private final FairSessionGate gate;
+    private final SftpPoolMetrics metrics;
+    private final Set<SftpSession> borrowed = ConcurrentHashMap.newKeySet();
+    private final boolean sharedChannels;
+    private final int maxStreams;
+    private final ReentrantLock resizeLock = new ReentrantLock();
+    private final SftpPoolAutoscaler autoscaler;
+    private final LongAdder borrowCount = new LongAdder();
+    private final LongAdder borrowWaitNanos = new LongAdder();
+    private final AtomicInteger inUse = new AtomicInteger();
+    private final AtomicInteger peakInUse = new AtomicInteger();
+    private volatile int maxSize;
+    private volatile int minIdle;
+    private volatile int warmMinIdle;
+    private volatile long maxWaitMillis;
+    private volatile boolean autoscaling;
+    private ScheduledExecutorService autoscaleScheduler;
 
     public CustomLazySftpSessionFactory(SftpConfigProperties config) {
+        this(config, client -> 1);
+    }
+
+    /**
+     * @param config  SFTP configuration
+     * @param weights scheduling weight of each client waiting for a session
+     */
+    public CustomLazySftpSessionFactory(SftpConfigProperties config, ToIntFunction<String> weights) {
+        this(config, weights, new SimpleMeterRegistry());
+    }
+
+    /**
+     * @param config        SFTP configuration
+     * @param weights       scheduling weight of each client waiting for a session
+     * @param meterRegistry registry of the pool meters (see {@link SftpPoolMetrics})
+     */
+    public CustomLazySftpSessionFactory(SftpConfigProperties config, ToIntFunction<String> weights,
+                                        MeterRegistry meterRegistry) {
+        this(config, weights, meterRegistry, SftpEndpointPool::new);
+    }
+
+    /**
+     * @param config        SFTP configuration
+     * @param weights       scheduling weight of each client waiting for a session
+     * @param meterRegistry registry of the pool meters (see {@link SftpPoolMetrics})
+     * @param endpointPools creates the session pool of each endpoint
+     */
+    CustomLazySftpSessionFactory(SftpConfigProperties config, ToIntFunction<String> weights,
+                                 MeterRegistry meterRegistry, EndpointPoolFactory endpointPools) {
         this.config = config;
-        this.sessionFactory = createSessionFactory();
-        this.pool = createPool();
+        this.metrics = new SftpPoolMetrics(meterRegistry, SftpTransferReader.LIBRARY);
+        this.maxStreams = Math.max(1, config.getPool().getMaxStreamsPerChannel());
+        this.sharedChannels = maxStreams > 1;
+        this.maxSize = config.getPool().getMaxSize();
+        this.minIdle = config.getPool().getMinIdle();
+        this.maxWaitMillis = config.getPool().getMaxWaitMillis();
+        this.autoscaler = new SftpPoolAutoscaler(config.getPool().getAutoscale(), config.getPool().getMinIdle());
+        int capacity = 0;
+        for (SftpConfigProperties.EndpointConfig endpoint : config.resolveEndpoints()) {
+            SftpEndpointPool endpointPool = endpointPools.create(config, endpoint, owners,
+                    metrics.endpoint(endpoint.getName()));
+            endpoints.add(endpointPool);
+            capacity += endpointPool.getCapacity();
+        }
+        this.gate = new FairSessionGate(capacity, weights);
+        metrics.bind(gate);
 
         log.info("╔══════════════════════════════════════════════════════════════╗");
         log.info("║ SFTP Connection Pool Initialized (LAZY)                      ║");
         log.info("╠══════════════════════════════════════════════════════════════╣");
-        log.info("║ Host: {}:{}", config.getHost(), config.getPort());
-        log.info("║ User: {}", config.getUser());
+        for (SftpEndpointPool endpointPool : endpoints) {
+            SftpConfigProperties.EndpointConfig endpoint = endpointPool.getEndpoint();
+            log.info("║ Endpoint {}: {}@{}:{} (weight {}, {} channels)", endpoint.getName(), endpoint.getUser(),
+                    endpoint.getHost(), endpoint.getPort(), endpoint.getWeight(), endpointPool.getMaxChannels());
+        }
         log.info("║ Base Directory: {}", config.getBaseDir());
-        log.info("║ Pool Max Size: {}", config.getPool().getMaxSize());
+        log.info("║ Pool Max Size: {} per endpoint", config.getPool().getMaxSize());
+        log.info("║ Transports: {} x {} channels", config.getPool().getMaxTransports(),
+                config.getPool().getMaxChannelsPerTransport());
+        log.info("║ Streams Per Channel: {}", maxStreams);
         log.info("║ Test On Borrow: {}", config.getPool().isTestOnBorrow());
+        if (config.getPool().getAutoscale().isEnabled()) {
+            log.info("║ Autoscale: {}..{} per endpoint every {} ms", autoscaler.getMinSize(),
+                    autoscaler.getMaxSize(), config.getPool().getAutoscale().getIntervalMillis());
+        }
         log.info("╚══════════════════════════════════════════════════════════════╝");
-    }
 
-    private DefaultSftpSessionFactory createSessionFactory() {
-        DefaultSftpSessionFactory factory = new DefaultSftpSessionFactory(true);
-        factory.setHost(config.getHost());
-        factory.setPort(config.getPort());
-        factory.setUser(config.getUser());
-        factory.setPassword(config.getPassword());
-        factory.setTimeout(config.getTimeout());
-        factory.setAllowUnknownKeys(true);
-
-        if (config.getKnownHostsFile() != null && !config.getKnownHostsFile().isEmpty()) {
-            factory.setKnownHostsResource(
-                    new org.springframework.core.io.FileSystemResource(config.getKnownHostsFile()));
+        if (config.getPool().getAutoscale().isEnabled()) {
+            long transportCapacity = (long) config.getPool().getMaxTransports()
+                    * config.getPool().getMaxChannelsPerTransport();
+            if (autoscaler.getMaxSize() > transportCapacity) {
+                log.warn("SFTP pool autoscale max-size {} exceeds what {} transports x {} channels can carry",
+                        autoscaler.getMaxSize(), config.getPool().getMaxTransports(),
+                        config.getPool().getMaxChannelsPerTransport());
+            }
+            setAutoscaling(true);
         }
-
-        return factory;
-    }
-
-    private GenericObjectPool<SftpSession> createPool() {
-        SftpConfigProperties.PoolConfig poolConfig = config.getPool();
-
-        GenericObjectPoolConfig<SftpSession> poolObjConfig = new GenericObjectPoolConfig<>();
-        poolObjConfig.setMaxTotal(poolConfig.getMaxSize());
-        poolObjConfig.setMinIdle(poolConfig.getMinIdle());
-        poolObjConfig.setMaxWait(Duration.ofMillis(poolConfig.getMaxWaitMillis()));
-        poolObjConfig.setTestOnBorrow(poolConfig.isTestOnBorrow());
-        poolObjConfig.setTestWhileIdle(poolConfig.isTestWhileIdle());
-        poolObjConfig.setTimeBetweenEvictionRuns(
-                Duration.ofMillis(poolConfig.getTimeBetweenEvictionRunsMillis()));
-        poolObjConfig.setMinEvictableIdleDuration(
-                Duration.ofMillis(poolConfig.getMinEvictableIdleTimeMillis()));
-        poolObjConfig.setBlockWhenExhausted(true);
-        poolObjConfig.setJmxEnabled(false);
-
-        return new GenericObjectPool<>(new SftpSessionFactory(), poolObjConfig);
     }
 
     /**
      * Gets a session from the pool.
+     * <p>
+     * Waits in the queue of the client bound in {@link ClientContext}.
+     * In shared-channel mode the session may be in use by other transfers at
+     * the same time; callers must only use it for their own file handles.
+     * </p>
      *
      * @return an active SFTP session
      * @throws Exception if unable to obtain a session
      */
     public SftpSession getSession() throws Exception {
-        return pool.borrowObject();
+        long startNanos = System.nanoTime();
+        try {
+            SftpSession session = borrowSession(startNanos);
+            metrics.borrowAcquired(startNanos);
+            peakInUse.accumulateAndGet(inUse.incrementAndGet(), Math::max);
+            return session;
+        } catch (SftpPoolTimeoutException e) {
+            metrics.borrowTimedOut(startNanos);
+            throw e;
+        } catch (Exception e) {
+            metrics.borrowFailed(startNanos);
+            throw e;
+        } finally {
+            borrowCount.increment();
+            borrowWaitNanos.add(System.nanoTime() - startNanos);
+        }
+    }
+
+    /**
+     * Waits for a permit, then borrows from the least loaded endpoint, failing over
+     * to the next one when an endpoint cannot hand out a session. The pool borrow
+     * only waits for what is left of max-wait after the permit wait.
+     */
+    private SftpSession borrowSession(long startNanos) throws Exception {
+        long maxWaitMillis = this.maxWaitMillis;
+        acquirePermit(maxWaitMillis);
+        Set<SftpEndpointPool> failed = new HashSet<>();
+        Exception lastFailure = null;
+        while (true) {
+            SftpEndpointPool endpoint = reserveEndpoint(failed);
+            if (endpoint == null) {
+                gate.release();
+                throw lastFailure != null ? lastFailure
+                        : new SftpPoolTimeoutException("No SFTP endpoint has room for another session");
+            }
+            try {
+                SftpSession session = endpoint.borrow(SftpPoolTimeoutException.remainingMillis(startNanos,
+                        maxWaitMillis));
+                endpoint.markHealthy();
+                if (!sharedChannels) {
+                    borrowed.add(session);
+                }
+                return session;
+            } catch (SftpPoolTimeoutException e) {
+                // Pool wait timeout: the endpoint is busy, not down
+                endpoint.unreserve();
+                gate.release();
+                throw e;
+            } catch (InterruptedException e) {
+                endpoint.unreserve();
+                gate.release();
+                throw e;
+            } catch (Exception e) {
+                endpoint.unreserve();
+                endpoint.markUnhealthy();
+                failed.add(endpoint);
+                lastFailure = e;
+                log.warn("Failed to get a session from SFTP endpoint {}: {}", endpoint.getName(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Picks the endpoint with the lowest weighted number of outstanding sessions,
+     * preferring healthy ones, and reserves room on it.
+     *
+     * @param excluded endpoints that already failed for this request
+     * @return reserved endpoint, or null if none has room
+     */
+    private SftpEndpointPool reserveEndpoint(Set<SftpEndpointPool> excluded) {
+        while (true) {
+            SftpEndpointPool selected = null;
+            boolean selectedHealthy = false;
+            for (SftpEndpointPool endpoint : endpoints) {
+                if (excluded.contains(endpoint) || endpoint.getOutstanding() >= endpoint.getCapacity()) {
+                    continue;
+                }
+                boolean healthy = endpoint.isHealthy();
+                if (selected == null || (healthy && !selectedHealthy)
+                        || (healthy == selectedHealthy && endpoint.getLoad() < selected.getLoad())) {
+                    selected = endpoint;
+                    selectedHealthy = healthy;
+                }
+            }
+            if (selected == null || selected.tryReserve()) {
+                return selected;
+            }
+            // Another request took the last slot in the meantime, pick again
+        }
     }
 
     /**
@@ -117,8 +293,18 @@ public class CustomLazySftpSessionFactory {
      * @param session the session to return
      */
     public void returnSession(SftpSession session) {
-        if (session != null) {
-            pool.returnObject(session);
+        SftpEndpointPool endpoint = session != null ? owners.get(session) : null;
+        if (endpoint == null) {
+            return;
+        }
+        boolean held = sharedChannels || borrowed.remove(session);
+        boolean released = false;
+        try {
+            if (held) {
+                released = endpoint.giveBack(session);
+            }
+        } finally {
+            releasePermit(endpoint, released);
         }
     }
 
@@ -128,84 +314,344 @@ public class CustomLazySftpSessionFactory {
      * @param session the session to invalidate
      */
     public void invalidateSession(SftpSession session) {
-        if (session != null) {
-            try {
-                pool.invalidateObject(session);
-            } catch (Exception e) {
-                log.warn("Failed to invalidate SFTP session", e);
+        SftpEndpointPool endpoint = session != null ? owners.get(session) : null;
+        if (endpoint == null) {
+            return;
+        }
+        boolean held = sharedChannels || borrowed.remove(session);
+        boolean released = false;
+        try {
+            if (held) {
+                released = endpoint.discard(session);
             }
+        } finally {
+            releasePermit(endpoint, released);
         }
     }
 
     /**
-     * Gets current pool statistics.
+     * Gets current pool statistics, summed over all endpoints.
      *
      * @return pool statistics
      */
     public PoolStats getPoolStats() {
-        return PoolStats.builder()
-                .active(pool.getNumActive())
-                .idle(pool.getNumIdle())
-                .maxTotal(pool.getMaxTotal())
-                .totalCreated(pool.getCreatedCount())
-                .totalDestroyed(pool.getDestroyedCount())
-                .totalBorrowed(pool.getBorrowedCount())
-                .totalReturned(pool.getReturnedCount())
+        PoolStats.PoolStatsBuilder stats = PoolStats.builder()
+                .waiting(gate.getWaiting())
+                .waitingClients(gate.getBackloggedClients());
+        int active = 0;
+        int idle = 0;
+        int maxTotal = 0;
+        long created = 0;
+        long destroyed = 0;
+        long borrowedCount = 0;
+        long returned = 0;
+        int transports = 0;
+        int activeStreams = 0;
+        List<EndpointStats> endpointStats = new ArrayList<>();
+        for (SftpEndpointPool endpoint : endpoints) {
+            GenericObjectPool<SftpSession> pool = endpoint.getPool();
+            active += pool.getNumActive();
+            idle += pool.getNumIdle();
+            maxTotal += pool.getMaxTotal();
+            created += pool.getCreatedCount();
+            destroyed += pool.getDestroyedCount();
+            borrowedCount += pool.getBorrowedCount();
+            returned += pool.getReturnedCount();
+            transports += endpoint.getLiveTransports();
+            activeStreams += endpoint.getActiveStreams();
+            endpointStats.add(EndpointStats.builder()
+                    .name(endpoint.getName())
+                    .host(endpoint.getEndpoint().getHost())
+                    .port(endpoint.getEndpoint().getPort())
+                    .weight(endpoint.getEndpoint().getWeight())
+                    .healthy(endpoint.isHealthy())
+                    .outstanding(endpoint.getOutstanding())
+                    .active(pool.getNumActive())
+                    .idle(pool.getNumIdle())
+                    .transports(endpoint.getLiveTransports())
+                    .build());
+        }
+        return stats.active(active)
+                .idle(idle)
+                .maxTotal(maxTotal)
+                .totalCreated(created)
+                .totalDestroyed(destroyed)
+                .totalBorrowed(borrowedCount)
+                .totalReturned(returned)
+                .transports(transports)
+                .activeStreams(activeStreams)
+                .endpoints(endpointStats)
                 .build();
     }
 
     /**
-     * Closes the pool and all connections.
+     * Changes pool parameters at runtime, without a restart. Sizes apply to
+     * every endpoint; sessions above a lowered size are not revoked, they
+     * close as they go idle. While autoscaling is on, the autoscaler keeps
+     * adjusting max-size and min-idle from the new values.
+     *
+     * @param newMaxSize       maximum sessions per endpoint, null to keep it
+     * @param newMinIdle       minimum idle sessions per endpoint, null to keep it
+     * @param newMaxWaitMillis maximum wait for a session (ms), null to keep it
+     * @return settings in effect
      */
-    public void close() {
-        log.info("Closing SFTP connection pool...");
-        pool.close();
+    public PoolSettings reconfigure(Integer newMaxSize, Integer newMinIdle, Long newMaxWaitMillis) {
+        checkSettings(newMaxSize, newMinIdle, newMaxWaitMillis);
+        resizeLock.lock();
+        try {
+            if (newMaxWaitMillis != null) {
+                maxWaitMillis = newMaxWaitMillis;
+            }
+            if (newMaxSize != null || newMinIdle != null) {
+                resize(newMaxSize != null ? newMaxSize : maxSize, newMinIdle != null ? newMinIdle : minIdle);
+            }
+            log.info("SFTP pool reconfigured: max-size={}, min-idle={}, max-wait={} ms",
+                    maxSize, minIdle, maxWaitMillis);
+            return getPoolSettings();
+        } finally {
+            resizeLock.unlock();
+        }
     }
 
     /**
-     * Factory for creating pooled SFTP sessions.
+     * Checks pool parameters without applying them.
+     *
+     * @param newMaxSize       maximum sessions per endpoint, null to keep it
+     * @param newMinIdle       minimum idle sessions per endpoint, null to keep it
+     * @param newMaxWaitMillis maximum wait for a session (ms), null to keep it
+     * @throws IllegalArgumentException if a value is out of range
      */
-    private class SftpSessionFactory extends BasePooledObjectFactory<SftpSession> {
+    public void checkSettings(Integer newMaxSize, Integer newMinIdle, Long newMaxWaitMillis) {
+        if ((newMaxSize != null && newMaxSize < 1) || (newMinIdle != null && newMinIdle < 0)
+                || (newMaxWaitMillis != null && newMaxWaitMillis < 0)) {
+            throw new IllegalArgumentException("Invalid pool settings: max-size=" + newMaxSize
+                    + ", min-idle=" + newMinIdle + ", max-wait-millis=" + newMaxWaitMillis);
+        }
+    }
 
-        @Override
-        public SftpSession create() throws Exception {
-            log.debug("Creating new SFTP session to {}:{}", config.getHost(), config.getPort());
-            SftpSession session = sessionFactory.getSession();
-            log.debug("SFTP session created successfully");
-            return session;
+    /**
+     * Checks autoscale bounds without applying them.
+     *
+     * @param newMinSize lower bound of max-size, null to keep it
+     * @param newMaxSize upper bound of max-size, null to keep it
+     * @throws IllegalArgumentException if the bounds are out of range
+     */
+    public void checkAutoscale(Integer newMinSize, Integer newMaxSize) {
+        int minSize = newMinSize != null ? newMinSize : autoscaler.getMinSize();
+        int maxSize = newMaxSize != null ? newMaxSize : autoscaler.getMaxSize();
+        if (minSize < 1 || maxSize < minSize) {
+            throw new IllegalArgumentException("Invalid autoscale bounds: min-size=" + minSize
+                    + ", max-size=" + maxSize);
+        }
+    }
+
+    /**
+     * Turns autoscaling on or off and changes its bounds at runtime.
+     *
+     * @param enabled    whether to autoscale, null to keep it
+     * @param newMinSize lower bound of max-size, null to keep it
+     * @param newMaxSize upper bound of max-size, null to keep it
+     * @return settings in effect
+     */
+    public PoolSettings configureAutoscale(Boolean enabled, Integer newMinSize, Integer newMaxSize) {
+        resizeLock.lock();
+        try {
+            if (newMinSize != null || newMaxSize != null) {
+                autoscaler.setBounds(newMinSize != null ? newMinSize : autoscaler.getMinSize(),
+                        newMaxSize != null ? newMaxSize : autoscaler.getMaxSize());
+            }
+            if (enabled != null) {
+                setAutoscaling(enabled);
+            }
+            log.info("SFTP pool autoscale {}: max-size within {}..{}", autoscaling ? "on" : "off",
+                    autoscaler.getMinSize(), autoscaler.getMaxSize());
+            return getPoolSettings();
+        } finally {
+            resizeLock.unlock();
         }
+    }
+
+    /**
+     * Gets the pool parameters currently in effect.
+     *
+     * @return pool settings
+     */
+    public PoolSettings getPoolSettings() {
+        return PoolSettings.builder()
+                .maxSize(maxSize)
+                .minIdle(minIdle)
+                .maxWaitMillis(maxWaitMillis)
+                .warmMinIdle(warmMinIdle)
+                .autoscale(autoscaling)
+                .autoscaleMinSize(autoscaler.getMinSize())
+                .autoscaleMaxSize(autoscaler.getMaxSize())
+                .build();
+    }
 
-        @Override
-        public PooledObject<SftpSession> wrap(SftpSession session) {
-            return new DefaultPooledObject<>(session);
+    /**
+     * Sets the floor of min-idle kept by the warm-up (see {@link SftpPoolWarmer}),
+     * on top of the configured or autoscaled min-idle.
+     *
+     * @param sessions idle sessions per endpoint, 0 for none
+     */
+    public void setWarmMinIdle(int sessions) {
+        resizeLock.lock();
+        try {
+            if (sessions != warmMinIdle) {
+                warmMinIdle = Math.max(0, sessions);
+                resize(maxSize, minIdle);
+            }
+        } finally {
+            resizeLock.unlock();
         }
+    }
 
-        @Override
-        public void destroyObject(PooledObject<SftpSession> pooledObject) throws Exception {
-            SftpSession session = pooledObject.getObject();
-            if (session != null && session.isOpen()) {
-                log.debug("Closing SFTP session");
-                session.close();
+    /**
+     * Opens sessions ahead of demand until every healthy endpoint holds the target,
+     * instead of waiting for the evictor to restore min-idle.
+     *
+     * @param sessionsPerEndpoint sessions each endpoint should hold, bounded by its size
+     * @param parallelism         sessions opened concurrently
+     * @param timeoutMillis       maximum time to wait for them
+     * @return sessions opened
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public int prewarm(int sessionsPerEndpoint, int parallelism, long timeoutMillis) throws InterruptedException {
+        List<Callable<Boolean>> tasks = new ArrayList<>();
+        for (SftpEndpointPool endpoint : endpoints) {
+            if (!endpoint.isHealthy()) {
+                continue;
+            }
+            for (int i = endpoint.missingChannels(sessionsPerEndpoint); i > 0; i--) {
+                tasks.add(() -> {
+                    try {
+                        endpoint.addIdleChannel();
+                        return true;
+                    } catch (Exception e) {
+                        endpoint.markUnhealthy();
+                        log.warn("Failed to pre-open a session on SFTP endpoint {}: {}", endpoint.getName(),
+                                e.getMessage());
+                        return false;
+                    }
+                });
             }
         }
+        if (tasks.isEmpty()) {
+            return 0;
+        }
 
-        @Override
-        public boolean validateObject(PooledObject<SftpSession> pooledObject) {
-            SftpSession session = pooledObject.getObject();
-            if (session == null || !session.isOpen()) {
-                log.debug("Session validation failed: session is null or closed");
-                return false;
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("sftp-warmup-");
+        threadFactory.setDaemon(true);
+        ExecutorService executor = Executors.newFixedThreadPool(Math.clamp(parallelism, 1, tasks.size()),
+                threadFactory);
+        try {
+            int opened = 0;
+            for (Future<Boolean> result : executor.invokeAll(tasks, timeoutMillis, TimeUnit.MILLISECONDS)) {
+                if (result.state() == Future.State.SUCCESS && result.resultNow()) {
+                    opened++;
+                }
             }
+            return opened;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
 
-            try {
-                // Validate by listing the base directory
-                session.list(config.getBaseDir());
-                return true;
-            } catch (Exception e) {
-                log.debug("Session validation failed: {}", e.getMessage());
-                return false;
+    /**
+     * Applies new sizes to every endpoint and the gate. Called with the resize lock held.
+     */
+    private void resize(int newMaxSize, int newMinIdle) {
+        int capacity = 0;
+        for (SftpEndpointPool endpoint : endpoints) {
+            capacity += endpoint.resize(newMaxSize, Math.max(newMinIdle, warmMinIdle)) * maxStreams;
+        }
+        gate.resize(capacity);
+        maxSize = newMaxSize;
+        minIdle = Math.min(newMinIdle, newMaxSize);
+    }
+
+    private void setAutoscaling(boolean enabled) {
+        autoscaling = enabled;
+        if (enabled && autoscaleScheduler == null) {
+            CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("sftp-pool-autoscale-");
+            threadFactory.setDaemon(true);
+            autoscaleScheduler = Executors.newSingleThreadScheduledExecutor(threadFactory);
+            long intervalMillis = Math.max(1, config.getPool().getAutoscale().getIntervalMillis());
+            autoscaleScheduler.scheduleWithFixedDelay(this::autoscale, intervalMillis, intervalMillis,
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Samples the load of the last interval and resizes the pool if the autoscaler asks to.
+     */
+    private void autoscale() {
+        long borrows = borrowCount.sumThenReset();
+        long waitNanos = borrowWaitNanos.sumThenReset();
+        int peak = peakInUse.getAndSet(inUse.get());
+        if (!autoscaling) {
+            return;
+        }
+        resizeLock.lock();
+        try {
+            SftpPoolAutoscaler.Decision decision = autoscaler.decide(maxSize, new SftpPoolAutoscaler.LoadSample(
+                    borrows, waitNanos, peak, gate.getPermits(), gate.getWaiting()));
+            if (decision.maxSize() != maxSize || decision.minIdle() != minIdle) {
+                log.info("Autoscaling SFTP pool: max-size {} -> {}, min-idle {} -> {} ({} borrows, peak {} of {})",
+                        maxSize, decision.maxSize(), minIdle, decision.minIdle(), borrows, peak, gate.getPermits());
+                resize(decision.maxSize(), decision.minIdle());
+            }
+        } catch (RuntimeException e) {
+            log.warn("SFTP pool autoscaling failed: {}", e.getMessage());
+        } finally {
+            resizeLock.unlock();
+        }
+    }
+
+    private void acquirePermit(long maxWaitMillis) throws InterruptedException {
+        if (!gate.acquire(ClientContext.current(), maxWaitMillis)) {
+            throw new SftpPoolTimeoutException("Timeout waiting for an SFTP session after " + maxWaitMillis + " ms");
+        }
+    }
+
+    /**
+     * Releases the permit and endpoint reservation of a session whose hold ended.
+     * Exclusive sessions are unregistered before they go back to the pool, so a
+     * session both returned and invalidated releases them only once.
+     */
+    private void releasePermit(SftpEndpointPool endpoint, boolean released) {
+        if (released) {
+            endpoint.unreserve();
+            inUse.decrementAndGet();
+            gate.release();
+        }
+    }
+
+    /**
+     * Closes the pool and all connections.
+     */
+    public void close() {
+        log.info("Closing SFTP connection pool...");
+        resizeLock.lock();
+        try {
+            autoscaling = false;
+            if (autoscaleScheduler != null) {
+                autoscaleScheduler.shutdownNow();
             }
+        } finally {
+            resizeLock.unlock();
         }
+        endpoints.forEach(SftpEndpointPool::close);
+    }
+
+    /**
+     * Creates the session pool of one endpoint.
+     */
+    @FunctionalInterface
+    interface EndpointPoolFactory {
+
+        SftpEndpointPool create(SftpConfigProperties config, SftpConfigProperties.EndpointConfig endpoint,
+                                Map<SftpSession, SftpEndpointPool> owners, SftpPoolMetrics.Endpoint metrics);
     }
 
     /**
@@ -221,6 +667,11 @@ public class CustomLazySftpSessionFactory {
         private long totalDestroyed;
         private long totalBorrowed;
         private long totalReturned;
+        private int waiting;
+        private int waitingClients;
+        private int transports;
+        private int activeStreams;
+        private List<EndpointStats> endpoints;
 
         public double getUtilizationPercent() {
             return maxTotal > 0 ? (active * 100.0) / maxTotal : 0;
@@ -230,4 +681,36 @@ public class CustomLazySftpSessionFactory {
             return maxTotal - active;
         }
     }
+
+    /**
+     * Pool parameters that can be changed at runtime.
+     */
+    @lombok.Data
+    @lombok.Builder
+    public static class PoolSettings {
+        private int maxSize;
+        private int minIdle;
+        private long maxWaitMillis;
+        private int warmMinIdle;
+        private boolean autoscale;
+        private int autoscaleMinSize;
+        private int autoscaleMaxSize;
+    }
+
+    /**
+     * Statistics of one SFTP endpoint.
+     */
+    @lombok.Data
+    @lombok.Builder
+    public static class EndpointStats {
+        private String name;
+        private String host;
+        private int port;
+        private int weight;
+        private boolean healthy;
+        private int outstanding;
+        private int active;
+        private int idle;
+        private int transports;
+    }
 }
@@ -0,0 +1,258 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.files.infrastructure.sftp;
+
+import java.util.ArrayDeque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ToIntFunction;
+
+/**
+ * Hands out SFTP session permits in weighted fair order across clients.
+ * <p>
+ * Waiters are queued per client. When a permit is released it goes to the
+ * backlogged client with the lowest pass value (stride scheduling): every
+ * grant advances the client's pass by {@code STRIDE / weight}, so a client
+ * with thousands of queued downloads cannot push an interactive user with a
+ * single request to the back of the line. Within a client, waiters are
+ * served first-come-first-served, and ties between clients go to the one
+ * backlogged first. With a single client this is a fair FIFO semaphore.
+ * </p>
+ * <p>
+ * Waiting uses a lock condition, not a monitor, so waiting virtual threads
+ * do not pin their carrier thread.
+ * </p>
+ */
+/**
+ * @author Hector Huaranga <hahuaranga@indracompany.com>
+ * @class FairSessionGate
+ * @date 18-10-2026
+ */
+public class FairSessionGate {
+
+    /**
+     * Client of callers that run without a bound client.
+     */
+    public static final String DEFAULT_CLIENT = "default";
+
+    private static final long STRIDE = 1L << 20;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<String, ClientQueue> backlog = new LinkedHashMap<>();
+    private final ToIntFunction<String> weights;
+    private int permits;
+    private int available;
+    private int waiting;
+    private long globalPass;
+
+    /**
+     * @param permits number of permits (pool size)
+     * @param weights scheduling weight of each client, at least 1
+     */
+    public FairSessionGate(int permits, ToIntFunction<String> weights) {
+        this.permits = permits;
+        this.available = permits;
+        this.weights = weights;
+    }
+
+    /**
+     * Acquires a permit for a client.
+     *
+     * @param client        client key, null for the default client
+     * @param timeoutMillis maximum wait, negative to wait indefinitely
+     * @return true if acquired, false on timeout
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public boolean acquire(String client, long timeoutMillis) throws InterruptedException {
+        String key = client != null ? client : DEFAULT_CLIENT;
+        lock.lock();
+        try {
+            if (available > 0 && backlog.isEmpty()) {
+                available--;
+                return true;
+            }
+
+            ClientQueue queue = backlog.computeIfAbsent(key, k -> new ClientQueue(k, globalPass));
+            Waiter waiter = new Waiter(lock.newCondition());
+            queue.waiters.add(waiter);
+            waiting++;
+
+            long remainingNanos = timeoutMillis * 1_000_000L;
+            try {
+                while (!waiter.granted) {
+                    if (timeoutMillis < 0) {
+                        waiter.condition.await();
+                    } else if (remainingNanos <= 0) {
+                        abandon(queue, waiter);
+                        return false;
+                    } else {
+                        remainingNanos = waiter.condition.awaitNanos(remainingNanos);
+                    }
+                }
+                return true;
+            } catch (InterruptedException e) {
+                if (waiter.granted) {
+                    // Granted while being interrupted: pass the permit on
+                    releaseLocked();
+                } else {
+                    abandon(queue, waiter);
+                }
+                throw e;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Releases a permit, granting it to the next client in fair order.
+     */
+    public void release() {
+        lock.lock();
+        try {
+            releaseLocked();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Changes the number of permits at runtime.
+     * <p>
+     * Growing hands the new permits to waiting callers straight away.
+     * Shrinking never revokes granted permits: the available count may go
+     * negative and the deficit is paid back by the next releases before any
+     * waiter is granted again.
+     * </p>
+     *
+     * @param newPermits new number of permits, at least 1
+     */
+    public void resize(int newPermits) {
+        lock.lock();
+        try {
+            int delta = Math.max(1, newPermits) - permits;
+            permits += delta;
+            if (delta < 0) {
+                available += delta;
+            }
+            for (int i = 0; i < delta; i++) {
+                releaseLocked();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the configured number of permits.
+     *
+     * @return permits
+     */
+    public int getPermits() {
+        lock.lock();
+        try {
+            return permits;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the number of callers waiting for a permit.
+     *
+     * @return waiting callers
+     */
+    public int getWaiting() {
+        lock.lock();
+        try {
+            return waiting;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the number of clients with waiting callers.
+     *
+     * @return backlogged clients
+     */
+    public int getBackloggedClients() {
+        lock.lock();
+        try {
+            return backlog.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void releaseLocked() {
+        if (available < 0) {
+            // Pay back the deficit left by a shrink first
+            available++;
+            return;
+        }
+        ClientQueue next = null;
+        for (ClientQueue queue : backlog.values()) {
+            if (next == null || queue.pass < next.pass) {
+                next = queue;
+            }
+        }
+        if (next == null) {
+            available++;
+            return;
+        }
+
+        Waiter waiter = next.waiters.poll();
+        waiting--;
+        waiter.granted = true;
+        waiter.condition.signal();
+
+        globalPass = next.pass;
+        next.pass += STRIDE / Math.max(1, weights.applyAsInt(next.client));
+        if (next.waiters.isEmpty()) {
+            backlog.remove(next.client);
+        }
+    }
+
+    private void abandon(ClientQueue queue, Waiter waiter) {
+        if (queue.waiters.remove(waiter)) {
+            waiting--;
+        }
+        if (queue.waiters.isEmpty()) {
+            backlog.remove(queue.client, queue);
+        }
+    }
+
+    private static final class ClientQueue {
+        private final String client;
+        private final ArrayDeque<Waiter> waiters = new ArrayDeque<>();
+        private long pass;
+
+        private ClientQueue(String client, long pass) {
+            this.client = client;
+            this.pass = pass;
+        }
+    }
+
+    private static final class Waiter {
+        private final Condition condition;
+        private boolean granted;
+
+        private Waiter(Condition condition) {
+            this.condition = condition;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.files.infrastructure.sftp;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.integration.sftp.session.SftpSession;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.Cleaner;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Input stream over a remote SFTP file that holds a pooled session.
+ * <p>
+ * Content is read on demand from the SFTP destination, so memory usage is
+ * bounded by the transfer buffers instead of the file size. The borrowed
+ * session is returned to the pool on {@link #close()}, or invalidated if any
+ * I/O error happened while reading. Streams that become unreachable without
+ * being closed are reported as leaks and their session is invalidated.
+ * </p>
+ */
+/**
+ * @author Hector Huaranga <hahuaranga@indracompany.com>
+ * @class PooledSftpInputStream
+ * @date 18-10-2026
+ */
+@Slf4j
+public class PooledSftpInputStream extends FilterInputStream {
+
+    private static final Cleaner CLEANER = Cleaner.create();
+
+    private final SessionRelease release;
+    private final Cleaner.Cleanable cleanable;
+    private boolean failed;
+
+    public PooledSftpInputStream(InputStream in, SftpSession session,
+                                 CustomLazySftpSessionFactory sessionFactory, String remotePath) {
+        super(in);
+        this.release = new SessionRelease(session, sessionFactory, remotePath);
+        this.cleanable = CLEANER.register(this, release);
+    }
+
+    @Override
+    public int read() throws IOException {
+        try {
+            return super.read();
+        } catch (IOException e) {
+            failed = true;
+            throw e;
+        }
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        try {
+            return super.read(b, off, len);
+        } catch (IOException e) {
+            failed = true;
+            throw e;
+        }
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        try {
+            return super.skip(n);
+        } catch (IOException e) {
+            failed = true;
+            throw e;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (release.released.get()) {
+            return;
+        }
+        try {
+            super.close();
+            release.session.finalizeRaw();
+        } catch (IOException e) {
+            failed = true;
+            throw e;
+        } finally {
+            release.release(!failed);
+            cleanable.clean();
+        }
+    }
+
+    /**
+     * Releases the session exactly once. Registered with the cleaner, so it
+     * must not reference the stream itself.
+     */
+    private static final class SessionRelease implements Runnable {
+
+        private final SftpSession session;
+        private final CustomLazySftpSessionFactory sessionFactory;
+        private final String remotePath;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private SessionRelease(SftpSession session, CustomLazySftpSessionFactory sessionFactory,
+                               String remotePath) {
+            this.session = session;
+            this.sessionFactory = sessionFactory;
+            this.remotePath = remotePath;
+        }
+
+        private void release(boolean healthy) {
+            if (!released.compareAndSet(false, true)) {
+                return;
+            }
+            if (healthy) {
+                sessionFactory.returnSession(session);
+            } else {
+                log.debug("Invalidating SFTP session after stream failure: {}", remotePath);
+                sessionFactory.invalidateSession(session);
+            }
+        }
+
+        @Override
+        public void run() {
+            if (!released.get()) {
+                // Remote handle state is unknown, so the session cannot go back to the pool
+                log.warn("SFTP stream was not closed, invalidating leaked session: {}", remotePath);
+                release(false);
+            }
+        }
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.files.infrastructure.sftp;
+
+import com.indra.minsait.dvsmart.files.infrastructure.sftp.SshjSessionPool.SshjSession;
+import lombok.extern.slf4j.Slf4j;
+import net.schmizz.sshj.sftp.RemoteFile;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.lang.ref.Cleaner;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Input stream over a remote file opened with sshj that holds a pooled session.
+ * <p>
+ * sshj counterpart of {@link PooledSftpInputStream}: content is read on
+ * demand, the remote file is closed and the session returned to the pool on
+ * {@link #close()}, or invalidated after an I/O error or a leak.
+ * </p>
+ */
+/**
+ * @author Hector Huaranga <hahuaranga@indracompany.com>
+ * @class PooledSshjInputStream
+ * @date 18-10-2026
+ */
+@Slf4j
+public class PooledSshjInputStream extends FilterInputStream {
+
+    private static final Cleaner CLEANER = Cleaner.create();
+
+    private final RemoteFile file;
+    private final SessionRelease release;
+    private final Cleaner.Cleanable cleanable;
+    private boolean failed;
+
+    public PooledSshjInputStream(RemoteFile file, SshjSession session, SshjSessionPool sessionPool,
+                                 String remotePath) {
+        super(file.new RemoteFileInputStream());
+        this.file = file;
+        this.release = new SessionRelease(session, sessionPool, remotePath);
+        this.cleanable = CLEANER.register(this, release);
+    }
+
+    @Override
+    public int read() throws IOException {
+        try {
+            return super.read();
+        } catch (IOException e) {
+            failed = true;
+            throw e;
+        }
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        try {
+            return super.read(b, off, len);
+        } catch (IOException e) {
+            failed = true;
+            throw e;
+        }
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        try {
+            return super.skip(n);
+        } catch (IOException e) {
+            failed = true;
+            throw e;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (release.released.get()) {
+            return;
+        }
+        try {
+            super.close();
+            file.close();
+        } catch (IOException e) {
+            failed = true;
+            throw e;
+        } finally {
+            release.release(!failed);
+            cleanable.clean();
+        }
+    }
+
+    /**
+     * Releases the session exactly once. Registered with the cleaner, so it
+     * must not reference the stream itself.
+     */
+    private static final class SessionRelease implements Runnable {
+
+        private final SshjSession session;
+        private final SshjSessionPool sessionPool;
+        private final String remotePath;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private SessionRelease(SshjSession session, SshjSessionPool sessionPool, String remotePath) {
+            this.session = session;
+            this.sessionPool = sessionPool;
+            this.remotePath = remotePath;
+        }
+
+        private void release(boolean healthy) {
+            if (!released.compareAndSet(false, true)) {
+                return;
+            }
+            if (healthy) {
+                sessionPool.returnSession(session);
+            } else {
+                log.debug("Invalidating sshj session after stream failure: {}", remotePath);
+                sessionPool.invalidateSession(session);
+            }
+        }
+
+        @Override
+        public void run() {
+            if (!released.get()) {
+                // Remote handle state is unknown, so the session cannot go back to the pool
+                log.warn("sshj stream was not closed, invalidating leaked session: {}", remotePath);
+                release(false);
+            }
+        }
+    }
+}
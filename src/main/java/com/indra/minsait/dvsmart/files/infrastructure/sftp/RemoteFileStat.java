@@ -0,0 +1,30 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.files.infrastructure.sftp;
+
+import java.time.Instant;
+
+/**
+ * Size and modification time of a remote file, as reported by the SFTP server.
+ *
+ * @param size         size in bytes
+ * @param lastModified last modification time
+ */
+/**
+ * @author Hector Huaranga <hahuaranga@indracompany.com>
+ * @class RemoteFileStat
+ * @date 18-10-2026
+ */
+public record RemoteFileStat(long size, Instant lastModified) {
+}
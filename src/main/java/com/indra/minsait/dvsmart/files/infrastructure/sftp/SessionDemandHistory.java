@@ -0,0 +1,96 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.files.infrastructure.sftp;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Arrays;
+
+/**
+ * Daily profile of SFTP session demand, learned from observation.
+ * <p>
+ * The day is split into fixed slots. While a slot runs, the highest
+ * number of sessions in use is tracked; when it ends, that peak is folded
+ * into the slot's learned demand with an exponentially weighted average,
+ * so a single unusual day moves the profile only partially and a new
+ * pattern takes over after a few days. Kept in memory: the profile starts
+ * empty after a restart.
+ * </p>
+ */
+/**
+ * @author Hector Huaranga <hahuaranga@indracompany.com>
+ * @class SessionDemandHistory
+ * @date 18-10-2026
+ */
+final class SessionDemandHistory {
+
+    private static final int MINUTES_PER_DAY = 24 * 60;
+
+    private final int slotMinutes;
+    private final double decay;
+    private final double[] learned;
+    private LocalDateTime currentSlotStart;
+    private int currentPeak;
+
+    /**
+     * @param slotMinutes length of a slot, a divisor of a day is expected
+     * @param decay       weight of the latest day, between 0 and 1
+     */
+    SessionDemandHistory(int slotMinutes, double decay) {
+        this.slotMinutes = Math.clamp(slotMinutes, 1, MINUTES_PER_DAY);
+        this.decay = Math.clamp(decay, 0.0, 1.0);
+        this.learned = new double[(MINUTES_PER_DAY + this.slotMinutes - 1) / this.slotMinutes];
+        Arrays.fill(learned, -1);
+    }
+
+    /**
+     * Records the sessions in use at a point in time.
+     *
+     * @param now   observation time
+     * @param inUse sessions in use
+     */
+    synchronized void record(LocalDateTime now, int inUse) {
+        LocalDateTime slotStart = slotStart(now);
+        if (currentSlotStart != null && !slotStart.equals(currentSlotStart)) {
+            fold(slot(currentSlotStart.toLocalTime()), currentPeak);
+            currentPeak = 0;
+        }
+        currentSlotStart = slotStart;
+        currentPeak = Math.max(currentPeak, inUse);
+    }
+
+    /**
+     * Gets the learned demand of the slot containing a time of day.
+     *
+     * @param time time of day
+     * @return sessions expected in use, 0 if the slot was never observed
+     */
+    synchronized int expected(LocalTime time) {
+        double value = learned[slot(time)];
+        return value < 0 ? 0 : (int) Math.ceil(value);
+    }
+
+    private void fold(int slot, int peak) {
+        learned[slot] = learned[slot] < 0 ? peak : decay * peak + (1 - decay) * learned[slot];
+    }
+
+    private int slot(LocalTime time) {
+        return (time.getHour() * 60 + time.getMinute()) / slotMinutes;
+    }
+
+    private LocalDateTime slotStart(LocalDateTime time) {
+        int minuteOfDay = slot(time.toLocalTime()) * slotMinutes;
+        return time.toLocalDate().atTime(minuteOfDay / 60, minuteOfDay % 60);
+    }
+}
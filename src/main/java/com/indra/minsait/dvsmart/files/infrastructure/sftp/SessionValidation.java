@@ -0,0 +1,67 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.files.infrastructure.sftp;
+
+import com.indra.minsait.dvsmart.files.infrastructure.config.SftpConfigProperties;
+import org.apache.commons.pool2.PooledObject;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Validation rules shared by the SFTP session pools.
+ * <p>
+ * A session is probed with a stat of one path instead of listing the base
+ * directory, which holds thousands of hash-partition directories. Sessions
+ * that went back to the pool healthy within {@code validation-age-millis}
+ * just completed a transfer, so they skip the probe altogether.
+ * </p>
+ */
+/**
+ * @author Hector Huaranga <hahuaranga@indracompany.com>
+ * @class SessionValidation
+ * @date 18-10-2026
+ */
+final class SessionValidation {
+
+    private SessionValidation() {
+    }
+
+    /**
+     * Checks whether a pooled session was returned recently enough to skip the probe.
+     *
+     * @param pooledObject pooled session
+     * @param poolConfig   pool configuration
+     * @return true if the session was returned within the validation age window
+     */
+    static boolean isRecentlyReturned(PooledObject<?> pooledObject, SftpConfigProperties.PoolConfig poolConfig) {
+        long ageMillis = poolConfig.getValidationAgeMillis();
+        if (ageMillis <= 0) {
+            return false;
+        }
+        Instant lastReturn = pooledObject.getLastReturnInstant();
+        return Duration.between(lastReturn, Instant.now()).toMillis() < ageMillis;
+    }
+
+    /**
+     * Gets the path to stat when probing a session.
+     *
+     * @param config SFTP configuration
+     * @return configured validation path, or the base directory
+     */
+    static String probePath(SftpConfigProperties config) {
+        String path = config.getPool().getValidationPath();
+        return path != null && !path.isBlank() ? path : config.getBaseDir();
+    }
+}
@@ -0,0 +1,556 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.files.infrastructure.sftp;
+
+import com.indra.minsait.dvsmart.files.infrastructure.config.SftpConfigProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.pool2.BasePooledObjectFactory;
+import org.apache.commons.pool2.PooledObject;
+import org.apache.commons.pool2.impl.DefaultPooledObject;
+import org.apache.commons.pool2.impl.GenericObjectPool;
+import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
+import org.springframework.integration.sftp.session.DefaultSftpSessionFactory;
+import org.springframework.integration.sftp.session.SftpSession;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Session pool of one SFTP endpoint.
+ * <p>
+ * Pools SFTP channels, not SSH connections: channels are opened on a small
+ * set of {@link SshTransport}s, each carrying up to
+ * {@code max-channels-per-transport} channels. A new transport is connected
+ * only when every live one is full, so acquiring a channel normally costs a
+ * single round trip on an existing connection. In shared-channel mode
+ * channels are handed out through {@link ChannelLeases}.
+ * </p>
+ * <p>
+ * Also keeps the routing state {@link CustomLazySftpSessionFactory} balances
+ * on: sessions handed out and still outstanding, and whether the endpoint is
+ * cooling down after a connection failure.
+ * </p>
+ */
+/**
+ * @author Hector Huaranga <hahuaranga@indracompany.com>
+ * @class SftpEndpointPool
+ * @date 18-10-2026
+ */
+@Slf4j
+class SftpEndpointPool {
+
+    private final SftpConfigProperties config;
+    private final SftpConfigProperties.EndpointConfig endpoint;
+    private final Map<SftpSession, SftpEndpointPool> owners;
+    private final GenericObjectPool<SftpSession> pool;
+    private final ChannelLeases<SftpSession> leases;
+    private final SftpPoolMetrics.Endpoint metrics;
+    private final ConnectThrottle connectThrottle;
+    private final ReentrantLock transportLock = new ReentrantLock();
+    private final List<SshTransport> transports = new ArrayList<>();
+    private final Map<SftpSession, SshTransport> channelTransports = new ConcurrentHashMap<>();
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private final LongSupplier nanoClock;
+    private final int maxStreams;
+    private volatile int maxChannels;
+    private volatile long unhealthyUntilNanos;
+    private volatile boolean unhealthy;
+    private int transportSequence;
+
+    /**
+     * @param config   SFTP configuration
+     * @param endpoint resolved endpoint
+     * @param owners   registry of the endpoint of every open session, shared by all endpoints
+     * @param metrics  session meters of this endpoint
+     */
+    SftpEndpointPool(SftpConfigProperties config, SftpConfigProperties.EndpointConfig endpoint,
+                     Map<SftpSession, SftpEndpointPool> owners, SftpPoolMetrics.Endpoint metrics) {
+        this(config, endpoint, owners, metrics, System::nanoTime);
+    }
+
+    SftpEndpointPool(SftpConfigProperties config, SftpConfigProperties.EndpointConfig endpoint,
+                     Map<SftpSession, SftpEndpointPool> owners, SftpPoolMetrics.Endpoint metrics,
+                     LongSupplier nanoClock) {
+        this.config = config;
+        this.nanoClock = nanoClock;
+        this.endpoint = endpoint;
+        this.owners = owners;
+        this.metrics = metrics;
+        this.maxChannels = capacity(config.getPool(), config.getPool().getMaxSize());
+        this.maxStreams = Math.max(1, config.getPool().getMaxStreamsPerChannel());
+        this.connectThrottle = new ConnectThrottle(config.getPool().getMinConnectIntervalMillis());
+        this.pool = createPool();
+        this.leases = maxStreams > 1 ? new ChannelLeases<>(new PooledChannelSource(), maxChannels, maxStreams) : null;
+        metrics.bind(pool);
+
+        if (maxChannels < config.getPool().getMaxSize()) {
+            log.warn("SFTP endpoint {} limited to {} channels by {} transports x {} channels per transport "
+                            + "(max-size={})", endpoint.getName(), maxChannels, config.getPool().getMaxTransports(),
+                    config.getPool().getMaxChannelsPerTransport(), config.getPool().getMaxSize());
+        }
+    }
+
+    /**
+     * Channels the pool can hold: max-size, bounded by what the transports can carry.
+     */
+    private static int capacity(SftpConfigProperties.PoolConfig poolConfig, int maxSize) {
+        long transportCapacity = (long) Math.max(1, poolConfig.getMaxTransports())
+                * Math.max(1, poolConfig.getMaxChannelsPerTransport());
+        return (int) Math.max(1, Math.min(maxSize, transportCapacity));
+    }
+
+    private DefaultSftpSessionFactory createSessionFactory() {
+        DefaultSftpSessionFactory factory = new DefaultSftpSessionFactory(true);
+        factory.setHost(endpoint.getHost());
+        factory.setPort(endpoint.getPort());
+        factory.setUser(endpoint.getUser());
+        factory.setPassword(endpoint.getPassword());
+        factory.setTimeout(config.getTimeout());
+        factory.setAllowUnknownKeys(true);
+
+        if (config.getKnownHostsFile() != null && !config.getKnownHostsFile().isEmpty()) {
+            factory.setKnownHostsResource(
+                    new org.springframework.core.io.FileSystemResource(config.getKnownHostsFile()));
+        }
+
+        return factory;
+    }
+
+    private GenericObjectPool<SftpSession> createPool() {
+        SftpConfigProperties.PoolConfig poolConfig = config.getPool();
+
+        GenericObjectPoolConfig<SftpSession> poolObjConfig = new GenericObjectPoolConfig<>();
+        poolObjConfig.setMaxTotal(maxChannels);
+        poolObjConfig.setMinIdle(poolConfig.getMinIdle());
+        poolObjConfig.setMaxWait(Duration.ofMillis(poolConfig.getMaxWaitMillis()));
+        poolObjConfig.setTestOnBorrow(poolConfig.isTestOnBorrow());
+        poolObjConfig.setTestWhileIdle(poolConfig.isTestWhileIdle());
+        poolObjConfig.setTimeBetweenEvictionRuns(
+                Duration.ofMillis(poolConfig.getTimeBetweenEvictionRunsMillis()));
+        poolObjConfig.setMinEvictableIdleDuration(
+                Duration.ofMillis(poolConfig.getMinEvictableIdleTimeMillis()));
+        poolObjConfig.setBlockWhenExhausted(true);
+        poolObjConfig.setJmxEnabled(false);
+
+        return new GenericObjectPool<>(new SftpSessionFactory(), poolObjConfig);
+    }
+
+    /**
+     * Reserves room for one more outstanding session on this endpoint.
+     *
+     * @return false if the endpoint already hands out all the sessions it can carry
+     */
+    boolean tryReserve() {
+        int limit = getCapacity();
+        while (true) {
+            int current = outstanding.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (outstanding.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Gives back a reservation, once its session was returned or could not be obtained.
+     */
+    void unreserve() {
+        outstanding.decrementAndGet();
+    }
+
+    /**
+     * Gets a session, using a reservation taken with {@link #tryReserve()}.
+     *
+     * @param timeoutMillis maximum wait for a free channel, what is left of the caller's
+     *                      overall wait; negative to wait indefinitely
+     * @return an active SFTP session
+     * @throws SftpPoolTimeoutException if no channel became free within the timeout
+     * @throws Exception                if unable to obtain a session
+     */
+    SftpSession borrow(long timeoutMillis) throws Exception {
+        if (leases != null) {
+            return leases.acquire(timeoutMillis);
+        }
+        return borrowChannel(timeoutMillis);
+    }
+
+    private SftpSession borrowChannel(long timeoutMillis) throws Exception {
+        try {
+            return pool.borrowObject(Duration.ofMillis(timeoutMillis));
+        } catch (NoSuchElementException e) {
+            throw SftpPoolTimeoutException.fromPool(e);
+        }
+    }
+
+    /**
+     * Returns a session.
+     *
+     * @return true if the caller's hold on the session ended (always, unless shared and already released)
+     */
+    boolean giveBack(SftpSession session) {
+        if (leases != null) {
+            return leases.release(session, true);
+        }
+        pool.returnObject(session);
+        return true;
+    }
+
+    /**
+     * Invalidates a session after a failed transfer.
+     *
+     * @return true if the caller's hold on the session ended
+     */
+    boolean discard(SftpSession session) {
+        metrics.invalidated(SftpPoolMetrics.CAUSE_TRANSFER);
+        if (leases != null) {
+            // Other transfers may still be reading over the channel, it is discarded after them
+            return leases.release(session, false);
+        }
+        try {
+            pool.invalidateObject(session);
+        } catch (Exception e) {
+            log.warn("Failed to invalidate SFTP session of endpoint {}", endpoint.getName(), e);
+        }
+        return true;
+    }
+
+    /**
+     * Changes the pool size at runtime. Sessions above a lowered size are not
+     * revoked: once returned they stay idle until the evictor closes them.
+     *
+     * @param maxSize new maximum number of channels, bounded by what the transports can carry
+     * @param minIdle new minimum of idle channels, bounded by the new maximum
+     * @return channels the pool can hold now
+     */
+    int resize(int maxSize, int minIdle) {
+        int channels = capacity(config.getPool(), maxSize);
+        pool.setMaxTotal(channels);
+        pool.setMinIdle(Math.min(Math.max(0, minIdle), channels));
+        if (leases != null) {
+            leases.setMaxChannels(channels);
+        }
+        maxChannels = channels;
+        return channels;
+    }
+
+    /**
+     * Gets how many channels must be opened for the pool to hold a number of them.
+     *
+     * @param target channels wanted, bounded by the pool size
+     * @return channels missing, 0 if the pool already holds enough
+     */
+    int missingChannels(int target) {
+        return Math.max(0, Math.min(target, maxChannels) - pool.getNumIdle() - pool.getNumActive());
+    }
+
+    /**
+     * Opens a channel and leaves it idle in the pool, ready for the next borrow.
+     *
+     * @throws Exception if the channel could not be opened
+     */
+    void addIdleChannel() throws Exception {
+        pool.addObject();
+    }
+
+    /**
+     * Takes the endpoint out of rotation for the failover cooldown.
+     */
+    void markUnhealthy() {
+        unhealthyUntilNanos = nanoClock.getAsLong()
+                + TimeUnit.MILLISECONDS.toNanos(config.getFailoverCooldownMillis());
+        if (!unhealthy) {
+            unhealthy = true;
+            log.warn("SFTP endpoint {} ({}:{}) marked unhealthy for {} ms", endpoint.getName(),
+                    endpoint.getHost(), endpoint.getPort(), config.getFailoverCooldownMillis());
+        }
+    }
+
+    void markHealthy() {
+        if (unhealthy) {
+            unhealthy = false;
+            log.info("SFTP endpoint {} ({}:{}) is healthy again", endpoint.getName(),
+                    endpoint.getHost(), endpoint.getPort());
+        }
+    }
+
+    /**
+     * Whether new requests may be routed here: never failed, or the cooldown elapsed
+     * and the next request is the trial.
+     */
+    boolean isHealthy() {
+        return !unhealthy || nanoClock.getAsLong() - unhealthyUntilNanos >= 0;
+    }
+
+    /**
+     * Load of this endpoint relative to its weight, used for least-outstanding routing.
+     */
+    double getLoad() {
+        return (outstanding.get() + 1.0) / endpoint.getWeight();
+    }
+
+    int getCapacity() {
+        return maxChannels * maxStreams;
+    }
+
+    int getOutstanding() {
+        return outstanding.get();
+    }
+
+    String getName() {
+        return endpoint.getName();
+    }
+
+    SftpConfigProperties.EndpointConfig getEndpoint() {
+        return endpoint;
+    }
+
+    GenericObjectPool<SftpSession> getPool() {
+        return pool;
+    }
+
+    int getMaxChannels() {
+        return maxChannels;
+    }
+
+    int getActiveStreams() {
+        return leases != null ? leases.getActiveLeases() : pool.getNumActive();
+    }
+
+    int getLiveTransports() {
+        transportLock.lock();
+        try {
+            return transports.size();
+        } finally {
+            transportLock.unlock();
+        }
+    }
+
+    /**
+     * Reserves a channel slot on the fullest live transport that still has room,
+     * connecting a new transport only when all live ones are full.
+     */
+    private SshTransport reserveChannel() {
+        List<SshTransport> dropped = new ArrayList<>();
+        transportLock.lock();
+        try {
+            transports.removeIf(transport -> !transport.isOpen() && dropped.add(transport));
+
+            int channelLimit = Math.max(1, config.getPool().getMaxChannelsPerTransport());
+            SshTransport selected = null;
+            for (SshTransport transport : transports) {
+                if (transport.getChannels() < channelLimit
+                        && (selected == null || transport.getChannels() > selected.getChannels())) {
+                    selected = transport;
+                }
+            }
+            if (selected == null) {
+                int maxTransports = Math.max(1, config.getPool().getMaxTransports());
+                if (transports.size() >= maxTransports) {
+                    // Channel count below the pool size but transports full: a state of this endpoint, not a wait
+                    throw new IllegalStateException("All " + maxTransports + " SSH transports have "
+                            + channelLimit + " channels open");
+                }
+                selected = new SshTransport(++transportSequence, createSessionFactory());
+                transports.add(selected);
+                log.info("Opening SSH transport #{} to {} ({}:{}, {} of {})", selected.getId(), endpoint.getName(),
+                        endpoint.getHost(), endpoint.getPort(), transports.size(), maxTransports);
+            }
+            selected.addChannel();
+            return selected;
+        } finally {
+            transportLock.unlock();
+            dropped.forEach(this::closeTransport);
+        }
+    }
+
+    private void releaseChannel(SshTransport transport) {
+        transportLock.lock();
+        try {
+            transport.removeChannel();
+        } finally {
+            transportLock.unlock();
+        }
+    }
+
+    /**
+     * Removes a transport whose connection dropped; its channels fail validation and are destroyed.
+     */
+    private void retireTransport(SshTransport transport) {
+        boolean removed;
+        transportLock.lock();
+        try {
+            removed = transports.remove(transport);
+        } finally {
+            transportLock.unlock();
+        }
+        if (removed) {
+            closeTransport(transport);
+        }
+    }
+
+    private void closeTransport(SshTransport transport) {
+        log.warn("SSH transport #{} to {} ({}:{}) is closed, retiring it",
+                transport.getId(), endpoint.getName(), endpoint.getHost(), endpoint.getPort());
+        try {
+            transport.close();
+        } catch (Exception e) {
+            log.debug("Failed to close SSH transport #{}: {}", transport.getId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Closes the pool and all connections.
+     */
+    void close() {
+        pool.close();
+
+        List<SshTransport> open;
+        transportLock.lock();
+        try {
+            open = new ArrayList<>(transports);
+            transports.clear();
+        } finally {
+            transportLock.unlock();
+        }
+        open.forEach(SshTransport::close);
+    }
+
+    /**
+     * Exclusive channels handed to {@link ChannelLeases} in shared-channel mode.
+     */
+    private class PooledChannelSource implements ChannelLeases.ChannelSource<SftpSession> {
+
+        @Override
+        public SftpSession borrow(long timeoutMillis) throws Exception {
+            return borrowChannel(timeoutMillis);
+        }
+
+        @Override
+        public void giveBack(SftpSession channel) {
+            pool.returnObject(channel);
+        }
+
+        @Override
+        public void discard(SftpSession channel) {
+            try {
+                pool.invalidateObject(channel);
+            } catch (Exception e) {
+                log.warn("Failed to invalidate shared SFTP channel", e);
+            }
+        }
+    }
+
+    /**
+     * Factory for creating pooled SFTP sessions.
+     */
+    private class SftpSessionFactory extends BasePooledObjectFactory<SftpSession> {
+
+        @Override
+        public SftpSession create() throws Exception {
+            long startNanos = System.nanoTime();
+            SshTransport transport = reserveChannel();
+            log.debug("Opening SFTP channel on transport #{} to {}", transport.getId(), endpoint.getName());
+            try {
+                if (!transport.isConnected()) {
+                    // This channel opens the SSH connection, wait for a connect slot
+                    connectThrottle.await();
+                }
+                SftpSession session = transport.openChannel();
+                channelTransports.put(session, transport);
+                owners.put(session, SftpEndpointPool.this);
+                metrics.sessionCreated(startNanos, true);
+                log.debug("SFTP channel opened successfully");
+                return session;
+            } catch (RuntimeException | InterruptedException e) {
+                metrics.sessionCreated(startNanos, false);
+                releaseChannel(transport);
+                throw e;
+            }
+        }
+
+        @Override
+        public PooledObject<SftpSession> wrap(SftpSession session) {
+            return new DefaultPooledObject<>(session);
+        }
+
+        @Override
+        public void destroyObject(PooledObject<SftpSession> pooledObject) throws Exception {
+            SftpSession session = pooledObject.getObject();
+            if (session == null) {
+                return;
+            }
+            SshTransport transport = channelTransports.remove(session);
+            owners.remove(session);
+            metrics.sessionDestroyed(pooledObject);
+            try {
+                if (session.isOpen()) {
+                    log.debug("Closing SFTP channel");
+                    session.close();
+                }
+            } finally {
+                if (transport != null) {
+                    releaseChannel(transport);
+                }
+            }
+        }
+
+        @Override
+        public boolean validateObject(PooledObject<SftpSession> pooledObject) {
+            SftpSession session = pooledObject.getObject();
+            if (session == null || !session.isOpen()) {
+                log.debug("Session validation failed: session is null or closed");
+                metrics.invalidated(SftpPoolMetrics.CAUSE_VALIDATION);
+                return false;
+            }
+
+            // Transport level: a dropped connection takes all of its channels with it
+            SshTransport transport = channelTransports.get(session);
+            if (transport != null && !transport.isOpen()) {
+                retireTransport(transport);
+                log.debug("Session validation failed: transport #{} is closed", transport.getId());
+                metrics.invalidated(SftpPoolMetrics.CAUSE_TRANSPORT);
+                return false;
+            }
+
+            // A session returned healthy moments ago needs no round trip
+            if (SessionValidation.isRecentlyReturned(pooledObject, config.getPool())) {
+                metrics.validationSkipped();
+                return true;
+            }
+
+            long startNanos = System.nanoTime();
+            try {
+                // Liveness probe: stat of a single path, never a directory listing
+                session.getClientInstance().stat(SessionValidation.probePath(config));
+                metrics.validated(startNanos, true);
+                return true;
+            } catch (Exception e) {
+                log.debug("Session validation failed: {}", e.getMessage());
+                metrics.validated(startNanos, false);
+                metrics.invalidated(SftpPoolMetrics.CAUSE_VALIDATION);
+                return false;
+            }
+        }
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.files.infrastructure.sftp;
+
+import com.indra.minsait.dvsmart.files.infrastructure.config.SftpConfigProperties;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sizing decisions of the adaptive SFTP pool.
+ * <p>
+ * Every interval {@link CustomLazySftpSessionFactory} feeds the load it
+ * observed: borrows and their total wait, the peak number of sessions in
+ * use and the callers still queued. The pool grows by half when callers
+ * queue, the average borrow wait exceeds its target or the peak use
+ * reaches {@code scale-up-utilization}; it shrinks by a quarter only after
+ * {@code scale-down-intervals} consecutive intervals below
+ * {@code scale-down-utilization}, so a short lull does not drop sessions
+ * the next burst needs. Growing fast and shrinking slowly keeps month-end
+ * peaks from queueing while the pool still drains at night.
+ * </p>
+ * <p>
+ * min-idle follows the recent peak demand, so that share of it is already
+ * open when the next burst arrives. Sizes are per endpoint and always
+ * within the configured bounds.
+ * </p>
+ */
+/**
+ * @author Hector Huaranga <hahuaranga@indracompany.com>
+ * @class SftpPoolAutoscaler
+ * @date 18-10-2026
+ */
+final class SftpPoolAutoscaler {
+
+    private final SftpConfigProperties.AutoscaleConfig config;
+    private final int baseMinIdle;
+    private volatile int minSize;
+    private volatile int maxSize;
+    private int quietIntervals;
+
+    /**
+     * @param config      autoscaling settings
+     * @param baseMinIdle configured min-idle, the floor of the adjusted one
+     */
+    SftpPoolAutoscaler(SftpConfigProperties.AutoscaleConfig config, int baseMinIdle) {
+        this.config = config;
+        this.baseMinIdle = Math.max(0, baseMinIdle);
+        setBounds(config.getMinSize(), config.getMaxSize());
+    }
+
+    /**
+     * Decides the pool size for the next interval.
+     *
+     * @param size   current max-size (per endpoint)
+     * @param sample load observed during the last interval
+     * @return new max-size and min-idle
+     */
+    synchronized Decision decide(int size, LoadSample sample) {
+        double utilization = sample.permits() > 0 ? (double) sample.peakInUse() / sample.permits() : 0;
+        long averageWaitMillis = sample.borrows() > 0
+                ? TimeUnit.NANOSECONDS.toMillis(sample.waitNanos() / sample.borrows()) : 0;
+
+        int target = size;
+        if (sample.waiting() > 0 || averageWaitMillis > config.getTargetBorrowWaitMillis()
+                || utilization >= config.getScaleUpUtilization()) {
+            quietIntervals = 0;
+            target = size + Math.max(1, size / 2);
+        } else if (utilization < config.getScaleDownUtilization()) {
+            if (++quietIntervals >= Math.max(1, config.getScaleDownIntervals())) {
+                quietIntervals = 0;
+                target = size - Math.max(1, size / 4);
+            }
+        } else {
+            quietIntervals = 0;
+        }
+        target = Math.clamp(target, minSize, maxSize);
+
+        int demand = (int) Math.ceil(utilization * size);
+        int minIdle = Math.max(baseMinIdle, (int) Math.ceil(demand * config.getMinIdleRatio()));
+        return new Decision(target, Math.min(minIdle, target));
+    }
+
+    /**
+     * Changes the bounds of max-size.
+     *
+     * @param minSize lower bound, at least 1
+     * @param maxSize upper bound, at least the lower one
+     */
+    synchronized void setBounds(int minSize, int maxSize) {
+        if (minSize < 1 || maxSize < minSize) {
+            throw new IllegalArgumentException("Invalid autoscale bounds: min-size=" + minSize
+                    + ", max-size=" + maxSize);
+        }
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+    }
+
+    int getMinSize() {
+        return minSize;
+    }
+
+    int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Load observed during one interval, in sessions across all endpoints.
+     *
+     * @param borrows   sessions requested
+     * @param waitNanos total time requests waited for a session
+     * @param peakInUse highest number of sessions in use at once
+     * @param permits   sessions the pool could hand out
+     * @param waiting   callers queued at the end of the interval
+     */
+    record LoadSample(long borrows, long waitNanos, int peakInUse, int permits, int waiting) {
+    }
+
+    /**
+     * Sizes for the next interval, per endpoint.
+     */
+    record Decision(int maxSize, int minIdle) {
+    }
+}
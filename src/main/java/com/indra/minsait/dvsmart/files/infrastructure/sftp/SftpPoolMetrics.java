@@ -0,0 +1,189 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.files.infrastructure.sftp;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.commons.pool2.PooledObject;
+import org.apache.commons.pool2.impl.GenericObjectPool;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Micrometer meters of an SFTP session pool.
+ * <p>
+ * Timers publish percentile histograms so borrow waits can be alerted on
+ * well before they reach {@code max-wait-millis}. Every meter is tagged with
+ * the client library, as both pools may be registered at the same time, and
+ * session-level meters also with the endpoint.
+ * </p>
+ * <ul>
+ *   <li>{@code sftp.pool.borrow.wait} - time to obtain a session (outcome=acquired|timeout|error)</li>
+ *   <li>{@code sftp.pool.waiting} - requests waiting for a session</li>
+ *   <li>{@code sftp.pool.session.create} - time to open a session (outcome=success|failure)</li>
+ *   <li>{@code sftp.pool.session.validate} - duration of validation probes (result=passed|failed)</li>
+ *   <li>{@code sftp.pool.validation.skipped} - validations skipped by the validation age window</li>
+ *   <li>{@code sftp.pool.session.lifetime} - age of sessions when destroyed</li>
+ *   <li>{@code sftp.pool.invalidations} - sessions discarded (cause=transfer|validation|transport)</li>
+ *   <li>{@code sftp.pool.sessions} - sessions by state (active|idle|max)</li>
+ * </ul>
+ */
+/**
+ * @author Hector Huaranga <hahuaranga@indracompany.com>
+ * @class SftpPoolMetrics
+ * @date 18-10-2026
+ */
+final class SftpPoolMetrics {
+
+    static final String CAUSE_TRANSFER = "transfer";
+    static final String CAUSE_VALIDATION = "validation";
+    static final String CAUSE_TRANSPORT = "transport";
+
+    private final MeterRegistry meterRegistry;
+    private final String library;
+    private final Timer borrowAcquired;
+    private final Timer borrowTimeout;
+    private final Timer borrowError;
+
+    SftpPoolMetrics(MeterRegistry meterRegistry, String library) {
+        this.meterRegistry = meterRegistry;
+        this.library = library;
+        this.borrowAcquired = timer("sftp.pool.borrow.wait", "Time to obtain a pooled SFTP session",
+                "outcome", "acquired");
+        this.borrowTimeout = timer("sftp.pool.borrow.wait", "Time to obtain a pooled SFTP session",
+                "outcome", "timeout");
+        this.borrowError = timer("sftp.pool.borrow.wait", "Time to obtain a pooled SFTP session",
+                "outcome", "error");
+    }
+
+    private Timer timer(String name, String description, String... tags) {
+        return Timer.builder(name)
+                .description(description)
+                .tag("library", library)
+                .tags(tags)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    /**
+     * Registers the gauge of requests waiting for a session.
+     *
+     * @param gate gate where requests wait for a session
+     */
+    void bind(FairSessionGate gate) {
+        Gauge.builder("sftp.pool.waiting", gate, FairSessionGate::getWaiting)
+                .description("Requests waiting for an SFTP session")
+                .tag("library", library)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Gets the session-level meters of one endpoint.
+     *
+     * @param name endpoint name
+     * @return meters tagged with the endpoint
+     */
+    Endpoint endpoint(String name) {
+        return new Endpoint(name);
+    }
+
+    void borrowAcquired(long startNanos) {
+        borrowAcquired.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    void borrowTimedOut(long startNanos) {
+        borrowTimeout.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    void borrowFailed(long startNanos) {
+        borrowError.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Session meters of one endpoint's pool.
+     */
+    final class Endpoint {
+
+        private final String name;
+        private final Timer createSuccess;
+        private final Timer createFailure;
+        private final Timer validatePassed;
+        private final Timer validateFailed;
+        private final Counter validationSkipped;
+        private final Timer lifetime;
+
+        private Endpoint(String name) {
+            this.name = name;
+            this.createSuccess = timer("sftp.pool.session.create", "Time to open an SFTP session",
+                    "endpoint", name, "outcome", "success");
+            this.createFailure = timer("sftp.pool.session.create", "Time to open an SFTP session",
+                    "endpoint", name, "outcome", "failure");
+            this.validatePassed = timer("sftp.pool.session.validate", "Duration of SFTP session validation probes",
+                    "endpoint", name, "result", "passed");
+            this.validateFailed = timer("sftp.pool.session.validate", "Duration of SFTP session validation probes",
+                    "endpoint", name, "result", "failed");
+            this.validationSkipped = Counter.builder("sftp.pool.validation.skipped")
+                    .description("Validations skipped for recently returned sessions")
+                    .tags("library", library, "endpoint", name)
+                    .register(meterRegistry);
+            this.lifetime = timer("sftp.pool.session.lifetime", "Age of SFTP sessions when destroyed",
+                    "endpoint", name);
+        }
+
+        /**
+         * Registers the gauges of the pool occupancy.
+         *
+         * @param pool pool whose sessions are reported
+         */
+        <T> void bind(GenericObjectPool<T> pool) {
+            sessionGauge(pool, "active", GenericObjectPool::getNumActive);
+            sessionGauge(pool, "idle", GenericObjectPool::getNumIdle);
+            sessionGauge(pool, "max", GenericObjectPool::getMaxTotal);
+        }
+
+        private <T> void sessionGauge(GenericObjectPool<T> pool, String state,
+                                      ToDoubleFunction<GenericObjectPool<T>> value) {
+            Gauge.builder("sftp.pool.sessions", pool, value)
+                    .description("SFTP sessions of the pool by state")
+                    .tags("library", library, "endpoint", name, "state", state)
+                    .register(meterRegistry);
+        }
+
+        void sessionCreated(long startNanos, boolean success) {
+            (success ? createSuccess : createFailure).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        }
+
+        void validated(long startNanos, boolean passed) {
+            (passed ? validatePassed : validateFailed).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        }
+
+        void validationSkipped() {
+            validationSkipped.increment();
+        }
+
+        void sessionDestroyed(PooledObject<?> pooledObject) {
+            lifetime.record(Duration.between(pooledObject.getCreateInstant(), Instant.now()));
+        }
+
+        void invalidated(String cause) {
+            meterRegistry.counter("sftp.pool.invalidations",
+                    "library", library, "endpoint", name, "cause", cause).increment();
+        }
+    }
+}
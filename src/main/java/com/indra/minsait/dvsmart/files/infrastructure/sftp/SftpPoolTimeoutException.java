@@ -0,0 +1,79 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.files.infrastructure.sftp;
+
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exception thrown when no SFTP session became free within the maximum wait.
+ * <p>
+ * Only real wait timeouts (fair-share gate, pool wait, shared-channel wait)
+ * throw it. It says the pool is busy, not that the server is down, so it
+ * neither fails over to another endpoint nor counts towards the circuit
+ * breaker. Other {@link NoSuchElementException}s of the pool, such as a new
+ * session failing validation, are endpoint failures.
+ * </p>
+ */
+/**
+ * @author Hector Huaranga <hahuaranga@indracompany.com>
+ * @class SftpPoolTimeoutException
+ * @date 18-10-2026
+ */
+public class SftpPoolTimeoutException extends NoSuchElementException {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Messages of the commons-pool exceptions raised when a borrow gives up waiting.
+     */
+    private static final String POOL_WAIT_TIMEOUT = "Timeout waiting for idle object";
+    private static final String POOL_EXHAUSTED = "Pool exhausted";
+
+    public SftpPoolTimeoutException(String message) {
+        super(message);
+    }
+
+    /**
+     * Translates a commons-pool borrow failure: wait timeouts become a
+     * {@link SftpPoolTimeoutException}, anything else is returned as is.
+     *
+     * @param e exception thrown by {@code borrowObject}
+     * @return exception to rethrow
+     */
+    static NoSuchElementException fromPool(NoSuchElementException e) {
+        String message = e.getMessage();
+        if (message != null && (message.startsWith(POOL_WAIT_TIMEOUT) || message.startsWith(POOL_EXHAUSTED))) {
+            SftpPoolTimeoutException timeout = new SftpPoolTimeoutException(message);
+            timeout.initCause(e);
+            return timeout;
+        }
+        return e;
+    }
+
+    /**
+     * Time left of a wait that started at the given instant.
+     *
+     * @param startNanos    {@link System#nanoTime()} when the wait started
+     * @param maxWaitMillis maximum wait, negative to wait indefinitely
+     * @return remaining wait (ms), negative to wait indefinitely
+     */
+    static long remainingMillis(long startNanos, long maxWaitMillis) {
+        if (maxWaitMillis < 0) {
+            return maxWaitMillis;
+        }
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        return Math.max(0, maxWaitMillis - elapsedMillis);
+    }
+}
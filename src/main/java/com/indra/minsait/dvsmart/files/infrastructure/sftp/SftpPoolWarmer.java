@@ -0,0 +1,178 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.files.infrastructure.sftp;
+
+import com.indra.minsait.dvsmart.files.infrastructure.config.SftpConfigProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Opens SFTP sessions before traffic needs them.
+ * <p>
+ * At startup, {@code startup-sessions} sessions per endpoint are opened in
+ * parallel. It runs as an {@link ApplicationRunner}, so the readiness probe
+ * only turns green once they are up (or {@code startup-timeout-millis}
+ * elapsed): the first burst after a deploy no longer pays an SSH handshake
+ * per request.
+ * </p>
+ * <p>
+ * Afterwards, every {@code check-interval-millis} it sets the min-idle
+ * floor of {@link CustomLazySftpSessionFactory} to the highest of the
+ * scheduled windows and the demand learned per time slot (see
+ * {@link SessionDemandHistory}), looking {@code lead-time-millis} ahead, and
+ * opens the missing sessions straight away. Sessions are then established
+ * when daily traffic ramps up, and the floor drops again once the window or
+ * peak is over so idle sessions are evicted at night.
+ * </p>
+ */
+/**
+ * @author Hector Huaranga <hahuaranga@indracompany.com>
+ * @class SftpPoolWarmer
+ * @date 18-10-2026
+ */
+@Slf4j
+public class SftpPoolWarmer implements ApplicationRunner {
+
+    private final CustomLazySftpSessionFactory sessionFactory;
+    private final SftpConfigProperties.WarmupConfig config;
+    private final int endpointCount;
+    private final Clock clock;
+    private final SessionDemandHistory history;
+    private final List<Window> schedule = new ArrayList<>();
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * @param sessionFactory session factory to warm up
+     * @param sftpConfig     SFTP configuration
+     */
+    public SftpPoolWarmer(CustomLazySftpSessionFactory sessionFactory, SftpConfigProperties sftpConfig) {
+        this(sessionFactory, sftpConfig, Clock.systemDefaultZone());
+    }
+
+    SftpPoolWarmer(CustomLazySftpSessionFactory sessionFactory, SftpConfigProperties sftpConfig, Clock clock) {
+        this.sessionFactory = sessionFactory;
+        this.config = sftpConfig.getPool().getWarmup();
+        this.endpointCount = sftpConfig.resolveEndpoints().size();
+        this.clock = clock;
+        this.history = new SessionDemandHistory(config.getSlotMinutes(), config.getHistoryDecay());
+        for (SftpConfigProperties.WarmupWindow window : config.getSchedule()) {
+            schedule.add(new Window(LocalTime.parse(window.getFrom()), LocalTime.parse(window.getTo()),
+                    window.getMinIdle()));
+        }
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws InterruptedException {
+        int minIdle = targetMinIdle();
+        sessionFactory.setWarmMinIdle(minIdle);
+        int target = Math.max(config.getStartupSessions(), minIdle);
+        if (target > 0) {
+            long startNanos = System.nanoTime();
+            int opened = sessionFactory.prewarm(target, config.getParallelism(), config.getStartupTimeoutMillis());
+            log.info("SFTP pool warmed up: {} sessions opened in {} ms (target {} per endpoint)", opened,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos), target);
+        }
+        start();
+    }
+
+    /**
+     * Starts the periodic check of the idle level to keep.
+     */
+    synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("sftp-pool-warmer-");
+        threadFactory.setDaemon(true);
+        scheduler = Executors.newSingleThreadScheduledExecutor(threadFactory);
+        long intervalMillis = Math.max(1, config.getCheckIntervalMillis());
+        scheduler.scheduleWithFixedDelay(this::check, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Records the current demand and applies the idle level for the coming period.
+     */
+    void check() {
+        try {
+            int active = sessionFactory.getPoolStats().getActive();
+            history.record(LocalDateTime.now(clock), (active + endpointCount - 1) / endpointCount);
+
+            int target = targetMinIdle();
+            sessionFactory.setWarmMinIdle(target);
+            if (target > 0) {
+                int opened = sessionFactory.prewarm(target, config.getParallelism(), config.getCheckIntervalMillis());
+                if (opened > 0) {
+                    log.info("Pre-opened {} SFTP sessions ahead of demand (min-idle {} per endpoint)", opened, target);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.warn("SFTP pool warm-up check failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Idle sessions per endpoint to keep now: the highest of the scheduled windows
+     * and the learned demand, for now and for the lead time ahead.
+     */
+    int targetMinIdle() {
+        LocalTime now = LocalTime.now(clock);
+        LocalTime ahead = now.plus(Duration.ofMillis(config.getLeadTimeMillis()));
+        int target = 0;
+        for (Window window : schedule) {
+            if (window.contains(now) || window.contains(ahead)) {
+                target = Math.max(target, window.minIdle());
+            }
+        }
+        if (config.getHistoryRatio() > 0) {
+            int learned = Math.max(history.expected(now), history.expected(ahead));
+            target = Math.max(target, (int) Math.ceil(learned * config.getHistoryRatio()));
+        }
+        return target;
+    }
+
+    /**
+     * Stops the periodic check.
+     */
+    public synchronized void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    private record Window(LocalTime from, LocalTime to, int minIdle) {
+
+        boolean contains(LocalTime time) {
+            if (from.isBefore(to)) {
+                return !time.isBefore(from) && time.isBefore(to);
+            }
+            // Crosses midnight
+            return !time.isBefore(from) || time.isBefore(to);
+        }
+    }
+}
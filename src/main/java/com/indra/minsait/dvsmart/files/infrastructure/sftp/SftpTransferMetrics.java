@@ -0,0 +1,59 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.files.infrastructure.sftp;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes bytes, duration and throughput of SFTP transfers.
+ * <p>
+ * Shared by the transfer readers of both client libraries, so their
+ * meters carry the same tags and can be compared side by side.
+ * </p>
+ */
+/**
+ * @author Hector Huaranga <hahuaranga@indracompany.com>
+ * @class SftpTransferMetrics
+ * @date 18-10-2026
+ */
+@Slf4j
+final class SftpTransferMetrics {
+
+    static final String MODE_SEQUENTIAL = "sequential";
+    static final String MODE_READ_AHEAD = "read-ahead";
+
+    private SftpTransferMetrics() {
+    }
+
+    static void record(MeterRegistry meterRegistry, String library, String mode, long bytes, long elapsedNanos) {
+        Tags tags = Tags.of("mode", mode, "library", library);
+        meterRegistry.counter("sftp.transfer.bytes", tags).increment(bytes);
+        meterRegistry.timer("sftp.transfer.duration", tags).record(elapsedNanos, TimeUnit.NANOSECONDS);
+        if (elapsedNanos > 0) {
+            DistributionSummary.builder("sftp.transfer.throughput")
+                    .baseUnit("bytes/s")
+                    .description("Throughput of individual SFTP transfers")
+                    .tags(tags)
+                    .register(meterRegistry)
+                    .record(bytes * 1_000_000_000.0 / elapsedNanos);
+        }
+        log.debug("SFTP transfer completed: {} bytes in {} ms ({}, {})",
+                bytes, TimeUnit.NANOSECONDS.toMillis(elapsedNanos), mode, library);
+    }
+}
@@ -0,0 +1,278 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.files.infrastructure.sftp;
+
+import com.indra.minsait.dvsmart.files.infrastructure.config.FilesConfigProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.sshd.sftp.client.SftpClient;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.integration.sftp.session.SftpSession;
+import org.springframework.stereotype.Component;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Copies remote file content to an output stream over a borrowed SFTP session.
+ * <p>
+ * Two transfer modes are supported:
+ * <ul>
+ *   <li>Sequential - one READ request at a time (one round trip per buffer)</li>
+ *   <li>Read-ahead - up to {@code files.download.read-ahead.window-size} READ
+ *       requests in flight on the same channel, written out in order</li>
+ * </ul>
+ * Bytes, duration and throughput of each transfer are published as metrics
+ * tagged with the mode and library, so both modes can be compared on the same link.
+ * </p>
+ */
+/**
+ * @author Hector Huaranga <hahuaranga@indracompany.com>
+ * @class SftpTransferReader
+ * @date 18-10-2026
+ */
+@Slf4j
+@Component
+public class SftpTransferReader {
+
+    /**
+     * Length value meaning "read until end of file".
+     */
+    public static final long UNTIL_EOF = -1;
+
+    static final String LIBRARY = "mina";
+
+    private final FilesConfigProperties filesConfig;
+    private final ExecutorService readAheadExecutor;
+    private final MeterRegistry meterRegistry;
+
+    public SftpTransferReader(FilesConfigProperties filesConfig,
+                              @Qualifier("sftpReadAheadExecutor") ExecutorService readAheadExecutor,
+                              MeterRegistry meterRegistry) {
+        this.filesConfig = filesConfig;
+        this.readAheadExecutor = readAheadExecutor;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Transfers a byte range of a remote file to the output stream.
+     *
+     * @param session      borrowed SFTP session
+     * @param remotePath   path to the file in SFTP destination
+     * @param offset       zero-based position of the first byte to transfer
+     * @param length       number of bytes to transfer, or {@link #UNTIL_EOF}
+     * @param outputStream target stream to write content
+     * @return number of bytes written
+     * @throws IOException if reading the remote file or writing the output fails
+     */
+    public long transfer(SftpSession session, String remotePath, long offset, long length,
+                         OutputStream outputStream) throws IOException {
+        long start = System.nanoTime();
+        long bytes;
+        String mode;
+
+        if (filesConfig.getDownload().getReadAhead().isEnabled()) {
+            mode = SftpTransferMetrics.MODE_READ_AHEAD;
+            bytes = readAhead(session.getClientInstance(), remotePath, offset, length, outputStream);
+        } else if (offset == 0 && length == UNTIL_EOF) {
+            mode = SftpTransferMetrics.MODE_SEQUENTIAL;
+            bytes = readSequential(session, remotePath, outputStream);
+        } else {
+            mode = SftpTransferMetrics.MODE_SEQUENTIAL;
+            bytes = readPositioned(session.getClientInstance(), remotePath, offset, length, outputStream);
+        }
+
+        SftpTransferMetrics.record(meterRegistry, LIBRARY, mode, bytes, System.nanoTime() - start);
+        return bytes;
+    }
+
+    private long readSequential(SftpSession session, String remotePath, OutputStream outputStream)
+            throws IOException {
+        try (InputStream is = session.readRaw(remotePath)) {
+            byte[] buffer = new byte[filesConfig.getDownload().getBufferSize()];
+            int bytesRead;
+            long totalBytes = 0;
+
+            while ((bytesRead = is.read(buffer)) != -1) {
+                outputStream.write(buffer, 0, bytesRead);
+                totalBytes += bytesRead;
+            }
+            return totalBytes;
+        }
+    }
+
+    private long readPositioned(SftpClient client, String remotePath, long offset, long length,
+                                OutputStream outputStream) throws IOException {
+        byte[] buffer = new byte[filesConfig.getDownload().getBufferSize()];
+
+        // Positioned reads let the server seek instead of sending every byte before the range
+        try (SftpClient.CloseableHandle handle = client.open(remotePath, SftpClient.OpenMode.Read)) {
+            long position = offset;
+            long remaining = length == UNTIL_EOF ? Long.MAX_VALUE : length;
+
+            while (remaining > 0) {
+                int bytesRead = client.read(handle, position, buffer, 0,
+                        (int) Math.min(buffer.length, remaining));
+                if (bytesRead < 0) {
+                    if (length == UNTIL_EOF) {
+                        break;
+                    }
+                    throw new EOFException("Unexpected end of file at offset " + position);
+                }
+                outputStream.write(buffer, 0, bytesRead);
+                position += bytesRead;
+                remaining -= bytesRead;
+            }
+            return position - offset;
+        }
+    }
+
+    private long readAhead(SftpClient client, String remotePath, long offset, long length,
+                           OutputStream outputStream) throws IOException {
+        FilesConfigProperties.ReadAheadConfig readAhead = filesConfig.getDownload().getReadAhead();
+        int windowSize = Math.max(1, readAhead.getWindowSize());
+        int requestSize = Math.max(1, readAhead.getRequestSize());
+        long end = length == UNTIL_EOF ? Long.MAX_VALUE : offset + length;
+
+        Deque<Future<Chunk>> inFlight = new ArrayDeque<>(windowSize);
+        AtomicBoolean abandoned = new AtomicBoolean();
+
+        try (SftpClient.CloseableHandle handle = client.open(remotePath, SftpClient.OpenMode.Read)) {
+            try {
+                long nextOffset = offset;
+                long written = 0;
+                boolean eof = false;
+
+                while (true) {
+                    // Keep the window full so the link never idles waiting for a round trip
+                    while (!eof && inFlight.size() < windowSize && nextOffset < end) {
+                        int size = (int) Math.min(requestSize, end - nextOffset);
+                        long chunkOffset = nextOffset;
+                        inFlight.add(readAheadExecutor.submit(
+                                () -> readChunk(client, handle, chunkOffset, size, abandoned)));
+                        nextOffset += size;
+                    }
+
+                    // Left in flight until done, so an interrupted wait still accounts for it
+                    Future<Chunk> next = inFlight.peek();
+                    if (next == null) {
+                        break;
+                    }
+
+                    Chunk chunk = await(next);
+                    inFlight.poll();
+                    if (chunk.length() > 0) {
+                        outputStream.write(chunk.data(), 0, chunk.length());
+                        written += chunk.length();
+                    }
+                    if (chunk.length() < chunk.data().length) {
+                        // End of file reached, outstanding requests past it return nothing
+                        eof = true;
+                        drain(inFlight);
+                    }
+                }
+
+                if (length != UNTIL_EOF && written < length) {
+                    throw new EOFException("Unexpected end of file at offset " + (offset + written));
+                }
+                return written;
+
+            } catch (IOException | RuntimeException e) {
+                // Reads still running use the handle and the channel: they must be over
+                // before the handle is closed and the session goes back to the pool
+                abandoned.set(true);
+                awaitAbandoned(inFlight);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Reads a full chunk, re-requesting the remainder when the server answers short.
+     * Issues no further request once the transfer was abandoned.
+     */
+    private Chunk readChunk(SftpClient client, SftpClient.Handle handle, long offset, int size,
+                            AtomicBoolean abandoned) throws IOException {
+        byte[] data = new byte[size];
+        int filled = 0;
+        while (filled < size && !abandoned.get()) {
+            int bytesRead = client.read(handle, offset + filled, data, filled, size - filled);
+            if (bytesRead < 0) {
+                break;
+            }
+            filled += bytesRead;
+        }
+        return new Chunk(data, filled);
+    }
+
+    private void drain(Deque<Future<Chunk>> inFlight) throws IOException {
+        Future<Chunk> future;
+        while ((future = inFlight.peek()) != null) {
+            await(future);
+            inFlight.poll();
+        }
+    }
+
+    /**
+     * Waits for the reads of an abandoned transfer, ignoring their outcome.
+     * Queued reads return at once and running ones after their current request,
+     * so the wait is not interruptible; the interrupt status is restored afterwards.
+     */
+    private void awaitAbandoned(Deque<Future<Chunk>> inFlight) {
+        boolean interrupted = false;
+        Future<Chunk> future;
+        while ((future = inFlight.poll()) != null) {
+            while (true) {
+                try {
+                    future.get();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                } catch (ExecutionException | CancellationException e) {
+                    break;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Chunk await(Future<Chunk> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for SFTP read");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException ioException) {
+                throw ioException;
+            }
+            throw new IOException("SFTP read failed", e.getCause());
+        }
+    }
+
+    private record Chunk(byte[] data, int length) {
+    }
+}
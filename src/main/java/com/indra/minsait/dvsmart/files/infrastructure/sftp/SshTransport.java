@@ -0,0 +1,110 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.files.infrastructure.sftp;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.sshd.client.session.ClientSession;
+import org.springframework.integration.sftp.session.DefaultSftpSessionFactory;
+import org.springframework.integration.sftp.session.SftpSession;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * One SSH connection carrying several SFTP subsystem channels.
+ * <p>
+ * Wraps a shared-session {@link DefaultSftpSessionFactory}: every session it
+ * hands out is a new SFTP channel on the same authenticated connection, so
+ * opening one costs a channel round trip instead of a TCP connection, key
+ * exchange and authentication. Channel accounting is done by the
+ * {@link SftpEndpointPool} owning the transport, under its transport lock
+ * (see {@code SftpEndpointPool.reserveChannel}).
+ * </p>
+ */
+/**
+ * @author Hector Huaranga <hahuaranga@indracompany.com>
+ * @class SshTransport
+ * @date 18-10-2026
+ */
+@Slf4j
+class SshTransport {
+
+    private final int id;
+    private final DefaultSftpSessionFactory factory;
+    private final AtomicBoolean closed = new AtomicBoolean();
+    private volatile ClientSession clientSession;
+    private int channels;
+
+    SshTransport(int id, DefaultSftpSessionFactory factory) {
+        this.id = id;
+        this.factory = factory;
+    }
+
+    /**
+     * Opens a new SFTP channel, connecting the transport first if needed.
+     *
+     * @return session over the new channel
+     */
+    SftpSession openChannel() {
+        SftpSession session = factory.getSession();
+        // The factory reconnects a dropped shared session, so always track the latest one
+        clientSession = session.getClientInstance().getClientSession();
+        return session;
+    }
+
+    /**
+     * Health check of the connection itself, independent of any channel.
+     *
+     * @return false once the transport was closed or its SSH connection dropped
+     */
+    boolean isOpen() {
+        ClientSession current = clientSession;
+        return !closed.get() && (current == null || current.isOpen());
+    }
+
+    /**
+     * Whether the SSH connection was established, i.e. opening a channel will not connect.
+     *
+     * @return true once a channel was opened over a connection that is still up
+     */
+    boolean isConnected() {
+        ClientSession current = clientSession;
+        return current != null && current.isOpen();
+    }
+
+    /**
+     * Closes the SSH connection and every channel on it.
+     */
+    void close() {
+        if (closed.compareAndSet(false, true)) {
+            log.debug("Closing SSH transport #{}", id);
+            factory.destroy();
+        }
+    }
+
+    int getId() {
+        return id;
+    }
+
+    int getChannels() {
+        return channels;
+    }
+
+    void addChannel() {
+        channels++;
+    }
+
+    void removeChannel() {
+        channels--;
+    }
+}
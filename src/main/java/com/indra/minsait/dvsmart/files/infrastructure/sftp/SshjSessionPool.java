@@ -0,0 +1,362 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.files.infrastructure.sftp;
+
+import com.indra.minsait.dvsmart.files.infrastructure.config.SftpConfigProperties;
+import com.indra.minsait.dvsmart.files.infrastructure.fairshare.ClientContext;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import net.schmizz.sshj.SSHClient;
+import net.schmizz.sshj.sftp.SFTPClient;
+import net.schmizz.sshj.transport.verification.PromiscuousVerifier;
+import org.apache.commons.pool2.BasePooledObjectFactory;
+import org.apache.commons.pool2.PooledObject;
+import org.apache.commons.pool2.impl.DefaultPooledObject;
+import org.apache.commons.pool2.impl.GenericObjectPool;
+import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToIntFunction;
+
+/**
+ * Lazy pool of SFTP sessions built directly on sshj.
+ * <p>
+ * Counterpart of {@link CustomLazySftpSessionFactory} for
+ * {@code sftp.dest.client=sshj}: same pool settings, same validation probe,
+ * connect throttling and eviction, and the same {@link FairSessionGate} so
+ * sessions are handed out in weighted fair order across clients. It connects
+ * to the first configured endpoint only.
+ * </p>
+ */
+/**
+ * @author Hector Huaranga <hahuaranga@indracompany.com>
+ * @class SshjSessionPool
+ * @date 18-10-2026
+ */
+@Slf4j
+public class SshjSessionPool {
+
+    private final SftpConfigProperties config;
+    private final GenericObjectPool<SshjSession> pool;
+    private final FairSessionGate gate;
+    private final SftpConfigProperties.EndpointConfig endpoint;
+    private final SftpPoolMetrics metrics;
+    private final SftpPoolMetrics.Endpoint endpointMetrics;
+    private final ConnectThrottle connectThrottle;
+    private final Set<SshjSession> borrowed = ConcurrentHashMap.newKeySet();
+
+    /**
+     * @param config  SFTP configuration
+     * @param weights scheduling weight of each client waiting for a session
+     */
+    public SshjSessionPool(SftpConfigProperties config, ToIntFunction<String> weights) {
+        this(config, weights, new SimpleMeterRegistry());
+    }
+
+    /**
+     * @param config        SFTP configuration
+     * @param weights       scheduling weight of each client waiting for a session
+     * @param meterRegistry registry of the pool meters (see {@link SftpPoolMetrics})
+     */
+    public SshjSessionPool(SftpConfigProperties config, ToIntFunction<String> weights, MeterRegistry meterRegistry) {
+        this.config = config;
+        // The sshj client connects to the first endpoint only
+        this.endpoint = config.resolveEndpoints().get(0);
+        this.metrics = new SftpPoolMetrics(meterRegistry, SshjTransferReader.LIBRARY);
+        this.endpointMetrics = metrics.endpoint(endpoint.getName());
+        this.connectThrottle = new ConnectThrottle(config.getPool().getMinConnectIntervalMillis());
+        this.pool = createPool();
+        this.gate = new FairSessionGate(config.getPool().getMaxSize(), weights);
+        metrics.bind(gate);
+        endpointMetrics.bind(pool);
+
+        log.info("╔══════════════════════════════════════════════════════════════╗");
+        log.info("║ SFTP Connection Pool Initialized (LAZY, sshj)                ║");
+        log.info("╠══════════════════════════════════════════════════════════════╣");
+        log.info("║ Host: {}:{}", endpoint.getHost(), endpoint.getPort());
+        log.info("║ User: {}", endpoint.getUser());
+        log.info("║ Base Directory: {}", config.getBaseDir());
+        log.info("║ Pool Max Size: {}", config.getPool().getMaxSize());
+        log.info("║ Test On Borrow: {}", config.getPool().isTestOnBorrow());
+        log.info("╚══════════════════════════════════════════════════════════════╝");
+    }
+
+    private GenericObjectPool<SshjSession> createPool() {
+        SftpConfigProperties.PoolConfig poolConfig = config.getPool();
+
+        GenericObjectPoolConfig<SshjSession> poolObjConfig = new GenericObjectPoolConfig<>();
+        poolObjConfig.setMaxTotal(poolConfig.getMaxSize());
+        poolObjConfig.setMinIdle(poolConfig.getMinIdle());
+        poolObjConfig.setMaxWait(Duration.ofMillis(poolConfig.getMaxWaitMillis()));
+        poolObjConfig.setTestOnBorrow(poolConfig.isTestOnBorrow());
+        poolObjConfig.setTestWhileIdle(poolConfig.isTestWhileIdle());
+        poolObjConfig.setTimeBetweenEvictionRuns(
+                Duration.ofMillis(poolConfig.getTimeBetweenEvictionRunsMillis()));
+        poolObjConfig.setMinEvictableIdleDuration(
+                Duration.ofMillis(poolConfig.getMinEvictableIdleTimeMillis()));
+        poolObjConfig.setBlockWhenExhausted(true);
+        poolObjConfig.setJmxEnabled(false);
+
+        return new GenericObjectPool<>(new SshjSessionFactory(), poolObjConfig);
+    }
+
+    /**
+     * Gets a session from the pool.
+     * <p>
+     * Waits in the queue of the client bound in {@link ClientContext}.
+     * </p>
+     *
+     * @return an active sshj session
+     * @throws Exception if unable to obtain a session
+     */
+    public SshjSession getSession() throws Exception {
+        long startNanos = System.nanoTime();
+        try {
+            SshjSession session = borrowSession(startNanos);
+            metrics.borrowAcquired(startNanos);
+            return session;
+        } catch (SftpPoolTimeoutException e) {
+            metrics.borrowTimedOut(startNanos);
+            throw e;
+        } catch (Exception e) {
+            metrics.borrowFailed(startNanos);
+            throw e;
+        }
+    }
+
+    private SshjSession borrowSession(long startNanos) throws Exception {
+        long maxWaitMillis = config.getPool().getMaxWaitMillis();
+        if (!gate.acquire(ClientContext.current(), maxWaitMillis)) {
+            throw new SftpPoolTimeoutException("Timeout waiting for an SFTP session after " + maxWaitMillis + " ms");
+        }
+        try {
+            // The permit wait counts against the same max-wait
+            SshjSession session = pool.borrowObject(Duration.ofMillis(
+                    SftpPoolTimeoutException.remainingMillis(startNanos, maxWaitMillis)));
+            borrowed.add(session);
+            return session;
+        } catch (NoSuchElementException e) {
+            gate.release();
+            throw SftpPoolTimeoutException.fromPool(e);
+        } catch (Exception e) {
+            gate.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns a session to the pool.
+     *
+     * @param session the session to return
+     */
+    public void returnSession(SshjSession session) {
+        if (session != null) {
+            boolean held = borrowed.remove(session);
+            try {
+                pool.returnObject(session);
+            } finally {
+                releasePermit(held);
+            }
+        }
+    }
+
+    /**
+     * Invalidates a session (removes it from the pool).
+     *
+     * @param session the session to invalidate
+     */
+    public void invalidateSession(SshjSession session) {
+        if (session != null) {
+            endpointMetrics.invalidated(SftpPoolMetrics.CAUSE_TRANSFER);
+            boolean held = borrowed.remove(session);
+            try {
+                pool.invalidateObject(session);
+            } catch (Exception e) {
+                log.warn("Failed to invalidate sshj session", e);
+            } finally {
+                releasePermit(held);
+            }
+        }
+    }
+
+    /**
+     * Gets current pool statistics.
+     *
+     * @return pool statistics
+     */
+    public CustomLazySftpSessionFactory.PoolStats getPoolStats() {
+        return CustomLazySftpSessionFactory.PoolStats.builder()
+                .active(pool.getNumActive())
+                .idle(pool.getNumIdle())
+                .maxTotal(pool.getMaxTotal())
+                .totalCreated(pool.getCreatedCount())
+                .totalDestroyed(pool.getDestroyedCount())
+                .totalBorrowed(pool.getBorrowedCount())
+                .totalReturned(pool.getReturnedCount())
+                .waiting(gate.getWaiting())
+                .waitingClients(gate.getBackloggedClients())
+                // Each sshj session is its own SSH connection
+                .transports(pool.getNumActive() + pool.getNumIdle())
+                .activeStreams(pool.getNumActive())
+                .endpoints(List.of(CustomLazySftpSessionFactory.EndpointStats.builder()
+                        .name(endpoint.getName())
+                        .host(endpoint.getHost())
+                        .port(endpoint.getPort())
+                        .weight(endpoint.getWeight())
+                        .healthy(true)
+                        .outstanding(pool.getNumActive())
+                        .active(pool.getNumActive())
+                        .idle(pool.getNumIdle())
+                        .transports(pool.getNumActive() + pool.getNumIdle())
+                        .build()))
+                .build();
+    }
+
+    private void releasePermit(boolean held) {
+        if (held) {
+            gate.release();
+        }
+    }
+
+    /**
+     * Closes the pool and all connections.
+     */
+    public void close() {
+        log.info("Closing sshj connection pool...");
+        pool.close();
+    }
+
+    /**
+     * An authenticated SSH connection with its SFTP subsystem.
+     */
+    public static final class SshjSession implements Closeable {
+
+        private final SSHClient ssh;
+        private final SFTPClient sftp;
+
+        private SshjSession(SSHClient ssh, SFTPClient sftp) {
+            this.ssh = ssh;
+            this.sftp = sftp;
+        }
+
+        /**
+         * Gets the SFTP client of this session.
+         *
+         * @return sshj SFTP client
+         */
+        public SFTPClient sftp() {
+            return sftp;
+        }
+
+        public boolean isOpen() {
+            return ssh.isConnected() && ssh.isAuthenticated();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                sftp.close();
+            } finally {
+                ssh.close();
+            }
+        }
+    }
+
+    /**
+     * Factory for creating pooled sshj sessions.
+     */
+    private class SshjSessionFactory extends BasePooledObjectFactory<SshjSession> {
+
+        @Override
+        public SshjSession create() throws Exception {
+            // Every sshj session is a new SSH connection
+            connectThrottle.await();
+            long startNanos = System.nanoTime();
+            log.debug("Creating new sshj session to {}:{}", endpoint.getHost(), endpoint.getPort());
+            SSHClient ssh = new SSHClient();
+            try {
+                ssh.setConnectTimeout(config.getTimeout());
+                ssh.setTimeout(config.getTimeout());
+                if (config.getKnownHostsFile() != null && !config.getKnownHostsFile().isEmpty()) {
+                    ssh.loadKnownHosts(new File(config.getKnownHostsFile()));
+                } else {
+                    // Same policy as the MINA factory: unknown host keys are accepted
+                    ssh.addHostKeyVerifier(new PromiscuousVerifier());
+                }
+                ssh.connect(endpoint.getHost(), endpoint.getPort());
+                ssh.authPassword(endpoint.getUser(), endpoint.getPassword());
+                SshjSession session = new SshjSession(ssh, ssh.newSFTPClient());
+                endpointMetrics.sessionCreated(startNanos, true);
+                log.debug("sshj session created successfully");
+                return session;
+            } catch (Exception e) {
+                endpointMetrics.sessionCreated(startNanos, false);
+                ssh.close();
+                throw e;
+            }
+        }
+
+        @Override
+        public PooledObject<SshjSession> wrap(SshjSession session) {
+            return new DefaultPooledObject<>(session);
+        }
+
+        @Override
+        public void destroyObject(PooledObject<SshjSession> pooledObject) throws Exception {
+            SshjSession session = pooledObject.getObject();
+            if (session != null) {
+                endpointMetrics.sessionDestroyed(pooledObject);
+                log.debug("Closing sshj session");
+                session.close();
+            }
+        }
+
+        @Override
+        public boolean validateObject(PooledObject<SshjSession> pooledObject) {
+            SshjSession session = pooledObject.getObject();
+            if (session == null || !session.isOpen()) {
+                log.debug("Session validation failed: session is null or closed");
+                endpointMetrics.invalidated(SftpPoolMetrics.CAUSE_VALIDATION);
+                return false;
+            }
+
+            // A session returned healthy moments ago needs no round trip
+            if (SessionValidation.isRecentlyReturned(pooledObject, config.getPool())) {
+                endpointMetrics.validationSkipped();
+                return true;
+            }
+
+            long startNanos = System.nanoTime();
+            try {
+                // Liveness probe: stat of a single path, never a directory listing
+                session.sftp().stat(SessionValidation.probePath(config));
+                endpointMetrics.validated(startNanos, true);
+                return true;
+            } catch (Exception e) {
+                log.debug("Session validation failed: {}", e.getMessage());
+                endpointMetrics.validated(startNanos, false);
+                endpointMetrics.invalidated(SftpPoolMetrics.CAUSE_VALIDATION);
+                return false;
+            }
+        }
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.files.infrastructure.sftp;
+
+import com.indra.minsait.dvsmart.files.infrastructure.config.FilesConfigProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import net.schmizz.sshj.sftp.OpenMode;
+import net.schmizz.sshj.sftp.RemoteFile;
+import net.schmizz.sshj.sftp.SFTPClient;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.EnumSet;
+
+/**
+ * Copies remote file content to an output stream over a borrowed sshj session.
+ * <p>
+ * Sequential mode issues one READ at a time; read-ahead mode uses sshj's
+ * {@code ReadAheadRemoteFileInputStream} with up to
+ * {@code files.download.read-ahead.window-size} unconfirmed READ requests.
+ * Both start at the requested offset, so ranges never transfer bytes before
+ * the range. Metrics are the same as {@link SftpTransferReader}'s, tagged
+ * {@code library=sshj}.
+ * </p>
+ */
+/**
+ * @author Hector Huaranga <hahuaranga@indracompany.com>
+ * @class SshjTransferReader
+ * @date 18-10-2026
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "sftp.dest", name = "client", havingValue = "sshj")
+public class SshjTransferReader {
+
+    static final String LIBRARY = "sshj";
+
+    private final FilesConfigProperties filesConfig;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Transfers a byte range of a remote file to the output stream.
+     *
+     * @param sftp         SFTP client of a borrowed session
+     * @param remotePath   path to the file in SFTP destination
+     * @param offset       zero-based position of the first byte to transfer
+     * @param length       number of bytes to transfer, or {@link SftpTransferReader#UNTIL_EOF}
+     * @param outputStream target stream to write content
+     * @return number of bytes written
+     * @throws IOException if reading the remote file or writing the output fails
+     */
+    public long transfer(SFTPClient sftp, String remotePath, long offset, long length,
+                         OutputStream outputStream) throws IOException {
+        long start = System.nanoTime();
+        FilesConfigProperties.ReadAheadConfig readAhead = filesConfig.getDownload().getReadAhead();
+        String mode = readAhead.isEnabled()
+                ? SftpTransferMetrics.MODE_READ_AHEAD
+                : SftpTransferMetrics.MODE_SEQUENTIAL;
+
+        long bytes;
+        try (RemoteFile file = sftp.open(remotePath, EnumSet.of(OpenMode.READ));
+             InputStream in = readAhead.isEnabled()
+                     // A read length of 0 lets sshj read ahead until EOF
+                     ? file.new ReadAheadRemoteFileInputStream(Math.max(1, readAhead.getWindowSize()),
+                             offset, length == SftpTransferReader.UNTIL_EOF ? 0 : length)
+                     : file.new RemoteFileInputStream(offset)) {
+            bytes = copy(in, length, outputStream);
+        }
+
+        if (length != SftpTransferReader.UNTIL_EOF && bytes < length) {
+            throw new EOFException("Unexpected end of file at offset " + (offset + bytes));
+        }
+        SftpTransferMetrics.record(meterRegistry, LIBRARY, mode, bytes, System.nanoTime() - start);
+        return bytes;
+    }
+
+    /**
+     * Reads bytes at a position of a remote file, without streaming.
+     *
+     * @param sftp       SFTP client of a borrowed session
+     * @param remotePath path to the file in SFTP destination
+     * @param position   zero-based file position
+     * @param buffer     target buffer
+     * @param off        offset in the buffer
+     * @param len        maximum bytes to read
+     * @return bytes read, or -1 at end of file
+     * @throws IOException if the read fails
+     */
+    public int read(SFTPClient sftp, String remotePath, long position, byte[] buffer, int off, int len)
+            throws IOException {
+        try (RemoteFile file = sftp.open(remotePath, EnumSet.of(OpenMode.READ))) {
+            return file.read(position, buffer, off, len);
+        }
+    }
+
+    private long copy(InputStream in, long length, OutputStream outputStream) throws IOException {
+        byte[] buffer = new byte[filesConfig.getDownload().getBufferSize()];
+        long remaining = length == SftpTransferReader.UNTIL_EOF ? Long.MAX_VALUE : length;
+        long written = 0;
+        while (remaining > 0) {
+            int bytesRead = in.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+            if (bytesRead < 0) {
+                break;
+            }
+            outputStream.write(buffer, 0, bytesRead);
+            written += bytesRead;
+            remaining -= bytesRead;
+        }
+        return written;
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.files.infrastructure.sftp;
+
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.nio.channels.ClosedByInterruptException;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Classifies failed SFTP transfers by what actually broke.
+ */
+/**
+ * @author Hector Huaranga <hahuaranga@indracompany.com>
+ * @class TransferFailures
+ * @date 18-10-2026
+ */
+public final class TransferFailures {
+
+    private TransferFailures() {
+    }
+
+    /**
+     * Checks whether a transfer failed because its thread was interrupted or cancelled.
+     * Socket timeouts are {@link InterruptedIOException}s too, but they are real failures.
+     *
+     * @param e failure
+     * @return true if the transfer was interrupted or cancelled
+     */
+    public static boolean isInterruption(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof InterruptedException
+                    || cause instanceof CancellationException
+                    || cause instanceof ClosedByInterruptException
+                    || (cause instanceof InterruptedIOException && !(cause instanceof SocketTimeoutException))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks whether a failed transfer left its session usable: the caller's output
+     * failed or the transfer was interrupted, the session itself did not fail.
+     * An interrupt that closed the underlying channel did break the session.
+     *
+     * @param e      failure
+     * @param output caller's output of a streaming transfer, null otherwise
+     * @return true if the session should be returned rather than invalidated
+     */
+    public static boolean keepsSession(Throwable e, TrackedOutputStream output) {
+        return (output != null && output.isFailed()) || (isInterruption(e) && !closedChannel(e));
+    }
+
+    private static boolean closedChannel(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ClosedByInterruptException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -15,14 +15,18 @@ package com.indra.minsait.dvsmart.files.infrastructure.sftp.adapter;
 
 import com.indra.minsait.dvsmart.files.domain.exception.SftpConnectionException;
 import com.indra.minsait.dvsmart.files.domain.port.out.FileContentPort;
-import com.indra.minsait.dvsmart.files.infrastructure.config.FilesConfigProperties;
 import com.indra.minsait.dvsmart.files.infrastructure.sftp.CustomLazySftpSessionFactory;
+import com.indra.minsait.dvsmart.files.infrastructure.sftp.PooledSftpInputStream;
+import com.indra.minsait.dvsmart.files.infrastructure.sftp.RemoteFileStat;
+import com.indra.minsait.dvsmart.files.infrastructure.sftp.SftpTransferReader;
+import com.indra.minsait.dvsmart.files.infrastructure.sftp.TrackedOutputStream;
+import com.indra.minsait.dvsmart.files.infrastructure.sftp.TransferFailures;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.sshd.sftp.client.SftpClient;
 import org.springframework.integration.sftp.session.SftpSession;
 import org.springframework.stereotype.Component;
 
-import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -44,50 +48,77 @@ import java.io.OutputStream;
 public class SftpFileContentAdapter implements FileContentPort {
 
     private final CustomLazySftpSessionFactory sessionFactory;
-    private final FilesConfigProperties filesConfig;
+    private final SftpTransferReader transferReader;
 
     @Override
     public InputStream getFileStream(String remotePath) {
         log.debug("Getting file stream for: {}", remotePath);
 
-        // For simplicity, we load content and return as ByteArrayInputStream
-        // For very large files, consider a more sophisticated approach
-        byte[] content = getFileContent(remotePath);
-        return new ByteArrayInputStream(content);
+        SftpSession session = null;
+        try {
+            session = sessionFactory.getSession();
+            InputStream stream = new PooledSftpInputStream(
+                    session.readRaw(remotePath), session, sessionFactory, remotePath);
+            session = null; // Ownership transferred, released when the stream is closed
+            return stream;
+
+        } catch (Exception e) {
+            release(session, e, null, "Failed to open file stream", remotePath);
+            session = null;
+            throw new SftpConnectionException("Failed to open file stream: " + remotePath, e);
+        } finally {
+            if (session != null) {
+                sessionFactory.returnSession(session);
+            }
+        }
     }
 
     @Override
     public void streamFileTo(String remotePath, OutputStream outputStream) {
         log.debug("Streaming file to output: {}", remotePath);
 
+        TrackedOutputStream output = new TrackedOutputStream(outputStream);
         SftpSession session = null;
         try {
             session = sessionFactory.getSession();
-            int bufferSize = filesConfig.getDownload().getBufferSize();
-
-            try (InputStream is = session.readRaw(remotePath)) {
-                byte[] buffer = new byte[bufferSize];
-                int bytesRead;
-                long totalBytes = 0;
 
-                while ((bytesRead = is.read(buffer)) != -1) {
-                    outputStream.write(buffer, 0, bytesRead);
-                    totalBytes += bytesRead;
-                }
-
-                log.debug("Streamed {} bytes for file: {}", totalBytes, remotePath);
-            }
+            long totalBytes = transferReader.transfer(
+                    session, remotePath, 0, SftpTransferReader.UNTIL_EOF, output);
+            log.debug("Streamed {} bytes for file: {}", totalBytes, remotePath);
 
             sessionFactory.returnSession(session);
             session = null; // Prevent double-return in finally
 
         } catch (Exception e) {
-            log.error("Failed to stream file: {}", remotePath, e);
+            release(session, e, output, "Failed to stream file", remotePath);
+            session = null;
+            throw new SftpConnectionException("Failed to stream file: " + remotePath, e);
+        } finally {
             if (session != null) {
-                sessionFactory.invalidateSession(session);
-                session = null;
+                sessionFactory.returnSession(session);
             }
-            throw new SftpConnectionException("Failed to stream file: " + remotePath, e);
+        }
+    }
+
+    @Override
+    public void streamRangeTo(String remotePath, long offset, long length, OutputStream outputStream) {
+        log.debug("Streaming range of file to output: {} (offset={}, length={})", remotePath, offset, length);
+
+        TrackedOutputStream output = new TrackedOutputStream(outputStream);
+        SftpSession session = null;
+        try {
+            session = sessionFactory.getSession();
+
+            transferReader.transfer(session, remotePath, offset, length, output);
+            log.debug("Streamed {} bytes from offset {} for file: {}", length, offset, remotePath);
+
+            sessionFactory.returnSession(session);
+            session = null;
+
+        } catch (Exception e) {
+            release(session, e, output, "Failed to stream file range", remotePath);
+            session = null;
+            throw new SftpConnectionException("Failed to stream file range: " + remotePath, e);
         } finally {
             if (session != null) {
                 sessionFactory.returnSession(session);
@@ -115,11 +146,8 @@ public class SftpFileContentAdapter implements FileContentPort {
             return content;
 
         } catch (Exception e) {
-            log.error("Failed to get file content: {}", remotePath, e);
-            if (session != null) {
-                sessionFactory.invalidateSession(session);
-                session = null;
-            }
+            release(session, e, null, "Failed to get file content", remotePath);
+            session = null;
             throw new SftpConnectionException("Failed to get file content: " + remotePath, e);
         } finally {
             if (session != null) {
@@ -141,16 +169,63 @@ public class SftpFileContentAdapter implements FileContentPort {
             return exists;
 
         } catch (Exception e) {
-            log.error("Failed to check file existence: {}", remotePath, e);
+            release(session, e, null, "Failed to check file existence", remotePath);
+            session = null;
+            throw new SftpConnectionException("Failed to check file existence: " + remotePath, e);
+        } finally {
             if (session != null) {
-                sessionFactory.invalidateSession(session);
-                session = null;
+                sessionFactory.returnSession(session);
             }
-            throw new SftpConnectionException("Failed to check file existence: " + remotePath, e);
+        }
+    }
+
+    /**
+     * Gets size and modification time of a remote file.
+     *
+     * @param remotePath path to the file in SFTP destination
+     * @return file attributes
+     */
+    public RemoteFileStat stat(String remotePath) {
+        log.debug("Stat of file: {}", remotePath);
+
+        SftpSession session = null;
+        try {
+            session = sessionFactory.getSession();
+            SftpClient.Attributes attributes = session.getClientInstance().stat(remotePath);
+            sessionFactory.returnSession(session);
+            session = null;
+            return new RemoteFileStat(attributes.getSize(),
+                    attributes.getModifyTime() != null ? attributes.getModifyTime().toInstant() : null);
+
+        } catch (Exception e) {
+            release(session, e, null, "Failed to stat file", remotePath);
+            session = null;
+            throw new SftpConnectionException("Failed to stat file: " + remotePath, e);
         } finally {
             if (session != null) {
                 sessionFactory.returnSession(session);
             }
         }
     }
+
+    /**
+     * Releases the session of a failed operation: invalidated if the session may be broken,
+     * returned if only the caller's output failed or the operation was interrupted.
+     */
+    private void release(SftpSession session, Exception e, TrackedOutputStream output, String message,
+                         String remotePath) {
+        boolean keep = TransferFailures.keepsSession(e, output);
+        if (keep) {
+            log.debug("{}: {} ({})", message, remotePath, e.toString());
+        } else {
+            log.error("{}: {}", message, remotePath, e);
+        }
+        if (session != null) {
+            if (keep) {
+                sessionFactory.returnSession(session);
+            } else {
+                sessionFactory.invalidateSession(session);
+            }
+        }
+    }
 }
@@ -0,0 +1,212 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.files.infrastructure.sftp.adapter;
+
+import com.indra.minsait.dvsmart.files.domain.exception.SftpConnectionException;
+import com.indra.minsait.dvsmart.files.domain.port.out.FileContentPort;
+import com.indra.minsait.dvsmart.files.infrastructure.sftp.PooledSshjInputStream;
+import com.indra.minsait.dvsmart.files.infrastructure.sftp.RemoteFileStat;
+import com.indra.minsait.dvsmart.files.infrastructure.sftp.SftpTransferReader;
+import com.indra.minsait.dvsmart.files.infrastructure.sftp.SshjSessionPool;
+import com.indra.minsait.dvsmart.files.infrastructure.sftp.SshjSessionPool.SshjSession;
+import com.indra.minsait.dvsmart.files.infrastructure.sftp.SshjTransferReader;
+import com.indra.minsait.dvsmart.files.infrastructure.sftp.TrackedOutputStream;
+import com.indra.minsait.dvsmart.files.infrastructure.sftp.TransferFailures;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import net.schmizz.sshj.sftp.FileAttributes;
+import net.schmizz.sshj.sftp.OpenMode;
+import net.schmizz.sshj.sftp.RemoteFile;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.util.EnumSet;
+
+/**
+ * SFTP adapter for file content operations built directly on sshj.
+ * <p>
+ * Alternative to {@link SftpFileContentAdapter}, selected with
+ * {@code sftp.dest.client=sshj}. Besides the {@link FileContentPort}
+ * operations it exposes positioned reads and stat, which the
+ * Spring Integration session does not offer without a raw client.
+ * </p>
+ */
+/**
+ * @author Hector Huaranga <hahuaranga@indracompany.com>
+ * @class SshjFileContentAdapter
+ * @date 18-10-2026
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "sftp.dest", name = "client", havingValue = "sshj")
+public class SshjFileContentAdapter implements FileContentPort {
+
+    private final SshjSessionPool sessionPool;
+    private final SshjTransferReader transferReader;
+
+    @Override
+    public InputStream getFileStream(String remotePath) {
+        log.debug("Getting file stream for: {}", remotePath);
+
+        SshjSession session = null;
+        try {
+            session = sessionPool.getSession();
+            RemoteFile file = session.sftp().open(remotePath, EnumSet.of(OpenMode.READ));
+            InputStream stream = new PooledSshjInputStream(file, session, sessionPool, remotePath);
+            session = null; // Ownership transferred, released when the stream is closed
+            return stream;
+
+        } catch (Exception e) {
+            release(session, e, null, "Failed to open file stream: ", remotePath);
+            session = null;
+            throw new SftpConnectionException("Failed to open file stream: " + remotePath, e);
+        } finally {
+            if (session != null) {
+                sessionPool.returnSession(session);
+            }
+        }
+    }
+
+    @Override
+    public void streamFileTo(String remotePath, OutputStream outputStream) {
+        log.debug("Streaming file to output: {}", remotePath);
+        streamRange(remotePath, 0, SftpTransferReader.UNTIL_EOF, outputStream, "Failed to stream file: ");
+    }
+
+    @Override
+    public void streamRangeTo(String remotePath, long offset, long length, OutputStream outputStream) {
+        log.debug("Streaming range of file to output: {} (offset={}, length={})", remotePath, offset, length);
+        streamRange(remotePath, offset, length, outputStream, "Failed to stream file range: ");
+    }
+
+    @Override
+    public byte[] getFileContent(String remotePath) {
+        log.debug("Getting file content for: {}", remotePath);
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        streamRange(remotePath, 0, SftpTransferReader.UNTIL_EOF, baos, "Failed to get file content: ");
+        byte[] content = baos.toByteArray();
+        log.debug("Retrieved {} bytes for file: {}", content.length, remotePath);
+        return content;
+    }
+
+    @Override
+    public boolean fileExists(String remotePath) {
+        log.debug("Checking if file exists: {}", remotePath);
+        return execute(remotePath, "Failed to check file existence: ",
+                session -> session.sftp().statExistence(remotePath) != null);
+    }
+
+    /**
+     * Gets size and modification time of a remote file.
+     *
+     * @param remotePath path to the file in SFTP destination
+     * @return file attributes
+     */
+    public RemoteFileStat stat(String remotePath) {
+        log.debug("Stat of file: {}", remotePath);
+        return execute(remotePath, "Failed to stat file: ", session -> {
+            FileAttributes attributes = session.sftp().stat(remotePath);
+            return new RemoteFileStat(attributes.getSize(), Instant.ofEpochSecond(attributes.getMtime()));
+        });
+    }
+
+    /**
+     * Reads bytes at a position of a remote file.
+     *
+     * @param remotePath path to the file in SFTP destination
+     * @param position   zero-based file position
+     * @param buffer     target buffer
+     * @param off        offset in the buffer
+     * @param len        maximum bytes to read
+     * @return bytes read, or -1 at end of file
+     */
+    public int read(String remotePath, long position, byte[] buffer, int off, int len) {
+        return execute(remotePath, "Failed to read file: ",
+                session -> transferReader.read(session.sftp(), remotePath, position, buffer, off, len));
+    }
+
+    private void streamRange(String remotePath, long offset, long length, OutputStream outputStream,
+                             String errorMessage) {
+        TrackedOutputStream output = new TrackedOutputStream(outputStream);
+        execute(remotePath, errorMessage, output, session -> {
+            long totalBytes = transferReader.transfer(session.sftp(), remotePath, offset, length, output);
+            log.debug("Streamed {} bytes from offset {} for file: {}", totalBytes, offset, remotePath);
+            return totalBytes;
+        });
+    }
+
+    private <T> T execute(String remotePath, String errorMessage, SessionOperation<T> operation) {
+        return execute(remotePath, errorMessage, null, operation);
+    }
+
+    /**
+     * Runs an operation on a borrowed session, releasing it through {@link #release} if it fails.
+     *
+     * @param output caller's output of a streaming operation, null otherwise
+     */
+    private <T> T execute(String remotePath, String errorMessage, TrackedOutputStream output,
+                          SessionOperation<T> operation) {
+        SshjSession session = null;
+        try {
+            session = sessionPool.getSession();
+            T result = operation.apply(session);
+
+            sessionPool.returnSession(session);
+            session = null; // Prevent double-return in finally
+
+            return result;
+
+        } catch (Exception e) {
+            release(session, e, output, errorMessage, remotePath);
+            session = null;
+            throw new SftpConnectionException(errorMessage + remotePath, e);
+        } finally {
+            if (session != null) {
+                sessionPool.returnSession(session);
+            }
+        }
+    }
+
+    /**
+     * Releases the session of a failed operation: invalidated if the session may be broken,
+     * returned if only the caller's output failed or the operation was interrupted.
+     */
+    private void release(SshjSession session, Exception e, TrackedOutputStream output, String errorMessage,
+                         String remotePath) {
+        boolean keep = TransferFailures.keepsSession(e, output);
+        if (keep) {
+            log.debug("{}{} ({})", errorMessage, remotePath, e.toString());
+        } else {
+            log.error("{}{}", errorMessage, remotePath, e);
+        }
+        if (session != null) {
+            if (keep) {
+                sessionPool.returnSession(session);
+            } else {
+                sessionPool.invalidateSession(session);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface SessionOperation<T> {
+        T apply(SshjSession session) throws IOException;
+    }
+}
@@ -0,0 +1,300 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.files.infrastructure.spool;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongConsumer;
+
+/**
+ * Byte queue between one SFTP read (producer) and one HTTP client (consumer).
+ * <p>
+ * Bytes go to a fixed memory ring buffer. When the ring is full the
+ * producer keeps going into a spill file instead of waiting, so the SFTP
+ * read runs at full speed whatever the client's pace. Order is preserved:
+ * once spilling, every byte goes to the file until the consumer has caught
+ * up with all of it, then the ring is used again and the file is rewound.
+ * Only when {@code maxSpillBytes} are spilled and unread, or the
+ * {@link SpillBudget} shared by all spools is used up, does the producer
+ * wait for the consumer.
+ * </p>
+ * <p>
+ * The producer writes through {@link #producer()}, then calls
+ * {@link #complete(RuntimeException)}; the consumer calls
+ * {@link #read(byte[])} until -1 and finally {@link #close()}, which also
+ * makes further producer writes fail so an abandoned download stops
+ * reading from SFTP.
+ * </p>
+ */
+/**
+ * @author Hector Huaranga <hahuaranga@indracompany.com>
+ * @class DownloadSpool
+ * @date 18-10-2026
+ */
+@Slf4j
+final class DownloadSpool implements AutoCloseable {
+
+    /**
+     * How often a producer blocked by the shared budget checks it again:
+     * bytes freed by other spools do not wake it up.
+     */
+    private static final long BUDGET_RETRY_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+    private final byte[] ring;
+    private final long maxSpillBytes;
+    private final SpillBudget budget;
+    private final long readTimeoutNanos;
+    private final Path spillFile;
+    private final LongConsumer spilled;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private int head;
+    private int size;
+    private FileChannel spill;
+    private boolean spilling;
+    private long spillWrite;
+    private long spillRead;
+    private boolean completed;
+    private RuntimeException failure;
+    private boolean closed;
+
+    /**
+     * @param ringBytes         size of the memory ring buffer
+     * @param maxSpillBytes     maximum unread bytes in the spill file
+     * @param budget            spill space shared with the other spools
+     * @param readTimeoutMillis maximum wait of the consumer for the next bytes
+     * @param spillFile         spill file, created on first use and deleted on close
+     * @param spilled           notified of the bytes written to the spill file
+     */
+    DownloadSpool(int ringBytes, long maxSpillBytes, SpillBudget budget, long readTimeoutMillis, Path spillFile,
+                  LongConsumer spilled) {
+        this.ring = new byte[Math.max(1, ringBytes)];
+        this.maxSpillBytes = Math.max(1, maxSpillBytes);
+        this.budget = budget;
+        this.readTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, readTimeoutMillis));
+        this.spillFile = spillFile;
+        this.spilled = spilled;
+    }
+
+    /**
+     * Gets the stream the producer writes the content to.
+     *
+     * @return producer stream
+     */
+    OutputStream producer() {
+        return new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                write(new byte[] {(byte) b}, 0, 1);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                append(b, off, len);
+            }
+        };
+    }
+
+    /**
+     * Ends the content, successfully or not.
+     *
+     * @param error failure of the producer, null if all content was written
+     */
+    void complete(RuntimeException error) {
+        lock.lock();
+        try {
+            completed = true;
+            failure = error;
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Reads the next bytes, waiting for the producer if none are spooled.
+     *
+     * @param buffer target buffer
+     * @return bytes read, or -1 at the end of the content
+     * @throws IOException if the spill file cannot be read, or no bytes arrived within the read timeout
+     * @throws InterruptedIOException if the consumer thread is interrupted while waiting
+     * @throws RuntimeException failure of the producer, once all bytes before it were read
+     */
+    int read(byte[] buffer) throws IOException {
+        long position;
+        int length;
+        lock.lock();
+        try {
+            long remaining = readTimeoutNanos;
+            while (true) {
+                if (size > 0) {
+                    int n = Math.min(buffer.length, Math.min(size, ring.length - head));
+                    System.arraycopy(ring, head, buffer, 0, n);
+                    head = (head + n) % ring.length;
+                    size -= n;
+                    changed.signalAll();
+                    return n;
+                }
+                if (spillRead < spillWrite) {
+                    position = spillRead;
+                    length = (int) Math.min(buffer.length, spillWrite - spillRead);
+                    break;
+                }
+                if (completed) {
+                    if (failure != null) {
+                        throw failure;
+                    }
+                    return -1;
+                }
+                if (remaining <= 0) {
+                    throw new IOException("No data from SFTP for "
+                            + TimeUnit.NANOSECONDS.toMillis(readTimeoutNanos) + " ms");
+                }
+                remaining = changed.awaitNanos(remaining);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the SFTP read");
+        } finally {
+            lock.unlock();
+        }
+
+        // The producer only writes past spillWrite, so this region is stable
+        int n = spill.read(ByteBuffer.wrap(buffer, 0, length), position);
+
+        lock.lock();
+        try {
+            spillRead += n;
+            budget.release(n);
+            if (spillRead == spillWrite) {
+                // Caught up with the file: back to the ring, reuse the file from its start
+                spilling = false;
+                spillRead = 0;
+                spillWrite = 0;
+            }
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        return n;
+    }
+
+    /**
+     * Releases the spool. A producer still writing fails on its next write.
+     */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            changed.signalAll();
+            // Unread spilled bytes are dropped with the file
+            budget.release(spillWrite - spillRead);
+            spillRead = spillWrite;
+            if (spill != null) {
+                try {
+                    spill.close();
+                } catch (IOException e) {
+                    log.debug("Failed to close spill file: {}", spillFile, e);
+                }
+                try {
+                    Files.deleteIfExists(spillFile);
+                } catch (IOException e) {
+                    log.warn("Failed to delete spill file: {}", spillFile, e);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void append(byte[] b, int off, int len) throws IOException {
+        lock.lock();
+        try {
+            while (len > 0) {
+                if (closed) {
+                    throw new IOException("Download spool closed, client is gone");
+                }
+                if (!spilling && size < ring.length) {
+                    int tail = (head + size) % ring.length;
+                    int n = Math.min(len, Math.min(ring.length - size, ring.length - tail));
+                    System.arraycopy(b, off, ring, tail, n);
+                    size += n;
+                    off += n;
+                    len -= n;
+                    changed.signalAll();
+                    continue;
+                }
+
+                long room = Math.min(len, maxSpillBytes - (spillWrite - spillRead));
+                int n = room > 0 ? (int) budget.acquire(room) : 0;
+                if (n <= 0) {
+                    // Spill limit reached: wait for the client after all
+                    if (room > 0) {
+                        changed.awaitNanos(BUDGET_RETRY_NANOS);
+                    } else {
+                        changed.await();
+                    }
+                    continue;
+                }
+                spilling = true;
+                try {
+                    writeSpill(ByteBuffer.wrap(b, off, n));
+                } catch (IOException e) {
+                    budget.release(n);
+                    throw e;
+                }
+                spilled.accept(n);
+                off += n;
+                len -= n;
+                changed.signalAll();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the client to read the spool");
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Appends to the spill file. Called with the lock held, so the consumer never
+     * rewinds the file in the middle of a write.
+     */
+    private void writeSpill(ByteBuffer chunk) throws IOException {
+        if (spill == null) {
+            spill = FileChannel.open(spillFile, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+        }
+        int n = chunk.remaining();
+        while (chunk.hasRemaining()) {
+            spill.write(chunk, spillWrite + n - chunk.remaining());
+        }
+        spillWrite += n;
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.files.infrastructure.spool;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Disk space shared by the spill files of all download spools.
+ * <p>
+ * Each spool takes bytes from the budget before spilling them and gives
+ * them back as its client reads them or when it is closed, so the unread
+ * bytes on disk never exceed the budget whatever the number of slow clients.
+ * </p>
+ */
+/**
+ * @author Hector Huaranga <hahuaranga@indracompany.com>
+ * @class SpillBudget
+ * @date 18-10-2026
+ */
+final class SpillBudget {
+
+    private final long maxBytes;
+    private final AtomicLong used = new AtomicLong();
+
+    /**
+     * @param maxBytes maximum unread spilled bytes across all spools
+     */
+    SpillBudget(long maxBytes) {
+        this.maxBytes = Math.max(0, maxBytes);
+    }
+
+    /**
+     * Takes up to the requested bytes from the budget.
+     *
+     * @param bytes bytes wanted
+     * @return bytes granted, 0 if the budget is exhausted
+     */
+    long acquire(long bytes) {
+        while (true) {
+            long current = used.get();
+            long granted = Math.min(bytes, maxBytes - current);
+            if (granted <= 0) {
+                return 0;
+            }
+            if (used.compareAndSet(current, current + granted)) {
+                return granted;
+            }
+        }
+    }
+
+    /**
+     * Gives bytes back to the budget.
+     *
+     * @param bytes bytes previously acquired
+     */
+    void release(long bytes) {
+        if (bytes > 0) {
+            used.addAndGet(-bytes);
+        }
+    }
+
+    /**
+     * Checks whether no spilled byte can be taken right now.
+     *
+     * @return true if the budget is used up
+     */
+    boolean isExhausted() {
+        return used.get() >= maxBytes;
+    }
+
+    /**
+     * Gets the unread spilled bytes across all spools.
+     *
+     * @return bytes in use
+     */
+    long used() {
+        return used.get();
+    }
+}
@@ -0,0 +1,226 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.files.infrastructure.spool;
+
+import com.indra.minsait.dvsmart.files.domain.model.FileMetadata;
+import com.indra.minsait.dvsmart.files.domain.port.out.FileContentPort;
+import com.indra.minsait.dvsmart.files.infrastructure.config.FilesConfigProperties;
+import com.indra.minsait.dvsmart.files.infrastructure.fairshare.ClientContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * File content adapter that decouples slow clients from SFTP sessions.
+ * <p>
+ * Each download is read from the delegate on a separate thread into a
+ * {@link DownloadSpool} at full SFTP speed, so the session goes back to the
+ * pool as soon as the remote file is drained instead of when the client has
+ * received the last byte. The request thread serves its client from the
+ * spool at the client's own pace. A client that disconnects closes the
+ * spool, which stops the SFTP read. The spill files of all downloads share
+ * one disk budget; a download that starts while it is used up is streamed
+ * directly, as without the spool.
+ * </p>
+ * <p>
+ * Errors of the delegate reach the client exactly where they would without
+ * the spool: before any byte when the read fails up front, after the bytes
+ * read so far otherwise. Small reads ({@code getFileContent}) and local
+ * copies are passed through.
+ * </p>
+ */
+/**
+ * @author Hector Huaranga <hahuaranga@indracompany.com>
+ * @class SpoolingFileContentAdapter
+ * @date 18-10-2026
+ */
+@Slf4j
+public class SpoolingFileContentAdapter implements FileContentPort {
+
+    private static final String SPILL_SUFFIX = ".spill";
+
+    private final FileContentPort delegate;
+    private final ExecutorService executor;
+    private final Path directory;
+    private final int ringBytes;
+    private final long maxSpillBytes;
+    private final SpillBudget spillBudget;
+    private final long readTimeoutMillis;
+    private final int bufferSize;
+    private final AtomicInteger draining = new AtomicInteger();
+    private final Counter spilledBytes;
+    private final Counter direct;
+
+    /**
+     * @param delegate      adapter reading from SFTP
+     * @param config        spool settings
+     * @param bufferSize    chunk size when serving the client
+     * @param executor      executor running the SFTP reads
+     * @param meterRegistry registry of the spool meters
+     */
+    public SpoolingFileContentAdapter(FileContentPort delegate, FilesConfigProperties.SpoolConfig config,
+                                      int bufferSize, ExecutorService executor, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.executor = executor;
+        this.directory = Paths.get(config.getDirectory()).toAbsolutePath();
+        this.ringBytes = Math.toIntExact(config.getMemoryBufferKb() * 1024L);
+        this.maxSpillBytes = config.getMaxSpillMb() * 1024 * 1024;
+        this.spillBudget = new SpillBudget(config.getMaxTotalSpillMb() * 1024 * 1024);
+        this.readTimeoutMillis = config.getReadTimeoutMillis();
+        this.bufferSize = bufferSize;
+        this.spilledBytes = meterRegistry.counter("files.download.spool.spilled.bytes");
+        this.direct = meterRegistry.counter("files.download.spool.direct");
+        Gauge.builder("files.download.spool.draining", draining, AtomicInteger::get).register(meterRegistry);
+        Gauge.builder("files.download.spool.spill.used", spillBudget, SpillBudget::used)
+                .baseUnit("bytes").register(meterRegistry);
+
+        cleanDirectory();
+        log.info("Download spooling enabled: {} KB in memory per download, spill directory: {}",
+                config.getMemoryBufferKb(), directory);
+    }
+
+    @Override
+    public InputStream getFileStream(String remotePath) {
+        return delegate.getFileStream(remotePath);
+    }
+
+    @Override
+    public void streamFileTo(String remotePath, OutputStream outputStream) {
+        spool(out -> delegate.streamFileTo(remotePath, out), outputStream);
+    }
+
+    @Override
+    public void streamRangeTo(String remotePath, long offset, long length, OutputStream outputStream) {
+        spool(out -> delegate.streamRangeTo(remotePath, offset, length, out), outputStream);
+    }
+
+    @Override
+    public byte[] getFileContent(String remotePath) {
+        return delegate.getFileContent(remotePath);
+    }
+
+    @Override
+    public void streamFileTo(FileMetadata file, OutputStream outputStream) {
+        spool(out -> delegate.streamFileTo(file, out), outputStream);
+    }
+
+    @Override
+    public void streamRangeTo(FileMetadata file, long offset, long length, OutputStream outputStream) {
+        spool(out -> delegate.streamRangeTo(file, offset, length, out), outputStream);
+    }
+
+    @Override
+    public byte[] getFileContent(FileMetadata file) {
+        return delegate.getFileContent(file);
+    }
+
+    @Override
+    public Optional<Path> findLocalCopy(FileMetadata file) {
+        return delegate.findLocalCopy(file);
+    }
+
+    @Override
+    public boolean fileExists(String remotePath) {
+        return delegate.fileExists(remotePath);
+    }
+
+    /**
+     * Drains a read into a spool on the executor and serves the client from it.
+     */
+    private void spool(Consumer<OutputStream> read, OutputStream client) {
+        if (spillBudget.isExhausted()) {
+            // Slow clients hold all the spill space: a new spool would fill its ring and hold the session anyway
+            log.debug("Download spill budget used up, streaming directly");
+            direct.increment();
+            read.accept(client);
+            return;
+        }
+        DownloadSpool spool = new DownloadSpool(ringBytes, maxSpillBytes, spillBudget, readTimeoutMillis,
+                directory.resolve(UUID.randomUUID() + SPILL_SUFFIX), spilledBytes::increment);
+        String clientKey = ClientContext.current();
+        try {
+            executor.execute(() -> ClientContext.runAs(clientKey, () -> drain(read, spool)));
+        } catch (RejectedExecutionException e) {
+            log.warn("Download spool executor saturated, streaming directly: {}", e.getMessage());
+            direct.increment();
+            spool.close();
+            read.accept(client);
+            return;
+        }
+
+        try (spool) {
+            byte[] buffer = new byte[bufferSize];
+            int n;
+            while ((n = spool.read(buffer)) >= 0) {
+                try {
+                    client.write(buffer, 0, n);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Client write failed", e);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read download spool", e);
+        }
+    }
+
+    private void drain(Consumer<OutputStream> read, DownloadSpool spool) {
+        draining.incrementAndGet();
+        try {
+            read.accept(spool.producer());
+            spool.complete(null);
+        } catch (RuntimeException e) {
+            spool.complete(e);
+        } catch (Error e) {
+            spool.complete(new IllegalStateException("Download spool producer failed", e));
+            throw e;
+        } finally {
+            draining.decrementAndGet();
+        }
+    }
+
+    private void cleanDirectory() {
+        try {
+            Files.createDirectories(directory);
+            // Spill files never outlive the process that wrote them
+            try (Stream<Path> stream = Files.list(directory)) {
+                stream.filter(path -> path.getFileName().toString().endsWith(SPILL_SUFFIX))
+                        .forEach(path -> {
+                            try {
+                                Files.deleteIfExists(path);
+                            } catch (IOException e) {
+                                log.warn("Failed to delete spill file: {}", path, e);
+                            }
+                        });
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to initialize download spool directory: " + directory, e);
+        }
+    }
+}
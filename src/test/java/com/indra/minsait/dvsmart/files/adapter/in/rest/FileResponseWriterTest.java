@@ -0,0 +1,260 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.files.adapter.in.rest;
+
+import com.indra.minsait.dvsmart.files.domain.exception.RangeNotSatisfiableException;
+import com.indra.minsait.dvsmart.files.domain.model.FileMetadata;
+import com.indra.minsait.dvsmart.files.domain.port.in.DownloadFileUseCase;
+import com.indra.minsait.dvsmart.files.infrastructure.config.FilesConfigProperties;
+import com.indra.minsait.dvsmart.files.infrastructure.fairshare.FairShareScheduler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("FileResponseWriter Tests")
+class FileResponseWriterTest {
+
+    private static final String PATH = "/api/files/a1b2c3/download";
+
+    @Mock
+    private DownloadFileUseCase downloadFileUseCase;
+
+    private HttpCacheSupport httpCacheSupport;
+    private FileResponseWriter writer;
+    private byte[] content;
+    private FileMetadata file;
+
+    @BeforeEach
+    void setUp() {
+        FilesConfigProperties config = new FilesConfigProperties();
+        httpCacheSupport = new HttpCacheSupport(config);
+        writer = new FileResponseWriter(downloadFileUseCase, httpCacheSupport,
+                new AsyncTransferLimiter(config, new SimpleMeterRegistry()),
+                new ClientKeyResolver(config), new FairShareScheduler(config));
+
+        content = new byte[100];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) i;
+        }
+        file = FileMetadata.builder()
+                .idUnico("a1b2c3")
+                .fileName("factura_001.pdf")
+                .destinationPath("/organized_data/a1/b2/c3/factura_001.pdf")
+                .fileSize((long) content.length)
+                .lastModificationDate(Instant.parse("2026-10-18T10:00:00Z"))
+                .reorgCompletedAt(Instant.parse("2026-10-18T12:00:00Z"))
+                .build();
+
+        lenient().doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(1);
+            out.write(content);
+            return null;
+        }).when(downloadFileUseCase).stream(any(FileMetadata.class), any(OutputStream.class));
+        lenient().doAnswer(invocation -> {
+            long offset = invocation.getArgument(1);
+            long length = invocation.getArgument(2);
+            OutputStream out = invocation.getArgument(3);
+            out.write(content, (int) offset, (int) length);
+            return null;
+        }).when(downloadFileUseCase).streamRange(any(FileMetadata.class), anyLong(), anyLong(), any(OutputStream.class));
+    }
+
+    private MockHttpServletRequest rangeRequest(String range) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", PATH);
+        request.addHeader(HttpHeaders.RANGE, range);
+        return request;
+    }
+
+    private byte[] write(MockHttpServletRequest request, MockHttpServletResponse response) throws IOException {
+        StreamingResponseBody body = writer.prepare(file, "attachment", request, response);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        body.writeTo(output);
+        return output.toByteArray();
+    }
+
+    @Test
+    @DisplayName("Should send the full file when there is no Range header")
+    void shouldSendFullFile() throws IOException {
+        // Given
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        byte[] body = write(new MockHttpServletRequest("GET", PATH), response);
+
+        // Then
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentLengthLong()).isEqualTo(100);
+        assertThat(response.getHeader(HttpHeaders.ACCEPT_RANGES)).isEqualTo("bytes");
+        assertThat(body).isEqualTo(content);
+    }
+
+    @Test
+    @DisplayName("Should serve a single range with 206 and Content-Range")
+    void shouldServeSingleRange() throws IOException {
+        // Given
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        byte[] body = write(rangeRequest("bytes=10-19"), response);
+
+        // Then
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 10-19/100");
+        assertThat(response.getContentLengthLong()).isEqualTo(10);
+        assertThat(body).isEqualTo(Arrays.copyOfRange(content, 10, 20));
+        verify(downloadFileUseCase).streamRange(eq(file), eq(10L), eq(10L), any(OutputStream.class));
+    }
+
+    @Test
+    @DisplayName("Should serve a suffix range from the end of the file")
+    void shouldServeSuffixRange() throws IOException {
+        // Given
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        byte[] body = write(rangeRequest("bytes=-30"), response);
+
+        // Then
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 70-99/100");
+        assertThat(body).isEqualTo(Arrays.copyOfRange(content, 70, 100));
+    }
+
+    @Test
+    @DisplayName("Should serve an open-ended range up to the end of the file")
+    void shouldServeOpenEndedRange() throws IOException {
+        // Given
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        byte[] body = write(rangeRequest("bytes=95-"), response);
+
+        // Then
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 95-99/100");
+        assertThat(response.getContentLengthLong()).isEqualTo(5);
+        assertThat(body).isEqualTo(Arrays.copyOfRange(content, 95, 100));
+    }
+
+    @Test
+    @DisplayName("Should serve multiple ranges as multipart/byteranges")
+    void shouldServeMultipleRanges() throws IOException {
+        // Given
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        byte[] body = write(rangeRequest("bytes=0-4,50-54"), response);
+
+        // Then
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getContentType()).startsWith("multipart/byteranges; boundary=");
+        String boundary = response.getContentType().substring("multipart/byteranges; boundary=".length());
+        assertThat(response.getContentLengthLong()).isEqualTo(body.length);
+
+        String text = new String(body, StandardCharsets.ISO_8859_1);
+        String expected = "\r\n--" + boundary + "\r\n"
+                + "Content-Type: application/pdf\r\n"
+                + "Content-Range: bytes 0-4/100\r\n\r\n"
+                + new String(content, 0, 5, StandardCharsets.ISO_8859_1)
+                + "\r\n--" + boundary + "\r\n"
+                + "Content-Type: application/pdf\r\n"
+                + "Content-Range: bytes 50-54/100\r\n\r\n"
+                + new String(content, 50, 5, StandardCharsets.ISO_8859_1)
+                + "\r\n--" + boundary + "--\r\n";
+        assertThat(text).isEqualTo(expected);
+    }
+
+    @Test
+    @DisplayName("Should reject overlapping ranges as not satisfiable")
+    void shouldRejectOverlappingRanges() {
+        // Given
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When / Then
+        assertThatThrownBy(() -> writer.prepare(file, "attachment", rangeRequest("bytes=0-9,5-14"), response))
+                .isInstanceOf(RangeNotSatisfiableException.class);
+        assertThat(response.getStatus()).isEqualTo(200);
+        verifyNoInteractions(downloadFileUseCase);
+    }
+
+    @Test
+    @DisplayName("Should reject a range beyond the end of the file as not satisfiable")
+    void shouldRejectUnsatisfiableRange() {
+        // Given
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When / Then
+        assertThatThrownBy(() -> writer.prepare(file, "attachment", rangeRequest("bytes=100-199"), response))
+                .isInstanceOf(RangeNotSatisfiableException.class)
+                .satisfies(e -> assertThat(((RangeNotSatisfiableException) e).getFileSize()).isEqualTo(100));
+        verifyNoInteractions(downloadFileUseCase);
+    }
+
+    @Test
+    @DisplayName("Should serve the range when If-Range matches the entity tag")
+    void shouldServeRangeWhenIfRangeMatches() throws IOException {
+        // Given
+        MockHttpServletRequest request = rangeRequest("bytes=0-9");
+        request.addHeader(HttpHeaders.IF_RANGE, httpCacheSupport.etag(file));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        byte[] body = write(request, response);
+
+        // Then
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(body).isEqualTo(Arrays.copyOfRange(content, 0, 10));
+    }
+
+    @Test
+    @DisplayName("Should send the full file when If-Range carries a stale entity tag")
+    void shouldSendFullFileWhenIfRangeIsStale() throws IOException {
+        // Given
+        MockHttpServletRequest request = rangeRequest("bytes=0-9");
+        request.addHeader(HttpHeaders.IF_RANGE, "\"stale\"");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        byte[] body = write(request, response);
+
+        // Then
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isNull();
+        assertThat(body).isEqualTo(content);
+        verify(downloadFileUseCase, never()).streamRange(any(), anyLong(), anyLong(), any());
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.files.adapter.in.rest;
+
+import com.indra.minsait.dvsmart.files.domain.model.FileMetadata;
+import com.indra.minsait.dvsmart.files.infrastructure.config.FilesConfigProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("HttpCacheSupport Tests")
+class HttpCacheSupportTest {
+
+    private HttpCacheSupport httpCacheSupport;
+    private FileMetadata metadata;
+
+    @BeforeEach
+    void setUp() {
+        httpCacheSupport = new HttpCacheSupport(new FilesConfigProperties());
+        metadata = FileMetadata.builder()
+                .idUnico("abc123")
+                .lastModificationDate(Instant.parse("2025-12-15T10:30:00Z"))
+                .reorgCompletedAt(Instant.parse("2025-12-20T14:30:00Z"))
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should emit validators and Cache-Control on first request")
+    void shouldEmitValidatorsOnFirstRequest() {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/files/abc123/download");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        boolean notModified = httpCacheSupport.checkNotModified(metadata, null, request, response);
+
+        // Then
+        assertThat(notModified).isFalse();
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isEqualTo(httpCacheSupport.etag(metadata));
+        assertThat(response.getDateHeader(HttpHeaders.LAST_MODIFIED))
+                .isEqualTo(metadata.getLastModificationDate().toEpochMilli());
+        assertThat(response.getHeader(HttpHeaders.CACHE_CONTROL)).isEqualTo("max-age=86400, private");
+    }
+
+    @Test
+    @DisplayName("Should answer 304 when If-None-Match matches")
+    void shouldAnswerNotModifiedWhenEtagMatches() {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/files/abc123/download");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, httpCacheSupport.etag(metadata));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        boolean notModified = httpCacheSupport.checkNotModified(metadata, null, request, response);
+
+        // Then
+        assertThat(notModified).isTrue();
+        assertThat(response.getStatus()).isEqualTo(304);
+    }
+
+    @Test
+    @DisplayName("Should change entity tag when file is reorganized again")
+    void shouldChangeEtagWhenFileIsReorganizedAgain() {
+        // Given
+        String originalEtag = httpCacheSupport.etag(metadata);
+
+        // When
+        metadata.setReorgCompletedAt(Instant.parse("2026-01-10T08:00:00Z"));
+
+        // Then
+        assertThat(httpCacheSupport.etag(metadata)).isNotEqualTo(originalEtag);
+        assertThat(httpCacheSupport.etag(metadata, "p1-300x400-png")).isNotEqualTo(httpCacheSupport.etag(metadata));
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.files.adapter.in.rest;
+
+import com.indra.minsait.dvsmart.files.infrastructure.sftp.CustomLazySftpSessionFactory;
+import com.indra.minsait.dvsmart.files.infrastructure.sftp.SshjSessionPool;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("SftpPoolEndpoint Tests")
+class SftpPoolEndpointTest {
+
+    @Mock
+    private CustomLazySftpSessionFactory sftpSessionFactory;
+
+    @Mock
+    private ObjectProvider<SshjSessionPool> sshjSessionPool;
+
+    private SftpPoolEndpoint endpoint;
+
+    @BeforeEach
+    void setUp() {
+        endpoint = new SftpPoolEndpoint(sftpSessionFactory, sshjSessionPool);
+    }
+
+    @Test
+    @DisplayName("Should apply nothing when the pool settings are invalid")
+    void shouldRejectInvalidSettingsBeforeAutoscale() {
+        // Given
+        doThrow(new IllegalArgumentException("Invalid pool settings"))
+                .when(sftpSessionFactory).checkSettings(0, null, null);
+
+        // When / Then
+        assertThatThrownBy(() -> endpoint.configure(0, null, null, true, 5, 40))
+                .isInstanceOf(InvalidEndpointRequestException.class);
+        verify(sftpSessionFactory, never()).configureAutoscale(any(), any(), any());
+        verify(sftpSessionFactory, never()).reconfigure(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should apply nothing when the autoscale bounds are invalid")
+    void shouldRejectInvalidAutoscaleBeforeResize() {
+        // Given
+        doThrow(new IllegalArgumentException("Invalid autoscale bounds"))
+                .when(sftpSessionFactory).checkAutoscale(40, 5);
+
+        // When / Then
+        assertThatThrownBy(() -> endpoint.configure(20, null, null, null, 40, 5))
+                .isInstanceOf(InvalidEndpointRequestException.class);
+        verify(sftpSessionFactory, never()).configureAutoscale(any(), any(), any());
+        verify(sftpSessionFactory, never()).reconfigure(any(), any(), any());
+    }
+}
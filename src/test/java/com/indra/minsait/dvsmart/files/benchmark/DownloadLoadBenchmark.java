@@ -0,0 +1,145 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.files.benchmark;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Load benchmark for the download endpoint.
+ * <p>
+ * Fires a number of concurrent downloads of one file against a running
+ * instance and reports throughput and latency percentiles. Run it once
+ * against an instance started with {@code spring.threads.virtual.enabled=false}
+ * and once with {@code true} to compare both execution modes.
+ * </p>
+ * <pre>
+ * java -cp target/test-classes com.indra.minsait.dvsmart.files.benchmark.DownloadLoadBenchmark \
+ *      http://localhost:8080/dvsmart_files_api &lt;idUnico&gt; [concurrency=10000] [requests=concurrency]
+ * </pre>
+ * Not a unit test: it is excluded from the Surefire run by its name.
+ */
+/**
+ * @author Hector Huaranga <hahuaranga@indracompany.com>
+ * @class DownloadLoadBenchmark
+ * @date 18-10-2026
+ */
+public final class DownloadLoadBenchmark {
+
+    private DownloadLoadBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("Usage: DownloadLoadBenchmark <baseUrl> <idUnico> [concurrency] [requests]");
+            System.exit(1);
+        }
+        String baseUrl = args[0];
+        String idUnico = args[1];
+        int concurrency = args.length > 2 ? Integer.parseInt(args[2]) : 10_000;
+        int requests = args.length > 3 ? Integer.parseInt(args[3]) : concurrency;
+
+        URI uri = URI.create(baseUrl + "/api/files/" + idUnico + "/download");
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(30))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+
+        // Warm-up: JIT, connection and SFTP pools
+        for (int i = 0; i < 20; i++) {
+            download(client, uri);
+        }
+
+        long[] latencies = new long[requests];
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+        AtomicLong bytes = new AtomicLong();
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(concurrency);
+
+        long began;
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < concurrency; c++) {
+                clients.submit(() -> {
+                    try {
+                        start.await();
+                        int i;
+                        while ((i = next.getAndIncrement()) < requests) {
+                            long t0 = System.nanoTime();
+                            long received = download(client, uri);
+                            latencies[i] = System.nanoTime() - t0;
+                            if (received < 0) {
+                                errors.incrementAndGet();
+                            } else {
+                                bytes.addAndGet(received);
+                            }
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        done.countDown();
+                    }
+                    return null;
+                });
+            }
+            began = System.nanoTime();
+            start.countDown();
+            done.await();
+        }
+        double seconds = (System.nanoTime() - began) / 1e9;
+
+        Arrays.sort(latencies);
+        System.out.printf("Requests:    %d (%d concurrent), errors: %d%n", requests, concurrency, errors.get());
+        System.out.printf("Duration:    %.2f s%n", seconds);
+        System.out.printf("Throughput:  %.1f req/s, %.1f MB/s%n",
+                requests / seconds, bytes.get() / seconds / (1024 * 1024));
+        System.out.printf("Latency:     p50 %d ms, p95 %d ms, p99 %d ms, max %d ms%n",
+                percentile(latencies, 50), percentile(latencies, 95),
+                percentile(latencies, 99), latencies[latencies.length - 1] / 1_000_000);
+    }
+
+    /**
+     * Downloads the file and drains the body.
+     *
+     * @return bytes received, or -1 if the request failed
+     */
+    private static long download(HttpClient client, URI uri) {
+        try {
+            HttpResponse<InputStream> response = client.send(
+                    HttpRequest.newBuilder(uri).GET().build(), HttpResponse.BodyHandlers.ofInputStream());
+            try (InputStream body = response.body()) {
+                long received = body.transferTo(OutputStream.nullOutputStream());
+                return response.statusCode() == 200 ? received : -1;
+            }
+        } catch (Exception e) {
+            return -1;
+        }
+    }
+
+    private static long percentile(long[] sorted, int percentile) {
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1_000_000;
+    }
+}
@@ -0,0 +1,191 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.files.benchmark;
+
+import com.indra.minsait.dvsmart.files.domain.port.out.FileContentPort;
+import com.indra.minsait.dvsmart.files.infrastructure.config.FilesConfigProperties;
+import com.indra.minsait.dvsmart.files.infrastructure.config.SftpConfigProperties;
+import com.indra.minsait.dvsmart.files.infrastructure.sftp.CustomLazySftpSessionFactory;
+import com.indra.minsait.dvsmart.files.infrastructure.sftp.SftpTransferReader;
+import com.indra.minsait.dvsmart.files.infrastructure.sftp.SshjSessionPool;
+import com.indra.minsait.dvsmart.files.infrastructure.sftp.SshjTransferReader;
+import com.indra.minsait.dvsmart.files.infrastructure.sftp.adapter.SftpFileContentAdapter;
+import com.indra.minsait.dvsmart.files.infrastructure.sftp.adapter.SshjFileContentAdapter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Benchmark of the two SFTP client libraries behind {@link FileContentPort}.
+ * <p>
+ * Downloads one remote file repeatedly through {@link SftpFileContentAdapter}
+ * (Spring Integration / MINA sshd) and {@link SshjFileContentAdapter}, with
+ * the same pool size and concurrency, and reports throughput and latency
+ * percentiles per download for each. No application context is started:
+ * both adapters talk to the SFTP server directly.
+ * </p>
+ * <pre>
+ * java -cp target/test-classes:target/classes:&lt;dependencies&gt; \
+ *      com.indra.minsait.dvsmart.files.benchmark.SftpClientBenchmark \
+ *      &lt;host&gt; &lt;port&gt; &lt;user&gt; &lt;password&gt; &lt;remotePath&gt; [concurrency=8] [requests=200] [readAhead=false]
+ * </pre>
+ * Not a unit test: it is excluded from the Surefire run by its name.
+ */
+/**
+ * @author Hector Huaranga <hahuaranga@indracompany.com>
+ * @class SftpClientBenchmark
+ * @date 18-10-2026
+ */
+public final class SftpClientBenchmark {
+
+    private SftpClientBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 5) {
+            System.err.println("Usage: SftpClientBenchmark <host> <port> <user> <password> <remotePath>"
+                    + " [concurrency] [requests] [readAhead]");
+            System.exit(1);
+        }
+        String remotePath = args[4];
+        int concurrency = args.length > 5 ? Integer.parseInt(args[5]) : 8;
+        int requests = args.length > 6 ? Integer.parseInt(args[6]) : 200;
+        boolean readAhead = args.length > 7 && Boolean.parseBoolean(args[7]);
+
+        SftpConfigProperties sftpConfig = new SftpConfigProperties();
+        sftpConfig.setHost(args[0]);
+        sftpConfig.setPort(Integer.parseInt(args[1]));
+        sftpConfig.setUser(args[2]);
+        sftpConfig.setPassword(args[3]);
+        sftpConfig.getPool().setMaxSize(concurrency);
+        sftpConfig.getPool().setTestOnBorrow(false);
+
+        FilesConfigProperties filesConfig = new FilesConfigProperties();
+        filesConfig.getDownload().setBufferSize(32768);
+        filesConfig.getDownload().getReadAhead().setEnabled(readAhead);
+
+        System.out.printf("File: %s, %d requests, %d concurrent, read-ahead %s%n%n",
+                remotePath, requests, concurrency, readAhead);
+
+        CustomLazySftpSessionFactory minaFactory = new CustomLazySftpSessionFactory(sftpConfig);
+        try (ExecutorService readAheadExecutor = Executors.newVirtualThreadPerTaskExecutor()) {
+            SftpFileContentAdapter mina = new SftpFileContentAdapter(minaFactory,
+                    new SftpTransferReader(filesConfig, readAheadExecutor, new SimpleMeterRegistry()));
+            run("mina", mina, remotePath, concurrency, requests);
+        } finally {
+            minaFactory.close();
+        }
+
+        SshjSessionPool sshjPool = new SshjSessionPool(sftpConfig, client -> 1);
+        try {
+            SshjFileContentAdapter sshj = new SshjFileContentAdapter(sshjPool,
+                    new SshjTransferReader(filesConfig, new SimpleMeterRegistry()));
+            run("sshj", sshj, remotePath, concurrency, requests);
+        } finally {
+            sshjPool.close();
+        }
+    }
+
+    private static void run(String library, FileContentPort port, String remotePath,
+                            int concurrency, int requests) throws InterruptedException {
+        // Warm-up: JIT and one session per concurrent worker
+        for (int i = 0; i < Math.max(20, concurrency); i++) {
+            download(port, remotePath);
+        }
+
+        long[] latencies = new long[requests];
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+        AtomicLong bytes = new AtomicLong();
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(concurrency);
+
+        long began;
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < concurrency; c++) {
+                workers.submit(() -> {
+                    try {
+                        start.await();
+                        int i;
+                        while ((i = next.getAndIncrement()) < requests) {
+                            long t0 = System.nanoTime();
+                            long received = download(port, remotePath);
+                            latencies[i] = System.nanoTime() - t0;
+                            if (received < 0) {
+                                errors.incrementAndGet();
+                            } else {
+                                bytes.addAndGet(received);
+                            }
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        done.countDown();
+                    }
+                    return null;
+                });
+            }
+            began = System.nanoTime();
+            start.countDown();
+            done.await();
+        }
+        double seconds = (System.nanoTime() - began) / 1e9;
+
+        Arrays.sort(latencies);
+        System.out.printf("[%s]%n", library);
+        System.out.printf("  Duration:    %.2f s, errors: %d%n", seconds, errors.get());
+        System.out.printf("  Throughput:  %.1f downloads/s, %.1f MB/s%n",
+                requests / seconds, bytes.get() / seconds / (1024 * 1024));
+        System.out.printf("  Latency:     p50 %.1f ms, p95 %.1f ms, p99 %.1f ms, max %.1f ms%n%n",
+                percentile(latencies, 50), percentile(latencies, 95),
+                percentile(latencies, 99), latencies[latencies.length - 1] / 1e6);
+    }
+
+    /**
+     * Streams the file to a counting sink.
+     *
+     * @return bytes received, or -1 if the download failed
+     */
+    private static long download(FileContentPort port, String remotePath) {
+        AtomicLong received = new AtomicLong();
+        OutputStream sink = new OutputStream() {
+            @Override
+            public void write(int b) {
+                received.incrementAndGet();
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                received.addAndGet(len);
+            }
+        };
+        try {
+            port.streamFileTo(remotePath, sink);
+            return received.get();
+        } catch (RuntimeException e) {
+            return -1;
+        }
+    }
+
+    private static double percentile(long[] sorted, int percentile) {
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+}
@@ -15,6 +15,7 @@ package com.indra.minsait.dvsmart.files.domain.service;
 
 import com.indra.minsait.dvsmart.files.domain.exception.FileNotAvailableException;
 import com.indra.minsait.dvsmart.files.domain.exception.FileNotFoundException;
+import com.indra.minsait.dvsmart.files.domain.exception.RangeNotSatisfiableException;
 import com.indra.minsait.dvsmart.files.domain.model.FileMetadata;
 import com.indra.minsait.dvsmart.files.domain.port.out.FileContentPort;
 import com.indra.minsait.dvsmart.files.domain.port.out.FileMetadataPort;
@@ -81,7 +82,7 @@ class FileDownloadServiceTest {
         ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
 
         when(fileMetadataPort.findByIdUnico(idUnico)).thenReturn(Optional.of(completedFile));
-        doNothing().when(fileContentPort).streamFileTo(eq(completedFile.getDestinationPath()), any(OutputStream.class));
+        doNothing().when(fileContentPort).streamFileTo(eq(completedFile), any(OutputStream.class));
 
         // When
         FileMetadata result = fileDownloadService.execute(idUnico, outputStream);
@@ -89,7 +90,7 @@ class FileDownloadServiceTest {
         // Then
         assertThat(result).isNotNull();
         assertThat(result.getFileName()).isEqualTo("factura_001.pdf");
-        verify(fileContentPort).streamFileTo(completedFile.getDestinationPath(), outputStream);
+        verify(fileContentPort).streamFileTo(completedFile, outputStream);
     }
 
     @Test
@@ -106,7 +107,7 @@ class FileDownloadServiceTest {
                 .isInstanceOf(FileNotFoundException.class)
                 .hasMessageContaining(idUnico);
 
-        verify(fileContentPort, never()).streamFileTo(any(), any());
+        verify(fileContentPort, never()).streamFileTo(any(FileMetadata.class), any());
     }
 
     @Test
@@ -123,6 +124,34 @@ class FileDownloadServiceTest {
                 .isInstanceOf(FileNotAvailableException.class)
                 .hasMessageContaining("PENDING");
 
-        verify(fileContentPort, never()).streamFileTo(any(), any());
+        verify(fileContentPort, never()).streamFileTo(any(FileMetadata.class), any());
+    }
+
+    @Test
+    @DisplayName("Should stream requested byte range")
+    void shouldStreamRequestedByteRange() {
+        // Given
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        // When
+        fileDownloadService.streamRange(completedFile, 1024L, 4096L, outputStream);
+
+        // Then
+        verify(fileContentPort).streamRangeTo(completedFile, 1024L, 4096L, outputStream);
+    }
+
+    @Test
+    @DisplayName("Should throw RangeNotSatisfiableException when range exceeds file size")
+    void shouldThrowRangeNotSatisfiableExceptionWhenRangeExceedsFileSize() {
+        // Given
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        long fileSize = completedFile.getFileSize();
+
+        // When/Then
+        assertThatThrownBy(() -> fileDownloadService.streamRange(completedFile, fileSize - 10, 100L, outputStream))
+                .isInstanceOf(RangeNotSatisfiableException.class)
+                .hasMessageContaining(completedFile.getIdUnico());
+
+        verify(fileContentPort, never()).streamRangeTo(any(FileMetadata.class), anyLong(), anyLong(), any());
     }
 }
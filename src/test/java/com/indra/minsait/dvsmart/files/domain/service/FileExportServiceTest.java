@@ -0,0 +1,117 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.files.domain.service;
+
+import com.indra.minsait.dvsmart.files.domain.exception.ExportLimitExceededException;
+import com.indra.minsait.dvsmart.files.domain.exception.FileNotAvailableException;
+import com.indra.minsait.dvsmart.files.domain.exception.FileNotFoundException;
+import com.indra.minsait.dvsmart.files.domain.model.FileMetadata;
+import com.indra.minsait.dvsmart.files.domain.model.SearchCriteria;
+import com.indra.minsait.dvsmart.files.domain.port.out.FileArchivePort;
+import com.indra.minsait.dvsmart.files.domain.port.out.FileMetadataPort;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("FileExportService Tests")
+class FileExportServiceTest {
+
+    private static final String ID_1 = "a".repeat(64);
+    private static final String ID_2 = "b".repeat(64);
+
+    @Mock
+    private FileMetadataPort fileMetadataPort;
+
+    @Mock
+    private FileArchivePort fileArchivePort;
+
+    @InjectMocks
+    private FileExportService fileExportService;
+
+    private FileMetadata completedFile1;
+    private FileMetadata completedFile2;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(fileExportService, "maxFiles", 2);
+        completedFile1 = FileMetadata.builder().idUnico(ID_1).fileName("factura_001.pdf").reorgStatus("COMPLETED").build();
+        completedFile2 = FileMetadata.builder().idUnico(ID_2).fileName("factura_002.pdf").reorgStatus("COMPLETED").build();
+    }
+
+    @Test
+    @DisplayName("Should resolve ids in requested order")
+    void shouldResolveIdsInRequestedOrder() {
+        // Given
+        when(fileMetadataPort.findByIdUnicoIn(any())).thenReturn(List.of(completedFile1, completedFile2));
+
+        // When
+        List<FileMetadata> files = fileExportService.resolve(List.of(ID_2, ID_1, ID_2));
+
+        // Then
+        assertThat(files).containsExactly(completedFile2, completedFile1);
+    }
+
+    @Test
+    @DisplayName("Should throw FileNotFoundException when an id does not exist")
+    void shouldThrowWhenIdNotFound() {
+        // Given
+        when(fileMetadataPort.findByIdUnicoIn(any())).thenReturn(List.of(completedFile1));
+
+        // When / Then
+        assertThatThrownBy(() -> fileExportService.resolve(List.of(ID_1, ID_2)))
+                .isInstanceOf(FileNotFoundException.class);
+    }
+
+    @Test
+    @DisplayName("Should throw FileNotAvailableException when a file is not reorganized")
+    void shouldThrowWhenFileNotAvailable() {
+        // Given
+        completedFile2.setReorgStatus("PENDING");
+        when(fileMetadataPort.findByIdUnicoIn(any())).thenReturn(List.of(completedFile1, completedFile2));
+
+        // When / Then
+        assertThatThrownBy(() -> fileExportService.resolve(List.of(ID_1, ID_2)))
+                .isInstanceOf(FileNotAvailableException.class);
+    }
+
+    @Test
+    @DisplayName("Should reject criteria matching more files than allowed")
+    void shouldRejectCriteriaExceedingLimit() {
+        // Given
+        SearchCriteria criteria = SearchCriteria.builder().codigoCliente("CLI001").build();
+        FileMetadata extra = FileMetadata.builder().idUnico("c".repeat(64)).reorgStatus("COMPLETED").build();
+        when(fileMetadataPort.findAll(eq(criteria), anyInt())).thenReturn(List.of(completedFile1, completedFile2, extra));
+
+        // When / Then
+        assertThatThrownBy(() -> fileExportService.resolve(criteria))
+                .isInstanceOf(ExportLimitExceededException.class);
+        verify(fileMetadataPort).findAll(criteria, 3);
+        verifyNoInteractions(fileArchivePort);
+    }
+}
@@ -0,0 +1,208 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.files.infrastructure.archive;
+
+import com.indra.minsait.dvsmart.files.domain.model.ArchiveFormat;
+import com.indra.minsait.dvsmart.files.domain.model.FileMetadata;
+import com.indra.minsait.dvsmart.files.domain.port.out.FileContentPort;
+import com.indra.minsait.dvsmart.files.infrastructure.config.FilesConfigProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("StreamingArchiveAdapter Tests")
+class StreamingArchiveAdapterTest {
+
+    @Mock
+    private FileContentPort fileContentPort;
+
+    private ExecutorService executor;
+    private StreamingArchiveAdapter adapter;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(4);
+        FilesConfigProperties config = new FilesConfigProperties();
+        config.getExport().setPrefetch(2);
+        config.getExport().setPrefetchBufferKb(64);
+        adapter = new StreamingArchiveAdapter(fileContentPort, executor, config);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Should write readable ZIP with entries in order and report failed files")
+    void shouldWriteZipAndReportFailures() throws Exception {
+        // Given
+        FileMetadata first = file("a", "factura.pdf", "first content");
+        FileMetadata failing = file("b", "roto.pdf", "never read");
+        FileMetadata duplicate = file("c", "factura.pdf", "second content");
+        stubContent(first, "first content");
+        doThrow(new IllegalStateException("SFTP down"))
+                .when(fileContentPort).streamFileTo(eq(failing), any(OutputStream.class));
+        stubContent(duplicate, "second content");
+        ByteArrayOutputStream archive = new ByteArrayOutputStream();
+
+        // When
+        adapter.writeArchive(List.of(first, failing, duplicate), ArchiveFormat.ZIP, archive);
+
+        // Then
+        Map<String, String> entries = readZip(archive.toByteArray());
+        assertThat(entries.keySet()).containsExactly(
+                "factura.pdf", "factura_cccccccc.pdf", StreamingArchiveAdapter.ERRORS_ENTRY);
+        assertThat(entries.get("factura.pdf")).isEqualTo("first content");
+        assertThat(entries.get("factura_cccccccc.pdf")).isEqualTo("second content");
+        assertThat(entries.get(StreamingArchiveAdapter.ERRORS_ENTRY)).contains(failing.getIdUnico(), "SFTP down");
+    }
+
+    @Test
+    @DisplayName("Should write TAR entries padded to 512-byte blocks")
+    void shouldWriteTarEntries() {
+        // Given
+        FileMetadata single = file("a", "factura.pdf", "tar content");
+        stubContent(single, "tar content");
+        ByteArrayOutputStream archive = new ByteArrayOutputStream();
+
+        // When
+        adapter.writeArchive(List.of(single), ArchiveFormat.TAR, archive);
+
+        // Then: header + one data block + two end-of-archive blocks
+        byte[] bytes = archive.toByteArray();
+        assertThat(bytes).hasSize(512 * 4);
+        assertThat(new String(bytes, 0, 11, StandardCharsets.US_ASCII)).isEqualTo("factura.pdf");
+        assertThat(new String(bytes, 257, 5, StandardCharsets.US_ASCII)).isEqualTo("ustar");
+        assertThat(new String(bytes, 512, 11, StandardCharsets.US_ASCII)).isEqualTo("tar content");
+    }
+
+    @Test
+    @DisplayName("Should keep entry names unique when a suffixed name is already taken")
+    void shouldKeepEntryNamesUnique() throws Exception {
+        // Given
+        FileMetadata suffixedName = file("a", "factura_bbbbbbbb.pdf", "a");
+        FileMetadata original = file("c", "factura.pdf", "c");
+        FileMetadata duplicate = file("b", "factura.pdf", "b");
+        FileMetadata reportName = file("d", StreamingArchiveAdapter.ERRORS_ENTRY, "d");
+        FileMetadata failing = file("e", "roto.pdf", "e");
+        for (FileMetadata file : List.of(suffixedName, original, duplicate, reportName)) {
+            stubContent(file, file.getIdUnico().substring(0, 1));
+        }
+        doThrow(new IllegalStateException("SFTP down"))
+                .when(fileContentPort).streamFileTo(eq(failing), any(OutputStream.class));
+        ByteArrayOutputStream archive = new ByteArrayOutputStream();
+
+        // When
+        adapter.writeArchive(List.of(suffixedName, original, duplicate, reportName, failing),
+                ArchiveFormat.ZIP, archive);
+
+        // Then
+        Map<String, String> entries = readZip(archive.toByteArray());
+        assertThat(entries.keySet()).containsExactly("factura_bbbbbbbb.pdf", "factura.pdf",
+                "factura_bbbbbbbb-2.pdf", "ERRORS_dddddddd.txt", StreamingArchiveAdapter.ERRORS_ENTRY);
+        assertThat(entries.get("factura_bbbbbbbb-2.pdf")).isEqualTo("b");
+        assertThat(entries.get("ERRORS_dddddddd.txt")).isEqualTo("d");
+    }
+
+    @Test
+    @DisplayName("Should fetch at most prefetch files ahead of the one being written")
+    void shouldBoundPrefetchWindow() throws Exception {
+        // Given
+        List<FileMetadata> files = List.of(file("a", "1.pdf", "1"), file("b", "2.pdf", "2"),
+                file("c", "3.pdf", "3"), file("d", "4.pdf", "4"), file("e", "5.pdf", "5"));
+        AtomicInteger started = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            started.incrementAndGet();
+            FileMetadata file = invocation.getArgument(0);
+            if (file == files.get(0)) {
+                release.await(5, TimeUnit.SECONDS);
+            }
+            invocation.<OutputStream>getArgument(1).write(file.getFileName().getBytes(StandardCharsets.UTF_8), 0, 1);
+            return null;
+        }).when(fileContentPort).streamFileTo(any(FileMetadata.class), any(OutputStream.class));
+        ByteArrayOutputStream archive = new ByteArrayOutputStream();
+
+        // When
+        CompletableFuture<Void> export = CompletableFuture.runAsync(
+                () -> adapter.writeArchive(files, ArchiveFormat.ZIP, archive));
+        while (started.get() < 3) {
+            Thread.onSpinWait();
+        }
+        Thread.sleep(200);
+
+        // Then: the entry being written plus prefetch=2
+        assertThat(started.get()).isEqualTo(3);
+        release.countDown();
+        export.get(5, TimeUnit.SECONDS);
+        assertThat(readZip(archive.toByteArray())).hasSize(5);
+    }
+
+    private FileMetadata file(String idChar, String fileName, String content) {
+        return FileMetadata.builder()
+                .idUnico(idChar.repeat(64))
+                .fileName(fileName)
+                .fileSize((long) content.length())
+                .lastModificationDate(Instant.parse("2025-12-15T10:30:00Z"))
+                .reorgStatus("COMPLETED")
+                .build();
+    }
+
+    private void stubContent(FileMetadata file, String content) {
+        doAnswer(invocation -> {
+            invocation.<OutputStream>getArgument(1).write(content.getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(fileContentPort).streamFileTo(eq(file), any(OutputStream.class));
+    }
+
+    private static Map<String, String> readZip(byte[] bytes) throws Exception {
+        Map<String, String> entries = new LinkedHashMap<>();
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(bytes))) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                entries.put(entry.getName(), new String(zip.readAllBytes(), StandardCharsets.UTF_8));
+            }
+        }
+        return entries;
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.files.infrastructure.cache;
+
+import com.indra.minsait.dvsmart.files.domain.model.FileMetadata;
+import com.indra.minsait.dvsmart.files.domain.port.out.FileContentPort;
+import com.indra.minsait.dvsmart.files.infrastructure.config.FilesConfigProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("BlockCachingFileContentAdapter Tests")
+class BlockCachingFileContentAdapterTest {
+
+    private static final int KB = 1024;
+
+    @Mock
+    private FileContentPort delegate;
+
+    private FilesConfigProperties.BlockCacheConfig config;
+    private byte[] content;
+    private FileMetadata file;
+
+    @BeforeEach
+    void setUp() {
+        config = new FilesConfigProperties.BlockCacheConfig();
+        config.setEnabled(true);
+        config.setMaxSizeMb(1);
+        config.setBlockSizeKb(1);
+
+        content = new byte[4 * KB];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) i;
+        }
+        file = FileMetadata.builder()
+                .idUnico("a1b2c3")
+                .destinationPath("/organized_data/a1/b2/c3/factura_001.pdf")
+                .fileSize((long) content.length)
+                .lastModificationDate(Instant.parse("2026-10-18T10:00:00Z"))
+                .build();
+
+        lenient().doAnswer(invocation -> {
+            long offset = invocation.getArgument(1);
+            long length = invocation.getArgument(2);
+            OutputStream out = invocation.getArgument(3);
+            out.write(content, (int) offset, (int) length);
+            return null;
+        }).when(delegate).streamRangeTo(any(FileMetadata.class), anyLong(), anyLong(), any(OutputStream.class));
+    }
+
+    private BlockCachingFileContentAdapter adapter() {
+        return new BlockCachingFileContentAdapter(delegate, new BlockCache(config, new SimpleMeterRegistry()));
+    }
+
+    private byte[] range(BlockCachingFileContentAdapter adapter, long offset, long length) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        adapter.streamRangeTo(file, offset, length, output);
+        return output.toByteArray();
+    }
+
+    @Test
+    @DisplayName("Should serve a repeated range from cached blocks")
+    void shouldServeRepeatedRangeFromCache() {
+        // Given
+        BlockCachingFileContentAdapter adapter = adapter();
+        range(adapter, 100, 1500);
+
+        // When
+        byte[] second = range(adapter, 100, 1500);
+
+        // Then
+        assertThat(second).isEqualTo(Arrays.copyOfRange(content, 100, 1600));
+        verify(delegate, times(1)).streamRangeTo(eq(file), eq(0L), eq(2L * KB), any(OutputStream.class));
+        verifyNoMoreInteractions(delegate);
+    }
+
+    @Test
+    @DisplayName("Should combine cached blocks with range reads of the missing ones")
+    void shouldCombineCachedAndMissingBlocks() {
+        // Given
+        BlockCachingFileContentAdapter adapter = adapter();
+        range(adapter, 0, KB);
+        range(adapter, 2 * KB, KB);
+        clearInvocations(delegate);
+
+        // When
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        adapter.streamFileTo(file, output);
+
+        // Then
+        assertThat(output.toByteArray()).isEqualTo(content);
+        verify(delegate).streamRangeTo(eq(file), eq((long) KB), eq((long) KB), any(OutputStream.class));
+        verify(delegate).streamRangeTo(eq(file), eq(3L * KB), eq((long) KB), any(OutputStream.class));
+        verifyNoMoreInteractions(delegate);
+    }
+
+    @Test
+    @DisplayName("Should evict the least recently used block when the arena is full")
+    void shouldEvictLeastRecentlyUsedBlock() {
+        // Given
+        config.setBlockSizeKb(512);
+        content = new byte[3 * 512 * KB];
+        file.setFileSize((long) content.length);
+        BlockCachingFileContentAdapter adapter = adapter();
+        range(adapter, 0, 1);
+        range(adapter, 512 * KB, 1);
+        range(adapter, 0, 1);
+        clearInvocations(delegate);
+
+        // When
+        range(adapter, 1024 * KB, 1);
+        range(adapter, 0, 1);
+        range(adapter, 512 * KB, 1);
+
+        // Then
+        verify(delegate).streamRangeTo(eq(file), eq(1024L * KB), eq(512L * KB), any(OutputStream.class));
+        verify(delegate).streamRangeTo(eq(file), eq(512L * KB), eq(512L * KB), any(OutputStream.class));
+        verifyNoMoreInteractions(delegate);
+    }
+
+    @Test
+    @DisplayName("Should pass ranges larger than the maximum read size through")
+    void shouldBypassLargeRange() {
+        // Given
+        config.setMaxFileSizeMb(1);
+        content = new byte[2 * 1024 * KB];
+        file.setFileSize((long) content.length);
+        BlockCachingFileContentAdapter adapter = adapter();
+        range(adapter, 0, 1024 * KB + 1);
+
+        // When
+        byte[] second = range(adapter, 0, 1024 * KB + 1);
+
+        // Then
+        assertThat(second).isEqualTo(Arrays.copyOfRange(content, 0, 1024 * KB + 1));
+        verify(delegate, times(2)).streamRangeTo(eq(file), eq(0L), eq(1024L * KB + 1), any(OutputStream.class));
+        verifyNoMoreInteractions(delegate);
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.files.infrastructure.cache;
+
+import com.indra.minsait.dvsmart.files.domain.model.FileMetadata;
+import com.indra.minsait.dvsmart.files.domain.port.out.FileContentPort;
+import com.indra.minsait.dvsmart.files.infrastructure.config.FilesConfigProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("DiskCachingFileContentAdapter Tests")
+class DiskCachingFileContentAdapterTest {
+
+    @Mock
+    private FileContentPort delegate;
+
+    @TempDir
+    Path directory;
+
+    private MeterRegistry meterRegistry;
+    private DiskContentCache cache;
+    private DiskCachingFileContentAdapter adapter;
+    private byte[] content;
+    private FileMetadata file;
+
+    @BeforeEach
+    void setUp() {
+        FilesConfigProperties.DiskCacheConfig config = new FilesConfigProperties.DiskCacheConfig();
+        config.setEnabled(true);
+        config.setDirectory(directory.toString());
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new DiskContentCache(config, meterRegistry);
+        adapter = new DiskCachingFileContentAdapter(delegate, cache);
+
+        content = new byte[8192];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) i;
+        }
+        file = FileMetadata.builder()
+                .idUnico("a1b2c3")
+                .destinationPath("/organized_data/a1/b2/c3/factura_001.pdf")
+                .fileSize((long) content.length)
+                .lastModificationDate(Instant.parse("2026-10-18T10:00:00Z"))
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        cache.close();
+    }
+
+    private void serve(byte[] bytes) {
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(1);
+            out.write(bytes);
+            return null;
+        }).when(delegate).streamFileTo(any(FileMetadata.class), any(OutputStream.class));
+    }
+
+    @Test
+    @DisplayName("Should cache a file on its first read and serve it from disk afterwards")
+    void shouldServeSecondReadFromDisk() {
+        // Given
+        serve(content);
+        ByteArrayOutputStream first = new ByteArrayOutputStream();
+        adapter.streamFileTo(file, first);
+
+        // When
+        ByteArrayOutputStream second = new ByteArrayOutputStream();
+        adapter.streamFileTo(file, second);
+
+        // Then
+        assertThat(first.toByteArray()).isEqualTo(content);
+        assertThat(second.toByteArray()).isEqualTo(content);
+        verify(delegate, times(1)).streamFileTo(any(FileMetadata.class), any(OutputStream.class));
+        assertThat(meterRegistry.counter("files.cache.requests", "tier", "disk", "result", "hit").count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should serve a range of a cached file without the delegate")
+    void shouldServeRangeFromDisk() {
+        // Given
+        serve(content);
+        adapter.streamFileTo(file, new ByteArrayOutputStream());
+
+        // When
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        adapter.streamRangeTo(file, 1000, 500, output);
+
+        // Then
+        assertThat(output.toByteArray()).isEqualTo(Arrays.copyOfRange(content, 1000, 1500));
+        verify(delegate, never()).streamRangeTo(any(FileMetadata.class), anyLong(), anyLong(), any(OutputStream.class));
+    }
+
+    @Test
+    @DisplayName("Should not cache a transfer shorter than the catalogued size")
+    void shouldNotCacheTruncatedTransfer() {
+        // Given
+        serve(Arrays.copyOf(content, 100));
+
+        // When
+        adapter.streamFileTo(file, new ByteArrayOutputStream());
+
+        // Then
+        assertThat(adapter.findLocalCopy(file)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should expose the cached copy for zero-copy serving")
+    void shouldFindLocalCopy() {
+        // Given
+        when(delegate.getFileContent(file)).thenReturn(content);
+        adapter.getFileContent(file);
+
+        // When / Then
+        assertThat(adapter.findLocalCopy(file)).isPresent();
+        assertThat(adapter.getFileContent(file)).isEqualTo(content);
+        verify(delegate, times(1)).getFileContent(file);
+    }
+}
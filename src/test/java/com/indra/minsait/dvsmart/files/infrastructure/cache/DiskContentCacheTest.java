@@ -0,0 +1,170 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.files.infrastructure.cache;
+
+import com.indra.minsait.dvsmart.files.domain.model.FileMetadata;
+import com.indra.minsait.dvsmart.files.infrastructure.config.FilesConfigProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("DiskContentCache Tests")
+class DiskContentCacheTest {
+
+    private static final int KB = 1024;
+
+    @TempDir
+    Path directory;
+
+    private FilesConfigProperties.DiskCacheConfig config;
+    private DiskContentCache cache;
+
+    @BeforeEach
+    void setUp() {
+        config = new FilesConfigProperties.DiskCacheConfig();
+        config.setEnabled(true);
+        config.setDirectory(directory.toString());
+        config.setMaxSizeMb(1);
+        cache = new DiskContentCache(config, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        cache.close();
+    }
+
+    private static FileMetadata file(String id, int size) {
+        return FileMetadata.builder()
+                .idUnico(id)
+                .destinationPath("/organized_data/" + id + ".pdf")
+                .fileSize((long) size)
+                .lastModificationDate(Instant.parse("2026-10-18T10:00:00Z"))
+                .build();
+    }
+
+    private static byte[] content(int size, int seed) {
+        byte[] content = new byte[size];
+        for (int i = 0; i < size; i++) {
+            content[i] = (byte) (i + seed);
+        }
+        return content;
+    }
+
+    @Test
+    @DisplayName("Should serve a stored file from disk")
+    void shouldStoreAndLookUp() throws IOException {
+        // Given
+        FileMetadata file = file("a1b2c3", 4 * KB);
+        byte[] content = content(4 * KB, 1);
+
+        // When
+        cache.store(file, content);
+
+        // Then
+        Optional<Path> cached = cache.lookup(file);
+        assertThat(cached).isPresent();
+        assertThat(Files.readAllBytes(cached.get())).isEqualTo(content);
+    }
+
+    @Test
+    @DisplayName("Should not cache content whose size differs from the catalog")
+    void shouldDiscardIncompleteContent() throws IOException {
+        // Given
+        FileMetadata file = file("a1b2c3", 4 * KB);
+
+        // When
+        cache.store(file, content(KB, 1));
+
+        // Then
+        assertThat(cache.lookup(file)).isEmpty();
+        try (Stream<Path> files = Files.list(directory)) {
+            assertThat(files).isEmpty();
+        }
+    }
+
+    @Test
+    @DisplayName("Should discard a writer closed without commit")
+    void shouldDiscardUncommittedWriter() throws IOException {
+        // Given
+        FileMetadata file = file("a1b2c3", 4 * KB);
+
+        // When
+        try (DiskContentCache.Writer writer = cache.openWriter(file)) {
+            writer.write(content(4 * KB, 1));
+        }
+
+        // Then
+        assertThat(cache.lookup(file)).isEmpty();
+        try (Stream<Path> files = Files.list(directory)) {
+            assertThat(files).isEmpty();
+        }
+    }
+
+    @Test
+    @DisplayName("Should write a re-cached file to a new path, out of reach of the pending delete")
+    void shouldRecacheUnderNewGeneration() throws IOException {
+        // Given
+        FileMetadata hot = file("hot", 600 * KB);
+        cache.store(hot, content(600 * KB, 1));
+        Path evicted = cache.lookup(hot).orElseThrow();
+        cache.store(file("other", 600 * KB), content(600 * KB, 2));
+        assertThat(cache.lookup(hot)).isEmpty();
+
+        // When
+        cache.store(hot, content(600 * KB, 1));
+
+        // Then
+        Path recached = cache.lookup(hot).orElseThrow();
+        assertThat(recached).isNotEqualTo(evicted);
+        assertThat(Files.readAllBytes(recached)).isEqualTo(content(600 * KB, 1));
+    }
+
+    @Test
+    @DisplayName("Should rebuild the index from the cache directory")
+    void shouldRebuildIndexOnStartup() throws IOException {
+        // Given
+        FileMetadata file = file("a1b2c3", 4 * KB);
+        FileMetadata legacy = file("d4e5f6", 2 * KB);
+        cache.store(file, content(4 * KB, 1));
+        Files.write(directory.resolve(CacheKeys.of(legacy) + ".pdf"), content(2 * KB, 3));
+        Files.write(directory.resolve("leftover.tmp"), content(KB, 4));
+        cache.close();
+
+        // When
+        cache = new DiskContentCache(config, new SimpleMeterRegistry());
+
+        // Then
+        assertThat(Files.readAllBytes(cache.lookup(file).orElseThrow())).isEqualTo(content(4 * KB, 1));
+        assertThat(Files.readAllBytes(cache.lookup(legacy).orElseThrow())).isEqualTo(content(2 * KB, 3));
+        assertThat(directory.resolve("leftover.tmp")).doesNotExist();
+
+        // A second copy of a cached file must not overwrite the one on disk
+        Path before = cache.lookup(file).orElseThrow();
+        cache.store(file, content(4 * KB, 1));
+        assertThat(cache.lookup(file)).contains(before);
+        assertThat(Files.readAllBytes(before)).isEqualTo(content(4 * KB, 1));
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.files.infrastructure.cache;
+
+import com.indra.minsait.dvsmart.files.domain.model.FileMetadata;
+import com.indra.minsait.dvsmart.files.domain.port.out.FileContentPort;
+import com.indra.minsait.dvsmart.files.infrastructure.config.FilesConfigProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("OffHeapCachingFileContentAdapter Tests")
+class OffHeapCachingFileContentAdapterTest {
+
+    private static final int KB = 1024;
+
+    @Mock
+    private FileContentPort delegate;
+
+    private MeterRegistry meterRegistry;
+    private OffHeapContentCache cache;
+    private OffHeapCachingFileContentAdapter adapter;
+
+    @BeforeEach
+    void setUp() {
+        FilesConfigProperties.MemoryCacheConfig config = new FilesConfigProperties.MemoryCacheConfig();
+        config.setEnabled(true);
+        config.setMaxSizeMb(1);
+        config.setMaxFileSizeKb(1024);
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new OffHeapContentCache(config, meterRegistry);
+        adapter = new OffHeapCachingFileContentAdapter(delegate, cache);
+    }
+
+    private static FileMetadata file(String id, long size) {
+        return FileMetadata.builder()
+                .idUnico(id)
+                .destinationPath("/organized_data/" + id + ".pdf")
+                .lastModificationDate(Instant.parse("2025-12-15T10:30:00Z"))
+                .fileSize(size)
+                .build();
+    }
+
+    private void serve(byte[] content) {
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(1);
+            out.write(content);
+            return null;
+        }).when(delegate).streamFileTo(any(FileMetadata.class), any(OutputStream.class));
+    }
+
+    @Test
+    @DisplayName("Should cache a file on its first read and serve it from memory afterwards")
+    void shouldServeSecondReadFromMemory() {
+        // Given
+        byte[] content = new byte[100 * KB];
+        Arrays.fill(content, (byte) 7);
+        FileMetadata file = file("abc123", content.length);
+        serve(content);
+        adapter.streamFileTo(file, new ByteArrayOutputStream());
+
+        // When
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        adapter.streamFileTo(file, output);
+
+        // Then
+        assertThat(output.toByteArray()).isEqualTo(content);
+        verify(delegate, times(1)).streamFileTo(any(FileMetadata.class), any(OutputStream.class));
+    }
+
+    @Test
+    @DisplayName("Should not cache when buffers being filled already hold the budget")
+    void shouldSkipCachingWhenBudgetIsReserved() {
+        // Given
+        Optional<ByteBuffer> held = cache.allocate(file("inflight", 1024 * KB));
+        byte[] content = new byte[100 * KB];
+        FileMetadata file = file("abc123", content.length);
+        serve(content);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // When
+        adapter.streamFileTo(file, output);
+
+        // Then
+        assertThat(held).isPresent();
+        verify(delegate).streamFileTo(eq(file), eq(output));
+        assertThat(output.size()).isEqualTo(content.length);
+        assertThat(cache.lookup(file)).isEmpty();
+        assertThat(meterRegistry.counter("files.cache.skipped", "tier", "memory").count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should release the reservation of a read that failed")
+    void shouldReleaseReservationOnFailure() {
+        // Given
+        FileMetadata file = file("abc123", 1024 * KB);
+        doThrow(new IllegalStateException("SFTP down"))
+                .when(delegate).streamFileTo(any(FileMetadata.class), any(OutputStream.class));
+
+        // When
+        assertThatThrownBy(() -> adapter.streamFileTo(file, new ByteArrayOutputStream()))
+                .isInstanceOf(IllegalStateException.class);
+
+        // Then
+        assertThat(cache.allocate(file)).isPresent();
+    }
+
+    @Test
+    @DisplayName("Should count a range of an uncached file as a miss")
+    void shouldCountRangeMiss() {
+        // Given
+        FileMetadata file = file("abc123", 100 * KB);
+
+        // When
+        adapter.streamRangeTo(file, 0, 10, new ByteArrayOutputStream());
+
+        // Then
+        verify(delegate).streamRangeTo(eq(file), eq(0L), eq(10L), any(OutputStream.class));
+        assertThat(meterRegistry.counter("files.cache.requests", "tier", "memory", "result", "miss").count())
+                .isEqualTo(1);
+    }
+}
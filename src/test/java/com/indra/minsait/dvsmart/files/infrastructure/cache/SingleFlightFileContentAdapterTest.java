@@ -0,0 +1,362 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.files.infrastructure.cache;
+
+import com.indra.minsait.dvsmart.files.domain.model.FileMetadata;
+import com.indra.minsait.dvsmart.files.domain.port.out.FileContentPort;
+import com.indra.minsait.dvsmart.files.infrastructure.config.FilesConfigProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("SingleFlightFileContentAdapter Tests")
+class SingleFlightFileContentAdapterTest {
+
+    private static final byte[] CONTENT = "%PDF-1.7 shared content".getBytes(StandardCharsets.US_ASCII);
+
+    @Mock
+    private FileContentPort delegate;
+
+    @TempDir
+    Path spoolDirectory;
+
+    private FilesConfigProperties.CoalescingConfig config;
+    private ExecutorService executor;
+    private MeterRegistry meterRegistry;
+    private SingleFlightFileContentAdapter adapter;
+    private FileMetadata file;
+
+    @BeforeEach
+    void setUp() {
+        config = new FilesConfigProperties.CoalescingConfig();
+        config.setEnabled(true);
+        config.setSpoolDirectory(spoolDirectory.toString());
+        config.setFollowTimeoutMillis(5_000);
+        executor = Executors.newCachedThreadPool();
+        meterRegistry = new SimpleMeterRegistry();
+        adapter = adapter();
+        file = FileMetadata.builder()
+                .idUnico("a1b2c3")
+                .fileSize((long) CONTENT.length)
+                .lastModificationDate(Instant.parse("2025-12-15T10:30:00Z"))
+                .destinationPath("/organized_data/a1/b2/c3/factura_001.pdf")
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private SingleFlightFileContentAdapter adapter() {
+        return new SingleFlightFileContentAdapter(delegate, config, 4, executor, meterRegistry);
+    }
+
+    private long spoolFileCount() throws IOException {
+        try (var spoolFiles = Files.list(spoolDirectory)) {
+            return spoolFiles.count();
+        }
+    }
+
+    private void awaitFollowers(int count) {
+        while (meterRegistry.counter("files.coalescing.requests", "role", "follower").count() < count) {
+            Thread.onSpinWait();
+        }
+    }
+
+    @Test
+    @DisplayName("Should fetch once and share content with concurrent requests")
+    void shouldFetchOnceForConcurrentRequests() throws Exception {
+        // Given
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(1);
+            out.write(CONTENT, 0, 8);
+            leaderStarted.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            out.write(CONTENT, 8, CONTENT.length - 8);
+            return null;
+        }).when(delegate).streamFileTo(any(FileMetadata.class), any(OutputStream.class));
+
+        // When
+        CompletableFuture<byte[]> leader = CompletableFuture.supplyAsync(() -> adapter.getFileContent(file));
+        assertThat(leaderStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<byte[]> follower = CompletableFuture.supplyAsync(() -> adapter.getFileContent(file));
+        awaitFollowers(1);
+        release.countDown();
+
+        // Then
+        assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo(CONTENT);
+        assertThat(follower.get(5, TimeUnit.SECONDS)).isEqualTo(CONTENT);
+        verify(delegate, times(1)).streamFileTo(any(FileMetadata.class), any(OutputStream.class));
+        verify(delegate, never()).streamRangeTo(any(FileMetadata.class), anyLong(), anyLong(), any(OutputStream.class));
+        try (var spoolFiles = Files.list(spoolDirectory)) {
+            assertThat(spoolFiles).isEmpty();
+        }
+    }
+
+    @Test
+    @DisplayName("Should read the file once when many requests join late")
+    void shouldReadOnceWhenFollowersJoinLate() throws Exception {
+        // Given
+        config.setMemoryBufferKb(1);
+        adapter = adapter();
+        byte[] content = new byte[3 * 1024];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) i;
+        }
+        file.setFileSize((long) content.length);
+        CountDownLatch halfSent = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(1);
+            // Past the memory part, so late requests read from memory and from the spool file
+            out.write(content, 0, 2 * 1024);
+            halfSent.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            out.write(content, 2 * 1024, 1024);
+            return null;
+        }).when(delegate).streamFileTo(any(FileMetadata.class), any(OutputStream.class));
+
+        // When
+        CompletableFuture<byte[]> leader = CompletableFuture.supplyAsync(() -> adapter.getFileContent(file));
+        assertThat(halfSent.await(5, TimeUnit.SECONDS)).isTrue();
+        List<CompletableFuture<byte[]>> followers = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            followers.add(CompletableFuture.supplyAsync(() -> adapter.getFileContent(file)));
+        }
+        awaitFollowers(5);
+        release.countDown();
+
+        // Then
+        assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo(content);
+        for (CompletableFuture<byte[]> follower : followers) {
+            assertThat(follower.get(5, TimeUnit.SECONDS)).isEqualTo(content);
+        }
+        verify(delegate, times(1)).streamFileTo(any(FileMetadata.class), any(OutputStream.class));
+        verify(delegate, never()).streamRangeTo(any(FileMetadata.class), anyLong(), anyLong(), any(OutputStream.class));
+        // The spool file goes with the last participant, which may be the read itself
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (spoolFileCount() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(spoolFileCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should not pace other requests by a slow client")
+    void shouldNotPaceFollowersBySlowClient() throws Exception {
+        // Given
+        CountDownLatch fetchStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            fetchStarted.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            invocation.<OutputStream>getArgument(1).write(CONTENT);
+            return null;
+        }).when(delegate).streamFileTo(any(FileMetadata.class), any(OutputStream.class));
+        CountDownLatch unblockClient = new CountDownLatch(1);
+        ByteArrayOutputStream slowClient = new ByteArrayOutputStream() {
+            @Override
+            public synchronized void write(byte[] b, int off, int len) {
+                try {
+                    unblockClient.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.write(b, off, len);
+            }
+        };
+
+        // When
+        CompletableFuture<Void> leader = CompletableFuture.runAsync(() -> adapter.streamFileTo(file, slowClient));
+        assertThat(fetchStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<byte[]> follower = CompletableFuture.supplyAsync(() -> adapter.getFileContent(file));
+        awaitFollowers(1);
+        release.countDown();
+
+        // Then
+        assertThat(follower.get(5, TimeUnit.SECONDS)).isEqualTo(CONTENT);
+        assertThat(leader).isNotDone();
+        unblockClient.countDown();
+        leader.get(5, TimeUnit.SECONDS);
+        assertThat(slowClient.toByteArray()).isEqualTo(CONTENT);
+    }
+
+    @Test
+    @DisplayName("Should propagate origin failure and start a new fetch afterwards")
+    void shouldPropagateFailureAndRetryOnNextRequest() {
+        // Given
+        doThrow(new IllegalStateException("SFTP down"))
+                .doAnswer(invocation -> {
+                    invocation.<OutputStream>getArgument(1).write(CONTENT);
+                    return null;
+                })
+                .when(delegate).streamFileTo(any(FileMetadata.class), any(OutputStream.class));
+
+        // When / Then
+        assertThatThrownBy(() -> adapter.getFileContent(file)).isInstanceOf(IllegalStateException.class);
+        assertThat(adapter.getFileContent(file)).isEqualTo(CONTENT);
+        verify(delegate, times(2)).streamFileTo(any(FileMetadata.class), any(OutputStream.class));
+    }
+
+    @Test
+    @DisplayName("Should stop the fetch when every client is gone")
+    void shouldStopFetchWithoutClients() throws Exception {
+        // Given
+        CountDownLatch clientGone = new CountDownLatch(1);
+        CompletableFuture<IOException> stopped = new CompletableFuture<>();
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(1);
+            out.write(CONTENT);
+            clientGone.await(5, TimeUnit.SECONDS);
+            try {
+                out.write(CONTENT);
+            } catch (IOException e) {
+                stopped.complete(e);
+                throw new UncheckedIOException(e);
+            }
+            return null;
+        }).when(delegate).streamFileTo(any(FileMetadata.class), any(OutputStream.class));
+        OutputStream failingClient = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        };
+
+        // When
+        assertThatThrownBy(() -> adapter.streamFileTo(file, failingClient))
+                .isInstanceOf(UncheckedIOException.class);
+        clientGone.countDown();
+
+        // Then
+        assertThat(stopped.get(5, TimeUnit.SECONDS)).hasMessageContaining("No client left");
+    }
+
+    @Test
+    @DisplayName("Should bypass coalescing for files without version information")
+    void shouldBypassFilesWithoutVersion() {
+        // Given
+        file.setLastModificationDate(null);
+        when(delegate.getFileContent(file)).thenReturn(CONTENT);
+
+        // When
+        byte[] content = adapter.getFileContent(file);
+
+        // Then
+        assertThat(content).isEqualTo(CONTENT);
+        verify(delegate, never()).streamFileTo(any(FileMetadata.class), any(OutputStream.class));
+    }
+
+    @Test
+    @DisplayName("Should keep small files in memory")
+    void shouldNotSpoolSmallFiles() {
+        // Given
+        doAnswer(invocation -> {
+            invocation.<OutputStream>getArgument(1).write(CONTENT);
+            try (var spoolFiles = Files.list(spoolDirectory)) {
+                assertThat(spoolFiles).isEmpty();
+            }
+            return null;
+        }).when(delegate).streamFileTo(any(FileMetadata.class), any(OutputStream.class));
+
+        // When
+        byte[] content = adapter.getFileContent(file);
+
+        // Then
+        assertThat(content).isEqualTo(CONTENT);
+    }
+
+    @Test
+    @DisplayName("Should accept catalogued sizes beyond the array limit")
+    void shouldAcceptHugeCataloguedSize() {
+        // Given
+        file.setFileSize(3L * 1024 * 1024 * 1024);
+        doAnswer(invocation -> {
+            invocation.<OutputStream>getArgument(1).write(CONTENT);
+            return null;
+        }).when(delegate).streamFileTo(any(FileMetadata.class), any(OutputStream.class));
+
+        // When
+        byte[] content = adapter.getFileContent(file);
+
+        // Then
+        assertThat(content).isEqualTo(CONTENT);
+    }
+
+    @Test
+    @DisplayName("Should fail a follower when the fetch it waits on stalls")
+    void shouldFailFollowerWhenFetchStalls() throws Exception {
+        // Given
+        config.setFollowTimeoutMillis(100);
+        adapter = adapter();
+        CountDownLatch fetchStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            fetchStarted.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            invocation.<OutputStream>getArgument(1).write(CONTENT);
+            return null;
+        }).when(delegate).streamFileTo(any(FileMetadata.class), any(OutputStream.class));
+
+        // When
+        CompletableFuture<byte[]> request = CompletableFuture.supplyAsync(() -> adapter.getFileContent(file));
+        assertThat(fetchStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // Then
+        assertThatThrownBy(() -> request.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(UncheckedIOException.class)
+                .hasMessageContaining("No data from in-flight fetch");
+        release.countDown();
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.files.infrastructure.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("WeightedLruCache Tests")
+class WeightedLruCacheTest {
+
+    private List<String> evictedKeys;
+    private WeightedLruCache<String, Long> cache;
+
+    @BeforeEach
+    void setUp() {
+        evictedKeys = new ArrayList<>();
+        cache = new WeightedLruCache<>(100, Long::longValue, (key, value) -> evictedKeys.add(key));
+    }
+
+    @Test
+    @DisplayName("Should evict least recently used entries when over budget")
+    void shouldEvictLeastRecentlyUsedEntriesWhenOverBudget() {
+        // Given
+        cache.putIfAbsent("a", 40L);
+        cache.putIfAbsent("b", 40L);
+        cache.get("a");
+
+        // When
+        cache.putIfAbsent("c", 40L);
+
+        // Then
+        assertThat(evictedKeys).containsExactly("b");
+        assertThat(cache.get("a")).isEqualTo(40L);
+        assertThat(cache.get("c")).isEqualTo(40L);
+        assertThat(cache.weight()).isEqualTo(80L);
+    }
+
+    @Test
+    @DisplayName("Should reject values larger than the budget")
+    void shouldRejectValuesLargerThanBudget() {
+        // When
+        boolean cached = cache.putIfAbsent("huge", 101L);
+
+        // Then
+        assertThat(cached).isFalse();
+        assertThat(cache.size()).isZero();
+        assertThat(evictedKeys).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should keep existing value when key is already cached")
+    void shouldKeepExistingValueWhenKeyAlreadyCached() {
+        // Given
+        cache.putIfAbsent("a", 10L);
+
+        // When
+        boolean cached = cache.putIfAbsent("a", 20L);
+
+        // Then
+        assertThat(cached).isFalse();
+        assertThat(cache.get("a")).isEqualTo(10L);
+        assertThat(cache.weight()).isEqualTo(10L);
+    }
+
+    @Test
+    @DisplayName("Should trim least recently used entries down to a target weight")
+    void shouldTrimToTargetWeight() {
+        // Given
+        cache.putIfAbsent("a", 30L);
+        cache.putIfAbsent("b", 30L);
+        cache.putIfAbsent("c", 30L);
+        cache.get("a");
+
+        // When
+        cache.trimTo(40);
+
+        // Then
+        assertThat(evictedKeys).containsExactly("b", "c");
+        assertThat(cache.get("a")).isEqualTo(30L);
+        assertThat(cache.weight()).isEqualTo(30L);
+    }
+}
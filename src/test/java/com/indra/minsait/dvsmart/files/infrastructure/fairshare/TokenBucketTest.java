@@ -0,0 +1,79 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.files.infrastructure.fairshare;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("TokenBucket Tests")
+class TokenBucketTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    @DisplayName("Should allow one second of burst and then pace writes at the configured rate")
+    void shouldAllowBurstThenPaceAtRate() {
+        // Given
+        TokenBucket bucket = new TokenBucket(1000, clock::get);
+
+        // When
+        long burstWait = bucket.reserve(1000);
+        long overdraftWait = bucket.reserve(500);
+
+        // Then
+        assertThat(burstWait).isZero();
+        assertThat(overdraftWait).isEqualTo(TimeUnit.MILLISECONDS.toNanos(500));
+    }
+
+    @Test
+    @DisplayName("Should refill over time without exceeding capacity")
+    void shouldRefillWithoutExceedingCapacity() {
+        // Given
+        TokenBucket bucket = new TokenBucket(1000, clock::get);
+        bucket.reserve(1000);
+
+        // When
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(10));
+
+        // Then
+        assertThat(bucket.reserve(1000)).isZero();
+        assertThat(bucket.reserve(1)).isPositive();
+    }
+
+    @Test
+    @DisplayName("Should write every byte through the throttled stream")
+    void shouldWriteEveryByteThroughThrottledStream() throws Exception {
+        // Given
+        ByteArrayOutputStream target = new ByteArrayOutputStream();
+        ThrottledOutputStream throttled = new ThrottledOutputStream(target, new TokenBucket(1 << 20));
+        byte[] data = new byte[100_000];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) i;
+        }
+
+        // When
+        throttled.write(data, 0, data.length);
+        throttled.write(7);
+
+        // Then
+        assertThat(target.size()).isEqualTo(data.length + 1);
+        assertThat(target.toByteArray()[data.length - 1]).isEqualTo(data[data.length - 1]);
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.files.infrastructure.resilience;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("CircuitBreaker Tests")
+class CircuitBreakerTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    @DisplayName("Should open after consecutive failures and reject calls while open")
+    void shouldOpenAfterConsecutiveFailures() {
+        // Given
+        CircuitBreaker breaker = new CircuitBreaker(3, 10_000, clock::get);
+
+        // When
+        breaker.onFailure();
+        breaker.onFailure();
+        boolean allowedBeforeThreshold = breaker.tryAcquire();
+        breaker.onFailure();
+
+        // Then
+        assertThat(allowedBeforeThreshold).isTrue();
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.tryAcquire()).isFalse();
+        assertThat(breaker.getRetryAfterMillis()).isEqualTo(10_000);
+    }
+
+    @Test
+    @DisplayName("Should let a single trial call through once the open period elapses")
+    void shouldAllowSingleTrialWhenHalfOpen() {
+        // Given
+        CircuitBreaker breaker = new CircuitBreaker(1, 10_000, clock::get);
+        breaker.onFailure();
+
+        // When
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(10));
+        boolean trial = breaker.tryAcquire();
+        boolean concurrent = breaker.tryAcquire();
+        breaker.onSuccess();
+
+        // Then
+        assertThat(trial).isTrue();
+        assertThat(concurrent).isFalse();
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(breaker.tryAcquire()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should reopen when the trial call fails")
+    void shouldReopenWhenTrialFails() {
+        // Given
+        CircuitBreaker breaker = new CircuitBreaker(5, 10_000, clock::get);
+        for (int i = 0; i < 5; i++) {
+            breaker.onFailure();
+        }
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(10));
+
+        // When
+        breaker.tryAcquire();
+        breaker.onFailure();
+
+        // Then
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.tryAcquire()).isFalse();
+    }
+}
@@ -0,0 +1,256 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.files.infrastructure.resilience;
+
+import com.indra.minsait.dvsmart.files.domain.exception.SftpConnectionException;
+import com.indra.minsait.dvsmart.files.domain.port.out.FileContentPort;
+import com.indra.minsait.dvsmart.files.infrastructure.config.SftpConfigProperties;
+import com.indra.minsait.dvsmart.files.infrastructure.sftp.CustomLazySftpSessionFactory;
+import com.indra.minsait.dvsmart.files.infrastructure.sftp.SftpTransferReader;
+import com.indra.minsait.dvsmart.files.infrastructure.sftp.adapter.SftpFileContentAdapter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.integration.sftp.session.SftpSession;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("HedgingFileContentAdapter Tests")
+class HedgingFileContentAdapterTest {
+
+    private static final String PATH = "/organized_data/a1/b2/c3/factura_001.pdf";
+
+    @Mock
+    private FileContentPort delegate;
+
+    private ExecutorService executor;
+    private MeterRegistry meterRegistry;
+    private SftpConfigProperties.HedgingConfig config;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newCachedThreadPool();
+        meterRegistry = new SimpleMeterRegistry();
+        config = new SftpConfigProperties.HedgingConfig();
+        config.setEnabled(true);
+        config.setInitialDelayMillis(50);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Should hedge a slow read and stream only the winner's bytes")
+    void shouldHedgeSlowRead() {
+        // Given
+        AtomicInteger attempt = new AtomicInteger();
+        CountDownLatch slowRead = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(1);
+            if (attempt.incrementAndGet() == 1) {
+                slowRead.await(5, TimeUnit.SECONDS);
+            }
+            out.write("hedged".getBytes(StandardCharsets.US_ASCII));
+            return null;
+        }).when(delegate).streamFileTo(eq(PATH), any(OutputStream.class));
+        HedgingFileContentAdapter adapter = new HedgingFileContentAdapter(
+                delegate, config, executor, () -> true, meterRegistry);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // When
+        adapter.streamFileTo(PATH, output);
+
+        // Then
+        assertThat(output.toString(StandardCharsets.US_ASCII)).isEqualTo("hedged");
+        assertThat(meterRegistry.counter("sftp.hedge.fired").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter("sftp.hedge.won").count()).isEqualTo(1);
+        slowRead.countDown();
+    }
+
+    @Test
+    @DisplayName("Should record the time to first byte of a primary beaten by the hedge")
+    void shouldRecordFirstByteOfLosingPrimary() throws Exception {
+        // Given
+        AtomicInteger attempt = new AtomicInteger();
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(1);
+            if (attempt.incrementAndGet() == 1) {
+                Thread.sleep(300);
+            }
+            out.write("hedged".getBytes(StandardCharsets.US_ASCII));
+            return null;
+        }).when(delegate).streamFileTo(eq(PATH), any(OutputStream.class));
+        List<Long> samples = new CopyOnWriteArrayList<>();
+        HedgingFileContentAdapter adapter = new HedgingFileContentAdapter(
+                delegate, config, executor, () -> true, recordingTracker(samples), meterRegistry);
+
+        // When
+        adapter.streamFileTo(PATH, new ByteArrayOutputStream());
+        executor.shutdown();
+        assertThat(executor.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+
+        // Then
+        assertThat(meterRegistry.counter("sftp.hedge.won").count()).isEqualTo(1);
+        assertThat(samples).hasSize(2);
+        assertThat(Collections.max(samples)).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(300));
+    }
+
+    @Test
+    @DisplayName("Should record the silence of a primary failing after losing as a lower bound")
+    void shouldRecordLowerBoundOfFailedPrimary() throws Exception {
+        // Given
+        AtomicInteger attempt = new AtomicInteger();
+        doAnswer(invocation -> {
+            if (attempt.incrementAndGet() == 1) {
+                Thread.sleep(300);
+                throw new SftpConnectionException("Failed to stream file");
+            }
+            OutputStream out = invocation.getArgument(1);
+            out.write("hedged".getBytes(StandardCharsets.US_ASCII));
+            return null;
+        }).when(delegate).streamFileTo(eq(PATH), any(OutputStream.class));
+        List<Long> samples = new CopyOnWriteArrayList<>();
+        HedgingFileContentAdapter adapter = new HedgingFileContentAdapter(
+                delegate, config, executor, () -> true, recordingTracker(samples), meterRegistry);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // When
+        adapter.streamFileTo(PATH, output);
+        executor.shutdown();
+        assertThat(executor.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+
+        // Then
+        assertThat(output.toString(StandardCharsets.US_ASCII)).isEqualTo("hedged");
+        assertThat(samples).hasSize(2);
+        assertThat(Collections.max(samples)).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(300));
+    }
+
+    @Test
+    @DisplayName("Should not hedge when no session is free")
+    void shouldSkipHedgeWithoutSpareCapacity() {
+        // Given
+        doAnswer(invocation -> {
+            Thread.sleep(150);
+            OutputStream out = invocation.getArgument(1);
+            out.write(1);
+            return null;
+        }).when(delegate).streamFileTo(eq(PATH), any(OutputStream.class));
+        HedgingFileContentAdapter adapter = new HedgingFileContentAdapter(
+                delegate, config, executor, () -> false, meterRegistry);
+
+        // When
+        adapter.streamFileTo(PATH, new ByteArrayOutputStream());
+
+        // Then
+        verify(delegate, times(1)).streamFileTo(eq(PATH), any(OutputStream.class));
+        assertThat(meterRegistry.counter("sftp.hedge.skipped").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter("sftp.hedge.fired").count()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should propagate a failure of the read without hedging it")
+    void shouldPropagateFailureWithoutHedging() {
+        // Given
+        when(delegate.getFileContent(PATH)).thenThrow(new SftpConnectionException("Failed to get file content"));
+        HedgingFileContentAdapter adapter = new HedgingFileContentAdapter(
+                delegate, config, executor, () -> true, meterRegistry);
+
+        // When / Then
+        assertThatThrownBy(() -> adapter.getFileContent(PATH)).isInstanceOf(SftpConnectionException.class);
+        verify(delegate, times(1)).getFileContent(PATH);
+        assertThat(meterRegistry.counter("sftp.hedge.fired").count()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should return the session of the losing read and keep the circuit closed")
+    void shouldReturnSessionOfLosingRead() throws Exception {
+        // Given
+        CustomLazySftpSessionFactory sessionFactory = mock(CustomLazySftpSessionFactory.class);
+        SftpTransferReader transferReader = mock(SftpTransferReader.class);
+        SftpSession primarySession = mock(SftpSession.class);
+        SftpSession hedgeSession = mock(SftpSession.class);
+        when(sessionFactory.getSession()).thenReturn(primarySession, hedgeSession);
+        CountDownLatch slowRead = new CountDownLatch(1);
+        byte[] content = "hedged".getBytes(StandardCharsets.US_ASCII);
+        when(transferReader.transfer(any(SftpSession.class), eq(PATH), anyLong(), anyLong(), any(OutputStream.class)))
+                .thenAnswer(invocation -> {
+                    if (invocation.getArgument(0) == primarySession) {
+                        slowRead.await(5, TimeUnit.SECONDS);
+                    }
+                    OutputStream out = invocation.getArgument(4);
+                    out.write(content);
+                    return (long) content.length;
+                });
+        CircuitBreaker breaker = new CircuitBreaker(1, 10_000);
+        SftpConfigProperties.ResilienceConfig resilienceConfig = new SftpConfigProperties.ResilienceConfig();
+        resilienceConfig.setEnabled(true);
+        SftpFileContentAdapter sftpAdapter = new SftpFileContentAdapter(sessionFactory, transferReader);
+        ResilientFileContentAdapter resilient = new ResilientFileContentAdapter(
+                sftpAdapter, resilienceConfig, sftpAdapter::stat, breaker, meterRegistry);
+        HedgingFileContentAdapter adapter = new HedgingFileContentAdapter(
+                resilient, config, executor, () -> true, meterRegistry);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // When
+        adapter.streamFileTo(PATH, output);
+        slowRead.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+
+        // Then
+        assertThat(output.toString(StandardCharsets.US_ASCII)).isEqualTo("hedged");
+        verify(sessionFactory).returnSession(primarySession);
+        verify(sessionFactory).returnSession(hedgeSession);
+        verify(sessionFactory, never()).invalidateSession(any());
+        verify(transferReader, times(2)).transfer(any(SftpSession.class), eq(PATH), anyLong(), anyLong(),
+                any(OutputStream.class));
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    private LatencyTracker recordingTracker(List<Long> samples) {
+        return new LatencyTracker(config.getSampleWindow(), config.getPercentile()) {
+            @Override
+            void record(long nanos) {
+                samples.add(nanos);
+                super.record(nanos);
+            }
+        };
+    }
+}
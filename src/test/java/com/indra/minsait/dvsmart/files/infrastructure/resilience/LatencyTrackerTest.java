@@ -0,0 +1,71 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.files.infrastructure.resilience;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("LatencyTracker Tests")
+class LatencyTrackerTest {
+
+    @Test
+    @DisplayName("Should report no percentile until enough samples were recorded")
+    void shouldReportNothingBeforeMinimumSamples() {
+        // Given
+        LatencyTracker tracker = new LatencyTracker(100, 95);
+
+        // When
+        for (int i = 0; i < LatencyTracker.MIN_SAMPLES - 1; i++) {
+            tracker.record(1_000);
+        }
+
+        // Then
+        assertThat(tracker.getPercentileNanos()).isEqualTo(-1);
+    }
+
+    @Test
+    @DisplayName("Should compute the percentile of the recorded samples")
+    void shouldComputePercentile() {
+        // Given
+        LatencyTracker tracker = new LatencyTracker(100, 95);
+
+        // When
+        for (int i = 1; i <= 100; i++) {
+            tracker.record(i);
+        }
+
+        // Then
+        assertThat(tracker.getPercentileNanos()).isBetween(90L, 95L);
+    }
+
+    @Test
+    @DisplayName("Should forget samples that left the window")
+    void shouldOnlyConsiderRecentSamples() {
+        // Given
+        LatencyTracker tracker = new LatencyTracker(32, 50);
+        for (int i = 0; i < 32; i++) {
+            tracker.record(1_000_000);
+        }
+
+        // When
+        for (int i = 0; i < 32; i++) {
+            tracker.record(10);
+        }
+
+        // Then
+        assertThat(tracker.getPercentileNanos()).isEqualTo(10);
+    }
+}
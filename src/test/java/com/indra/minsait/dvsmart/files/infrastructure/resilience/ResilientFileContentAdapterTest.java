@@ -0,0 +1,192 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.files.infrastructure.resilience;
+
+import com.indra.minsait.dvsmart.files.domain.exception.SftpConnectionException;
+import com.indra.minsait.dvsmart.files.domain.exception.SftpUnavailableException;
+import com.indra.minsait.dvsmart.files.domain.port.out.FileContentPort;
+import com.indra.minsait.dvsmart.files.infrastructure.config.SftpConfigProperties;
+import com.indra.minsait.dvsmart.files.infrastructure.sftp.RemoteFileStat;
+import com.indra.minsait.dvsmart.files.infrastructure.sftp.SftpTransferReader;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.sshd.sftp.common.SftpException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.net.ConnectException;
+import java.time.Instant;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ResilientFileContentAdapter Tests")
+class ResilientFileContentAdapterTest {
+
+    private static final String PATH = "/organized_data/a1/b2/c3/factura_001.pdf";
+
+    @Mock
+    private FileContentPort delegate;
+
+    @Mock
+    private Function<String, RemoteFileStat> stat;
+
+    private SftpConfigProperties.ResilienceConfig config;
+
+    @BeforeEach
+    void setUp() {
+        config = new SftpConfigProperties.ResilienceConfig();
+        config.setEnabled(true);
+        config.setMaxAttempts(3);
+        config.setInitialBackoffMillis(0);
+    }
+
+    private ResilientFileContentAdapter adapter(CircuitBreaker breaker) {
+        return new ResilientFileContentAdapter(delegate, config, stat, breaker, new SimpleMeterRegistry());
+    }
+
+    private static SftpConnectionException connectionFailure() {
+        return new SftpConnectionException("Failed to get file content: " + PATH,
+                new ConnectException("Connection refused"));
+    }
+
+    @Test
+    @DisplayName("Should retry transient failures until the operation succeeds")
+    void shouldRetryTransientFailures() {
+        // Given
+        when(delegate.getFileContent(PATH))
+                .thenThrow(connectionFailure())
+                .thenReturn(new byte[]{1, 2, 3});
+
+        // When
+        byte[] content = adapter(new CircuitBreaker(5, 10_000)).getFileContent(PATH);
+
+        // Then
+        assertThat(content).containsExactly(1, 2, 3);
+        verify(delegate, times(2)).getFileContent(PATH);
+    }
+
+    @Test
+    @DisplayName("Should fail fast without calling the server while the circuit is open")
+    void shouldFailFastWhileOpen() {
+        // Given
+        config.setMaxAttempts(1);
+        when(delegate.fileExists(PATH)).thenThrow(connectionFailure());
+        ResilientFileContentAdapter adapter = adapter(new CircuitBreaker(1, 10_000));
+        assertThatThrownBy(() -> adapter.fileExists(PATH)).isInstanceOf(SftpConnectionException.class);
+
+        // When / Then
+        assertThatThrownBy(() -> adapter.fileExists(PATH))
+                .isInstanceOf(SftpUnavailableException.class)
+                .satisfies(e -> assertThat(((SftpUnavailableException) e).getRetryAfterSeconds()).isEqualTo(10));
+        verify(delegate, times(1)).fileExists(PATH);
+    }
+
+    @Test
+    @DisplayName("Should not retry once bytes were written to the caller")
+    void shouldNotRetryAfterPartialWrite() {
+        // Given
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(1);
+            out.write(new byte[]{1, 2, 3}, 0, 3);
+            throw connectionFailure();
+        }).when(delegate).streamFileTo(eq(PATH), any(OutputStream.class));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // When / Then
+        assertThatThrownBy(() -> adapter(new CircuitBreaker(5, 10_000)).streamFileTo(PATH, output))
+                .isInstanceOf(SftpConnectionException.class);
+        verify(delegate, times(1)).streamFileTo(eq(PATH), any(OutputStream.class));
+        assertThat(output.toByteArray()).containsExactly(1, 2, 3);
+    }
+
+    @Test
+    @DisplayName("Should resume a broken stream from the last byte written")
+    void shouldResumeAfterPartialWrite() {
+        // Given
+        config.setMaxResumes(2);
+        when(stat.apply(PATH)).thenReturn(new RemoteFileStat(5, Instant.parse("2026-10-18T10:00:00Z")));
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(1);
+            out.write(new byte[]{1, 2, 3}, 0, 3);
+            throw connectionFailure();
+        }).when(delegate).streamFileTo(eq(PATH), any(OutputStream.class));
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(3);
+            out.write(new byte[]{4, 5}, 0, 2);
+            return null;
+        }).when(delegate).streamRangeTo(eq(PATH), eq(3L), eq(SftpTransferReader.UNTIL_EOF), any(OutputStream.class));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // When
+        adapter(new CircuitBreaker(5, 10_000)).streamFileTo(PATH, output);
+
+        // Then
+        assertThat(output.toByteArray()).containsExactly(1, 2, 3, 4, 5);
+        verify(delegate, times(1)).streamFileTo(eq(PATH), any(OutputStream.class));
+    }
+
+    @Test
+    @DisplayName("Should neither retry nor open the circuit on SFTP status replies")
+    void shouldNotCountServerReplies() {
+        // Given
+        CircuitBreaker breaker = new CircuitBreaker(1, 10_000);
+        when(delegate.getFileContent(PATH)).thenThrow(new SftpConnectionException(
+                "Failed to get file content: " + PATH, new SftpException(2, "No such file")));
+
+        // When / Then
+        assertThatThrownBy(() -> adapter(breaker).getFileContent(PATH))
+                .isInstanceOf(SftpConnectionException.class)
+                .isNotInstanceOf(SftpUnavailableException.class);
+        verify(delegate, times(1)).getFileContent(PATH);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    @DisplayName("Should fail instead of resuming when the remote file changed")
+    void shouldNotResumeChangedFile() {
+        // Given
+        config.setMaxResumes(2);
+        CircuitBreaker breaker = new CircuitBreaker(5, 10_000);
+        when(stat.apply(PATH)).thenReturn(
+                new RemoteFileStat(5, Instant.parse("2026-10-18T10:00:00Z")),
+                new RemoteFileStat(7, Instant.parse("2026-10-18T10:05:00Z")));
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(1);
+            out.write(new byte[]{1, 2, 3}, 0, 3);
+            throw connectionFailure();
+        }).when(delegate).streamFileTo(eq(PATH), any(OutputStream.class));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // When / Then
+        assertThatThrownBy(() -> adapter(breaker).streamFileTo(PATH, output))
+                .isInstanceOf(SftpConnectionException.class)
+                .hasMessageContaining("Remote file changed");
+        verify(delegate, never()).streamRangeTo(anyString(), anyLong(), anyLong(), any(OutputStream.class));
+        verify(stat, times(2)).apply(PATH);
+        assertThat(output.toByteArray()).containsExactly(1, 2, 3);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.files.infrastructure.segmented;
+
+import com.indra.minsait.dvsmart.files.domain.model.FileMetadata;
+import com.indra.minsait.dvsmart.files.domain.port.out.FileContentPort;
+import com.indra.minsait.dvsmart.files.infrastructure.config.FilesConfigProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("SegmentedFileContentAdapter Tests")
+class SegmentedFileContentAdapterTest {
+
+    private static final int MB = 1024 * 1024;
+
+    @Mock
+    private FileContentPort delegate;
+
+    private ExecutorService executor;
+    private MeterRegistry meterRegistry;
+    private FilesConfigProperties.SegmentedConfig config;
+    private byte[] content;
+    private FileMetadata file;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newCachedThreadPool();
+        meterRegistry = new SimpleMeterRegistry();
+        config = new FilesConfigProperties.SegmentedConfig();
+        config.setThresholdMb(2);
+        config.setSegmentSizeMb(1);
+        config.setParallelism(4);
+        content = new byte[5 * MB + 123];
+        new Random(11).nextBytes(content);
+        file = FileMetadata.builder()
+                .idUnico("a1b2c3")
+                .fileSize((long) content.length)
+                .destinationPath("/organized_data/a1/b2/c3/contrato_escaneado.pdf")
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Should reassemble segments fetched in parallel in order")
+    void shouldReassembleParallelSegmentsInOrder() {
+        // Given
+        serveRangesWithRandomDelay();
+        SegmentedFileContentAdapter adapter = new SegmentedFileContentAdapter(delegate, config, executor,
+                () -> true, meterRegistry);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        adapter.streamFileTo(file, out);
+
+        // Then
+        assertThat(out.toByteArray()).isEqualTo(content);
+        assertThat(meterRegistry.counter("files.download.segments", "mode", "parallel").count()).isPositive();
+        verify(delegate, never()).streamFileTo(any(FileMetadata.class), any(OutputStream.class));
+    }
+
+    @Test
+    @DisplayName("Should read segments one after another when the pool has no spare sessions")
+    void shouldReadSequentiallyWithoutSpareCapacity() {
+        // Given
+        serveRangesWithRandomDelay();
+        SegmentedFileContentAdapter adapter = new SegmentedFileContentAdapter(delegate, config, executor,
+                () -> false, meterRegistry);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        adapter.streamRangeTo(file, 100, 3 * MB, out);
+
+        // Then
+        byte[] expected = new byte[3 * MB];
+        System.arraycopy(content, 100, expected, 0, expected.length);
+        assertThat(out.toByteArray()).isEqualTo(expected);
+        assertThat(meterRegistry.counter("files.download.segments", "mode", "parallel").count()).isZero();
+        assertThat(meterRegistry.counter("files.download.segments", "mode", "inline").count()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should stream files below the threshold in one read")
+    void shouldStreamSmallFilesInOneRead() {
+        // Given
+        config.setThresholdMb(64);
+        SegmentedFileContentAdapter adapter = new SegmentedFileContentAdapter(delegate, config, executor,
+                () -> true, meterRegistry);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        adapter.streamFileTo(file, out);
+
+        // Then
+        verify(delegate).streamFileTo(eq(file), eq(out));
+        assertThat(meterRegistry.counter("files.download.segmented").count()).isZero();
+    }
+
+    private void serveRangesWithRandomDelay() {
+        doAnswer(invocation -> {
+            long offset = invocation.getArgument(1);
+            long length = invocation.getArgument(2);
+            TimeUnit.MILLISECONDS.sleep(new Random().nextInt(10));
+            invocation.<OutputStream>getArgument(3).write(content, (int) offset, (int) length);
+            return null;
+        }).when(delegate).streamRangeTo(any(FileMetadata.class), anyLong(), anyLong(), any(OutputStream.class));
+    }
+}
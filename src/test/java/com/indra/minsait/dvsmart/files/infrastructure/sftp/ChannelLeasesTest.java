@@ -0,0 +1,130 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.files.infrastructure.sftp;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("ChannelLeases Tests")
+class ChannelLeasesTest {
+
+    private List<String> borrowed;
+    private List<String> givenBack;
+    private List<String> discarded;
+    private ChannelLeases.ChannelSource<String> source;
+
+    @BeforeEach
+    void setUp() {
+        borrowed = new ArrayList<>();
+        givenBack = new ArrayList<>();
+        discarded = new ArrayList<>();
+        source = new ChannelLeases.ChannelSource<>() {
+            @Override
+            public String borrow(long timeoutMillis) {
+                String channel = "channel-" + (borrowed.size() + 1);
+                borrowed.add(channel);
+                return channel;
+            }
+
+            @Override
+            public void giveBack(String channel) {
+                givenBack.add(channel);
+            }
+
+            @Override
+            public void discard(String channel) {
+                discarded.add(channel);
+            }
+        };
+    }
+
+    @Test
+    @DisplayName("Should share a channel until it is full before borrowing another")
+    void shouldShareChannelUntilFull() throws Exception {
+        // Given
+        ChannelLeases<String> leases = new ChannelLeases<>(source, 2, 2);
+
+        // When
+        String first = leases.acquire(-1);
+        String second = leases.acquire(-1);
+        String third = leases.acquire(-1);
+
+        // Then
+        assertThat(second).isEqualTo(first);
+        assertThat(third).isNotEqualTo(first);
+        assertThat(borrowed).hasSize(2);
+        assertThat(leases.getActiveLeases()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should give the channel back to the pool when its last lease is released")
+    void shouldGiveBackChannelAfterLastLease() throws Exception {
+        // Given
+        ChannelLeases<String> leases = new ChannelLeases<>(source, 2, 4);
+        String channel = leases.acquire(-1);
+        leases.acquire(-1);
+
+        // When
+        leases.release(channel, true);
+        List<String> afterFirstRelease = new ArrayList<>(givenBack);
+        leases.release(channel, true);
+
+        // Then
+        assertThat(afterFirstRelease).isEmpty();
+        assertThat(givenBack).containsExactly(channel);
+        assertThat(leases.release(channel, true)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should retire a failed channel only after the transfers still using it finish")
+    void shouldRetireFailedChannelAfterRemainingTransfers() throws Exception {
+        // Given
+        ChannelLeases<String> leases = new ChannelLeases<>(source, 2, 4);
+        String channel = leases.acquire(-1);
+        leases.acquire(-1);
+
+        // When
+        leases.release(channel, false);
+        String next = leases.acquire(-1);
+        List<String> discardedWhileInUse = new ArrayList<>(discarded);
+        leases.release(channel, true);
+
+        // Then
+        assertThat(next).isNotEqualTo(channel);
+        assertThat(discardedWhileInUse).isEmpty();
+        assertThat(discarded).containsExactly(channel);
+        assertThat(givenBack).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should time out when every channel is full")
+    void shouldTimeOutWhenAllChannelsFull() throws Exception {
+        // Given
+        ChannelLeases<String> leases = new ChannelLeases<>(source, 1, 1);
+        leases.acquire(-1);
+
+        // When / Then
+        assertThatThrownBy(() -> leases.acquire(20))
+                .isInstanceOf(NoSuchElementException.class);
+        assertThat(borrowed).hasSize(1);
+    }
+}
@@ -0,0 +1,199 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.files.infrastructure.sftp;
+
+import com.indra.minsait.dvsmart.files.infrastructure.config.SftpConfigProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.Answer;
+import org.springframework.integration.sftp.session.SftpSession;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@DisplayName("CustomLazySftpSessionFactory Tests")
+class CustomLazySftpSessionFactoryTest {
+
+    private AtomicLong nanos;
+    private Map<String, SftpEndpointPool> endpoints;
+    private Map<SftpSession, SftpEndpointPool> owners;
+    private CustomLazySftpSessionFactory factory;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        nanos = new AtomicLong();
+        endpoints = new LinkedHashMap<>();
+
+        SftpConfigProperties config = new SftpConfigProperties();
+        config.setFailoverCooldownMillis(1000);
+        config.getPool().setMaxSize(2);
+        config.getPool().setMaxWaitMillis(100);
+        config.getEndpoints().add(endpoint("a"));
+        config.getEndpoints().add(endpoint("b"));
+
+        factory = new CustomLazySftpSessionFactory(config, client -> 1, new SimpleMeterRegistry(),
+                (cfg, endpoint, sessionOwners, metrics) -> {
+                    owners = sessionOwners;
+                    SftpEndpointPool pool = spy(new SftpEndpointPool(cfg, endpoint, sessionOwners, metrics,
+                            nanos::get));
+                    endpoints.put(endpoint.getName(), pool);
+                    return pool;
+                });
+
+        // No server behind the endpoints: borrows hand out mock sessions
+        for (SftpEndpointPool pool : endpoints.values()) {
+            doAnswer(opensSession(pool)).when(pool).borrow(anyLong());
+            doReturn(true).when(pool).giveBack(any());
+            doReturn(true).when(pool).discard(any());
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        factory.close();
+    }
+
+    private static SftpConfigProperties.EndpointConfig endpoint(String name) {
+        SftpConfigProperties.EndpointConfig endpoint = new SftpConfigProperties.EndpointConfig();
+        endpoint.setName(name);
+        endpoint.setHost(name + ".sftp.local");
+        return endpoint;
+    }
+
+    private Answer<SftpSession> opensSession(SftpEndpointPool pool) {
+        return invocation -> {
+            SftpSession session = mock(SftpSession.class);
+            owners.put(session, pool);
+            return session;
+        };
+    }
+
+    private void assertNothingReserved() {
+        endpoints.values().forEach(pool -> assertThat(pool.getOutstanding()).isZero());
+    }
+
+    @Test
+    @DisplayName("Should route each session to the least loaded endpoint")
+    void shouldRouteToLeastLoadedEndpoint() throws Exception {
+        // When
+        factory.getSession();
+        factory.getSession();
+        factory.getSession();
+
+        // Then
+        assertThat(endpoints.get("a").getOutstanding()).isEqualTo(2);
+        assertThat(endpoints.get("b").getOutstanding()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should fail over to the next endpoint when one fails to connect")
+    void shouldFailOverOnConnectFailure() throws Exception {
+        // Given
+        SftpEndpointPool a = endpoints.get("a");
+        doThrow(new IllegalStateException("Connection refused")).when(a).borrow(anyLong());
+
+        // When
+        SftpSession session = factory.getSession();
+
+        // Then
+        assertThat(owners.get(session)).isSameAs(endpoints.get("b"));
+        assertThat(a.isHealthy()).isFalse();
+        assertThat(a.getOutstanding()).isZero();
+        assertThat(endpoints.get("b").getOutstanding()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should route to a failed endpoint again once its cooldown expired")
+    void shouldRouteAgainAfterCooldown() throws Exception {
+        // Given
+        SftpEndpointPool a = endpoints.get("a");
+        SftpEndpointPool b = endpoints.get("b");
+        doThrow(new IllegalStateException("Connection refused")).doAnswer(opensSession(a))
+                .when(a).borrow(anyLong());
+        factory.returnSession(factory.getSession());
+
+        // When
+        SftpSession duringCooldown = factory.getSession();
+        nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(1000));
+        SftpSession afterCooldown = factory.getSession();
+
+        // Then
+        assertThat(owners.get(duringCooldown)).isSameAs(b);
+        assertThat(owners.get(afterCooldown)).isSameAs(a);
+        assertThat(a.isHealthy()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should neither fail over nor mark the endpoint unhealthy on a pool wait timeout")
+    void shouldNotFailOverOnPoolTimeout() throws Exception {
+        // Given
+        SftpEndpointPool a = endpoints.get("a");
+        doThrow(new SftpPoolTimeoutException("Timeout waiting for idle object")).when(a).borrow(anyLong());
+
+        // When / Then
+        assertThatThrownBy(() -> factory.getSession()).isInstanceOf(SftpPoolTimeoutException.class);
+        assertThat(a.isHealthy()).isTrue();
+        verify(endpoints.get("b"), never()).borrow(anyLong());
+        assertNothingReserved();
+    }
+
+    @Test
+    @DisplayName("Should release every reservation and permit when all endpoints fail")
+    void shouldReleaseReservationsWhenAllEndpointsFail() throws Exception {
+        // Given
+        for (SftpEndpointPool pool : endpoints.values()) {
+            doThrow(new IllegalStateException("Connection refused")).doAnswer(opensSession(pool))
+                    .when(pool).borrow(anyLong());
+        }
+
+        // When
+        assertThatThrownBy(() -> factory.getSession()).isInstanceOf(IllegalStateException.class);
+
+        // Then: the full capacity of both endpoints can still be borrowed
+        assertNothingReserved();
+        for (int i = 0; i < 4; i++) {
+            factory.getSession();
+        }
+        assertThat(endpoints.get("a").getOutstanding()).isEqualTo(2);
+        assertThat(endpoints.get("b").getOutstanding()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should release a reservation once when a session is returned and then invalidated")
+    void shouldReleaseOnceOnDoubleRelease() throws Exception {
+        // Given
+        SftpSession session = factory.getSession();
+        SftpEndpointPool a = endpoints.get("a");
+
+        // When
+        factory.returnSession(session);
+        factory.invalidateSession(session);
+
+        // Then
+        verify(a, times(1)).giveBack(session);
+        verify(a, never()).discard(session);
+        assertNothingReserved();
+    }
+}
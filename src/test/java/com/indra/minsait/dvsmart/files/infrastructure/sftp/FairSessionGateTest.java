@@ -0,0 +1,160 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.files.infrastructure.sftp;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("FairSessionGate Tests")
+class FairSessionGateTest {
+
+    @Test
+    @DisplayName("Should serve an interactive client before the backlog of a batch client")
+    void shouldServeInteractiveClientBeforeBatchBacklog() throws Exception {
+        // Given
+        FairSessionGate gate = new FairSessionGate(1, client -> 1);
+        assertThat(gate.acquire("batch", -1)).isTrue();
+        List<String> granted = new CopyOnWriteArrayList<>();
+        List<Thread> waiters = List.of(
+                startWaiter(gate, "batch", granted),
+                startWaiter(gate, "batch", granted),
+                startWaiter(gate, "batch", granted));
+        awaitWaiting(gate, 3);
+        Thread interactive = startWaiter(gate, "interactive", granted);
+        awaitWaiting(gate, 4);
+
+        // When
+        releaseAndAwait(gate, granted, 4);
+
+        // Then
+        assertThat(granted).containsExactly("batch", "interactive", "batch", "batch");
+        assertThat(gate.getBackloggedClients()).isZero();
+        for (Thread waiter : waiters) {
+            waiter.join(1000);
+        }
+        interactive.join(1000);
+    }
+
+    @Test
+    @DisplayName("Should grant sessions in proportion to client weights")
+    void shouldGrantSessionsInProportionToWeights() throws Exception {
+        // Given
+        Map<String, Integer> weights = Map.of("gold", 3, "bronze", 1);
+        FairSessionGate gate = new FairSessionGate(1, weights::get);
+        assertThat(gate.acquire("gold", -1)).isTrue();
+        List<String> granted = new CopyOnWriteArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            startWaiter(gate, "bronze", granted);
+            awaitWaiting(gate, 2 * i + 1);
+            startWaiter(gate, "gold", granted);
+            awaitWaiting(gate, 2 * i + 2);
+        }
+
+        // When
+        releaseAndAwait(gate, granted, 4);
+
+        // Then
+        assertThat(granted).containsExactly("bronze", "gold", "gold", "gold");
+    }
+
+    @Test
+    @DisplayName("Should time out and leave the queue when no session is released")
+    void shouldTimeOutAndLeaveQueue() throws Exception {
+        // Given
+        FairSessionGate gate = new FairSessionGate(1, client -> 1);
+        assertThat(gate.acquire(null, -1)).isTrue();
+
+        // When
+        boolean acquired = gate.acquire("late", 50);
+
+        // Then
+        assertThat(acquired).isFalse();
+        assertThat(gate.getWaiting()).isZero();
+        assertThat(gate.getBackloggedClients()).isZero();
+        gate.release();
+        assertThat(gate.acquire("late", 0)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should grant waiters on growth and absorb releases on shrink")
+    void shouldResizePermits() throws Exception {
+        // Given
+        FairSessionGate gate = new FairSessionGate(2, client -> 1);
+        assertThat(gate.acquire(null, 0)).isTrue();
+        assertThat(gate.acquire(null, 0)).isTrue();
+        List<String> granted = new CopyOnWriteArrayList<>();
+        Thread waiter = startWaiter(gate, "waiting", granted);
+        awaitWaiting(gate, 1);
+
+        // When
+        gate.resize(3);
+        waiter.join(1000);
+
+        // Then
+        assertThat(granted).containsExactly("waiting");
+        assertThat(gate.getPermits()).isEqualTo(3);
+
+        // When: shrink below the permits in use
+        gate.resize(1);
+        gate.release();
+        gate.release();
+
+        // Then: the deficit is paid back first, one permit is left
+        assertThat(gate.acquire(null, 0)).isFalse();
+        gate.release();
+        assertThat(gate.acquire(null, 0)).isTrue();
+        assertThat(gate.acquire(null, 0)).isFalse();
+    }
+
+    private static Thread startWaiter(FairSessionGate gate, String client, List<String> granted) {
+        return Thread.ofVirtual().start(() -> {
+            try {
+                if (gate.acquire(client, -1)) {
+                    granted.add(client);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+    }
+
+    private static void awaitWaiting(FairSessionGate gate, int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (gate.getWaiting() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertThat(gate.getWaiting()).isEqualTo(expected);
+    }
+
+    /**
+     * Releases one permit at a time so each grant is recorded before the next one.
+     */
+    private static void releaseAndAwait(FairSessionGate gate, List<String> granted, int grants)
+            throws InterruptedException {
+        for (int i = 1; i <= grants; i++) {
+            gate.release();
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (granted.size() < i && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+        }
+    }
+}
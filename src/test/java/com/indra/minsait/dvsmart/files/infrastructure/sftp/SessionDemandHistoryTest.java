@@ -0,0 +1,60 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.files.infrastructure.sftp;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("SessionDemandHistory Tests")
+class SessionDemandHistoryTest {
+
+    @Test
+    @DisplayName("Should learn the peak of a slot once the slot is over")
+    void shouldLearnPeakOfSlot() {
+        // Given
+        SessionDemandHistory history = new SessionDemandHistory(30, 0.5);
+
+        // When
+        history.record(LocalDateTime.of(2026, 10, 1, 9, 0), 10);
+        history.record(LocalDateTime.of(2026, 10, 1, 9, 20), 14);
+        int beforeSlotEnds = history.expected(LocalTime.of(9, 10));
+        history.record(LocalDateTime.of(2026, 10, 1, 9, 31), 1);
+
+        // Then
+        assertThat(beforeSlotEnds).isZero();
+        assertThat(history.expected(LocalTime.of(9, 10))).isEqualTo(14);
+        assertThat(history.expected(LocalTime.of(3, 0))).isZero();
+    }
+
+    @Test
+    @DisplayName("Should blend the peak of a new day into the learned demand")
+    void shouldBlendNewDayIntoLearnedDemand() {
+        // Given
+        SessionDemandHistory history = new SessionDemandHistory(30, 0.5);
+        history.record(LocalDateTime.of(2026, 10, 1, 9, 0), 14);
+        history.record(LocalDateTime.of(2026, 10, 1, 9, 30), 0);
+
+        // When
+        history.record(LocalDateTime.of(2026, 10, 2, 9, 5), 6);
+        history.record(LocalDateTime.of(2026, 10, 2, 9, 40), 0);
+
+        // Then
+        assertThat(history.expected(LocalTime.of(9, 0))).isEqualTo(10);
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.files.infrastructure.sftp;
+
+import com.indra.minsait.dvsmart.files.infrastructure.config.SftpConfigProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("SftpEndpointPool Tests")
+class SftpEndpointPoolTest {
+
+    private AtomicLong nanos;
+    private SftpEndpointPool pool;
+
+    @BeforeEach
+    void setUp() {
+        nanos = new AtomicLong();
+        SftpConfigProperties config = new SftpConfigProperties();
+        config.setFailoverCooldownMillis(1000);
+        config.getPool().setMaxSize(2);
+
+        SftpConfigProperties.EndpointConfig endpoint = new SftpConfigProperties.EndpointConfig();
+        endpoint.setName("primary");
+        endpoint.setHost("sftp.local");
+        endpoint.setWeight(2);
+
+        pool = new SftpEndpointPool(config, endpoint, new ConcurrentHashMap<>(),
+                new SftpPoolMetrics(new SimpleMeterRegistry(), SftpTransferReader.LIBRARY).endpoint("primary"),
+                nanos::get);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.close();
+    }
+
+    @Test
+    @DisplayName("Should bound reservations by the endpoint capacity")
+    void shouldBoundReservationsByCapacity() {
+        // When
+        boolean first = pool.tryReserve();
+        boolean second = pool.tryReserve();
+        boolean third = pool.tryReserve();
+        pool.unreserve();
+
+        // Then
+        assertThat(first).isTrue();
+        assertThat(second).isTrue();
+        assertThat(third).isFalse();
+        assertThat(pool.getOutstanding()).isEqualTo(1);
+        assertThat(pool.getLoad()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should stay out of rotation until the failover cooldown expires")
+    void shouldStayUnhealthyUntilCooldownExpires() {
+        // Given
+        pool.markUnhealthy();
+
+        // When
+        boolean duringCooldown = pool.isHealthy();
+        nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(999));
+        boolean justBefore = pool.isHealthy();
+        nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(1));
+        boolean afterCooldown = pool.isHealthy();
+
+        // Then
+        assertThat(duringCooldown).isFalse();
+        assertThat(justBefore).isFalse();
+        assertThat(afterCooldown).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should report only pool wait timeouts as pool timeouts")
+    void shouldClassifyOnlyWaitTimeoutsAsPoolTimeouts() {
+        // When
+        NoSuchElementException timeout = SftpPoolTimeoutException.fromPool(
+                new NoSuchElementException("Timeout waiting for idle object, borrowMaxWaitDuration=PT0.1S"));
+        NoSuchElementException validation = SftpPoolTimeoutException.fromPool(
+                new NoSuchElementException("Unable to validate object"));
+
+        // Then
+        assertThat(timeout).isInstanceOf(SftpPoolTimeoutException.class);
+        assertThat(validation).isNotInstanceOf(SftpPoolTimeoutException.class);
+    }
+}
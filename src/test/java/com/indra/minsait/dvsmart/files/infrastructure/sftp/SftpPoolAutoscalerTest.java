@@ -0,0 +1,99 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.files.infrastructure.sftp;
+
+import com.indra.minsait.dvsmart.files.infrastructure.config.SftpConfigProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("SftpPoolAutoscaler Tests")
+class SftpPoolAutoscalerTest {
+
+    private SftpConfigProperties.AutoscaleConfig config;
+
+    @BeforeEach
+    void setUp() {
+        config = new SftpConfigProperties.AutoscaleConfig();
+        config.setMinSize(5);
+        config.setMaxSize(40);
+        config.setTargetBorrowWaitMillis(50);
+        config.setScaleUpUtilization(0.8);
+        config.setScaleDownUtilization(0.3);
+        config.setScaleDownIntervals(3);
+        config.setMinIdleRatio(0.5);
+    }
+
+    @Test
+    @DisplayName("Should grow when callers queue or wait too long, up to the upper bound")
+    void shouldGrowUnderPressure() {
+        // Given
+        SftpPoolAutoscaler autoscaler = new SftpPoolAutoscaler(config, 0);
+        SftpPoolAutoscaler.LoadSample queued = new SftpPoolAutoscaler.LoadSample(100, 0, 20, 20, 3);
+        SftpPoolAutoscaler.LoadSample slow = new SftpPoolAutoscaler.LoadSample(
+                10, TimeUnit.MILLISECONDS.toNanos(2000), 10, 20, 0);
+
+        // When
+        SftpPoolAutoscaler.Decision grown = autoscaler.decide(20, queued);
+        SftpPoolAutoscaler.Decision capped = autoscaler.decide(30, slow);
+
+        // Then
+        assertThat(grown.maxSize()).isEqualTo(30);
+        assertThat(grown.minIdle()).isEqualTo(10);
+        assertThat(capped.maxSize()).isEqualTo(40);
+    }
+
+    @Test
+    @DisplayName("Should shrink only after consecutive quiet intervals, down to the lower bound")
+    void shouldShrinkAfterQuietIntervals() {
+        // Given
+        SftpPoolAutoscaler autoscaler = new SftpPoolAutoscaler(config, 1);
+        SftpPoolAutoscaler.LoadSample quiet = new SftpPoolAutoscaler.LoadSample(5, 0, 2, 20, 0);
+
+        // When / Then
+        assertThat(autoscaler.decide(20, quiet).maxSize()).isEqualTo(20);
+        assertThat(autoscaler.decide(20, quiet).maxSize()).isEqualTo(20);
+        SftpPoolAutoscaler.Decision shrunk = autoscaler.decide(20, quiet);
+        assertThat(shrunk.maxSize()).isEqualTo(15);
+        assertThat(shrunk.minIdle()).isEqualTo(1);
+
+        for (int i = 0; i < 30; i++) {
+            autoscaler.decide(5, quiet);
+        }
+        assertThat(autoscaler.decide(5, quiet).maxSize()).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("Should restart the quiet count when load comes back")
+    void shouldRestartQuietCountOnLoad() {
+        // Given
+        SftpPoolAutoscaler autoscaler = new SftpPoolAutoscaler(config, 0);
+        SftpPoolAutoscaler.LoadSample quiet = new SftpPoolAutoscaler.LoadSample(5, 0, 2, 20, 0);
+        SftpPoolAutoscaler.LoadSample steady = new SftpPoolAutoscaler.LoadSample(50, 0, 10, 20, 0);
+
+        // When
+        autoscaler.decide(20, quiet);
+        autoscaler.decide(20, quiet);
+        SftpPoolAutoscaler.Decision steadyDecision = autoscaler.decide(20, steady);
+        SftpPoolAutoscaler.Decision afterSteady = autoscaler.decide(20, quiet);
+
+        // Then
+        assertThat(steadyDecision.maxSize()).isEqualTo(20);
+        assertThat(afterSteady.maxSize()).isEqualTo(20);
+    }
+}
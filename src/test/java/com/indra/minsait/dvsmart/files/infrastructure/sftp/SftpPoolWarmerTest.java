@@ -0,0 +1,102 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.files.infrastructure.sftp;
+
+import com.indra.minsait.dvsmart.files.infrastructure.config.SftpConfigProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("SftpPoolWarmer Tests")
+class SftpPoolWarmerTest {
+
+    @Mock
+    private CustomLazySftpSessionFactory sessionFactory;
+
+    private SftpConfigProperties config;
+
+    @BeforeEach
+    void setUp() {
+        config = new SftpConfigProperties();
+        config.setHost("sftp.local");
+        config.setUser("files");
+        SftpConfigProperties.WarmupConfig warmup = config.getPool().getWarmup();
+        warmup.setLeadTimeMillis(15 * 60 * 1000);
+        warmup.getSchedule().add(window("08:00", "10:00", 6));
+        warmup.getSchedule().add(window("23:00", "01:00", 3));
+    }
+
+    @Test
+    @DisplayName("Should keep the idle level of a window from the lead time before it starts")
+    void shouldApplyWindowAheadOfItsStart() {
+        assertThat(warmerAt(7, 30).targetMinIdle()).isZero();
+        assertThat(warmerAt(7, 50).targetMinIdle()).isEqualTo(6);
+        assertThat(warmerAt(9, 59).targetMinIdle()).isEqualTo(6);
+        assertThat(warmerAt(10, 0).targetMinIdle()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should handle windows crossing midnight")
+    void shouldHandleWindowsCrossingMidnight() {
+        assertThat(warmerAt(0, 30).targetMinIdle()).isEqualTo(3);
+        assertThat(warmerAt(1, 0).targetMinIdle()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should open the startup sessions before the application is ready")
+    void shouldOpenStartupSessions() throws Exception {
+        // Given
+        config.getPool().getWarmup().setStartupSessions(4);
+        config.getPool().getWarmup().setCheckIntervalMillis(3_600_000);
+        SftpPoolWarmer warmer = warmerAt(12, 0);
+        when(sessionFactory.prewarm(anyInt(), anyInt(), anyLong())).thenReturn(4);
+
+        // When
+        warmer.run(null);
+        warmer.close();
+
+        // Then
+        verify(sessionFactory).prewarm(eq(4), eq(config.getPool().getWarmup().getParallelism()),
+                eq(config.getPool().getWarmup().getStartupTimeoutMillis()));
+    }
+
+    private SftpPoolWarmer warmerAt(int hour, int minute) {
+        Clock clock = Clock.fixed(LocalDateTime.of(2026, 10, 18, hour, minute).toInstant(ZoneOffset.UTC),
+                ZoneOffset.UTC);
+        return new SftpPoolWarmer(sessionFactory, config, clock);
+    }
+
+    private static SftpConfigProperties.WarmupWindow window(String from, String to, int minIdle) {
+        SftpConfigProperties.WarmupWindow window = new SftpConfigProperties.WarmupWindow();
+        window.setFrom(from);
+        window.setTo(to);
+        window.setMinIdle(minIdle);
+        return window;
+    }
+}
@@ -0,0 +1,235 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.files.infrastructure.sftp;
+
+import com.indra.minsait.dvsmart.files.infrastructure.config.FilesConfigProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.sshd.sftp.client.SftpClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.integration.sftp.session.SftpSession;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("SftpTransferReader Tests")
+class SftpTransferReaderTest {
+
+    private static final String PATH = "/organized_data/a1/b2/c3/factura_001.pdf";
+    private static final int REQUEST_SIZE = 1024;
+
+    @Mock
+    private SftpSession session;
+
+    @Mock
+    private SftpClient client;
+
+    @Mock
+    private SftpClient.CloseableHandle handle;
+
+    private ExecutorService executor;
+    private SftpTransferReader reader;
+    private final AtomicInteger activeReads = new AtomicInteger();
+    private final AtomicInteger readsAfterClose = new AtomicInteger();
+    private volatile boolean handleClosed;
+    private volatile int activeReadsAtClose = -1;
+
+    @BeforeEach
+    void setUp() {
+        // Fewer threads than the window, so some reads are still queued when a transfer fails
+        executor = Executors.newFixedThreadPool(2);
+        FilesConfigProperties filesConfig = new FilesConfigProperties();
+        FilesConfigProperties.ReadAheadConfig readAhead = filesConfig.getDownload().getReadAhead();
+        readAhead.setEnabled(true);
+        readAhead.setWindowSize(4);
+        readAhead.setRequestSize(REQUEST_SIZE);
+        reader = new SftpTransferReader(filesConfig, executor, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Should write chunks in request order when reads complete out of order")
+    void shouldWriteChunksInRequestOrder() throws Exception {
+        // Given
+        byte[] content = content(8 * REQUEST_SIZE);
+        givenServer((offset, dst, dstOffset, len) -> {
+            // Later requests of the window answer first
+            Thread.sleep(Math.max(0, 8 - offset / REQUEST_SIZE) * 10);
+            return copy(content, offset, dst, dstOffset, len);
+        });
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // When
+        long bytes = reader.transfer(session, PATH, 0, SftpTransferReader.UNTIL_EOF, output);
+
+        // Then
+        assertThat(bytes).isEqualTo(content.length);
+        assertThat(output.toByteArray()).isEqualTo(content);
+        assertThat(handleClosed).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should re-request short answers and stop at end of file")
+    void shouldStopAtEndOfFile() throws Exception {
+        // Given
+        byte[] content = content(2 * REQUEST_SIZE + 500);
+        givenServer((offset, dst, dstOffset, len) -> copy(content, offset, dst, dstOffset, Math.min(len, 300)));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // When
+        long bytes = reader.transfer(session, PATH, 0, SftpTransferReader.UNTIL_EOF, output);
+
+        // Then
+        assertThat(bytes).isEqualTo(content.length);
+        assertThat(output.toByteArray()).isEqualTo(content);
+        assertThat(activeReadsAtClose).isZero();
+    }
+
+    @Test
+    @DisplayName("Should fail when the requested range ends past end of file")
+    void shouldFailWhenRangeEndsPastEndOfFile() throws Exception {
+        // Given
+        byte[] content = content(3 * REQUEST_SIZE);
+        givenServer((offset, dst, dstOffset, len) -> copy(content, offset, dst, dstOffset, len));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // When / Then
+        assertThatThrownBy(() -> reader.transfer(session, PATH, 2 * REQUEST_SIZE, 2 * REQUEST_SIZE, output))
+                .isInstanceOf(EOFException.class);
+        assertThat(output.toByteArray()).isEqualTo(Arrays.copyOfRange(content, 2 * REQUEST_SIZE, content.length));
+    }
+
+    @Test
+    @DisplayName("Should wait for in-flight reads before closing the handle when a read fails")
+    void shouldWaitForInFlightReadsOnReadError() throws Exception {
+        // Given
+        byte[] content = content(8 * REQUEST_SIZE);
+        givenServer((offset, dst, dstOffset, len) -> {
+            if (offset == 0) {
+                // Fails while the next read is still waiting for its answer
+                Thread.sleep(50);
+                throw new IOException("Connection reset");
+            }
+            Thread.sleep(200);
+            return copy(content, offset, dst, dstOffset, len);
+        });
+
+        // When / Then
+        assertThatThrownBy(() -> reader.transfer(session, PATH, 0, SftpTransferReader.UNTIL_EOF,
+                new ByteArrayOutputStream()))
+                .isInstanceOf(IOException.class)
+                .hasMessage("Connection reset");
+        assertThat(activeReadsAtClose).isZero();
+        assertThat(readsAfterClose).hasValue(0);
+    }
+
+    @Test
+    @DisplayName("Should wait for in-flight reads before closing the handle when the client goes away")
+    void shouldWaitForInFlightReadsOnOutputFailure() throws Exception {
+        // Given
+        byte[] content = content(8 * REQUEST_SIZE);
+        givenServer((offset, dst, dstOffset, len) -> {
+            if (offset > 0) {
+                Thread.sleep(200);
+            }
+            return copy(content, offset, dst, dstOffset, len);
+        });
+        OutputStream brokenOutput = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        };
+
+        // When / Then
+        assertThatThrownBy(() -> reader.transfer(session, PATH, 0, SftpTransferReader.UNTIL_EOF, brokenOutput))
+                .isInstanceOf(IOException.class)
+                .hasMessage("Broken pipe");
+        assertThat(activeReadsAtClose).isZero();
+        assertThat(readsAfterClose).hasValue(0);
+    }
+
+    private void givenServer(ServerRead serverRead) throws IOException {
+        when(session.getClientInstance()).thenReturn(client);
+        when(client.open(PATH, SftpClient.OpenMode.Read)).thenReturn(handle);
+        doAnswer(invocation -> {
+            activeReadsAtClose = activeReads.get();
+            handleClosed = true;
+            return null;
+        }).when(handle).close();
+        when(client.read(eq(handle), anyLong(), any(byte[].class), anyInt(), anyInt())).thenAnswer(invocation -> {
+            if (handleClosed) {
+                readsAfterClose.incrementAndGet();
+            }
+            activeReads.incrementAndGet();
+            try {
+                return serverRead.read(invocation.getArgument(1), invocation.getArgument(2),
+                        invocation.getArgument(3), invocation.getArgument(4));
+            } finally {
+                activeReads.decrementAndGet();
+            }
+        });
+    }
+
+    private static byte[] content(int size) {
+        byte[] content = new byte[size];
+        new Random(42).nextBytes(content);
+        return content;
+    }
+
+    private static int copy(byte[] content, long offset, byte[] dst, int dstOffset, int len) {
+        if (offset >= content.length) {
+            return -1;
+        }
+        int bytes = (int) Math.min(len, content.length - offset);
+        System.arraycopy(content, (int) offset, dst, dstOffset, bytes);
+        return bytes;
+    }
+
+    @FunctionalInterface
+    private interface ServerRead {
+        int read(long offset, byte[] dst, int dstOffset, int len) throws Exception;
+    }
+}
@@ -0,0 +1,209 @@
+/*
+ * /////////////////////////////////////////////////////////////////////////////
+ *
+ * Copyright (c) 2026 Indra Sistemas, S.A. All Rights Reserved.
+ * http://www.indracompany.com/
+ *
+ * The contents of this file are owned by Indra Sistemas, S.A. copyright holder.
+ * This file can only be copied, distributed and used all or in part with the
+ * written permission of Indra Sistemas, S.A, or in accordance with the terms and
+ * conditions laid down in the agreement / contract under which supplied.
+ *
+ * /////////////////////////////////////////////////////////////////////////////
+ */
+package com.indra.minsait.dvsmart.files.infrastructure.spool;
+
+import com.indra.minsait.dvsmart.files.domain.port.out.FileContentPort;
+import com.indra.minsait.dvsmart.files.infrastructure.config.FilesConfigProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("SpoolingFileContentAdapter Tests")
+class SpoolingFileContentAdapterTest {
+
+    private static final String PATH = "/organized_data/a1/b2/c3/factura_001.pdf";
+
+    @Mock
+    private FileContentPort delegate;
+
+    @TempDir
+    Path spoolDirectory;
+
+    private ExecutorService executor;
+    private FilesConfigProperties.SpoolConfig config;
+    private SpoolingFileContentAdapter adapter;
+
+    @BeforeEach
+    void setUp() {
+        config = new FilesConfigProperties.SpoolConfig();
+        config.setMemoryBufferKb(1);
+        config.setMaxSpillMb(1);
+        config.setDirectory(spoolDirectory.toString());
+        executor = Executors.newCachedThreadPool();
+        adapter = new SpoolingFileContentAdapter(delegate, config, 512, executor, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Should finish the SFTP read before a slow client has received the content")
+    void shouldReleaseSftpReadBeforeSlowClient() throws Exception {
+        // Given
+        byte[] content = new byte[64 * 1024];
+        new Random(7).nextBytes(content);
+        CountDownLatch readFinished = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(1);
+            for (int offset = 0; offset < content.length; offset += 4096) {
+                out.write(content, offset, 4096);
+            }
+            readFinished.countDown();
+            return null;
+        }).when(delegate).streamFileTo(anyString(), any(OutputStream.class));
+        CountDownLatch clientResumed = new CountDownLatch(1);
+        ByteArrayOutputStream received = new ByteArrayOutputStream();
+        OutputStream slowClient = new OutputStream() {
+            @Override
+            public void write(int b) {
+                received.write(b);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                try {
+                    clientResumed.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+                received.write(b, off, len);
+            }
+        };
+
+        // When
+        CompletableFuture<Void> download = CompletableFuture.runAsync(() -> adapter.streamFileTo(PATH, slowClient));
+        boolean releasedEarly = readFinished.await(5, TimeUnit.SECONDS);
+        clientResumed.countDown();
+        download.get(5, TimeUnit.SECONDS);
+
+        // Then
+        assertThat(releasedEarly).isTrue();
+        assertThat(received.toByteArray()).isEqualTo(content);
+        try (var spillFiles = Files.list(spoolDirectory)) {
+            assertThat(spillFiles).isEmpty();
+        }
+    }
+
+    @Test
+    @DisplayName("Should propagate a failure of the SFTP read to the client")
+    void shouldPropagateReadFailure() {
+        // Given
+        doThrow(new IllegalStateException("SFTP down"))
+                .when(delegate).streamFileTo(anyString(), any(OutputStream.class));
+
+        // When / Then
+        assertThatThrownBy(() -> adapter.streamFileTo(PATH, new ByteArrayOutputStream()))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("SFTP down");
+    }
+
+    @Test
+    @DisplayName("Should stop the SFTP read when the client disconnects")
+    void shouldStopReadWhenClientDisconnects() throws Exception {
+        // Given
+        AtomicReference<IOException> readFailure = new AtomicReference<>();
+        CountDownLatch readStopped = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(1);
+            try {
+                while (true) {
+                    out.write(new byte[4096]);
+                }
+            } catch (IOException e) {
+                readFailure.set(e);
+                readStopped.countDown();
+            }
+            return null;
+        }).when(delegate).streamFileTo(anyString(), any(OutputStream.class));
+        OutputStream brokenClient = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        };
+
+        // When / Then
+        assertThatThrownBy(() -> adapter.streamFileTo(PATH, brokenClient))
+                .isInstanceOf(UncheckedIOException.class);
+        assertThat(readStopped.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(readFailure.get()).hasMessageContaining("client is gone");
+    }
+
+    @Test
+    @DisplayName("Should stream directly when the shared spill budget is used up")
+    void shouldStreamDirectlyWhenSpillBudgetIsUsedUp() {
+        // Given
+        config.setMaxTotalSpillMb(0);
+        SpoolingFileContentAdapter exhausted = new SpoolingFileContentAdapter(
+                delegate, config, 512, executor, new SimpleMeterRegistry());
+        ByteArrayOutputStream client = new ByteArrayOutputStream();
+
+        // When
+        exhausted.streamFileTo(PATH, client);
+
+        // Then
+        verify(delegate).streamFileTo(PATH, client);
+    }
+
+    @Test
+    @DisplayName("Should give up when the SFTP read stops sending data")
+    void shouldTimeOutStalledRead() {
+        // Given
+        config.setReadTimeoutMillis(100);
+        SpoolingFileContentAdapter impatient = new SpoolingFileContentAdapter(
+                delegate, config, 512, executor, new SimpleMeterRegistry());
+        CountDownLatch stalled = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            stalled.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(delegate).streamFileTo(anyString(), any(OutputStream.class));
+
+        // When / Then
+        assertThatThrownBy(() -> impatient.streamFileTo(PATH, new ByteArrayOutputStream()))
+                .isInstanceOf(UncheckedIOException.class)
+                .hasRootCauseMessage("No data from SFTP for 100 ms");
+        stalled.countDown();
+    }
+}